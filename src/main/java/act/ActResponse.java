@@ -104,6 +104,18 @@ public abstract class ActResponse<T extends ActResponse> extends H.Response<T> {
         this.closed = true;
     }
 
+    /**
+     * Register a callback to be invoked when the client disconnects
+     * before this response is committed.
+     *
+     * The default implementation does nothing. Network implementations
+     * shall override this method if they can detect client disconnect.
+     *
+     * @param callback the callback to be invoked on client disconnect
+     */
+    public void onClientDisconnect(Runnable callback) {
+    }
+
     protected void beforeWritingContent() {
         if (ready) {
             return;
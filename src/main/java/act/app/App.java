@@ -524,6 +524,7 @@ public class App extends DestroyableBase {
         shutdownCliServer();
         shutdownEventBus();
         shutdownJobManager();
+        CachedClock.stop();
         clearServiceResourceManager();
         classLoader = null;
     }
@@ -645,6 +646,7 @@ public class App extends DestroyableBase {
                 // - Thread.currentThread().setContextClassLoader(classLoader());
 
                 initHttpConfig();
+                CachedClock.resolution(config().clockResolution());
                 initViewManager();
 
                 // let's any emit the dependency injector loaded event
@@ -1032,6 +1034,10 @@ public class App extends DestroyableBase {
     }
 
     private void initIdGenerator() {
+        if (config().snowflakeEnabled()) {
+            idGenerator = new IdGenerator(config().snowflakeIdGenerator(), config().longEncoder());
+            return;
+        }
         idGenerator = new IdGenerator(
                 config().nodeIdProvider(),
                 config().startIdProvider(),
@@ -24,6 +24,7 @@ import act.Act;
 import act.Destroyable;
 import act.app.event.AppEventId;
 import act.cli.CliSession;
+import act.conf.AppConfig;
 import org.osgl.exception.ConfigurationException;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
@@ -37,8 +38,10 @@ import java.net.Socket;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -54,7 +57,8 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
     private ConcurrentMap<String, CliSession> sessions = new ConcurrentHashMap<String, CliSession>();
     private int port;
     private ServerSocket serverSocket;
-    private Thread monitorThread;
+    private NioCliTransport nioTransport;
+    private List<ScheduledFuture<?>> timers = C.newList();
 
     @Inject
     CliServer(App app) {
@@ -76,6 +80,10 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
         sessions.remove(session.id());
     }
 
+    void add(CliSession session) {
+        sessions.put(session.id(), session);
+    }
+
     @Override
     public void run() {
         while (running()) {
@@ -106,9 +114,14 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
             return;
         }
         running.set(false);
-        if (null != monitorThread) {
-            monitorThread.interrupt();
-            monitorThread = null;
+        for (ScheduledFuture<?> timer : timers) {
+            timer.cancel(true);
+        }
+        timers.clear();
+        if (null != nioTransport) {
+            nioTransport.stop();
+            nioTransport = null;
+            return;
         }
         try {
             serverSocket.close();
@@ -124,36 +137,43 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
             return;
         }
         try {
-            serverSocket = new ServerSocket(port);
-            running.set(true);
-            // start server thread
-            executor.submit(this);
-            // start expiration monitor thread
-            executor.submit(new Runnable() {
+            AppConfig config = app().config();
+            if (config.cliNioEnabled()) {
+                NioCliTransport transport = new NioCliTransport(this, config.cliNioExecutorSize(), config.maxCliNioSession());
+                transport.start(port);
+                nioTransport = transport;
+                running.set(true);
+                // start selector thread
+                executor.submit(transport);
+            } else {
+                serverSocket = new ServerSocket(port);
+                running.set(true);
+                // start server thread
+                executor.submit(this);
+            }
+            final int expiration = config.cliSessionExpiration();
+            int period = Math.max(1, Math.min(expiration, 60));
+            timers.add(executor.scheduleWithFixedDelay(new Runnable() {
                 @Override
                 public void run() {
-                    monitorThread = Thread.currentThread();
-                    int expiration = app().config().cliSessionExpiration();
-                    while (running()) {
-                        List<CliSession> toBeRemoved = C.newList();
-                        for (CliSession session : sessions.values()) {
-                            if (session.expired(expiration)) {
-                                toBeRemoved.add(session);
-                            }
-                        }
-                        for (CliSession session: toBeRemoved) {
-                            session.stop("Your session has expired");
-                            sessions.remove(session.id());
+                    List<CliSession> toBeRemoved = C.newList();
+                    for (CliSession session : sessions.values()) {
+                        if (session.expired(expiration)) {
+                            toBeRemoved.add(session);
                         }
-                        try {
-                            Thread.sleep(60 * 1000);
-                        } catch (InterruptedException e) {
-                            return;
-                        }
-                        app().checkUpdates(false);
+                    }
+                    for (CliSession session: toBeRemoved) {
+                        session.stop("Your session has expired");
+                        sessions.remove(session.id());
                     }
                 }
-            });
+            }, period, period, TimeUnit.SECONDS));
+            timers.add(executor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    app().checkUpdates(false);
+                }
+            }, 60, 60, TimeUnit.SECONDS));
             app().jobManager().on(AppEventId.ACT_START, new Runnable() {
                 @Override
                 public void run() {
@@ -170,8 +190,10 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
     }
 
     private void initExecutor(App app) {
-        // cli session thread + server thread + expiration monitor thread
-        int poolSize = app.config().maxCliSession() + 2;
+        AppConfig config = app.config();
+        // selector thread + timer thread when nio is enabled, otherwise
+        // cli session threads + server thread + timer thread
+        int poolSize = config.cliNioEnabled() ? 2 : config.maxCliSession() + 2;
         executor = new ScheduledThreadPoolExecutor(poolSize, new AppThreadFactory("cli", true), new ThreadPoolExecutor.AbortPolicy());
     }
 
@@ -25,6 +25,7 @@ import act.Destroyable;
 import act.app.event.AppEventId;
 import act.conf.AppConfig;
 import act.db.*;
+import act.db.util.HiLoSequenceNumberGenerator;
 import act.db.util.SequenceNumberGenerator;
 import act.db.util._SequenceNumberGenerator;
 import act.event.ActEventListenerBase;
@@ -33,17 +34,22 @@ import act.event.EventBus;
 import act.util.ClassNode;
 import act.util.General;
 import org.osgl.$;
+import org.osgl.cache.CacheService;
 import org.osgl.exception.ConfigurationException;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
 import org.osgl.util.C;
 import org.osgl.util.E;
 import org.osgl.util.S;
+import org.rythmengine.utils.Time;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 @ApplicationScoped
 public class DbServiceManager extends AppServiceBase<DbServiceManager> implements DaoLocator {
@@ -58,6 +64,9 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
     // map model class to dao class
     private Map<Class<?>, Dao> modelDaoMap = new HashMap<>();
 
+    // map model class to caching dao, for models annotated with `@CacheEntity`
+    private ConcurrentMap<Class<?>, CachingDao> cachingDaoMap = new ConcurrentHashMap<>();
+
     private Dictionary<DbService, DbService> asyncInitializers = new Hashtable<>();
 
     private String firstInstance = DEFAULT;
@@ -109,6 +118,12 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
         };
 
         final EventBus eventBus = app.eventBus();
+        eventBus.bind(DeleteEvent.class, new ActEventListenerBase<DeleteEvent>() {
+            @Override
+            public void on(DeleteEvent event) throws Exception {
+                invalidateCachedEntity(event.source());
+            }
+        });
         if (asyncInitializers.isEmpty()) {
             eventBus.bind(AppEventId.SINGLETON_PROVISIONED, new AppEventListenerBase() {
                 @Override
@@ -139,8 +154,22 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
         app.jobManager().on(AppEventId.DEPENDENCY_INJECTOR_PROVISIONED, new Runnable() {
             @Override
             public void run() {
-                _SequenceNumberGenerator seqGen = app.config().sequenceNumberGenerator();
+                AppConfig config = app.config();
+                _SequenceNumberGenerator seqGen = config.sequenceNumberGenerator();
                 //seqGen.configure(app.config(), DbServiceManager.this);
+                if (seqGen instanceof _SequenceNumberGenerator.Configurable) {
+                    seqGen.configure(config, DbServiceManager.this);
+                }
+                int blockSize = config.sequenceNumberBlockSize();
+                if (blockSize > 1 && !(seqGen instanceof HiLoSequenceNumberGenerator)
+                        && !(seqGen instanceof _SequenceNumberGenerator.SnowflakeSequenceNumberGenerator)) {
+                    seqGen = new HiLoSequenceNumberGenerator(seqGen, blockSize, new Executor() {
+                        @Override
+                        public void execute(Runnable command) {
+                            app.jobManager().now(command);
+                        }
+                    });
+                }
                 SequenceNumberGenerator.registerImpl(seqGen);
             }
         });
@@ -162,6 +191,8 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
         serviceMap.clear();
         Destroyable.Util.tryDestroyAll(C.newSet(modelDaoMap.values()), ApplicationScoped.class);
         modelDaoMap.clear();
+        Destroyable.Util.tryDestroyAll(C.newSet(cachingDaoMap.values()), ApplicationScoped.class);
+        cachingDaoMap.clear();
         firstInstance = DEFAULT;
     }
 
@@ -177,6 +208,77 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
         return dao;
     }
 
+    /**
+     * Returns a {@link CachingDao} of the model class if the model class is
+     * annotated with {@link CacheEntity}, otherwise returns the {@link #dao(Class) dao}
+     * of the model class
+     *
+     * @param modelClass the model class
+     * @return the DAO of the model class
+     */
+    public Dao cachingDao(Class<?> modelClass) {
+        CachingDao cachingDao = cachingDaoMap.get(modelClass);
+        if (null != cachingDao) {
+            return cachingDao;
+        }
+        Dao dao = dao(modelClass);
+        CacheEntity cacheEntity = modelClass.getAnnotation(CacheEntity.class);
+        if (null == cacheEntity || null == dao) {
+            return dao;
+        }
+        // the entity cache registers a gauge by name, thus we shall never
+        // create an extra cache for the same model class and destroy it
+        synchronized (cachingDaoMap) {
+            cachingDao = cachingDaoMap.get(modelClass);
+            if (null == cachingDao) {
+                CacheService secondTier = S.blank(cacheEntity.secondTier()) ? null : app().cache(cacheEntity.secondTier());
+                String ttl = cacheEntity.ttl();
+                EntityCache cache = new EntityCache(modelClass.getName(), modelClass, cacheEntity.maxSize(),
+                        S.blank(ttl) ? 60 * 60 : Time.parseDuration(ttl), secondTier);
+                cachingDao = new CachingDao(dao, cache);
+                cachingDaoMap.put(modelClass, cachingDao);
+            }
+            return cachingDao;
+        }
+    }
+
+    /**
+     * Remove an entity from the entity cache of its model class if the model
+     * class is annotated with {@link CacheEntity}.
+     *
+     * DAO implementations that write entities without going through
+     * {@link #cachingDao(Class)} shall call this method after updating or
+     * deleting an entity.
+     *
+     * @param entity the entity
+     */
+    public void invalidateCachedEntity(Object entity) {
+        if (null == entity) {
+            return;
+        }
+        CachingDao dao = cachingDaoMap.get(entity.getClass());
+        if (null != dao) {
+            dao.invalidateEntity(entity);
+        }
+    }
+
+    /**
+     * Clear the entity cache of a model class if the model class is annotated
+     * with {@link CacheEntity}.
+     *
+     * DAO implementations that write entities without going through
+     * {@link #cachingDao(Class)} shall call this method after updating or
+     * deleting entities by query.
+     *
+     * @param modelClass the model class
+     */
+    public void clearEntityCache(Class<?> modelClass) {
+        CachingDao dao = cachingDaoMap.get(modelClass);
+        if (null != dao) {
+            dao.cache().clear();
+        }
+    }
+
     public <T extends DbService> T dbService(String id) {
         return (T)serviceMap.get(id);
     }
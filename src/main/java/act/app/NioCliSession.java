@@ -0,0 +1,416 @@
+package act.app;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.cli.CliSession;
+import act.util.Banner;
+import jline.console.ConsoleReader;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.Charsets;
+import org.osgl.util.IO;
+import org.osgl.util.S;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A CLI session served by {@link NioCliTransport}.
+ *
+ * Bytes are read by the selector thread and split into command lines.
+ * Command lines are executed one after another on the transport's
+ * command executor, so an idle session does not occupy any thread.
+ *
+ * Sending {@link #BATCH} switches the session into batch mode: no
+ * prompt is printed and the output of each command is terminated with
+ * an {@link #EOT} line. The batch mode marker itself is acknowledged with an
+ * {@link #EOT} line so that client can skip the banner. In batch mode
+ * the session is closed once client has shutdown its output and all
+ * pending commands are executed.
+ */
+class NioCliSession extends CliSession {
+
+    private static final Logger logger = LogManager.get(NioCliSession.class);
+
+    /**
+     * The command switches session into batch mode
+     */
+    static final String BATCH = ".batch";
+
+    /**
+     * The line terminates output of a command in batch mode
+     */
+    static final String EOT = "\u0004";
+
+    // stop reading from client when a line exceeds this size
+    static final int MAX_LINE = 64 * 1024;
+
+    // block command output when pending bytes exceeds this size
+    static final int MAX_PENDING = 1024 * 1024;
+
+    private static final byte IAC = (byte) 255;
+    private static final byte SB = (byte) 250;
+    private static final byte SE = (byte) 240;
+
+    private static final int ST_DATA = 0;
+    private static final int ST_IAC = 1;
+    private static final int ST_OPTION = 2;
+    private static final int ST_SB = 3;
+    private static final int ST_SB_IAC = 4;
+
+    private final SocketChannel channel;
+    private final NioCliTransport transport;
+
+    // --- states accessed by selector thread only
+    private ByteArrayOutputStream lineBuf = new ByteArrayOutputStream();
+    private int telnetState = ST_DATA;
+
+    // --- states shared between selector thread and command thread
+    private final Queue<String> lines = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean inputClosed;
+    private volatile boolean closed;
+
+    // --- states accessed by command thread only
+    private ConsoleReader console;
+    private boolean opened;
+    private boolean batch;
+
+    // --- output states guarded by this
+    private final Queue<ByteBuffer> pending = new ArrayDeque<>();
+    private int pendingBytes;
+    private boolean closeOnFlushed;
+    private boolean terminated;
+
+    NioCliSession(SocketChannel channel, NioCliTransport transport, CliServer server) {
+        super(server);
+        this.channel = channel;
+        this.transport = transport;
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    boolean inputClosed() {
+        return inputClosed;
+    }
+
+    /**
+     * Returns the next command line received and not executed yet
+     * @return the command line or `null` if no line is pending
+     */
+    String pollLine() {
+        return lines.poll();
+    }
+
+    /**
+     * Called by selector thread on the bytes read from channel
+     * @param buf the bytes read
+     */
+    void onRead(ByteBuffer buf) {
+        boolean newLine = false;
+        while (buf.hasRemaining()) {
+            byte b = buf.get();
+            switch (telnetState) {
+                case ST_DATA:
+                    if (b == IAC) {
+                        telnetState = ST_IAC;
+                    } else if (b == '\n') {
+                        lines.add(new String(lineBuf.toByteArray(), Charsets.UTF_8));
+                        lineBuf.reset();
+                        newLine = true;
+                    } else if (b != '\r' && b != 0) {
+                        lineBuf.write(b);
+                    }
+                    break;
+                case ST_IAC:
+                    if (b == IAC) {
+                        // escaped 255
+                        lineBuf.write(b);
+                        telnetState = ST_DATA;
+                    } else if (b == SB) {
+                        telnetState = ST_SB;
+                    } else if ((b & 0xFF) >= 251) {
+                        // WILL, WONT, DO, DONT followed by an option byte
+                        telnetState = ST_OPTION;
+                    } else {
+                        // two bytes command
+                        telnetState = ST_DATA;
+                    }
+                    break;
+                case ST_OPTION:
+                    telnetState = ST_DATA;
+                    break;
+                case ST_SB:
+                    if (b == IAC) {
+                        telnetState = ST_SB_IAC;
+                    }
+                    break;
+                case ST_SB_IAC:
+                    telnetState = b == SE ? ST_DATA : ST_SB;
+                    break;
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+        if (lineBuf.size() > MAX_LINE) {
+            lines.clear();
+            lineBuf = new ByteArrayOutputStream();
+            inputClosed = true;
+            stop("command line too long");
+            return;
+        }
+        if (newLine) {
+            schedule();
+        }
+    }
+
+    /**
+     * Called by selector thread when client shutdown its output
+     */
+    void onEndOfInput() {
+        inputClosed = true;
+        schedule();
+    }
+
+    /**
+     * Schedule executing the pending command lines on the command executor
+     */
+    void schedule() {
+        if (closed || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (!transport.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        })) {
+            scheduled.set(false);
+            stop("CLI server is busy");
+        }
+    }
+
+    private void drain() {
+        try {
+            if (!opened) {
+                open();
+            }
+            String line;
+            while (!closed && null != (line = lines.poll())) {
+                execute(line);
+                if (exitRequested()) {
+                    close();
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            if (!closed) {
+                logger.error(e, "Error processing cli session");
+            }
+            close();
+        } finally {
+            scheduled.set(false);
+        }
+        if (!closed) {
+            if (!lines.isEmpty()) {
+                schedule();
+            } else if (inputClosed) {
+                close();
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        opened = true;
+        emitStart();
+        console = new ConsoleReader(new ByteArrayInputStream(new byte[0]), new ChannelOutputStream());
+        console.getTerminal().setEchoEnabled(false);
+        String appName = app.name();
+        if (S.blank(appName)) {
+            appName = "act";
+        }
+        console.setPrompt(S.fmt("%s[%s]>", appName, id()));
+        String banner = Banner.cachedBanner();
+        if (null != banner) {
+            printBanner(banner, console);
+        }
+        console.print(console.getPrompt());
+        console.flush();
+    }
+
+    private void execute(String line) throws IOException {
+        if (!batch && BATCH.equals(line.trim())) {
+            batch = true;
+            console.println(EOT);
+            console.flush();
+            return;
+        }
+        handle(line, console);
+        if (batch) {
+            console.println(EOT);
+        } else if (!exitRequested()) {
+            console.print(console.getPrompt());
+        }
+        console.flush();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        close();
+    }
+
+    @Override
+    public void stop(String message) {
+        write(S.concat(message, "\n").getBytes(Charsets.UTF_8));
+        stop();
+    }
+
+    /**
+     * Close the session once pending output has been sent to client
+     */
+    void close() {
+        closed = true;
+        synchronized (this) {
+            if (!pending.isEmpty()) {
+                closeOnFlushed = true;
+                return;
+            }
+        }
+        terminate();
+    }
+
+    /**
+     * Close the channel immediately
+     */
+    void terminate() {
+        synchronized (this) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            closed = true;
+            pending.clear();
+            pendingBytes = 0;
+            notifyAll();
+        }
+        IO.close(channel);
+        transport.remove(this);
+        if (opened) {
+            emitTerminate();
+        }
+    }
+
+    /**
+     * Called by selector thread when the channel is writable
+     */
+    synchronized void onWritable() throws IOException {
+        while (!pending.isEmpty()) {
+            ByteBuffer buf = pending.peek();
+            int n = buf.remaining();
+            channel.write(buf);
+            pendingBytes -= n - buf.remaining();
+            if (buf.hasRemaining()) {
+                return;
+            }
+            pending.poll();
+        }
+        transport.interestRead(this);
+        notifyAll();
+        if (closeOnFlushed) {
+            transport.dispatchTerminate(this);
+        }
+    }
+
+    synchronized boolean hasPendingOutput() {
+        return !pending.isEmpty();
+    }
+
+    private synchronized void write(byte[] bytes) {
+        if (terminated || bytes.length == 0) {
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        try {
+            if (pending.isEmpty()) {
+                channel.write(buf);
+                if (!buf.hasRemaining()) {
+                    return;
+                }
+            }
+            pending.add(buf);
+            pendingBytes += buf.remaining();
+            transport.interestWrite(this);
+            while (pendingBytes > MAX_PENDING && !terminated) {
+                wait(100);
+            }
+        } catch (IOException e) {
+            logger.debug(e, "error writing to cli channel");
+            closed = true;
+            transport.dispatchTerminate(this);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Buffers console output and send it to channel on flush
+     */
+    private class ChannelOutputStream extends OutputStream {
+
+        private ByteArrayOutputStream buf = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            buf.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buf.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            if (buf.size() == 0) {
+                return;
+            }
+            byte[] bytes = buf.toByteArray();
+            buf.reset();
+            NioCliSession.this.write(bytes);
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
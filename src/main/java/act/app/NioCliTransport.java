@@ -0,0 +1,233 @@
+package act.app;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.IO;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Selector based CLI transport.
+ *
+ * One selector thread accepts connections and reads command lines from
+ * all sessions. Commands are executed on a bounded executor, at most one
+ * command per session at a time.
+ */
+class NioCliTransport implements Runnable {
+
+    private static final Logger logger = LogManager.get(NioCliTransport.class);
+
+    private final CliServer server;
+    private final int maxSessions;
+    private final ThreadPoolExecutor executor;
+    private final Set<NioCliSession> sessions = new CopyOnWriteArraySet<>();
+    private final Queue<NioCliSession> writeRequests = new ConcurrentLinkedQueue<>();
+    private final Queue<NioCliSession> readRequests = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running;
+
+    NioCliTransport(CliServer server, int executorSize, int maxSessions) {
+        this.server = server;
+        this.maxSessions = maxSessions;
+        // each session has at most one task queued, thus the queue never overflows
+        this.executor = new ThreadPoolExecutor(executorSize, executorSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(maxSessions), new AppThreadFactory("cli-cmd", true));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    void start(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.socket().bind(new InetSocketAddress(port));
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+    }
+
+    void stop() {
+        running = false;
+        for (NioCliSession session : sessions) {
+            session.terminate();
+        }
+        if (null != selector) {
+            selector.wakeup();
+        }
+        executor.shutdownNow();
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                if (!running) {
+                    break;
+                }
+                updateInterests();
+                Iterator<SelectionKey> itr = selector.selectedKeys().iterator();
+                while (itr.hasNext()) {
+                    SelectionKey key = itr.next();
+                    itr.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                            continue;
+                        }
+                        NioCliSession session = (NioCliSession) key.attachment();
+                        if (key.isWritable()) {
+                            session.onWritable();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(session);
+                        }
+                    } catch (CancelledKeyException e) {
+                        // session closed concurrently
+                    } catch (IOException e) {
+                        logger.debug(e, "error processing cli channel");
+                        Object attachment = key.attachment();
+                        if (attachment instanceof NioCliSession) {
+                            ((NioCliSession) attachment).terminate();
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            if (running) {
+                logger.error(e, "Error running CLI selector");
+            }
+        } finally {
+            running = false;
+            IO.close(serverChannel);
+            IO.close(selector);
+        }
+    }
+
+    /**
+     * Run a task on the command executor
+     * @param task the task
+     * @return `false` if the task is rejected
+     */
+    boolean dispatch(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Terminate a session out of the selector thread
+     * @param session the session to be terminated
+     */
+    void dispatchTerminate(final NioCliSession session) {
+        if (!dispatch(new Runnable() {
+            @Override
+            public void run() {
+                session.terminate();
+            }
+        })) {
+            session.terminate();
+        }
+    }
+
+    void interestWrite(NioCliSession session) {
+        writeRequests.add(session);
+        selector.wakeup();
+    }
+
+    void interestRead(NioCliSession session) {
+        readRequests.add(session);
+        selector.wakeup();
+    }
+
+    void remove(NioCliSession session) {
+        sessions.remove(session);
+        server.remove(session);
+    }
+
+    private void updateInterests() {
+        NioCliSession session;
+        while (null != (session = readRequests.poll())) {
+            SelectionKey key = session.channel().keyFor(selector);
+            if (null != key && key.isValid() && !session.hasPendingOutput()) {
+                key.interestOps(session.inputClosed() ? 0 : SelectionKey.OP_READ);
+            }
+        }
+        while (null != (session = writeRequests.poll())) {
+            SelectionKey key = session.channel().keyFor(selector);
+            if (null != key && key.isValid()) {
+                key.interestOps(session.inputClosed() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (null == channel) {
+            return;
+        }
+        channel.configureBlocking(false);
+        NioCliSession session = new NioCliSession(channel, this, server);
+        // register before anything is written, so that a partial write can be
+        // flushed by the selector and the channel closed once flushed
+        channel.register(selector, SelectionKey.OP_READ, session);
+        if (sessions.size() >= maxSessions) {
+            session.stop("Too many CLI sessions, please try again later");
+            return;
+        }
+        sessions.add(session);
+        server.add(session);
+        session.schedule();
+    }
+
+    private void read(NioCliSession session) throws IOException {
+        readBuffer.clear();
+        int n = session.channel().read(readBuffer);
+        if (n < 0) {
+            SelectionKey key = session.channel().keyFor(selector);
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            session.onEndOfInput();
+            return;
+        }
+        readBuffer.flip();
+        session.onRead(readBuffer);
+    }
+}
@@ -23,21 +23,22 @@ package act.app.data;
 import act.app.App;
 import act.app.AppServiceBase;
 import act.conf.AppConfig;
+import act.data.EnumResolver;
+import act.data.PrimitiveResolvers;
 import act.data.SObjectResolver;
-import org.osgl.$;
 import org.osgl.storage.ISObject;
 import org.osgl.util.AnnotationAware;
-import org.osgl.util.C;
 import org.osgl.util.S;
 import org.osgl.util.StringValueResolver;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class StringValueResolverManager extends AppServiceBase<StringValueResolverManager> {
 
-    private Map<Class, StringValueResolver> resolvers = C.newMap();
+    private Map<Class, StringValueResolver> resolvers = new ConcurrentHashMap<>();
 
     public StringValueResolverManager(App app) {
         super(app);
@@ -93,24 +94,8 @@ public class StringValueResolverManager extends AppServiceBase<StringValueResolv
 
     public <T> StringValueResolver<T> resolver(final Class<T> targetType) {
         StringValueResolver<T> r = resolvers.get(targetType);
-        final Class<? extends Enum> clazz = $.cast(targetType);
         if (null == r && Enum.class.isAssignableFrom(targetType)) {
-            if (app().config().enumResolvingCaseSensitive()) {
-                r = new StringValueResolver<T>(targetType) {
-                    @Override
-                    public T resolve(String value) {
-                        //TODO should we handle exception here?
-                        return (T)Enum.valueOf(clazz, value);
-                    }
-                };
-            } else {
-                r = new StringValueResolver<T>(targetType) {
-                    @Override
-                    public T resolve(String value) {
-                        return (T) $.asEnum(clazz, value);
-                    }
-                };
-            }
+            r = new EnumResolver(targetType, app().config().enumResolvingCaseSensitive());
             resolvers.put(targetType, r);
         }
         return r;
@@ -126,6 +111,7 @@ public class StringValueResolverManager extends AppServiceBase<StringValueResolv
 
     private void registerPredefinedResolvers() {
         resolvers.putAll(StringValueResolver.predefined());
+        PrimitiveResolvers.register(resolvers);
     }
 
     private void registerBuiltInResolvers(AppConfig config) {
@@ -322,6 +322,11 @@ public class CliContext extends ActContext.Base<CliContext> implements IASCIITab
 
     public void flush() {
         pw.flush();
+        try {
+            console.flush();
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
     }
 
     public boolean disconnected() {
@@ -38,6 +38,7 @@ import org.osgl.util.IO;
 import org.osgl.util.S;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
@@ -82,12 +83,20 @@ public class CliSession extends DestroyableBase implements Runnable {
     }
 
     public CliSession(Socket socket, CliServer server) {
+        this(server);
         this.socket = $.NPE(socket);
+        commandNameCompleter = new CommandNameCompleter(app);
+    }
+
+    /**
+     * Construct a CLI session that is not bound to a blocking socket
+     * @param server the CLI server
+     */
+    protected CliSession(CliServer server) {
         this.server = $.NPE(server);
         this.app = server.app();
         id = app.cuid();
         ts = $.ms();
-        commandNameCompleter = new CommandNameCompleter(app);
     }
 
     public String id() {
@@ -114,12 +123,19 @@ public class CliSession extends DestroyableBase implements Runnable {
     }
 
     public CliSession cursor(CliCursor cursor) {
+        if (cursor != this.cursor) {
+            removeCursor();
+        }
         this.cursor = cursor;
         return this;
     }
 
     public void removeCursor() {
-        cursor = null;
+        CliCursor cursor = this.cursor;
+        this.cursor = null;
+        if (cursor instanceof Closeable) {
+            IO.close((Closeable) cursor);
+        }
     }
 
     public <T> T attribute(String key) {
@@ -150,7 +166,7 @@ public class CliSession extends DestroyableBase implements Runnable {
     public void run() {
         runningThread = Thread.currentThread();
         try {
-            app.eventBus().emitSync(new CliSessionStart(this));
+            emitStart();
             OutputStream os = socket.getOutputStream();
             console = new ConsoleReader(socket.getInputStream(), os);
             String banner = Banner.cachedBanner();
@@ -170,29 +186,7 @@ public class CliSession extends DestroyableBase implements Runnable {
                     console.flush();
                     return;
                 }
-                ts = $.ms();
-                app.checkUpdates(true);
-                if (S.blank(line)) {
-                    continue;
-                }
-
-                try {
-                    CliContext context = new CliContext(line, app, console, this);
-                    cliContext = context;
-                    context.handle();
-                } catch ($.Break b) {
-                    Object payload = b.get();
-                    if (null == payload) {
-                        continue;
-                    }
-                    if (payload instanceof Boolean) {
-                        exit = b.get();
-                    } else if (payload instanceof String) {
-                        console.println((String) payload);
-                    } else {
-                        console.println(S.fmt("INTERNAL ERROR: unknown payload type: %s", payload.getClass()));
-                    }
-                }
+                handle(line, console);
             }
         } catch (InterruptedIOException e) {
             logger.info("session thread interrupted");
@@ -204,11 +198,59 @@ public class CliSession extends DestroyableBase implements Runnable {
             if (null != server) {
                 server.remove(this);
             }
+            removeCursor();
             IO.close(socket);
-            app.eventBus().emitSync(new CliSessionTerminate(this));
+            emitTerminate();
+        }
+    }
+
+    /**
+     * Handle a command line read from the console
+     * @param line the command line
+     * @param console the console to which the result is printed
+     * @throws IOException if error writing to console
+     */
+    protected void handle(String line, ConsoleReader console) throws IOException {
+        ts = $.ms();
+        app.checkUpdates(true);
+        if (S.blank(line)) {
+            return;
+        }
+        try {
+            CliContext context = new CliContext(line, app, console, this);
+            cliContext = context;
+            context.handle();
+        } catch ($.Break b) {
+            Object payload = b.get();
+            if (null == payload) {
+                return;
+            }
+            if (payload instanceof Boolean) {
+                exit = b.get();
+            } else if (payload instanceof String) {
+                console.println((String) payload);
+            } else {
+                console.println(S.fmt("INTERNAL ERROR: unknown payload type: %s", payload.getClass()));
+            }
         }
     }
 
+    /**
+     * Check if user has requested to exit this session
+     * @return `true` if the session shall be terminated
+     */
+    protected boolean exitRequested() {
+        return exit;
+    }
+
+    protected void emitStart() {
+        app.eventBus().emitSync(new CliSessionStart(this));
+    }
+
+    protected void emitTerminate() {
+        app.eventBus().emitSync(new CliSessionTerminate(this));
+    }
+
     public void stop() {
         exit = true;
         if (null != runningThread) {
@@ -239,7 +281,7 @@ public class CliSession extends DestroyableBase implements Runnable {
         removeCursor();
     }
 
-    private static void printBanner(String banner, ConsoleReader console) throws IOException {
+    protected static void printBanner(String banner, ConsoleReader console) throws IOException {
         String[] lines = banner.split("[\n\r]");
         for (String line : lines) {
             console.println(line);
@@ -114,8 +114,37 @@ public class SimpleASCIITableImpl implements IASCIITable {
 	
 	@Override
 	public String getTable(IASCIITableAware asciiTableAware) {
-		
+		ASCIITableHeader[] headerObjs = getHeaderObjs(asciiTableAware);
+		return getTable(headerObjs, getData(asciiTableAware, headerObjs));
+	}
+
+	/**
+	 * Returns the header objects of the table aware.
+	 *
+	 * @param asciiTableAware
+	 * @return
+	 */
+	public ASCIITableHeader[] getHeaderObjs(IASCIITableAware asciiTableAware) {
 		ASCIITableHeader[] headerObjs = new ASCIITableHeader[0];
+		if (asciiTableAware != null && asciiTableAware.getHeaders()!= null &&
+				!asciiTableAware.getHeaders().isEmpty()) {
+			headerObjs = new ASCIITableHeader[asciiTableAware.getHeaders().size()];
+			for (int i = 0 ; i < asciiTableAware.getHeaders().size() ; i ++) {
+				headerObjs[i] = asciiTableAware.getHeaders().get(i);
+			}
+		}
+		return headerObjs;
+	}
+
+	/**
+	 * Returns the formatted data of the table aware. Note the data align
+	 * of header objects is resolved if it is {@link #ALIGN_AUTO}.
+	 *
+	 * @param asciiTableAware
+	 * @param headerObjs
+	 * @return
+	 */
+	public String[][] getData(IASCIITableAware asciiTableAware, ASCIITableHeader[] headerObjs) {
 		String[][] data = new String[0][0];
 
 		List<Object> rowData = null;
@@ -126,18 +155,6 @@ public class SimpleASCIITableImpl implements IASCIITable {
 		String cellData = null;
 		
 		if (asciiTableAware != null) {
-			
-			/**
-			 * Get the row header.
-			 */
-			if (asciiTableAware.getHeaders()!= null && 
-					!asciiTableAware.getHeaders().isEmpty()) {
-				headerObjs = new ASCIITableHeader[asciiTableAware.getHeaders().size()];
-				for (int i = 0 ; i < asciiTableAware.getHeaders().size() ; i ++) {
-					headerObjs[i] = asciiTableAware.getHeaders().get(i);
-				}
-			}
-			
 			/**
 			 * Get the data.
 			 */
@@ -184,7 +201,53 @@ public class SimpleASCIITableImpl implements IASCIITable {
 			}//end data
 		}
 		
-		return getTable(headerObjs, data);
+		return data;
+	}
+
+	/**
+	 * Returns the width of each column computed from the header and the data.
+	 *
+	 * @param headerObjs
+	 * @param data
+	 * @return
+	 */
+	public List<Integer> getColumnWidths(ASCIITableHeader[] headerObjs, String[][] data) {
+		String [] header = getHeaders(headerObjs);
+		return getMaxColLengths(getMaxColumns(header, data), header, data);
+	}
+
+	/**
+	 * Returns the border line with the given column widths.
+	 *
+	 * @param colWidths
+	 * @return
+	 */
+	public String getRowLine(List<Integer> colWidths) {
+		return getRowLineBuf(colWidths.size(), colWidths, null);
+	}
+
+	/**
+	 * Returns the header line with the given column widths.
+	 *
+	 * @param colWidths
+	 * @param headerObjs
+	 * @return
+	 */
+	public String getHeaderRow(List<Integer> colWidths, ASCIITableHeader[] headerObjs) {
+		return getRowDataBuf(colWidths.size(), colWidths, getHeaders(headerObjs), headerObjs, true);
+	}
+
+	/**
+	 * Returns a data line with the given column widths. Cell longer than the
+	 * column width is not truncated.
+	 *
+	 * @param colWidths
+	 * @param row
+	 * @param headerObjs
+	 * @return
+	 */
+	public String getDataRow(List<Integer> colWidths, String[] row, ASCIITableHeader[] headerObjs) {
+		return getRowDataBuf(colWidths.size(), colWidths, row, headerObjs, false);
 	}
 
 	@Override
@@ -0,0 +1,214 @@
+package act.cli.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.cli.CliContext;
+import act.cli.ascii_table.ASCIITableHeader;
+import act.cli.ascii_table.impl.CollectionASCIITableAware;
+import act.cli.ascii_table.impl.SimpleASCIITableImpl;
+import act.data.DataPropertyRepository;
+import act.util.PropertySpec;
+import org.osgl.util.C;
+import org.osgl.util.IO;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Paginate table layout on a lazy data source.
+ *
+ * Rows are pulled from the source iterator one page at a time. Column widths
+ * are computed on the first page (the sample window) and kept for the following
+ * pages, so the whole data set never needs to be loaded into memory. Cells
+ * on the following pages wider than their column are truncated to keep the
+ * table aligned.
+ *
+ * The source is closed once exhausted if it is {@link Closeable}, e.g. a
+ * {@link act.db.Dao.Cursor}
+ */
+public class StreamingTableCursor implements CliCursor, Closeable {
+
+    private static final String ELLIPSIS = "...";
+
+    private Iterator<?> source;
+    private int pageSize;
+    private PropertySpec.MetaInfo propertySpec;
+    private SimpleASCIITableImpl table = new SimpleASCIITableImpl();
+    private List<String> outputFields;
+    private List<String> labels;
+    private ASCIITableHeader[] headers;
+    private List<Integer> widths;
+    private int records;
+
+    public StreamingTableCursor(Iterator<?> source, int pageSize, PropertySpec.MetaInfo propertySpec) {
+        this.source = source;
+        this.pageSize = pageSize;
+        this.propertySpec = propertySpec;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return source.hasNext();
+    }
+
+    /**
+     * Output the next page of the table
+     * @param context the CLI context
+     */
+    @Override
+    public void output(CliContext context) {
+        List<String> rows = nextPage(context);
+        if (rows.isEmpty()) {
+            context.session().removeCursor();
+            context.println(0 == records ? "no data" : "no cursor");
+            return;
+        }
+        String line = table.getRowLine(widths);
+        StringBuilder sb = new StringBuilder(line).append(table.getHeaderRow(widths, headers)).append(line);
+        for (String row : rows) {
+            sb.append(row);
+        }
+        sb.append(line);
+        sb.append("Items found: ").append(records);
+        if (source.hasNext()) {
+            sb.append("\nType \"it\" for more");
+        } else {
+            context.session().removeCursor();
+        }
+        context.println(sb.toString());
+        context.flush();
+    }
+
+    /**
+     * Output all pages of the table. Each page is flushed to the
+     * client before the next page is pulled from source.
+     *
+     * @param context the CLI context
+     */
+    public void outputAll(CliContext context) {
+        try {
+            List<String> rows = nextPage(context);
+            if (rows.isEmpty()) {
+                context.println("no data");
+                return;
+            }
+            String line = table.getRowLine(widths);
+            context.println(chomp(line + table.getHeaderRow(widths, headers) + line));
+            while (!rows.isEmpty()) {
+                StringBuilder sb = new StringBuilder();
+                for (String row : rows) {
+                    sb.append(row);
+                }
+                context.println(chomp(sb.toString()));
+                context.flush();
+                if (context.disconnected()) {
+                    return;
+                }
+                rows = nextPage(context);
+            }
+            context.println(line + "Items found: " + records);
+            context.flush();
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Close the source if it is {@link Closeable}
+     */
+    @Override
+    public void close() {
+        if (source instanceof Closeable) {
+            IO.close((Closeable) source);
+        }
+    }
+
+    @Override
+    public int records() {
+        return records;
+    }
+
+    private List<String> nextPage(CliContext context) {
+        List<Object> page = C.newSizedList(pageSize);
+        while (page.size() < pageSize && source.hasNext()) {
+            page.add(source.next());
+        }
+        if (page.isEmpty()) {
+            return C.list();
+        }
+        records += page.size();
+        if (null == outputFields) {
+            init(page, context);
+        }
+        CollectionASCIITableAware aware = new CollectionASCIITableAware(page, outputFields, labels);
+        if (null == headers) {
+            headers = table.getHeaderObjs(aware);
+        }
+        String[][] data = table.getData(aware, headers);
+        if (null == widths) {
+            widths = table.getColumnWidths(headers, data);
+        }
+        List<String> rows = C.newSizedList(data.length);
+        int columns = widths.size();
+        for (String[] row : data) {
+            for (int i = 0, n = Math.min(columns, row.length); i < n; ++i) {
+                row[i] = truncate(row[i], widths.get(i));
+            }
+            rows.add(table.getDataRow(widths, row, headers));
+        }
+        return rows;
+    }
+
+    private void init(List<Object> sample, CliContext context) {
+        Class<?> componentType = Object.class;
+        for (Object o : sample) {
+            if (null != o) {
+                componentType = o.getClass();
+                break;
+            }
+        }
+        DataPropertyRepository repo = context.app().service(DataPropertyRepository.class);
+        outputFields = repo.outputFields(propertySpec, componentType, context);
+        if (outputFields.isEmpty()) {
+            outputFields = C.list("this as Item");
+        }
+        labels = propertySpec.labels(outputFields, context);
+    }
+
+    /**
+     * Truncate the cell to the column width, the last characters of a
+     * truncated cell are replaced with `...`
+     */
+    static String truncate(String cell, int width) {
+        if (null == cell || cell.length() <= width) {
+            return cell;
+        }
+        if (width <= ELLIPSIS.length()) {
+            return cell.substring(0, width);
+        }
+        return cell.substring(0, width - ELLIPSIS.length()) + ELLIPSIS;
+    }
+
+    private static String chomp(String s) {
+        return s.endsWith("\n") ? s.substring(0, s.length() - 1) : s;
+    }
+}
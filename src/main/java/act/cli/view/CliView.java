@@ -27,20 +27,25 @@ import act.cli.ascii_table.impl.CollectionASCIITableAware;
 import act.cli.tree.TreeNode;
 import act.cli.util.CliCursor;
 import act.cli.util.MappedFastJsonNameFilter;
+import act.cli.util.StreamingTableCursor;
 import act.cli.util.TableCursor;
 import act.data.DataPropertyRepository;
+import act.data.PropertyExtractor;
 import act.util.ActContext;
 import act.util.DisableFastJsonCircularReferenceDetect;
 import act.util.FastJsonPropertyPreFilter;
+import act.util.FilteredJsonWriter;
 import act.util.PropertySpec;
 import com.alibaba.fastjson.serializer.SerializeFilter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import org.osgl.$;
 import org.osgl.util.C;
 import org.osgl.util.E;
+import org.osgl.util.IO;
 import org.osgl.util.S;
 import org.rythmengine.utils.Escape;
 
+import java.io.Closeable;
 import java.util.*;
 
 /**
@@ -107,6 +112,27 @@ public enum CliView {
             return S.concat(tableString, "Items found: ", S.string(itemsFound), appendix);
         }
 
+        @Override
+        public void print(Object result, PropertySpec.MetaInfo spec, CliContext context) {
+            boolean overHttp = context instanceof CliOverHttpContext;
+            int pageSize = context.config().cliTablePageSize();
+            if (isStream(result) || (overHttp && result instanceof Collection && ((Collection) result).size() > pageSize)) {
+                spec = PropertySpec.MetaInfo.withCurrent(spec, context);
+                if (null == spec) {
+                    spec = new PropertySpec.MetaInfo();
+                }
+                StreamingTableCursor cursor = new StreamingTableCursor(iterator(result), pageSize, spec);
+                if (overHttp) {
+                    cursor.outputAll(context);
+                } else {
+                    context.session().cursor(cursor);
+                    cursor.output(context);
+                }
+                return;
+            }
+            super.print(result, spec, context);
+        }
+
     },
 
     /**
@@ -134,6 +160,15 @@ public enum CliView {
             }
         }
 
+        @Override
+        public void print(Object result, PropertySpec.MetaInfo spec, CliContext context) {
+            if (isStream(result)) {
+                TABLE.print(result, spec, context);
+            } else {
+                super.print(result, spec, context);
+            }
+        }
+
         private String toTreeString(TreeNode result) {
             StringBuilder sb = S.newBuilder();
             buildTree(sb, result, "", true);
@@ -183,6 +218,12 @@ public enum CliView {
             if (null == spec) {
                 propertyFilter = null;
             } else {
+                if (!format) {
+                    json = FilteredJsonWriter.write(result, spec, context);
+                    if (null != json) {
+                        return json;
+                    }
+                }
                 propertyFilter = new FastJsonPropertyPreFilter();
                 List<String> outputs = spec.outputFields(context);
                 Set<String> excluded = spec.excludedFields(context);
@@ -248,6 +289,42 @@ public enum CliView {
             return json;
         }
 
+        @Override
+        public void print(Object result, PropertySpec.MetaInfo spec, CliContext context) {
+            if (!isStream(result)) {
+                super.print(result, spec, context);
+                return;
+            }
+            Iterator<?> itr = iterator(result);
+            try {
+                int pageSize = context.config().cliJSONPageSize();
+                context.println("[");
+                S.Buffer sb = S.buffer();
+                int n = 0;
+                while (itr.hasNext()) {
+                    if (sb.length() > 0) {
+                        sb.append($.OS.lineSeparator());
+                    }
+                    sb.append(render(itr.next(), spec, context, true));
+                    if (itr.hasNext()) {
+                        sb.append(",");
+                    }
+                    if (++n % pageSize == 0) {
+                        if (!flushPage(sb, context)) {
+                            return;
+                        }
+                        sb = S.buffer();
+                    }
+                }
+                if (sb.length() > 0) {
+                    context.println(sb.toString());
+                }
+                context.println("]");
+                context.flush();
+            } finally {
+                close(result, itr);
+            }
+        }
 
     },
 
@@ -267,6 +344,15 @@ public enum CliView {
                 return S.string(result);
             }
         }
+
+        @Override
+        public void print(Object result, PropertySpec.MetaInfo spec, CliContext context) {
+            if (isStream(result)) {
+                TABLE.print(result, spec, context);
+            } else {
+                super.print(result, spec, context);
+            }
+        }
     },
 
     CSV() {
@@ -297,29 +383,72 @@ public enum CliView {
                 spec.onValue("-not_exists");
             }
             List<String> outputFields = repo.outputFields(spec, componentType, context);
+            PropertyExtractor extractor = repo.extractor(componentType, outputFields);
+            Object[] values = new Object[outputFields.size()];
             S.Buffer sb = S.buffer();
             buildHeaderLine(sb, outputFields, spec.labelMapping());
             for (Object entity : dataList) {
                 sb.append($.OS.lineSeparator());
-                buildDataLine(sb, entity, outputFields);
+                buildDataLine(sb, entity, extractor, values);
             }
             return sb.toString();
         }
 
-        private void buildDataLine(S.Buffer sb, Object data, List<String> outputFields) {
-            Iterator<String> itr = outputFields.iterator();
-            String prop = itr.next();
-            sb.append(getProperty(data, prop));
+        @Override
+        public void print(Object result, PropertySpec.MetaInfo spec, CliContext context) {
+            if (!isStream(result)) {
+                super.print(result, spec, context);
+                return;
+            }
+            Iterator<?> itr = iterator(result);
+            try {
+                printStream(itr, spec, context);
+            } finally {
+                close(result, itr);
+            }
+        }
+
+        private void printStream(Iterator<?> itr, PropertySpec.MetaInfo spec, CliContext context) {
+            if (!itr.hasNext()) {
+                context.println("no data");
+                return;
+            }
+            Object first = itr.next();
+            DataPropertyRepository repo = context.app().service(DataPropertyRepository.class);
+            spec = PropertySpec.MetaInfo.withCurrent(spec, context);
+            if (null == spec) {
+                spec = new PropertySpec.MetaInfo();
+                spec.onValue("-not_exists");
+            }
+            List<String> outputFields = repo.outputFields(spec, first.getClass(), context);
+            PropertyExtractor extractor = repo.extractor(first.getClass(), outputFields);
+            Object[] values = new Object[outputFields.size()];
+            int pageSize = context.config().cliTablePageSize();
+            S.Buffer sb = S.buffer();
+            buildHeaderLine(sb, outputFields, spec.labelMapping());
+            sb.append($.OS.lineSeparator());
+            buildDataLine(sb, first, extractor, values);
+            int n = 1;
             while (itr.hasNext()) {
-                sb.append(",").append(getProperty(data, itr.next()));
+                if (n++ % pageSize == 0) {
+                    if (!flushPage(sb, context)) {
+                        return;
+                    }
+                    sb = S.buffer();
+                } else {
+                    sb.append($.OS.lineSeparator());
+                }
+                buildDataLine(sb, itr.next(), extractor, values);
             }
+            context.println(sb.toString());
+            context.flush();
         }
 
-        private String getProperty(Object data, String prop) {
-            if ("this".equals(prop)) {
-                return (escape(data));
-            } else {
-                return escape($.getProperty(data, prop));
+        private void buildDataLine(S.Buffer sb, Object data, PropertyExtractor extractor, Object[] values) {
+            extractor.extract(data, values);
+            sb.append(escape(values[0]));
+            for (int i = 1; i < values.length; ++i) {
+                sb.append(",").append(escape(values[i]));
             }
         }
 
@@ -354,6 +483,71 @@ public enum CliView {
         context.println(render(result, spec, context));
     }
 
+    /**
+     * Check if the result is a lazy data source, e.g. an {@link Iterator} or
+     * an {@link Iterable} that is not a {@link Collection}, which shall be
+     * printed page by page instead of being loaded into memory.
+     *
+     * @param result the command result
+     * @return `true` if the result shall be streamed
+     */
+    protected static boolean isStream(Object result) {
+        return result instanceof Iterator
+                || result instanceof Enumeration
+                || (result instanceof Iterable && !(result instanceof Collection));
+    }
+
+    protected static Iterator<?> iterator(Object result) {
+        if (result instanceof Iterable) {
+            return ((Iterable<?>) result).iterator();
+        } else if (result instanceof Iterator) {
+            return (Iterator<?>) result;
+        } else if (result instanceof Enumeration) {
+            final Enumeration<?> enumeration = (Enumeration<?>) result;
+            return new Iterator<Object>() {
+                @Override
+                public boolean hasNext() {
+                    return enumeration.hasMoreElements();
+                }
+
+                @Override
+                public Object next() {
+                    return enumeration.nextElement();
+                }
+
+                @Override
+                public void remove() {
+                    throw E.unsupport();
+                }
+            };
+        }
+        return C.listOf(result).iterator();
+    }
+
+    /**
+     * Close the streaming source if it is {@link Closeable}, e.g. a
+     * {@link act.db.Dao.Cursor}
+     */
+    protected static void close(Object result, Iterator<?> itr) {
+        if (itr instanceof Closeable) {
+            IO.close((Closeable) itr);
+        }
+        if (result != itr && result instanceof Closeable) {
+            IO.close((Closeable) result);
+        }
+    }
+
+    /**
+     * Print a page and flush it to the client.
+     *
+     * @return `false` if client disconnected
+     */
+    protected static boolean flushPage(S.Buffer page, CliContext context) {
+        context.println(page.toString());
+        context.flush();
+        return !context.disconnected();
+    }
+
     protected List toList(Object result) {
         List dataList;
         if (result instanceof Iterable) {
@@ -33,6 +33,10 @@ import act.db.util._SequenceNumberGenerator;
 import act.handler.UnknownHttpMethodProcessor;
 import act.handler.event.ResultEvent;
 import act.i18n.I18n;
+import act.job.FileJobStore;
+import act.job.JobLockProvider;
+import act.job.JobStore;
+import act.job.MisfirePolicy;
 import act.security.CSRFProtector;
 import act.session.*;
 import act.util.*;
@@ -169,6 +173,24 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private int asyncTimeout = -1;
+    protected T asyncTimeout(int seconds) {
+        E.illegalArgumentIf(seconds < 1, "async timeout cannot be zero or negative number: %s", seconds);
+        this.asyncTimeout = seconds;
+        return me();
+    }
+    public int asyncTimeout() {
+        if (-1 == asyncTimeout) {
+            asyncTimeout = getInteger(ASYNC_TIMEOUT, 60);
+        }
+        return asyncTimeout;
+    }
+    private void _mergeAsyncTimeout(AppConfig conf) {
+        if (!hasConfiguration(ASYNC_TIMEOUT)) {
+            asyncTimeout = conf.asyncTimeout;
+        }
+    }
+
     private Boolean basicAuth;
 
     protected T enableBasicAuthentication(boolean b) {
@@ -655,6 +677,29 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private int clockResolution = -1;
+
+    protected T clockResolution(int resolution) {
+        E.illegalArgumentIf(resolution < 0, "clock resolution shall not be negative: %s", resolution);
+        this.clockResolution = resolution;
+        return me();
+    }
+
+    public int clockResolution() {
+        if (-1 == clockResolution) {
+            int resolution = get(CLOCK_RESOLUTION, CachedClock.DEFAULT_RESOLUTION);
+            E.invalidConfigurationIf(resolution < 0, "clock.resolution shall not be negative: %s", resolution);
+            clockResolution = resolution;
+        }
+        return clockResolution;
+    }
+
+    private void _mergeClockResolution(AppConfig config) {
+        if (!hasConfiguration(CLOCK_RESOLUTION)) {
+            clockResolution = config.clockResolution;
+        }
+    }
+
     private Integer cliPort;
 
     protected T cliPort(int port) {
@@ -717,6 +762,26 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private Boolean diCompiled;
+
+    protected T enableCompiledDi(boolean enabled) {
+        this.diCompiled = enabled;
+        return me();
+    }
+
+    public boolean compiledDiEnabled() {
+        if (null == diCompiled) {
+            diCompiled = get(DI_COMPILED_ENABLED, false);
+        }
+        return diCompiled;
+    }
+
+    private void _mergeCompiledDiEnabled(AppConfig conf) {
+        if (!hasConfiguration(DI_COMPILED_ENABLED)) {
+            diCompiled = conf.diCompiled;
+        }
+    }
+
     private Provider<String> cookieDomainProvider;
 
     protected T cookieDomain(final String domain) {
@@ -794,6 +859,68 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private Boolean cliNioEnabled;
+
+    protected T cliNioEnable(boolean enable) {
+        cliNioEnabled = enable;
+        return me();
+    }
+
+    public boolean cliNioEnabled() {
+        if (null == cliNioEnabled) {
+            cliNioEnabled = get(CLI_NIO_ENABLED, false);
+        }
+        return cliNioEnabled;
+    }
+
+    private void _mergeCliNioEnabled(AppConfig conf) {
+        if (!hasConfiguration(CLI_NIO_ENABLED)) {
+            cliNioEnabled = conf.cliNioEnabled;
+        }
+    }
+
+    private int cliNioExecutorSize = -1;
+
+    protected T cliNioExecutorSize(int size) {
+        E.illegalArgumentIf(size < 1, "cli executor size cannot be zero or negative number: %s", size);
+        this.cliNioExecutorSize = size;
+        return me();
+    }
+
+    public int cliNioExecutorSize() {
+        if (-1 == cliNioExecutorSize) {
+            cliNioExecutorSize = get(CLI_NIO_EXECUTOR_SIZE, maxCliSession());
+        }
+        return cliNioExecutorSize;
+    }
+
+    private void _mergeCliNioExecutorSize(AppConfig conf) {
+        if (!hasConfiguration(CLI_NIO_EXECUTOR_SIZE)) {
+            cliNioExecutorSize = conf.cliNioExecutorSize;
+        }
+    }
+
+    private int maxCliNioSession = -1;
+
+    protected T maxCliNioSession(int size) {
+        E.illegalArgumentIf(size < 1, "max cli session number cannot be zero or negative number: %s", size);
+        this.maxCliNioSession = size;
+        return me();
+    }
+
+    public int maxCliNioSession() {
+        if (-1 == maxCliNioSession) {
+            maxCliNioSession = get(CLI_NIO_SESSION_MAX, 64);
+        }
+        return maxCliNioSession;
+    }
+
+    private void _mergeMaxCliNioSession(AppConfig conf) {
+        if (!hasConfiguration(CLI_NIO_SESSION_MAX)) {
+            maxCliNioSession = conf.maxCliNioSession;
+        }
+    }
+
     private Boolean enumResolvingCaseSensitive;
     protected T enumResolvingCaseSensitive(boolean b) {
         enumResolvingCaseSensitive = b;
@@ -837,6 +964,26 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private Boolean viewStreaming;
+
+    protected T enableViewStreaming(boolean enabled) {
+        viewStreaming = enabled;
+        return me();
+    }
+
+    public boolean viewStreamingEnabled() {
+        if (null == viewStreaming) {
+            viewStreaming = get(AppConfigKey.VIEW_STREAMING_ENABLED, false);
+        }
+        return viewStreaming;
+    }
+
+    private void _mergeViewStreamingEnabled(AppConfig conf) {
+        if (!hasConfiguration(AppConfigKey.VIEW_STREAMING_ENABLED)) {
+            viewStreaming = conf.viewStreaming;
+        }
+    }
+
     private String xForwardedProtocol = null;
 
     protected T forceHttps() {
@@ -899,6 +1046,50 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private int seqGenBlockSize = -1;
+
+    protected T sequenceNumberBlockSize(int size) {
+        E.illegalArgumentIf(size < 1, "sequence number block size shall be positive: %s", size);
+        this.seqGenBlockSize = size;
+        return me();
+    }
+
+    public int sequenceNumberBlockSize() {
+        if (-1 == seqGenBlockSize) {
+            int size = get(DB_SEQ_GENERATOR_BLOCK_SIZE, 1);
+            E.invalidConfigurationIf(size < 1, "db.seq_gen.block.size shall be positive: %s", size);
+            seqGenBlockSize = size;
+        }
+        return seqGenBlockSize;
+    }
+
+    private void _mergeSequenceNumberBlockSize(AppConfig conf) {
+        if (!hasConfiguration(DB_SEQ_GENERATOR_BLOCK_SIZE)) {
+            seqGenBlockSize = conf.seqGenBlockSize;
+        }
+    }
+
+    private String seqGenFile;
+
+    protected T sequenceNumberFile(String file) {
+        E.illegalArgumentIf(S.blank(file));
+        this.seqGenFile = file;
+        return me();
+    }
+
+    public String sequenceNumberFile() {
+        if (null == seqGenFile) {
+            seqGenFile = get(DB_SEQ_GENERATOR_FILE, ".act.seq");
+        }
+        return seqGenFile;
+    }
+
+    private void _mergeSequenceNumberFile(AppConfig conf) {
+        if (!hasConfiguration(DB_SEQ_GENERATOR_FILE)) {
+            seqGenFile = conf.seqGenFile;
+        }
+    }
+
     private ErrorTemplatePathResolver errorTemplatePathResolver = null;
 
     protected T errorTemplatePathResolver(ErrorTemplatePathResolver resolver) {
@@ -1167,6 +1358,58 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private Boolean snowflakeEnabled;
+    protected T snowflakeEnable(boolean enabled) {
+        this.snowflakeEnabled = enabled;
+        return me();
+    }
+    public boolean snowflakeEnabled() {
+        if (null == snowflakeEnabled) {
+            snowflakeEnabled = get(ID_GEN_SNOWFLAKE_ENABLED, false);
+        }
+        return snowflakeEnabled;
+    }
+    private void _mergeSnowflakeEnabled(AppConfig conf) {
+        if (!hasConfiguration(ID_GEN_SNOWFLAKE_ENABLED)) {
+            snowflakeEnabled = conf.snowflakeEnabled;
+        }
+    }
+
+    private String snowflakeLayout;
+    protected T snowflakeLayout(String layout) {
+        E.illegalArgumentIf(S.blank(layout));
+        this.snowflakeLayout = layout;
+        return me();
+    }
+    public String snowflakeLayout() {
+        if (null == snowflakeLayout) {
+            snowflakeLayout = get(ID_GEN_SNOWFLAKE_LAYOUT, "41,10,12");
+        }
+        return snowflakeLayout;
+    }
+    private void _mergeSnowflakeLayout(AppConfig conf) {
+        if (!hasConfiguration(ID_GEN_SNOWFLAKE_LAYOUT)) {
+            snowflakeLayout = conf.snowflakeLayout;
+        }
+    }
+
+    private volatile SnowflakeIdGenerator snowflakeIdGenerator;
+    /**
+     * Returns the {@link SnowflakeIdGenerator} built from {@link #snowflakeLayout()} and
+     * {@link #nodeIdProvider()}. The same instance is shared by app ID generation and
+     * {@link _SequenceNumberGenerator.SnowflakeSequenceNumberGenerator}
+     */
+    public SnowflakeIdGenerator snowflakeIdGenerator() {
+        if (null == snowflakeIdGenerator) {
+            synchronized (this) {
+                if (null == snowflakeIdGenerator) {
+                    snowflakeIdGenerator = SnowflakeIdGenerator.of(snowflakeLayout(), nodeIdProvider().nodeId());
+                }
+            }
+        }
+        return snowflakeIdGenerator;
+    }
+
     private String loginUrl = null;
     protected T loginUrl(String url) {
         E.illegalArgumentIf(!url.startsWith("/"), "login URL shall start with '/'");
@@ -1288,6 +1531,291 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
             jobPoolSize = conf.jobPoolSize;
         }
     }
+
+    private Boolean jobHistoryEnabled;
+    protected T jobHistoryEnabled(boolean enabled) {
+        this.jobHistoryEnabled = enabled;
+        return me();
+    }
+    public boolean jobHistoryEnabled() {
+        if (null == jobHistoryEnabled) {
+            jobHistoryEnabled = get(JOB_HISTORY_ENABLED, true);
+        }
+        return jobHistoryEnabled;
+    }
+    private void _mergeJobHistoryEnabled(AppConfig conf) {
+        if (!hasConfiguration(JOB_HISTORY_ENABLED)) {
+            jobHistoryEnabled = conf.jobHistoryEnabled;
+        }
+    }
+
+    private int jobHistorySize = -1;
+    protected T jobHistorySize(int size) {
+        E.illegalArgumentIf(size < 1, "job history size cannot be zero or negative number: %s", size);
+        this.jobHistorySize = size;
+        return me();
+    }
+    public int jobHistorySize() {
+        if (-1 == jobHistorySize) {
+            jobHistorySize = getInteger(JOB_HISTORY_SIZE, 64);
+        }
+        return jobHistorySize;
+    }
+    private void _mergeJobHistorySize(AppConfig conf) {
+        if (!hasConfiguration(JOB_HISTORY_SIZE)) {
+            jobHistorySize = conf.jobHistorySize;
+        }
+    }
+
+    private Boolean jobTimingWheelEnabled;
+    protected T jobTimingWheelEnabled(boolean enabled) {
+        this.jobTimingWheelEnabled = enabled;
+        return me();
+    }
+    public boolean jobTimingWheelEnabled() {
+        if (null == jobTimingWheelEnabled) {
+            jobTimingWheelEnabled = get(JOB_TIMING_WHEEL_ENABLED, false);
+        }
+        return jobTimingWheelEnabled;
+    }
+    private void _mergeJobTimingWheelEnabled(AppConfig conf) {
+        if (!hasConfiguration(JOB_TIMING_WHEEL_ENABLED)) {
+            jobTimingWheelEnabled = conf.jobTimingWheelEnabled;
+        }
+    }
+
+    private int jobTimingWheelTick = -1;
+    protected T jobTimingWheelTick(int ms) {
+        E.illegalArgumentIf(ms < 1, "timing wheel tick cannot be zero or negative number: %s", ms);
+        this.jobTimingWheelTick = ms;
+        return me();
+    }
+    public int jobTimingWheelTick() {
+        if (-1 == jobTimingWheelTick) {
+            jobTimingWheelTick = getInteger(JOB_TIMING_WHEEL_TICK, 10);
+        }
+        return jobTimingWheelTick;
+    }
+    private void _mergeJobTimingWheelTick(AppConfig conf) {
+        if (!hasConfiguration(JOB_TIMING_WHEEL_TICK)) {
+            jobTimingWheelTick = conf.jobTimingWheelTick;
+        }
+    }
+
+    private int jobTimingWheelSize = -1;
+    protected T jobTimingWheelSize(int size) {
+        E.illegalArgumentIf(size < 2, "timing wheel size cannot be less than 2: %s", size);
+        this.jobTimingWheelSize = size;
+        return me();
+    }
+    public int jobTimingWheelSize() {
+        if (-1 == jobTimingWheelSize) {
+            jobTimingWheelSize = getInteger(JOB_TIMING_WHEEL_SIZE, 512);
+        }
+        return jobTimingWheelSize;
+    }
+    private void _mergeJobTimingWheelSize(AppConfig conf) {
+        if (!hasConfiguration(JOB_TIMING_WHEEL_SIZE)) {
+            jobTimingWheelSize = conf.jobTimingWheelSize;
+        }
+    }
+
+    private int jobTimingWheelPoolSize = -1;
+    protected T jobTimingWheelPoolSize(int size) {
+        E.illegalArgumentIf(size < 1, "timing wheel pool size cannot be zero or negative number: %s", size);
+        this.jobTimingWheelPoolSize = size;
+        return me();
+    }
+    public int jobTimingWheelPoolSize() {
+        if (-1 == jobTimingWheelPoolSize) {
+            jobTimingWheelPoolSize = getInteger(JOB_TIMING_WHEEL_POOL_SIZE, jobPoolSize());
+        }
+        return jobTimingWheelPoolSize;
+    }
+    private void _mergeJobTimingWheelPoolSize(AppConfig conf) {
+        if (!hasConfiguration(JOB_TIMING_WHEEL_POOL_SIZE)) {
+            jobTimingWheelPoolSize = conf.jobTimingWheelPoolSize;
+        }
+    }
+
+    private Boolean jobStoreEnabled;
+    protected T jobStoreEnabled(boolean enabled) {
+        this.jobStoreEnabled = enabled;
+        return me();
+    }
+    public boolean jobStoreEnabled() {
+        if (null == jobStoreEnabled) {
+            jobStoreEnabled = get(JOB_STORE_ENABLED, false);
+        }
+        return jobStoreEnabled;
+    }
+    private void _mergeJobStoreEnabled(AppConfig conf) {
+        if (!hasConfiguration(JOB_STORE_ENABLED)) {
+            jobStoreEnabled = conf.jobStoreEnabled;
+        }
+    }
+
+    private String jobStoreFile;
+    protected T jobStoreFile(String file) {
+        E.illegalArgumentIf(S.blank(file));
+        this.jobStoreFile = file;
+        return me();
+    }
+    public String jobStoreFile() {
+        if (null == jobStoreFile) {
+            jobStoreFile = get(JOB_STORE_FILE, ".act.jobs");
+        }
+        return jobStoreFile;
+    }
+    private void _mergeJobStoreFile(AppConfig conf) {
+        if (!hasConfiguration(JOB_STORE_FILE)) {
+            jobStoreFile = conf.jobStoreFile;
+        }
+    }
+
+    private JobStore jobStore;
+    protected T jobStore(JobStore store) {
+        this.jobStore = $.NPE(store);
+        return me();
+    }
+    public JobStore jobStore() {
+        if (null == jobStore) {
+            jobStore = get(JOB_STORE, new FileJobStore());
+        }
+        return jobStore;
+    }
+    private void _mergeJobStore(AppConfig conf) {
+        if (!hasConfiguration(JOB_STORE)) {
+            jobStore = conf.jobStore;
+        }
+    }
+
+    private int jobStoreBatchSize = -1;
+    protected T jobStoreBatchSize(int size) {
+        E.illegalArgumentIf(size < 1, "job store batch size cannot be zero or negative number: %s", size);
+        this.jobStoreBatchSize = size;
+        return me();
+    }
+    public int jobStoreBatchSize() {
+        if (-1 == jobStoreBatchSize) {
+            jobStoreBatchSize = getInteger(JOB_STORE_BATCH_SIZE, 100);
+        }
+        return jobStoreBatchSize;
+    }
+    private void _mergeJobStoreBatchSize(AppConfig conf) {
+        if (!hasConfiguration(JOB_STORE_BATCH_SIZE)) {
+            jobStoreBatchSize = conf.jobStoreBatchSize;
+        }
+    }
+
+    private int jobStorePollInterval = -1;
+    protected T jobStorePollInterval(int ms) {
+        E.illegalArgumentIf(ms < 1, "job store poll interval cannot be zero or negative number: %s", ms);
+        this.jobStorePollInterval = ms;
+        return me();
+    }
+    public int jobStorePollInterval() {
+        if (-1 == jobStorePollInterval) {
+            jobStorePollInterval = getInteger(JOB_STORE_POLL_INTERVAL, 1000);
+        }
+        return jobStorePollInterval;
+    }
+    private void _mergeJobStorePollInterval(AppConfig conf) {
+        if (!hasConfiguration(JOB_STORE_POLL_INTERVAL)) {
+            jobStorePollInterval = conf.jobStorePollInterval;
+        }
+    }
+
+    private MisfirePolicy jobMisfirePolicy;
+    protected T jobMisfirePolicy(MisfirePolicy policy) {
+        this.jobMisfirePolicy = $.NPE(policy);
+        return me();
+    }
+    public MisfirePolicy jobMisfirePolicy() {
+        if (null == jobMisfirePolicy) {
+            Object o = get(JOB_MISFIRE_POLICY, MisfirePolicy.FIRE_NOW);
+            jobMisfirePolicy = o instanceof MisfirePolicy ? (MisfirePolicy) o : MisfirePolicy.valueOfIgnoreCase(S.string(o));
+            if (null == jobMisfirePolicy) {
+                throw new ConfigurationException("Unknown job misfire policy: %s", o);
+            }
+        }
+        return jobMisfirePolicy;
+    }
+    private void _mergeJobMisfirePolicy(AppConfig conf) {
+        if (!hasConfiguration(JOB_MISFIRE_POLICY)) {
+            jobMisfirePolicy = conf.jobMisfirePolicy;
+        }
+    }
+
+    private int jobMisfireThreshold = -1;
+    protected T jobMisfireThreshold(int seconds) {
+        E.illegalArgumentIf(seconds < 0, "job misfire threshold cannot be negative number: %s", seconds);
+        this.jobMisfireThreshold = seconds;
+        return me();
+    }
+    public int jobMisfireThreshold() {
+        if (-1 == jobMisfireThreshold) {
+            jobMisfireThreshold = getInteger(JOB_MISFIRE_THRESHOLD, 60);
+        }
+        return jobMisfireThreshold;
+    }
+    private void _mergeJobMisfireThreshold(AppConfig conf) {
+        if (!hasConfiguration(JOB_MISFIRE_THRESHOLD)) {
+            jobMisfireThreshold = conf.jobMisfireThreshold;
+        }
+    }
+
+    private Boolean jobLeaderElectionEnabled;
+    protected T jobLeaderElectionEnabled(boolean enabled) {
+        this.jobLeaderElectionEnabled = enabled;
+        return me();
+    }
+    public boolean jobLeaderElectionEnabled() {
+        if (null == jobLeaderElectionEnabled) {
+            jobLeaderElectionEnabled = get(JOB_LEADER_ELECTION_ENABLED, false);
+        }
+        return jobLeaderElectionEnabled;
+    }
+    private void _mergeJobLeaderElectionEnabled(AppConfig conf) {
+        if (!hasConfiguration(JOB_LEADER_ELECTION_ENABLED)) {
+            jobLeaderElectionEnabled = conf.jobLeaderElectionEnabled;
+        }
+    }
+
+    private JobLockProvider jobLockProvider;
+    protected T jobLockProvider(JobLockProvider provider) {
+        this.jobLockProvider = $.NPE(provider);
+        return me();
+    }
+    public JobLockProvider jobLockProvider() {
+        if (null == jobLockProvider) {
+            jobLockProvider = get(JOB_LOCK_PROVIDER, new JobLockProvider.LocalLockProvider());
+        }
+        return jobLockProvider;
+    }
+    private void _mergeJobLockProvider(AppConfig conf) {
+        if (!hasConfiguration(JOB_LOCK_PROVIDER)) {
+            jobLockProvider = conf.jobLockProvider;
+        }
+    }
+
+    private int jobLeaseTtl = -1;
+    protected T jobLeaseTtl(int seconds) {
+        E.illegalArgumentIf(seconds < 1, "job lease ttl cannot be zero or negative number: %s", seconds);
+        this.jobLeaseTtl = seconds;
+        return me();
+    }
+    public int jobLeaseTtl() {
+        if (-1 == jobLeaseTtl) {
+            jobLeaseTtl = getInteger(JOB_LEASE_TTL, 30);
+        }
+        return jobLeaseTtl;
+    }
+    private void _mergeJobLeaseTtl(AppConfig conf) {
+        if (!hasConfiguration(JOB_LEASE_TTL)) {
+            jobLeaseTtl = conf.jobLeaseTtl;
+        }
+    }
     
     private int httpExternalPort = -1;
     
@@ -1852,6 +2380,26 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private int pooledWriteLimit = -1;
+    protected T pooledWriteLimit(final int limit) {
+        E.illegalArgumentIf(limit < 0, "pooled write limit shall not be negative: %s", limit);
+        this.pooledWriteLimit = limit;
+        return me();
+    }
+    public int pooledWriteLimit() {
+        if (-1 == pooledWriteLimit) {
+            int limit = get(RESPONSE_POOLED_WRITE_LIMIT, 64 * 1024);
+            E.invalidConfigurationIf(limit < 0, "resp.pooled_write.limit shall not be negative: %s", limit);
+            pooledWriteLimit = limit;
+        }
+        return pooledWriteLimit;
+    }
+    private void _mergePooledWriteLimit(AppConfig config) {
+        if (!hasConfiguration(RESPONSE_POOLED_WRITE_LIMIT)) {
+            this.pooledWriteLimit = config.pooledWriteLimit;
+        }
+    }
+
     private Osgl.Func0<H.Format> jsonContentTypeProvider = null;
     private Boolean renderJsonIeFix = null;
     private H.Format jsonIE;
@@ -2478,6 +3026,109 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private int wsBroadcastBatchSize = -1;
+
+    protected T wsBroadcastBatchSize(int size) {
+        E.illegalArgumentIf(size < 1, "websocket broadcast batch size cannot be zero or negative number: %s", size);
+        this.wsBroadcastBatchSize = size;
+        return me();
+    }
+
+    public int wsBroadcastBatchSize() {
+        if (-1 == wsBroadcastBatchSize) {
+            wsBroadcastBatchSize = get(WS_BROADCAST_BATCH_SIZE, 256);
+        }
+        return wsBroadcastBatchSize;
+    }
+
+    private void _mergeWsBroadcastBatchSize(AppConfig config) {
+        if (!hasConfiguration(WS_BROADCAST_BATCH_SIZE)) {
+            wsBroadcastBatchSize = config.wsBroadcastBatchSize;
+        }
+    }
+
+    private int wsSendQueueMax = -1;
+
+    protected T wsSendQueueMax(int max) {
+        E.illegalArgumentIf(max < 1, "websocket send queue max cannot be zero or negative number: %s", max);
+        this.wsSendQueueMax = max;
+        return me();
+    }
+
+    public int wsSendQueueMax() {
+        if (-1 == wsSendQueueMax) {
+            wsSendQueueMax = get(WS_SEND_QUEUE_MAX, 128);
+        }
+        return wsSendQueueMax;
+    }
+
+    private void _mergeWsSendQueueMax(AppConfig config) {
+        if (!hasConfiguration(WS_SEND_QUEUE_MAX)) {
+            wsSendQueueMax = config.wsSendQueueMax;
+        }
+    }
+
+    private Boolean wsSlowConsumerCoalesce;
+
+    protected T wsSlowConsumerCoalesce(boolean enabled) {
+        this.wsSlowConsumerCoalesce = enabled;
+        return me();
+    }
+
+    public boolean wsSlowConsumerCoalesce() {
+        if (null == wsSlowConsumerCoalesce) {
+            wsSlowConsumerCoalesce = get(WS_SLOW_CONSUMER_COALESCE, true);
+        }
+        return wsSlowConsumerCoalesce;
+    }
+
+    private void _mergeWsSlowConsumerCoalesce(AppConfig config) {
+        if (!hasConfiguration(WS_SLOW_CONSUMER_COALESCE)) {
+            wsSlowConsumerCoalesce = config.wsSlowConsumerCoalesce;
+        }
+    }
+
+    private Boolean wsDeflateEnabled;
+
+    protected T wsDeflateEnable(boolean enabled) {
+        this.wsDeflateEnabled = enabled;
+        return me();
+    }
+
+    public boolean wsDeflateEnabled() {
+        if (null == wsDeflateEnabled) {
+            wsDeflateEnabled = get(WS_DEFLATE_ENABLED, false);
+        }
+        return wsDeflateEnabled;
+    }
+
+    private void _mergeWsDeflateEnabled(AppConfig config) {
+        if (!hasConfiguration(WS_DEFLATE_ENABLED)) {
+            wsDeflateEnabled = config.wsDeflateEnabled;
+        }
+    }
+
+    private int wsDeflateLevel = -1;
+
+    protected T wsDeflateLevel(int level) {
+        E.illegalArgumentIf(level < 1 || level > 9, "websocket deflate level shall be between 1 and 9: %s", level);
+        this.wsDeflateLevel = level;
+        return me();
+    }
+
+    public int wsDeflateLevel() {
+        if (-1 == wsDeflateLevel) {
+            wsDeflateLevel = get(WS_DEFLATE_LEVEL, 6);
+        }
+        return wsDeflateLevel;
+    }
+
+    private void _mergeWsDeflateLevel(AppConfig config) {
+        if (!hasConfiguration(WS_DEFLATE_LEVEL)) {
+            wsDeflateLevel = config.wsDeflateLevel;
+        }
+    }
+
     private Set<AppConfigurator> mergeTracker = C.newSet();
 
     public void loadJarProperties(Map<String, Properties> jarProperties) {
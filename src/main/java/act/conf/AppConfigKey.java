@@ -61,6 +61,16 @@ public enum AppConfigKey implements ConfigKey {
      */
     API_DOC_EABLED("api_doc.enabled"),
 
+    /**
+     * `act.async.timeout` specifies the maximum number of seconds to wait
+     * for a `CompletionStage` returned by an action handler to complete.
+     * When timed out the stage is cancelled and `504 Gateway Timeout` is
+     * sent back to the client
+     *
+     * Default value: `60`
+     */
+    ASYNC_TIMEOUT("async.timeout"),
+
     /**
      * {@code act.basic_authentication.enabled} turn on/off Basic Authentication
      * in Act application.
@@ -154,6 +164,34 @@ public enum AppConfigKey implements ConfigKey {
      */
     CLI_SESSION_MAX("cli.session.max.int"),
 
+    /**
+     * `cli.nio.enabled` turn on/off the selector based CLI transport.
+     *
+     * When enabled idle CLI sessions do not hold a thread, commands received
+     * from all sessions are dispatched to a bounded executor sized by
+     * {@link #CLI_NIO_EXECUTOR_SIZE}, and the number of connections is limited
+     * by {@link #CLI_NIO_SESSION_MAX} instead of {@link #CLI_SESSION_MAX}.
+     *
+     * Default value: `false`
+     */
+    CLI_NIO_ENABLED("cli.nio.enabled"),
+
+    /**
+     * `cli.nio.executor.size` specifies the number of threads executing
+     * CLI commands when {@link #CLI_NIO_ENABLED} is turned on
+     *
+     * Default value: the value of {@link #CLI_SESSION_MAX}
+     */
+    CLI_NIO_EXECUTOR_SIZE("cli.nio.executor.size.int"),
+
+    /**
+     * `cli.nio.session.max` specifies the maximum number of CLI connections
+     * can exists concurrently when {@link #CLI_NIO_ENABLED} is turned on
+     *
+     * Default value: `64`
+     */
+    CLI_NIO_SESSION_MAX("cli.nio.session.max.int"),
+
 
     /**
      * `act.cli_over_http.enabled` turn on/off CLI over http feature, which
@@ -193,6 +231,17 @@ public enum AppConfigKey implements ConfigKey {
      */
     CLI_OVER_HTTP_SYS_CMD("cli_over_http.syscmd.enabled"),
 
+    /**
+     * `act.clock.resolution` specifies the resolution in milliseconds of
+     * {@link act.util.CachedClock}, which is used to generate entity timestamps
+     * and to check session expiration.
+     *
+     * Set to `0` to read system time directly
+     *
+     * Default value: `1`
+     */
+    CLOCK_RESOLUTION("clock.resolution.int"),
+
     /**
      * `act.cookie.domain_provider.impl` specify the provider
      * that provides the cookie domain name
@@ -347,6 +396,44 @@ public enum AppConfigKey implements ConfigKey {
      */
     DB_SEQ_GENERATOR("db.seq_gen.impl"),
 
+    /**
+     * `act.db.seq_gen.block.size` specifies the number of sequence numbers
+     * reserved from the sequence generator in one call.
+     *
+     * When set to a number greater than `1` the configured sequence
+     * generator is wrapped with {@link act.db.util.HiLoSequenceNumberGenerator},
+     * which hands out numbers in the reserved block locally and prefetches
+     * the next block in background.
+     *
+     * Default value: `1`, i.e. block allocation disabled
+     */
+    DB_SEQ_GENERATOR_BLOCK_SIZE("db.seq_gen.block.size.int"),
+
+    /**
+     * `act.db.seq_gen.file` specifies the file used by
+     * {@link act.db.util._SequenceNumberGenerator.FileBasedSequenceNumberGenerator}
+     * to persist sequences.
+     *
+     * Default value: `.act.seq`
+     */
+    DB_SEQ_GENERATOR_FILE("db.seq_gen.file"),
+
+    /**
+     * `act.di.compiled.enabled` turns on compiled dependency injection.
+     *
+     * When enabled, the injection graph of all controllers is resolved and
+     * validated when app starts, and app fails to start on missing bindings.
+     * Dependent scoped beans with field injection only are then created
+     * through generated constructor accessors and pre-resolved field
+     * providers instead of going through the injector lookup on each call.
+     *
+     * Construction cost of compiled beans can be inspected with the
+     * `act.inject.cost` CLI command
+     *
+     * Default value: `false`
+     */
+    DI_COMPILED_ENABLED("di.compiled.enabled"),
+
     /**
      * `dsp.token` specifies the name of "double submission protect token"
      *
@@ -568,6 +655,26 @@ public enum AppConfigKey implements ConfigKey {
      */
     ID_GEN_LONG_ENCODER("idgen.encoder.impl"),
 
+    /**
+     * {@code act.idgen.snowflake.enabled} turns on 64 bit timestamp/node/sequence ID
+     * generation with {@link act.util.SnowflakeIdGenerator} for {@link App#idGenerator}.
+     *
+     * When enabled the start ID provider and sequence ID provider are not used, and
+     * the node ID must fit in the node bits specified by {@link #ID_GEN_SNOWFLAKE_LAYOUT},
+     * otherwise the app fails to start. As the default IP based node ID does not fit,
+     * an explicit {@link #ID_GEN_NODE_ID_PROVIDER node ID provider} that returns a
+     * distinct ID for each node shall be configured
+     * <p>Default value: {@code false}</p>
+     */
+    ID_GEN_SNOWFLAKE_ENABLED("idgen.snowflake.enabled"),
+
+    /**
+     * {@code act.idgen.snowflake.layout} specifies the number of timestamp, node and sequence
+     * bits of {@link act.util.SnowflakeIdGenerator}. The sum of the three numbers shall be 63
+     * <p>Default value: {@code 41,10,12}</p>
+     */
+    ID_GEN_SNOWFLAKE_LAYOUT("idgen.snowflake.layout"),
+
     /**
      * {@code job.pool.size} specifies the maximum number of threads
      * can exists in the application's job manager's thread pool
@@ -575,6 +682,150 @@ public enum AppConfigKey implements ConfigKey {
      */
     JOB_POOL_SIZE("job.pool.size"),
 
+    /**
+     * `job.history.enabled` turns on job execution history tracking.
+     *
+     * When enabled, each scheduled job keeps the most recent executions
+     * and a duration histogram, which can be inspected through the
+     * `act.job.history` CLI command or, in dev mode, the
+     * `/~/job/history` endpoint.
+     *
+     * Default value: `true`
+     */
+    JOB_HISTORY_ENABLED("job.history.enabled"),
+
+    /**
+     * `job.history.size` specifies the number of recent executions
+     * kept for each job. The value will be rounded up to the power of 2
+     *
+     * Default value: `64`
+     */
+    JOB_HISTORY_SIZE("job.history.size"),
+
+    /**
+     * `job.leader_election.enabled` turns on lease based leader election
+     * for singleton jobs, i.e. jobs scheduled through `@Cron`, `@Every`
+     * and `@FixedDelay` annotations.
+     *
+     * When enabled, only the node holding the leader lease (acquired through
+     * {@link #JOB_LOCK_PROVIDER}) will execute singleton jobs.
+     *
+     * Default value: `false`
+     */
+    JOB_LEADER_ELECTION_ENABLED("job.leader_election.enabled"),
+
+    /**
+     * `job.lease.ttl` specifies the leader lease time to live in seconds.
+     *
+     * The leader renews the lease three times within this period.
+     *
+     * Default value: `30`
+     */
+    JOB_LEASE_TTL("job.lease.ttl"),
+
+    /**
+     * `job.lock_provider.impl` specifies the {@link act.job.JobLockProvider}
+     * implementation used for leader election.
+     *
+     * Default value: {@link act.job.JobLockProvider.LocalLockProvider}
+     */
+    JOB_LOCK_PROVIDER("job.lock_provider.impl"),
+
+    /**
+     * `job.misfire.policy` specifies the {@link act.job.MisfirePolicy}
+     * applied to durable jobs that missed their fire time by more than
+     * {@link #JOB_MISFIRE_THRESHOLD}, e.g. because the app was down.
+     *
+     * Default value: `FIRE_NOW`
+     */
+    JOB_MISFIRE_POLICY("job.misfire.policy"),
+
+    /**
+     * `job.misfire.threshold` specifies the number of seconds a durable job
+     * can be late before it is considered to be misfired.
+     *
+     * Default value: `60`
+     */
+    JOB_MISFIRE_THRESHOLD("job.misfire.threshold"),
+
+    /**
+     * `job.store.enabled` turns on durable job store. When enabled,
+     * {@link java.io.Serializable serializable} runnables scheduled
+     * through `AppJobManager.delay(...)` and `AppJobManager.on(DateTime, ...)`
+     * are persisted into {@link #JOB_STORE} and survive app restart.
+     * Use `AppJobManager.delayJob(...)` or `AppJobManager.scheduleAt(...)`
+     * to get the ID of the durable job, which could be used to cancel
+     * the job.
+     *
+     * Default value: `false`
+     */
+    JOB_STORE_ENABLED("job.store.enabled"),
+
+    /**
+     * `job.store.impl` specifies the {@link act.job.JobStore} implementation.
+     *
+     * Default value: {@link act.job.FileJobStore}
+     */
+    JOB_STORE("job.store.impl"),
+
+    /**
+     * `job.store.batch.size` specifies the maximum number of due jobs
+     * to be claimed from {@link #JOB_STORE} in one poll.
+     *
+     * Default value: `100`
+     */
+    JOB_STORE_BATCH_SIZE("job.store.batch.size"),
+
+    /**
+     * `job.store.file` specifies the file used by {@link act.job.FileJobStore}.
+     *
+     * Default value: `.act.jobs`
+     */
+    JOB_STORE_FILE("job.store.file"),
+
+    /**
+     * `job.store.poll_interval` specifies the interval in milliseconds
+     * the job manager polls {@link #JOB_STORE} for due jobs.
+     *
+     * Default value: `1000`
+     */
+    JOB_STORE_POLL_INTERVAL("job.store.poll_interval"),
+
+    /**
+     * `job.timing_wheel.enabled` turns on the hashed hierarchical timing wheel
+     * scheduler for delayed and periodical jobs, which provides `O(1)` schedule
+     * and cancel operations at the price of timing resolution.
+     *
+     * Default value: `false`
+     *
+     * @see act.job.TimingWheelScheduler
+     */
+    JOB_TIMING_WHEEL_ENABLED("job.timing_wheel.enabled"),
+
+    /**
+     * `job.timing_wheel.pool.size` specifies the number of threads in the
+     * timing wheel scheduler's execution pool.
+     *
+     * Default value: the value of {@link #JOB_POOL_SIZE}
+     */
+    JOB_TIMING_WHEEL_POOL_SIZE("job.timing_wheel.pool.size"),
+
+    /**
+     * `job.timing_wheel.size` specifies the number of buckets per wheel
+     * of the timing wheel scheduler. The number is rounded up to power of 2.
+     *
+     * Default value: `512`
+     */
+    JOB_TIMING_WHEEL_SIZE("job.timing_wheel.size"),
+
+    /**
+     * `job.timing_wheel.tick` specifies the tick duration, in milliseconds,
+     * of the timing wheel scheduler.
+     *
+     * Default value: `10`
+     */
+    JOB_TIMING_WHEEL_TICK("job.timing_wheel.tick"),
+
     /**
      * `jwt.enabled`, toggle JWT (JSON Web Token) support.
      *
@@ -704,6 +955,19 @@ public enum AppConfigKey implements ConfigKey {
      */
     REQUEST_THROTTLE_EXPIRE_SCALE("req.throttle.expire.scale.enabled"),
 
+    /**
+     * `resp.pooled_write.limit` specifies the maximum size of response
+     * content that is encoded into buffers taken from the server's buffer
+     * pool and sent without switching the exchange into blocking mode.
+     * Text content is measured in characters, binary content in bytes.
+     *
+     * Content exceeding the limit is written with the default sender.
+     * Set to `0` to disable pooled writing
+     *
+     * Default value: `65536`
+     */
+    RESPONSE_POOLED_WRITE_LIMIT("resp.pooled_write.limit.int"),
+
     /**
      * `render.json.output_charset`
      *
@@ -984,6 +1248,21 @@ public enum AppConfigKey implements ConfigKey {
      */
     VIEW_DEFAULT("view.default"),
 
+    /**
+     * `act.view.streaming.enabled` turns on streaming template output.
+     *
+     * When enabled, templates are rendered directly into the response
+     * writer instead of being buffered into a string first, so the client
+     * starts receiving content before the whole page is rendered.
+     *
+     * Note when streaming is enabled, a template error happening after
+     * content has been flushed cannot be turned into an error page.
+     * Responses subject to action cache are always buffered.
+     *
+     * Default value: `false`
+     */
+    VIEW_STREAMING_ENABLED("view.streaming.enabled"),
+
     /**
      * `ws.key.ticket`
      *
@@ -993,6 +1272,50 @@ public enum AppConfigKey implements ConfigKey {
      */
     WS_KEY_TICKET("ws.key.ticket"),
 
+    /**
+     * `ws.broadcast.batch.size` specifies the number of connections
+     * a broadcast message is sent to in one task on an IO thread
+     *
+     * Default value: `256`
+     */
+    WS_BROADCAST_BATCH_SIZE("ws.broadcast.batch.size.int"),
+
+    /**
+     * `ws.send.queue.max` specifies the maximum number of broadcast messages
+     * pending on a websocket connection. Once exceeded the connection is
+     * considered to be a slow consumer, and new broadcast messages are
+     * dropped or coalesced depending on {@link #WS_SLOW_CONSUMER_COALESCE}
+     *
+     * Default value: `128`
+     */
+    WS_SEND_QUEUE_MAX("ws.send.queue.max.int"),
+
+    /**
+     * `ws.slow_consumer.coalesce.enabled` specifies how to deal with broadcast
+     * messages to a slow consumer. When enabled, only the latest message is kept
+     * and sent once the pending queue drains, otherwise the messages are dropped
+     *
+     * Default value: `true`
+     */
+    WS_SLOW_CONSUMER_COALESCE("ws.slow_consumer.coalesce.enabled"),
+
+    /**
+     * `ws.deflate.enabled` turn on/off the permessage-deflate websocket
+     * extension. When turned on the extension is offered to clients asking
+     * for it during handshake
+     *
+     * Default value: `false`
+     */
+    WS_DEFLATE_ENABLED("ws.deflate.enabled"),
+
+    /**
+     * `ws.deflate.level` specifies the compression level (1 - 9) of
+     * the permessage-deflate websocket extension
+     *
+     * Default value: `6`
+     */
+    WS_DEFLATE_LEVEL("ws.deflate.level.int"),
+
     X_FORWARD_PROTOCOL("x_forward_protocol"),
 
     ;
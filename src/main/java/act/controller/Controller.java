@@ -1057,6 +1057,13 @@ public @interface Controller {
                     }
                     PropertySpec.MetaInfo propertySpec = PropertySpec.MetaInfo.withCurrent(meta, context);
                     try {
+                        JsonEndpointSerializer serializer = meta.jsonSerializer();
+                        if (null != serializer) {
+                            byte[] json = serializer.serialize(v, propertySpec, context);
+                            if (null != json) {
+                                return new RenderJsonBytes(status, json);
+                            }
+                        }
                         if (null == propertySpec) {
                             return RenderJSON.of(status, v);
                         }
@@ -324,8 +324,11 @@ public class ResponseCache extends ActResponse implements Serializable {
 
     @Override
     public H.Response writeContent(ByteBuffer buffer) {
+        ByteBuffer copy = buffer.duplicate();
+        byte[] ba = new byte[copy.remaining()];
+        copy.get(ba);
+        this.binary = ba;
         realResponse.writeContent(buffer);
-        // we don't cache the byte buffer
         return this;
     }
 
@@ -334,4 +337,11 @@ public class ResponseCache extends ActResponse implements Serializable {
         realResponse.commit();
     }
 
+    @Override
+    public void onClientDisconnect(Runnable callback) {
+        if (realResponse instanceof ActResponse) {
+            ((ActResponse) realResponse).onClientDisconnect(callback);
+        }
+    }
+
 }
@@ -28,16 +28,20 @@ import act.cli.CliOverHttpContext;
 import act.conf.AppConfig;
 import act.controller.Controller;
 import act.handler.CliHandler;
+import act.view.ActErrorResult;
 import org.osgl.http.H;
 import org.osgl.mvc.annotation.Before;
 import org.osgl.mvc.annotation.GetAction;
 import org.osgl.mvc.annotation.PostAction;
 import org.osgl.mvc.result.Result;
 import org.osgl.util.C;
+import org.osgl.util.IO;
 
 import javax.inject.Inject;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import static act.controller.Controller.Util.*;
@@ -79,15 +83,8 @@ public class CliOverHttp {
     }
 
     @PostAction("cmd")
-    public Result run(String cmd, ActionContext context) throws IOException {
-        CliHandler handler = handler(cmd);
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-        CliContext cliContext = new CliOverHttpContext(context, os);
-        handler.handle(cliContext);
-        cliContext.flush();
-        String txt = new String(os.toByteArray(), "UTF-8");
-        txt = txt.replace("^J", "\n");
-        return text(txt);
+    public Result run(String cmd, ActionContext context) {
+        return new CliOutput(handler(cmd), context);
     }
 
     private List<String> mru() {
@@ -115,4 +112,176 @@ public class CliOverHttp {
     }
 
 
+    /**
+     * Streams the command output to the response, so large result
+     * is sent to client page by page instead of buffered in memory.
+     *
+     * The first {@link #FIRST_OUTPUT_LIMIT} bytes are buffered, so a command
+     * failing before it produces that much output is reported with an error
+     * status instead of a committed `200 OK`
+     */
+    private static class CliOutput extends Result {
+
+        private static final int FIRST_OUTPUT_LIMIT = 8 * 1024;
+
+        private CliHandler handler;
+        private ActionContext context;
+
+        CliOutput(CliHandler handler, ActionContext context) {
+            super(H.Status.OK);
+            this.handler = handler;
+            this.context = context;
+        }
+
+        @Override
+        protected void applyMessage(H.Request request, H.Response response) {
+            this.applyBeforeCommitHandler(request, response);
+            DeferredOutputStream deferred = new DeferredOutputStream(response, FIRST_OUTPUT_LIMIT);
+            OutputStream os = new LineFeedOutputStream(deferred);
+            try {
+                CliContext cliContext = new CliOverHttpContext(context, os);
+                handler.handle(cliContext);
+                cliContext.flush();
+            } catch (RuntimeException e) {
+                if (deferred.committed()) {
+                    IO.close(os);
+                    throw e;
+                }
+                // nothing has been sent yet, discard the output and report the error
+                ActErrorResult.of(e).apply(request, response);
+                return;
+            }
+            IO.close(os);
+            this.applyAfterCommitHandler(request, response);
+        }
+    }
+
+    /**
+     * Buffers output until the limit is reached or the stream is closed,
+     * the response is committed only then. Flush before that is ignored
+     */
+    private static class DeferredOutputStream extends OutputStream {
+
+        private final H.Response response;
+        private final int limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream out;
+
+        DeferredOutputStream(H.Response response, int limit) {
+            this.response = response;
+            this.limit = limit;
+        }
+
+        boolean committed() {
+            return null != out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (null != out) {
+                out.write(b);
+                return;
+            }
+            buffer.write(b);
+            if (buffer.size() >= limit) {
+                commit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (null != out) {
+                out.write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() >= limit) {
+                commit();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (null != out) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (null == out) {
+                commit();
+            }
+            out.close();
+        }
+
+        private void commit() throws IOException {
+            response.contentType(H.Format.TXT.contentType());
+            out = response.outputStream();
+            buffer.writeTo(out);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Translate the `^J` printed by jline console into line feed
+     */
+    static class LineFeedOutputStream extends FilterOutputStream {
+
+        private boolean caret;
+
+        LineFeedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (caret) {
+                caret = false;
+                if (b == 'J') {
+                    out.write('\n');
+                    return;
+                }
+                out.write('^');
+            }
+            if (b == '^') {
+                caret = true;
+                return;
+            }
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // write the runs between carets in bulk instead of byte by byte
+            int start = off, end = off + len;
+            for (int i = off; i < end; ++i) {
+                byte c = b[i];
+                if (caret) {
+                    caret = false;
+                    if (c == 'J') {
+                        out.write('\n');
+                        start = i + 1;
+                        continue;
+                    }
+                    out.write('^');
+                }
+                if (c == '^') {
+                    out.write(b, start, i - start);
+                    caret = true;
+                    start = i + 1;
+                }
+            }
+            out.write(b, start, end - start);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (caret) {
+                caret = false;
+                out.write('^');
+            }
+            super.close();
+        }
+    }
 }
@@ -33,6 +33,7 @@ import org.osgl.util.C;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.util.Map;
+import java.util.Set;
 
 import static act.Destroyable.Util.destroyAll;
 
@@ -68,6 +69,13 @@ public class ControllerClassMetaInfoManager extends DestroyableBase {
         return controllers.get(className);
     }
 
+    /**
+     * Returns names of all registered controller classes
+     */
+    public Set<String> controllerClassNames() {
+        return controllers.keySet();
+    }
+
     public void mergeActionMetaInfo(App app) {
         for (ControllerClassMetaInfo info : controllers.values()) {
             info.merge(this, app);
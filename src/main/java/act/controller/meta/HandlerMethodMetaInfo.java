@@ -29,6 +29,7 @@ import act.sys.meta.ReturnTypeInfo;
 import act.util.DestroyableBase;
 import act.util.Prioritised;
 import act.util.PropertySpec;
+import act.view.JsonEndpointSerializer;
 import org.osgl.$;
 import org.osgl.util.C;
 import org.osgl.util.E;
@@ -51,6 +52,7 @@ public abstract class HandlerMethodMetaInfo<T extends HandlerMethodMetaInfo> ext
     private boolean throwRenderResult;
     private PropertySpec.MetaInfo propertySpec;
     private boolean disableJsonCircularRefDetect = false;
+    private JsonEndpointSerializer jsonSerializer;
     private Map<Label, Map<Integer, LocalVariableMetaInfo>> locals = C.newMap();
     private int appCtxLVT_id = -1;
     private int ctxParamCnt = -1;
@@ -169,6 +171,20 @@ public abstract class HandlerMethodMetaInfo<T extends HandlerMethodMetaInfo> ext
         return propertySpec;
     }
 
+    public HandlerMethodMetaInfo jsonSerializer(JsonEndpointSerializer serializer) {
+        this.jsonSerializer = serializer;
+        return this;
+    }
+
+    /**
+     * Returns the {@link JsonEndpointSerializer} prepared for this handler
+     * method, or `null` if the handler's result shall be rendered with the
+     * generic JSON rendering
+     */
+    public JsonEndpointSerializer jsonSerializer() {
+        return jsonSerializer;
+    }
+
     public T setThrowRenderResult() {
         this.throwRenderResult = true;
         return me();
@@ -21,9 +21,15 @@ package act.data;
  */
 
 import act.app.App;
+import act.app.AppClassLoader;
 import act.app.AppServiceBase;
 import act.util.ActContext;
 import act.util.PropertySpec;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
 import org.joda.time.*;
 import org.osgl.$;
 import org.osgl.logging.LogManager;
@@ -31,12 +37,15 @@ import org.osgl.logging.Logger;
 import org.osgl.util.C;
 import org.rythmengine.utils.S;
 
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Keep the property information of Data class
@@ -58,10 +67,20 @@ public class DataPropertyRepository extends AppServiceBase<DataPropertyRepositor
     /**
      * Map a list of property path to class name
      */
-    private Map<String, List<String>> repo = C.newMap();
+    private ConcurrentMap<String, List<String>> repo = new ConcurrentHashMap<>();
 
     private OutputFieldsCache outputFieldsCache = new OutputFieldsCache();
 
+    /**
+     * Map property path list to extractor by bean class
+     */
+    private ConcurrentMap<Class<?>, ConcurrentMap<List<String>, PropertyExtractor>> extractors = new ConcurrentHashMap<>();
+
+    /**
+     * Map bean class to whether it can be written as plain JSON properties
+     */
+    private ConcurrentMap<Class<?>, Boolean> plainJsonBeanTypes = new ConcurrentHashMap<>();
+
     public DataPropertyRepository(App app) {
         super(app, true);
         _init();
@@ -72,6 +91,8 @@ public class DataPropertyRepository extends AppServiceBase<DataPropertyRepositor
         extendedTerminators.clear();
         terminators.clear();
         repo.clear();
+        extractors.clear();
+        plainJsonBeanTypes.clear();
     }
 
     /**
@@ -79,15 +100,115 @@ public class DataPropertyRepository extends AppServiceBase<DataPropertyRepositor
      * @param c the class
      * @return the property list of the class
      */
-    public synchronized List<String> propertyListOf(Class<?> c) {
+    public List<String> propertyListOf(Class<?> c) {
         String cn = c.getName();
         List<String> ls = repo.get(cn);
         if (ls != null) {
             return ls;
         }
         ls = buildPropertyList(c);
-        repo.put(cn, ls);
-        return ls;
+        List<String> existing = repo.putIfAbsent(cn, ls);
+        return null == existing ? ls : existing;
+    }
+
+    /**
+     * Returns a {@link PropertyExtractor} that extracts the property paths
+     * specified from beans of the class specified
+     *
+     * @param c the bean class
+     * @param paths the property paths, e.g. `name`, `address.city`
+     * @return the property extractor
+     */
+    public PropertyExtractor extractor(Class<?> c, List<String> paths) {
+        ConcurrentMap<List<String>, PropertyExtractor> byPaths = extractors.get(c);
+        if (null == byPaths) {
+            ConcurrentMap<List<String>, PropertyExtractor> newMap = new ConcurrentHashMap<>();
+            byPaths = extractors.putIfAbsent(c, newMap);
+            if (null == byPaths) {
+                byPaths = newMap;
+            }
+        }
+        PropertyExtractor extractor = byPaths.get(paths);
+        if (null == extractor) {
+            List<String> key = C.list(paths);
+            extractor = newExtractor(c, key);
+            PropertyExtractor existing = byPaths.putIfAbsent(key, extractor);
+            if (null != existing) {
+                extractor = existing;
+            }
+        }
+        return extractor;
+    }
+
+    /**
+     * Check if a class can be decomposed into properties, i.e. it is not a
+     * simple type, a terminator type, a map, an iterable or an array
+     *
+     * @param c the class
+     * @return `true` if the class is a bean type
+     */
+    public boolean isBeanType(Class<?> c) {
+        return !($.isSimpleType(c) || c.isArray() || c.isEnum()
+                || Map.class.isAssignableFrom(c) || Iterable.class.isAssignableFrom(c)
+                || terminators.contains(c) || extendedTerminators.contains(c.getName()));
+    }
+
+    /**
+     * Check if a class is a {@link #isBeanType(Class) bean type} that
+     * is serialized by fastjson as plain properties, i.e. it has neither
+     * a custom serializer nor fastjson annotations
+     *
+     * @param c the class
+     * @return `true` if the class is a plain JSON bean type
+     */
+    public boolean isPlainJsonBeanType(Class<?> c) {
+        Boolean b = plainJsonBeanTypes.get(c);
+        if (null == b) {
+            b = isBeanType(c) && !hasCustomSerializer(c) && !hasJsonAnnotation(c);
+            plainJsonBeanTypes.putIfAbsent(c, b);
+        }
+        return b;
+    }
+
+    private static boolean hasCustomSerializer(Class<?> type) {
+        ObjectSerializer serializer = SerializeConfig.getGlobalInstance().get(type);
+        return null != serializer && !(serializer instanceof JavaBeanSerializer);
+    }
+
+    private static boolean hasJsonAnnotation(Class<?> type) {
+        while (null != type && Object.class != type) {
+            if (type.isAnnotationPresent(JSONType.class)
+                    || hasJsonField(type.getDeclaredMethods())
+                    || hasJsonField(type.getDeclaredFields())) {
+                return true;
+            }
+            type = type.getSuperclass();
+        }
+        return false;
+    }
+
+    private static boolean hasJsonField(AccessibleObject[] members) {
+        for (AccessibleObject member : members) {
+            if (member.isAnnotationPresent(JSONField.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PropertyExtractor newExtractor(Class<?> c, List<String> paths) {
+        AppClassLoader classLoader = app().classLoader();
+        if (null != classLoader && PropertyExtractorGenerator.applicable(c)) {
+            try {
+                PropertyExtractorGenerator generator = new PropertyExtractorGenerator(c, paths);
+                byte[] bytecode = generator.generateByteCode();
+                Class<?> extractorClass = classLoader.defineClass(generator.className(), bytecode, 0, bytecode.length, true);
+                return ((PropertyExtractor) extractorClass.newInstance()).init(c, paths);
+            } catch (Exception | LinkageError e) {
+                LOGGER.warn(e, "Error generating property extractor for %s, fall back to reflective extractor", c);
+            }
+        }
+        return new PropertyExtractor.Reflective().init(c, paths);
     }
 
     public List<String> outputFields(PropertySpec.MetaInfo spec, Class<?> componentClass, ActContext context) {
@@ -0,0 +1,170 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.StringValueResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolve enum constants by name through a precomputed perfect hash table.
+ *
+ * When the resolver is created it searches a table size and hash seed that
+ * map every constant name into a distinct slot, so that resolving a name
+ * takes one hash computation and one comparison without allocating a string.
+ * If no such table is found within bounded attempts it falls back to a
+ * hash map lookup.
+ *
+ * @param <E> the enum type
+ */
+public class EnumResolver<E extends Enum<E>> extends StringValueResolver<E> {
+
+    private static final int MAX_SEEDS = 64;
+
+    private final Class<E> enumType;
+    private final boolean caseSensitive;
+
+    private int seed;
+    private int mask;
+    private String[] names;
+    private E[] constants;
+
+    // fallback when no perfect hash found
+    private Map<String, E> lookup;
+
+    public EnumResolver(Class<E> enumType, boolean caseSensitive) {
+        super(enumType);
+        this.enumType = enumType;
+        this.caseSensitive = caseSensitive;
+        build(enumType.getEnumConstants());
+    }
+
+    @Override
+    public E resolve(String value) {
+        if (null == value) {
+            return null;
+        }
+        E e = resolve(value, 0, value.length());
+        if (null == e && caseSensitive) {
+            // keep the behavior of Enum.valueOf
+            throw new IllegalArgumentException("No enum constant " + enumType.getName() + "." + value);
+        }
+        return e;
+    }
+
+    /**
+     * Resolve enum constant from the range of the char sequence
+     *
+     * @param s the char sequence
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the enum constant or `null` if not found
+     */
+    public E resolve(CharSequence s, int from, int to) {
+        if (null != lookup) {
+            String key = s.subSequence(from, to).toString();
+            return lookup.get(caseSensitive ? key : key.toLowerCase());
+        }
+        int slot = hash(s, from, to, seed) & mask;
+        String name = names[slot];
+        return null != name && matches(name, s, from, to) ? constants[slot] : null;
+    }
+
+    /**
+     * Check if a perfect hash table is used
+     * @return `true` if this resolver uses perfect hash table
+     */
+    public boolean isPerfectHash() {
+        return null == lookup;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void build(E[] values) {
+        int n = values.length;
+        int minSize = Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1;
+        for (int size = minSize; size <= minSize * 8; size <<= 1) {
+            for (int seed = 1; seed <= MAX_SEEDS; ++seed) {
+                String[] names = new String[size];
+                E[] constants = (E[]) new Enum[size];
+                if (place(values, names, constants, seed, size - 1)) {
+                    this.seed = seed;
+                    this.mask = size - 1;
+                    this.names = names;
+                    this.constants = constants;
+                    return;
+                }
+            }
+        }
+        lookup = new HashMap<>();
+        for (E e : values) {
+            String name = e.name();
+            lookup.put(caseSensitive ? name : name.toLowerCase(), e);
+        }
+    }
+
+    private boolean place(E[] values, String[] names, E[] constants, int seed, int mask) {
+        for (E e : values) {
+            String name = e.name();
+            int slot = hash(name, 0, name.length(), seed) & mask;
+            if (null != names[slot]) {
+                return false;
+            }
+            names[slot] = name;
+            constants[slot] = e;
+        }
+        return true;
+    }
+
+    private int hash(CharSequence s, int from, int to, int seed) {
+        int h = seed;
+        for (int i = from; i < to; ++i) {
+            h = h * 31 + fold(s.charAt(i));
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean matches(String name, CharSequence s, int from, int to) {
+        int len = name.length();
+        if (len != to - from) {
+            return false;
+        }
+        for (int i = 0; i < len; ++i) {
+            char c = s.charAt(from + i);
+            char n = name.charAt(i);
+            if (c != n && (caseSensitive || fold(c) != fold(n))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char fold(char c) {
+        if (caseSensitive) {
+            return c;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        return c < 128 ? c : Character.toLowerCase(c);
+    }
+}
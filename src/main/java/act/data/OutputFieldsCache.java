@@ -29,13 +29,14 @@ import org.osgl.util.C;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 class OutputFieldsCache {
 
-    // Key to index final output fields. Key includes:
+    // Parameters to calculate final output fields:
     // 1. excluded - developer declared excluded field list
     // 2. outputs - developer declared output field list
     // 3. component type - the type of the entity where field data get extracted
@@ -48,35 +49,28 @@ class OutputFieldsCache {
             outputs = ls;
             this.componentType = componentType;
         }
-
-        @Override
-        public int hashCode() {
-            return $.hc(excluded, outputs, componentType);
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (obj == this) {
-                return true;
-            }
-            if (obj instanceof K) {
-                K that = (K) obj;
-                return $.eq(that.excluded, this.excluded)
-                        && $.eq(that.outputs, this.outputs)
-                        && $.eq(that.componentType, this.componentType);
-            }
-            return false;
-        }
     }
 
-    private Map<K, List<String>> cache = C.newMap();
+    // final output fields indexed by component type and then the spec applied
+    private ConcurrentMap<Class<?>, ConcurrentMap<Object, List<String>>> cache = new ConcurrentHashMap<>();
 
     public List<String> getOutputFields(PropertySpec.MetaInfo spec, Class<?> componentClass, ActContext context) {
-        K k = new K(spec.excludedFields(context), spec.outputFields(context), componentClass);
-        List<String> outputs = cache.get(k);
+        ConcurrentMap<Object, List<String>> bySpec = cache.get(componentClass);
+        if (null == bySpec) {
+            ConcurrentMap<Object, List<String>> newMap = new ConcurrentHashMap<>();
+            bySpec = cache.putIfAbsent(componentClass, newMap);
+            if (null == bySpec) {
+                bySpec = newMap;
+            }
+        }
+        Object specKey = spec.cacheKey(context);
+        List<String> outputs = bySpec.get(specKey);
         if (null == outputs) {
-            outputs = calculateOutputs(k);
-            cache.put(k, outputs);
+            outputs = calculateOutputs(new K(spec.excludedFields(context), spec.outputFields(context), componentClass));
+            List<String> existing = bySpec.putIfAbsent(specKey, outputs);
+            if (null != existing) {
+                outputs = existing;
+            }
         }
         return outputs;
     }
@@ -0,0 +1,318 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.StringValueResolver;
+
+import java.util.Map;
+
+/**
+ * String value resolvers of primitive and primitive wrapper types.
+ *
+ * The resolvers parse values from a range of a `CharSequence` without
+ * creating substrings. Resolved values are still returned as wrapper
+ * objects. The {@link StringValueResolver} implementations registered by
+ * {@link #register(Map)} take the fast path for plain decimal and
+ * `true`/`false` values and fall back to the original resolver for
+ * everything else, e.g. blank values or values with spaces.
+ */
+public final class PrimitiveResolvers {
+
+    private PrimitiveResolvers() {
+    }
+
+    /**
+     * Wrap the predefined resolvers of primitive and primitive wrapper types
+     * in the resolver map with the fast resolvers of this class
+     *
+     * @param resolvers the resolver map
+     */
+    @SuppressWarnings("unchecked")
+    public static void register(Map<Class, StringValueResolver> resolvers) {
+        wrap(resolvers, int.class, new IntValueResolver(int.class, resolvers.get(int.class)));
+        wrap(resolvers, Integer.class, new IntValueResolver(Integer.class, resolvers.get(Integer.class)));
+        wrap(resolvers, long.class, new LongValueResolver(long.class, resolvers.get(long.class)));
+        wrap(resolvers, Long.class, new LongValueResolver(Long.class, resolvers.get(Long.class)));
+        wrap(resolvers, short.class, new ShortValueResolver(short.class, resolvers.get(short.class)));
+        wrap(resolvers, Short.class, new ShortValueResolver(Short.class, resolvers.get(Short.class)));
+        wrap(resolvers, byte.class, new ByteValueResolver(byte.class, resolvers.get(byte.class)));
+        wrap(resolvers, Byte.class, new ByteValueResolver(Byte.class, resolvers.get(Byte.class)));
+        wrap(resolvers, boolean.class, new BooleanValueResolver(boolean.class, resolvers.get(boolean.class)));
+        wrap(resolvers, Boolean.class, new BooleanValueResolver(Boolean.class, resolvers.get(Boolean.class)));
+    }
+
+    private static void wrap(Map<Class, StringValueResolver> resolvers, Class type, FastResolver resolver) {
+        if (null != resolver.fallback) {
+            resolvers.put(type, resolver);
+        }
+    }
+
+    /**
+     * Resolve the range of the string with the resolver.
+     *
+     * If the resolver is registered by {@link #register(Map)} or an
+     * {@link EnumResolver}, and the range is a plain value, the value is
+     * parsed without creating a substring. Otherwise the substring is passed
+     * to {@link StringValueResolver#resolve(String)}
+     *
+     * @param resolver the resolver
+     * @param s the string
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the resolved value
+     */
+    public static Object resolve(StringValueResolver resolver, String s, int from, int to) {
+        if (resolver instanceof FastResolver) {
+            Object o = ((FastResolver) resolver).resolve(s, from, to);
+            if (null != o) {
+                return o;
+            }
+        } else if (resolver instanceof EnumResolver) {
+            Object e = ((EnumResolver) resolver).resolve(s, from, to);
+            if (null != e) {
+                return e;
+            }
+        }
+        return resolver.resolve(s.substring(from, to));
+    }
+
+    /**
+     * Parse an int value from the range of the char sequence
+     *
+     * @param s the char sequence
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the int value
+     * @throws NumberFormatException if the range is not a decimal int
+     */
+    public static int parseInt(CharSequence s, int from, int to) {
+        long l = parseLong(s, from, to);
+        if (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) {
+            throw new NumberFormatException("int value out of range: " + s.subSequence(from, to));
+        }
+        return (int) l;
+    }
+
+    /**
+     * Parse a long value from the range of the char sequence
+     *
+     * @param s the char sequence
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the long value
+     * @throws NumberFormatException if the range is not a decimal long
+     */
+    public static long parseLong(CharSequence s, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("empty number");
+        }
+        boolean negative = false;
+        int i = from;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            if (++i == to) {
+                throw new NumberFormatException("sign only: " + c);
+            }
+        }
+        // accumulate negatively to handle Long.MIN_VALUE, the same as Long.parseLong
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multMin = limit / 10;
+        long result = 0;
+        for (; i < to; ++i) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multMin) {
+                throw new NumberFormatException("invalid long: " + s.subSequence(from, to));
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new NumberFormatException("long value out of range: " + s.subSequence(from, to));
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parse a boolean value from the range of the char sequence. Only `true`
+     * and `false` in any case are accepted
+     *
+     * @param s the char sequence
+     * @param from the start index, inclusive
+     * @param to the end index, exclusive
+     * @return the boolean value
+     * @throws IllegalArgumentException if the range is neither `true` nor `false`
+     */
+    public static boolean parseBoolean(CharSequence s, int from, int to) {
+        int len = to - from;
+        if (len == 4 && matches(s, from, "true")) {
+            return true;
+        }
+        if (len == 5 && matches(s, from, "false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("invalid boolean: " + s.subSequence(from, to));
+    }
+
+    /**
+     * Check if the range of the char sequence is a plain decimal number that
+     * fits into a long without overflow
+     */
+    static boolean isPlainNumber(CharSequence s, int from, int to) {
+        int len = to - from;
+        if (len <= 0) {
+            return false;
+        }
+        int i = from;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            i++;
+            len--;
+        }
+        // 18 digits always fits into a long
+        if (len <= 0 || len > 18) {
+            return false;
+        }
+        for (; i < to; ++i) {
+            c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(CharSequence s, int from, String lowerCase) {
+        for (int i = 0, n = lowerCase.length(); i < n; ++i) {
+            char c = s.charAt(from + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    abstract static class FastResolver<T> extends StringValueResolver<T> {
+        final StringValueResolver<T> fallback;
+
+        FastResolver(Class<T> type, StringValueResolver<T> fallback) {
+            super(type);
+            this.fallback = fallback;
+        }
+
+        @Override
+        public T resolve(String value) {
+            T t = null == value ? null : resolve(value, 0, value.length());
+            return null == t ? fallback.resolve(value) : t;
+        }
+
+        /**
+         * Resolve the range of the char sequence
+         *
+         * @return the value or `null` if the range is not a plain value
+         *         that can be resolved without the fallback resolver
+         */
+        abstract T resolve(CharSequence s, int from, int to);
+    }
+
+    public static class IntValueResolver extends FastResolver<Integer> {
+        IntValueResolver(Class<Integer> type, StringValueResolver<Integer> fallback) {
+            super(type, fallback);
+        }
+
+        @Override
+        Integer resolve(CharSequence s, int from, int to) {
+            if (isPlainNumber(s, from, to)) {
+                long l = parseLong(s, from, to);
+                if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+                    return (int) l;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class LongValueResolver extends FastResolver<Long> {
+        LongValueResolver(Class<Long> type, StringValueResolver<Long> fallback) {
+            super(type, fallback);
+        }
+
+        @Override
+        Long resolve(CharSequence s, int from, int to) {
+            return isPlainNumber(s, from, to) ? parseLong(s, from, to) : null;
+        }
+    }
+
+    public static class ShortValueResolver extends FastResolver<Short> {
+        ShortValueResolver(Class<Short> type, StringValueResolver<Short> fallback) {
+            super(type, fallback);
+        }
+
+        @Override
+        Short resolve(CharSequence s, int from, int to) {
+            if (isPlainNumber(s, from, to)) {
+                long l = parseLong(s, from, to);
+                if (l >= Short.MIN_VALUE && l <= Short.MAX_VALUE) {
+                    return (short) l;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class ByteValueResolver extends FastResolver<Byte> {
+        ByteValueResolver(Class<Byte> type, StringValueResolver<Byte> fallback) {
+            super(type, fallback);
+        }
+
+        @Override
+        Byte resolve(CharSequence s, int from, int to) {
+            if (isPlainNumber(s, from, to)) {
+                long l = parseLong(s, from, to);
+                if (l >= Byte.MIN_VALUE && l <= Byte.MAX_VALUE) {
+                    return (byte) l;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static class BooleanValueResolver extends FastResolver<Boolean> {
+        BooleanValueResolver(Class<Boolean> type, StringValueResolver<Boolean> fallback) {
+            super(type, fallback);
+        }
+
+        @Override
+        Boolean resolve(CharSequence s, int from, int to) {
+            int len = to - from;
+            if (len == 4 && matches(s, from, "true")) {
+                return Boolean.TRUE;
+            }
+            if (len == 5 && matches(s, from, "false")) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+    }
+}
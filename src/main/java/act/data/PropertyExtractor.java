@@ -0,0 +1,129 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.S;
+
+import java.util.List;
+
+/**
+ * Extract a fixed list of (possibly nested) properties, e.g.
+ * `firstName`, `address.city` from a bean into an array.
+ *
+ * Extractors are generated per bean class and property list by
+ * {@link PropertyExtractorGenerator} and obtained through
+ * {@link DataPropertyRepository#extractor(Class, List)}. Beans that
+ * are not instance of the class the extractor has been generated for
+ * are handled reflectively
+ */
+public abstract class PropertyExtractor {
+
+    private Class<?> type;
+    private List<String> paths;
+
+    /**
+     * Returns the property paths this extractor extracts
+     * @return the property path list
+     */
+    public List<String> paths() {
+        return paths;
+    }
+
+    /**
+     * Returns the number of properties this extractor extracts
+     * @return the property number
+     */
+    public int size() {
+        return paths.size();
+    }
+
+    /**
+     * Extract properties from bean and put them into the values array in
+     * the order of {@link #paths()}. If any intermediate property along a
+     * path is `null` then the value of that path is `null`
+     *
+     * @param bean the bean
+     * @param values the array to put the property values
+     */
+    public void extract(Object bean, Object[] values) {
+        if (type.isInstance(bean)) {
+            doExtract(bean, values);
+        } else {
+            for (int i = 0, n = paths.size(); i < n; ++i) {
+                values[i] = reflect(bean, paths.get(i));
+            }
+        }
+    }
+
+    /**
+     * Extract properties into a new array
+     * @param bean the bean
+     * @return the property values
+     * @see #extract(Object, Object[])
+     */
+    public Object[] extract(Object bean) {
+        Object[] values = new Object[paths.size()];
+        extract(bean, values);
+        return values;
+    }
+
+    /**
+     * Implemented by generated extractor which is safe to cast
+     * the bean to the type of the extractor
+     */
+    protected abstract void doExtract(Object bean, Object[] values);
+
+    PropertyExtractor init(Class<?> type, List<String> paths) {
+        this.type = type;
+        this.paths = C.list(paths);
+        return this;
+    }
+
+    /**
+     * Used by generated code for paths that cannot be resolved
+     * into getter chain
+     */
+    protected static Object reflect(Object bean, String path) {
+        if (null == bean) {
+            return null;
+        }
+        if (S.eq("this", path)) {
+            return bean;
+        }
+        return $.getProperty(bean, path);
+    }
+
+    /**
+     * Extract all properties with {@link #reflect(Object, String)}. Used when
+     * an extractor class cannot be generated for the bean type
+     */
+    static class Reflective extends PropertyExtractor {
+        @Override
+        protected void doExtract(Object bean, Object[] values) {
+            List<String> paths = paths();
+            for (int i = 0, n = paths.size(); i < n; ++i) {
+                values[i] = reflect(bean, paths.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.asm.*;
+import org.osgl.util.S;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a {@link PropertyExtractor} class for a bean type and a list of
+ * property paths.
+ *
+ * For bean type `Person` and paths `name, address.city` the generated
+ * `doExtract` method is equivalent to:
+ *
+ * ```java
+ * protected void doExtract(Object bean, Object[] values) {
+ *     values[0] = ((Person) bean).getName();
+ *     Address address = ((Person) bean).getAddress();
+ *     values[1] = null == address ? null : address.getCity();
+ * }
+ * ```
+ *
+ * Path segments that cannot be resolved into public getters or fields
+ * at generation time, e.g. properties of a `Map` or of a generic typed
+ * property, are resolved with {@link PropertyExtractor#reflect(Object, String)}
+ * at runtime
+ */
+class PropertyExtractorGenerator implements Opcodes {
+
+    private static final String SUPER_CLASS = Type.getInternalName(PropertyExtractor.class);
+    private static final String EXTRACT_DESC = "(Ljava/lang/Object;[Ljava/lang/Object;)V";
+    private static final String REFLECT_DESC = "(Ljava/lang/Object;Ljava/lang/String;)Ljava/lang/Object;";
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    // local variable slots of the doExtract method
+    private static final int BEAN = 1;
+    private static final int VALUES = 2;
+
+    private final Class<?> type;
+    private final List<String> paths;
+    private final String className;
+    private final ClassWriter cw;
+
+    PropertyExtractorGenerator(Class<?> type, List<String> paths) {
+        this.type = type;
+        this.paths = paths;
+        this.className = S.concat(SUPER_CLASS, "$$", type.getSimpleName(), "$", S.string(SEQ.incrementAndGet()));
+        this.cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // the only merge points are the value to be stored into
+                // the Object array, thus Object is good enough. This
+                // also avoid loading app classes with the wrong class loader
+                return "java/lang/Object";
+            }
+        };
+    }
+
+    /**
+     * @return the name of the class to be generated
+     */
+    String className() {
+        return className.replace('/', '.');
+    }
+
+    byte[] generateByteCode() {
+        cw.visit(V1_6, ACC_PUBLIC + ACC_SUPER + ACC_FINAL + ACC_SYNTHETIC, className, null, SUPER_CLASS, null);
+        generateConstructor();
+        generateDoExtract();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Check if an extractor can be generated for the bean type
+     * @param type the bean type
+     * @return `true` if the type is accessible to the generated class
+     */
+    static boolean applicable(Class<?> type) {
+        if (type.isArray() || type.isPrimitive() || type.isAnonymousClass() || type.isLocalClass()) {
+            return false;
+        }
+        return publicType(type);
+    }
+
+    private static boolean publicType(Class<?> type) {
+        while (null != type) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                return false;
+            }
+            type = type.getEnclosingClass();
+        }
+        return true;
+    }
+
+    private void generateConstructor() {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, SUPER_CLASS, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+    }
+
+    private void generateDoExtract() {
+        MethodVisitor mv = cw.visitMethod(ACC_PROTECTED, "doExtract", EXTRACT_DESC, null, null);
+        mv.visitCode();
+        String owner = Type.getInternalName(type);
+        for (int i = 0, n = paths.size(); i < n; ++i) {
+            String path = paths.get(i);
+            mv.visitVarInsn(ALOAD, VALUES);
+            pushInt(mv, i);
+            mv.visitVarInsn(ALOAD, BEAN);
+            if ("this".equals(path)) {
+                mv.visitInsn(AASTORE);
+                continue;
+            }
+            mv.visitTypeInsn(CHECKCAST, owner);
+            generatePath(mv, path);
+            mv.visitInsn(AASTORE);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /*
+     * Expect the bean on top of stack and leave the path value on top of stack
+     */
+    private void generatePath(MethodVisitor mv, String path) {
+        String[] segments = path.split("\\.");
+        Class<?> current = type;
+        Label isNull = null;
+        Label store = new Label();
+        int resolved = 0;
+        for (String segment : segments) {
+            if (current.isPrimitive() || !publicType(current)) {
+                break;
+            }
+            Member member = member(current, segment);
+            if (null == member) {
+                break;
+            }
+            if (resolved > 0) {
+                if (null == isNull) {
+                    isNull = new Label();
+                }
+                mv.visitInsn(DUP);
+                mv.visitJumpInsn(IFNULL, isNull);
+            }
+            String currentOwner = Type.getInternalName(current);
+            if (member instanceof Method) {
+                Method method = (Method) member;
+                boolean itf = current.isInterface();
+                mv.visitMethodInsn(itf ? INVOKEINTERFACE : INVOKEVIRTUAL, currentOwner, method.getName(), Type.getMethodDescriptor(method), itf);
+                current = method.getReturnType();
+            } else {
+                Field field = (Field) member;
+                mv.visitFieldInsn(GETFIELD, currentOwner, field.getName(), Type.getDescriptor(field.getType()));
+                current = field.getType();
+            }
+            resolved++;
+        }
+        box(mv, current);
+        if (resolved < segments.length) {
+            String remainder = S.join(".", Arrays.asList(segments).subList(resolved, segments.length));
+            mv.visitLdcInsn(remainder);
+            mv.visitMethodInsn(INVOKESTATIC, SUPER_CLASS, "reflect", REFLECT_DESC, false);
+        }
+        if (null != isNull) {
+            mv.visitJumpInsn(GOTO, store);
+            mv.visitLabel(isNull);
+            mv.visitInsn(POP);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitLabel(store);
+        }
+    }
+
+    /**
+     * Find public getter or public field of a property
+     */
+    private static Member member(Class<?> type, String property) {
+        if (S.blank(property) || "class".equals(property)) {
+            return null;
+        }
+        String cap = S.capFirst(property);
+        Method method = getter(type, S.concat("get", cap));
+        if (null != method) {
+            return method;
+        }
+        method = getter(type, S.concat("is", cap));
+        if (null != method && (boolean.class == method.getReturnType() || Boolean.class == method.getReturnType())) {
+            return method;
+        }
+        try {
+            Field field = type.getField(property);
+            return Modifier.isStatic(field.getModifiers()) ? null : field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static Method getter(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            if (Modifier.isStatic(method.getModifiers()) || void.class == method.getReturnType()) {
+                return null;
+            }
+            return method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static void pushInt(MethodVisitor mv, int i) {
+        if (i <= 5) {
+            mv.visitInsn(ICONST_0 + i);
+        } else if (i <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, i);
+        } else {
+            mv.visitIntInsn(SIPUSH, i);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Class<?> valueType) {
+        if (!valueType.isPrimitive()) {
+            return;
+        }
+        Type type = Type.getType(valueType);
+        String wrapper;
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                wrapper = "java/lang/Boolean";
+                break;
+            case Type.CHAR:
+                wrapper = "java/lang/Character";
+                break;
+            case Type.BYTE:
+                wrapper = "java/lang/Byte";
+                break;
+            case Type.SHORT:
+                wrapper = "java/lang/Short";
+                break;
+            case Type.INT:
+                wrapper = "java/lang/Integer";
+                break;
+            case Type.LONG:
+                wrapper = "java/lang/Long";
+                break;
+            case Type.FLOAT:
+                wrapper = "java/lang/Float";
+                break;
+            default:
+                wrapper = "java/lang/Double";
+        }
+        mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", S.concat("(", type.getDescriptor(), ")L", wrapper, ";"), false);
+    }
+
+}
@@ -47,6 +47,15 @@ import java.util.concurrent.ConcurrentMap;
  */
 public interface AdaptiveRecord<ID_TYPE, MODEL_TYPE extends AdaptiveRecord> extends Model<ID_TYPE, MODEL_TYPE> {
 
+    /**
+     * Returns the map that stores values not backed by fields.
+     *
+     * Implementations that hold a large number of records with dynamic schema
+     * could use {@link Util#newInternalMap()} to store values in shared slot
+     * layouts instead of hash maps
+     *
+     * @return the internal map
+     */
     Map<String, Object> internalMap();
 
     /**
@@ -164,6 +173,15 @@ public interface AdaptiveRecord<ID_TYPE, MODEL_TYPE extends AdaptiveRecord> exte
 
     class Util {
 
+        /**
+         * Returns a new {@link ShapedMap} to be used as {@link AdaptiveRecord#internalMap()}
+         *
+         * @return a new internal map
+         */
+        public static Map<String, Object> newInternalMap() {
+            return new ShapedMap();
+        }
+
         public static <MODEL_TYPE extends AdaptiveRecord> MODEL_TYPE putValue(MODEL_TYPE ar, String key, Object val) {
             Map<String, Object> kv = ar.internalMap();
             $.Func2 setter = ar.metaInfo().fieldSetters.get(key);
@@ -221,8 +239,19 @@ public interface AdaptiveRecord<ID_TYPE, MODEL_TYPE extends AdaptiveRecord> exte
 
         public static Map<String, Object> toMap(final AdaptiveRecord ar) {
             Map<String, Object> kv = ar.internalMap();
-            Map<String, Object> map = new HashMap<>(kv);
-            for (Map.Entry<String, $.Function> entry : ar.metaInfo().fieldGetters.entrySet()) {
+            Map<String, $.Function> fieldGetters = ar.metaInfo().fieldGetters;
+            Map<String, Object> map = new HashMap<>((kv.size() + fieldGetters.size()) * 4 / 3 + 1);
+            if (kv instanceof ShapedMap) {
+                ShapedMap shaped = (ShapedMap) kv;
+                for (int i = 0, n = shaped.slots(); i < n; ++i) {
+                    if (shaped.isPresent(i)) {
+                        map.put(shaped.keyAt(i), shaped.valueAt(i));
+                    }
+                }
+            } else {
+                map.putAll(kv);
+            }
+            for (Map.Entry<String, $.Function> entry : fieldGetters.entrySet()) {
                 map.put(entry.getKey(), entry.getValue().apply(ar));
             }
             return map;
@@ -257,24 +286,88 @@ public interface AdaptiveRecord<ID_TYPE, MODEL_TYPE extends AdaptiveRecord> exte
             if (!hasFields(ar)) {
                 return kv.entrySet();
             }
-            Set<Map.Entry<String, Object>> set = new HashSet<Map.Entry<String, Object>>(kv.entrySet());
-            AdaptiveRecord.MetaInfo metaInfo = ar.metaInfo();
-            boolean filter = null != function;
-            for (Map.Entry<String, $.Function> entry: metaInfo.fieldGetters.entrySet()) {
-                String fieldName = entry.getKey();
-                if ("kv".equals(fieldName)) {
-                    continue;
-                }
-                if (filter) {
-                    BeanSpec field = metaInfo.getterFieldSpecs.get(fieldName);
-                    if (!function.apply(field)) {
-                        continue;
+            return new EntrySetView(ar, kv, function);
+        }
+
+        /**
+         * Checks if a field shall be exported in the entry set of an adaptive record
+         */
+        public static boolean exportField(MetaInfo metaInfo, String fieldName, Osgl.Function<BeanSpec, Boolean> fieldFilter) {
+            if ("kv".equals(fieldName)) {
+                return false;
+            }
+            return null == fieldFilter || fieldFilter.apply(metaInfo.getterFieldSpecs.get(fieldName));
+        }
+
+        /**
+         * A view of internal map entries followed by field entries of an adaptive record
+         */
+        private static class EntrySetView extends AbstractSet<Map.Entry<String, Object>> {
+            private final AdaptiveRecord ar;
+            private final Map<String, Object> kv;
+            private final MetaInfo metaInfo;
+            private final Osgl.Function<BeanSpec, Boolean> fieldFilter;
+
+            EntrySetView(AdaptiveRecord ar, Map<String, Object> kv, Osgl.Function<BeanSpec, Boolean> fieldFilter) {
+                this.ar = ar;
+                this.kv = kv;
+                this.metaInfo = ar.metaInfo();
+                this.fieldFilter = fieldFilter;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                final Iterator<Map.Entry<String, Object>> kvItr = kv.entrySet().iterator();
+                final Iterator<Map.Entry<String, $.Function>> fieldItr = metaInfo.fieldGetters.entrySet().iterator();
+                return new Iterator<Map.Entry<String, Object>>() {
+                    private Map.Entry<String, Object> nextField;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (kvItr.hasNext() || null != nextField) {
+                            return true;
+                        }
+                        while (fieldItr.hasNext()) {
+                            Map.Entry<String, $.Function> entry = fieldItr.next();
+                            String fieldName = entry.getKey();
+                            if (exportField(metaInfo, fieldName, fieldFilter)) {
+                                nextField = new C.Map.Entry(fieldName, entry.getValue().apply(ar));
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+
+                    @Override
+                    public Map.Entry<String, Object> next() {
+                        if (kvItr.hasNext()) {
+                            return kvItr.next();
+                        }
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<String, Object> entry = nextField;
+                        nextField = null;
+                        return entry;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw E.unsupport();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int n = kv.size();
+                for (String fieldName : metaInfo.fieldGetters.keySet()) {
+                    if (exportField(metaInfo, fieldName, fieldFilter)) {
+                        n++;
                     }
                 }
-                $.Function getter = entry.getValue();
-                set.add(new C.Map.Entry(fieldName, getter.apply(ar)));
+                return n;
             }
-            return set;
         }
 
 
@@ -347,12 +440,33 @@ public interface AdaptiveRecord<ID_TYPE, MODEL_TYPE extends AdaptiveRecord> exte
 
                 @Override
                 public Collection<Object> values() {
-                    List<Object> list = new ArrayList<Object>();
-                    list.addAll(kv.values());
-                    for ($.Function getter : ar.metaInfo().fieldGetters.values()) {
-                        list.add(getter.apply(ar));
-                    }
-                    return list;
+                    return new AbstractCollection<Object>() {
+                        @Override
+                        public Iterator<Object> iterator() {
+                            final Iterator<Entry<String, Object>> itr = ar.entrySet().iterator();
+                            return new Iterator<Object>() {
+                                @Override
+                                public boolean hasNext() {
+                                    return itr.hasNext();
+                                }
+
+                                @Override
+                                public Object next() {
+                                    return itr.next().getValue();
+                                }
+
+                                @Override
+                                public void remove() {
+                                    itr.remove();
+                                }
+                            };
+                        }
+
+                        @Override
+                        public int size() {
+                            return ar.size();
+                        }
+                    };
                 }
 
                 @Override
@@ -0,0 +1,80 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark an entity class to be cached by ID in front of its {@link Dao}.
+ *
+ * Entities are kept in a bounded local cache and optionally in an app
+ * {@link org.osgl.cache.CacheService} as the second tier. The cache
+ * applies to `findById`, `findByIdList` and `reload` of the `Dao` returned
+ * by {@link act.app.DbServiceManager#cachingDao(Class)}, which is used to
+ * load `@DbBind` parameters, and is invalidated by write operations through
+ * that `Dao`, by {@link DeleteEvent} and by the batch and update operations
+ * of {@link DaoBase}. DAO implementations shall call
+ * {@link DaoBase#evictCached(Object)} after writing a single entity, otherwise
+ * writes through the DAO directly may leave stale entities in the cache
+ * until they expire.
+ *
+ * Entities of a `Serializable` model class are cached as snapshots and
+ * each lookup returns a copy; entities of other model classes are shared
+ * and must be treated as read only.
+ *
+ * @see CachingDao
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CacheEntity {
+    /**
+     * Specify the max number of entities to be kept in the local cache
+     *
+     * Default value: `1000`
+     *
+     * @return the max number of entities
+     */
+    int maxSize() default 1000;
+
+    /**
+     * Specify the time to live of cached entities in duration expression,
+     * e.g. `10mn`, `1h`
+     *
+     * Default value: `1h`
+     *
+     * @return the time to live
+     */
+    String ttl() default "1h";
+
+    /**
+     * Specify the name of the app cache service used as the second tier
+     * cache. The entity class shall be serializable when the cache service
+     * is backed by an external cache
+     *
+     * Default value: empty, i.e. no second tier cache
+     *
+     * @return the cache service name
+     */
+    String secondTier() default "";
+}
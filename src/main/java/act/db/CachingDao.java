@@ -0,0 +1,405 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.util.DestroyableBase;
+import org.osgl.util.E;
+
+import java.util.*;
+
+/**
+ * A {@link Dao} decorator that caches entities by ID with an {@link EntityCache}.
+ *
+ * `findById`, `findByIdList` and `reload` are served from the cache when possible,
+ * `findByIdList` loads all missed entities with one call to the underline DAO.
+ * Write operations on specific entities invalidate the corresponding cache entries
+ * both before and after the write, while write operations on queries clear the
+ * whole cache. Entities loaded on cache miss are cached with the
+ * {@link EntityCache.Version version} captured before loading, so that a read
+ * concurrent to a write cannot put the old entity back.
+ *
+ * See {@link EntityCache} on how entities of the caller are isolated from the
+ * cached copies.
+ *
+ * @param <ID_TYPE> the generic key type
+ * @param <MODEL_TYPE> the generic model type
+ * @param <QUERY_TYPE> the generic query type
+ */
+public class CachingDao<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<MODEL_TYPE, QUERY_TYPE>>
+        extends DestroyableBase implements Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> {
+
+    private final Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> delegate;
+    private final EntityCache<ID_TYPE, MODEL_TYPE> cache;
+
+    public CachingDao(Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> delegate, EntityCache<ID_TYPE, MODEL_TYPE> cache) {
+        E.NPE(delegate, cache);
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the underline DAO
+     * @return the DAO this caching DAO delegates to
+     */
+    public Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> delegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the entity cache
+     * @return the entity cache
+     */
+    public EntityCache<ID_TYPE, MODEL_TYPE> cache() {
+        return cache;
+    }
+
+    @Override
+    protected void releaseResources() {
+        cache.destroy();
+    }
+
+    @Override
+    public Class<ID_TYPE> idType() {
+        return delegate.idType();
+    }
+
+    @Override
+    public Class<MODEL_TYPE> modelType() {
+        return delegate.modelType();
+    }
+
+    @Override
+    public Class<QUERY_TYPE> queryType() {
+        return delegate.queryType();
+    }
+
+    @Override
+    public MODEL_TYPE findById(ID_TYPE id) {
+        MODEL_TYPE entity = cache.get(id);
+        if (null == entity) {
+            EntityCache.Version version = cache.version(id);
+            entity = delegate.findById(id);
+            cache.put(id, entity, version);
+        }
+        return entity;
+    }
+
+    @Override
+    public MODEL_TYPE findLatest() {
+        return delegate.findLatest();
+    }
+
+    @Override
+    public MODEL_TYPE findLastModified() {
+        return delegate.findLastModified();
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findBy(String fields, Object... values) throws IllegalArgumentException {
+        return delegate.findBy(fields, values);
+    }
+
+    @Override
+    public MODEL_TYPE findOneBy(String fields, Object... values) throws IllegalArgumentException {
+        return delegate.findOneBy(fields, values);
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findByIdList(Collection<ID_TYPE> idList) {
+        Map<ID_TYPE, MODEL_TYPE> found = new HashMap<>();
+        List<ID_TYPE> misses = new ArrayList<>();
+        Map<ID_TYPE, EntityCache.Version> versions = new HashMap<>();
+        for (ID_TYPE id : idList) {
+            MODEL_TYPE entity = cache.get(id);
+            if (null == entity) {
+                misses.add(id);
+                versions.put(id, cache.version(id));
+            } else {
+                found.put(id, entity);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (MODEL_TYPE entity : delegate.findByIdList(misses)) {
+                ID_TYPE id = delegate.getId(entity);
+                EntityCache.Version version = versions.get(id);
+                if (null != version) {
+                    cache.put(id, entity, version);
+                }
+                found.put(id, entity);
+            }
+        }
+        List<MODEL_TYPE> list = new ArrayList<>(found.size());
+        for (ID_TYPE id : idList) {
+            MODEL_TYPE entity = found.get(id);
+            if (null != entity) {
+                list.add(entity);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<MODEL_TYPE> findAllAsList() {
+        return delegate.findAllAsList();
+    }
+
+    @Override
+    public MODEL_TYPE reload(MODEL_TYPE entity) {
+        ID_TYPE id = delegate.getId(entity);
+        cache.invalidate(id);
+        EntityCache.Version version = cache.version(id);
+        MODEL_TYPE reloaded = delegate.reload(entity);
+        cache.put(id, reloaded, version);
+        return reloaded;
+    }
+
+    @Override
+    public ID_TYPE getId(MODEL_TYPE entity) {
+        return delegate.getId(entity);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countBy(String fields, Object... values) throws IllegalArgumentException {
+        return delegate.countBy(fields, values);
+    }
+
+    @Override
+    public MODEL_TYPE save(MODEL_TYPE entity) {
+        ID_TYPE id = delegate.getId(entity);
+        cache.invalidate(id);
+        MODEL_TYPE saved;
+        try {
+            saved = delegate.save(entity);
+        } catch (RuntimeException e) {
+            cache.invalidate(id);
+            throw e;
+        }
+        if (null != saved) {
+            cache.put(delegate.getId(saved), saved);
+        } else {
+            cache.invalidate(id);
+        }
+        return saved;
+    }
+
+    @Override
+    public void save(MODEL_TYPE entity, String fields, Object... values) {
+        ID_TYPE id = delegate.getId(entity);
+        cache.invalidate(id);
+        try {
+            delegate.save(entity, fields, values);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public List<MODEL_TYPE> save(Iterable<MODEL_TYPE> entities) {
+        List<ID_TYPE> ids = new ArrayList<>();
+        try {
+            return delegate.save(invalidating(entities, ids));
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public long save(Iterable<MODEL_TYPE> entities, int batchSize) throws IllegalArgumentException {
+        List<ID_TYPE> ids = new ArrayList<>();
+        try {
+            return delegate.save(invalidating(entities, ids), batchSize);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public long update(QUERY_TYPE query, String fields, Object... values) throws IllegalArgumentException {
+        try {
+            return delegate.update(query, fields, values);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void delete(MODEL_TYPE entity) {
+        ID_TYPE id = delegate.getId(entity);
+        cache.invalidate(id);
+        try {
+            delegate.delete(entity);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void delete(QUERY_TYPE query) {
+        try {
+            delegate.delete(query);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public long delete(Iterable<MODEL_TYPE> entities, int batchSize) throws IllegalArgumentException {
+        List<ID_TYPE> ids = new ArrayList<>();
+        try {
+            return delegate.delete(invalidating(entities, ids), batchSize);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public void deleteById(ID_TYPE id) {
+        cache.invalidate(id);
+        try {
+            delegate.deleteById(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void deleteBy(String fields, Object... values) throws IllegalArgumentException {
+        try {
+            delegate.deleteBy(fields, values);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        try {
+            delegate.deleteAll();
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public void drop() {
+        try {
+            delegate.drop();
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public QUERY_TYPE q() {
+        return delegate.q();
+    }
+
+    @Override
+    public QUERY_TYPE createQuery() {
+        return delegate.createQuery();
+    }
+
+    @Override
+    public QUERY_TYPE q(String fields, Object... values) {
+        return delegate.q(fields, values);
+    }
+
+    @Override
+    public QUERY_TYPE createQuery(String fields, Object... values) {
+        return delegate.createQuery(fields, values);
+    }
+
+    @Override
+    public Cursor<MODEL_TYPE> stream(QUERY_TYPE query, int fetchSize) throws IllegalArgumentException {
+        return delegate.stream(query, fetchSize);
+    }
+
+    @Override
+    public String toString() {
+        return "caching " + delegate;
+    }
+
+    /**
+     * Invalidate the cached entity of the given ID
+     * @param id the entity ID
+     */
+    public void invalidate(ID_TYPE id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Invalidate the cached copy of the given entity
+     * @param entity the entity
+     */
+    public void invalidateEntity(MODEL_TYPE entity) {
+        cache.invalidate(delegate.getId(entity));
+    }
+
+    private void invalidateAll(List<ID_TYPE> ids) {
+        for (ID_TYPE id : ids) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Returns an iterable that invalidates each entity before it is handed
+     * to the underline DAO and records the IDs, which shall be invalidated
+     * again after the write
+     */
+    private Iterable<MODEL_TYPE> invalidating(final Iterable<MODEL_TYPE> entities, final List<ID_TYPE> ids) {
+        return new Iterable<MODEL_TYPE>() {
+            @Override
+            public Iterator<MODEL_TYPE> iterator() {
+                final Iterator<MODEL_TYPE> itr = entities.iterator();
+                return new Iterator<MODEL_TYPE>() {
+                    @Override
+                    public boolean hasNext() {
+                        return itr.hasNext();
+                    }
+
+                    @Override
+                    public MODEL_TYPE next() {
+                        MODEL_TYPE entity = itr.next();
+                        ID_TYPE id = delegate.getId(entity);
+                        cache.invalidate(id);
+                        ids.add(id);
+                        return entity;
+                    }
+
+                    @Override
+                    public void remove() {
+                        itr.remove();
+                    }
+                };
+            }
+        };
+    }
+}
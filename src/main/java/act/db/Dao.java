@@ -24,7 +24,9 @@ import act.Destroyable;
 import act.app.AppContextAware;
 import act.app.security.SecurityContextAware;
 
+import java.io.Closeable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -184,6 +186,34 @@ public interface Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<MODEL_TYP
      */
     List<MODEL_TYPE> save(Iterable<MODEL_TYPE> entities);
 
+    /**
+     * Batch save entities with batch size specified.
+     *
+     * Implementations shall send at most `batchSize` entities to the persistent
+     * layer in one round trip and shall not hold references to entities
+     * of batches that have been written, so that this method can be used
+     * to save a large (lazy) iterable without loading all entities into memory
+     *
+     * @param entities an iterable to get entities to be saved
+     * @param batchSize the max number of entities to be written in one batch
+     * @return the number of entities saved
+     * @throws IllegalArgumentException if `batchSize` is less than `1`
+     */
+    long save(Iterable<MODEL_TYPE> entities, int batchSize) throws IllegalArgumentException;
+
+    /**
+     * Update all entities matches the query with specified fields and values.
+     *
+     * For fields and value specification rule, please refer to {@link #findBy(String, Object...)}
+     *
+     * @param query the query specifies entities to be updated
+     * @param fields the fields specification in {@code String}
+     * @param values the value array corresponding to the fields specification
+     * @return the number of entities updated
+     * @throws IllegalArgumentException if fields number and value number doesn't match
+     */
+    long update(QUERY_TYPE query, String fields, Object... values) throws IllegalArgumentException;
+
     /**
      * Remove the entity specified
      * @param entity the entity to be removed
@@ -196,6 +226,16 @@ public interface Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<MODEL_TYP
      */
     void delete(QUERY_TYPE query);
 
+    /**
+     * Batch remove entities with batch size specified
+     *
+     * @param entities an iterable to get entities to be removed
+     * @param batchSize the max number of entities to be removed in one batch
+     * @return the number of entities removed
+     * @throws IllegalArgumentException if `batchSize` is less than `1`
+     */
+    long delete(Iterable<MODEL_TYPE> entities, int batchSize) throws IllegalArgumentException;
+
     /**
      * Remove entity by ID
      * @param id the ID of the entity to be removed
@@ -261,6 +301,30 @@ public interface Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<MODEL_TYP
      */
     QUERY_TYPE createQuery(String fields, Object... values);
 
+    /**
+     * Returns a forward only {@link Cursor} to iterate through entities
+     * matches the query.
+     *
+     * Unlike {@link Query#fetch()}, implementations shall load entities from
+     * the persistent layer in chunks of about `fetchSize` and shall not keep
+     * references to entities that have been visited. The cursor must be
+     * closed after use, e.g.
+     *
+     * ```java
+     * try (Dao.Cursor<Order> cursor = orderDao.stream(orderDao.q("status", PENDING), 500)) {
+     *     while (cursor.hasNext()) {
+     *         process(cursor.next());
+     *     }
+     * }
+     * ```
+     *
+     * @param query the query
+     * @param fetchSize the hint of number of entities to be loaded in one round trip
+     * @return a cursor of the entities
+     * @throws IllegalArgumentException if `fetchSize` is less than `1`
+     */
+    Cursor<MODEL_TYPE> stream(QUERY_TYPE query, int fetchSize) throws IllegalArgumentException;
+
     interface Query<MODEL_TYPE, QUERY_TYPE extends Query<MODEL_TYPE, QUERY_TYPE>> {
         QUERY_TYPE offset(int pos);
         QUERY_TYPE limit(int limit);
@@ -269,4 +333,19 @@ public interface Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<MODEL_TYP
         Iterable<MODEL_TYPE> fetch();
         long count();
     }
+
+    /**
+     * A forward only iterator on entities that holds resources, e.g. a
+     * database cursor, which must be released by calling {@link #close()}
+     *
+     * @param <MODEL_TYPE> the generic model type
+     */
+    interface Cursor<MODEL_TYPE> extends Iterator<MODEL_TYPE>, Closeable {
+        /**
+         * Release the resources held by this cursor. Calling this method
+         * on a closed cursor has no effect
+         */
+        @Override
+        void close();
+    }
 }
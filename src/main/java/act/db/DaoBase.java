@@ -20,16 +20,23 @@ package act.db;
  * #L%
  */
 
+import act.app.App;
+import act.app.DbServiceManager;
 import act.app.security.SecurityContext;
 import act.inject.param.NoBind;
 import act.util.ActContext;
+import act.util.CachedClock;
 import org.osgl.$;
+import org.osgl.util.E;
 import org.osgl.util.Generics;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 // We can't do this atm, otherwise app developer cannot use EbeanDao, or MorphiaDao directly
 //@InheritedStateless
@@ -100,11 +107,143 @@ public abstract class DaoBase<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<
 
     protected void releaseResources() {}
 
+    /**
+     * Save entities batch by batch through {@link #save(Iterable)}.
+     *
+     * Sub class shall override this method if the persistent layer supports
+     * a more efficient bulk write
+     */
+    @Override
+    public long save(Iterable<MODEL_TYPE> entities, int batchSize) {
+        E.illegalArgumentIf(batchSize < 1, "batch size shall be positive: %s", batchSize);
+        long saved = 0;
+        List<MODEL_TYPE> batch = new ArrayList<>(batchSize);
+        for (MODEL_TYPE entity : entities) {
+            batch.add(entity);
+            if (batch.size() == batchSize) {
+                saveBatch(batch);
+                saved += batchSize;
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            saveBatch(batch);
+            saved += batch.size();
+        }
+        return saved;
+    }
+
+    /**
+     * Save a batch of entities with one shared timestamp from {@link CachedClock}
+     */
+    private void saveBatch(List<MODEL_TYPE> batch) {
+        CachedClock.Batch clockBatch = CachedClock.startBatch();
+        try {
+            save(batch);
+        } finally {
+            clockBatch.close();
+            for (MODEL_TYPE entity : batch) {
+                evictCached(entity);
+            }
+        }
+    }
+
+    /**
+     * Update entities matches the query one by one through
+     * {@link #save(Object, String, Object...)}.
+     *
+     * Sub class shall override this method if the persistent layer supports
+     * update by query
+     */
+    @Override
+    public long update(QUERY_TYPE query, String fields, Object... values) {
+        long updated = 0;
+        for (MODEL_TYPE entity : query.fetch()) {
+            try {
+                save(entity, fields, values);
+            } finally {
+                evictCached(entity);
+            }
+            updated++;
+        }
+        return updated;
+    }
+
+    /**
+     * Delete entities one by one through {@link #delete(Object)}.
+     *
+     * Sub class shall override this method if the persistent layer supports
+     * bulk delete
+     */
+    @Override
+    public long delete(Iterable<MODEL_TYPE> entities, int batchSize) {
+        E.illegalArgumentIf(batchSize < 1, "batch size shall be positive: %s", batchSize);
+        long deleted = 0;
+        for (MODEL_TYPE entity : entities) {
+            try {
+                delete(entity);
+            } finally {
+                evictCached(entity);
+            }
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns a cursor that fetches entities page by page with
+     * {@link Query#offset(int)} and {@link Query#limit(int)}.
+     *
+     * Note the query shall have a stable order, otherwise entities might
+     * be skipped or visited twice. Sub class shall override this method
+     * to use the native cursor of the persistent layer
+     */
+    @Override
+    public Cursor<MODEL_TYPE> stream(QUERY_TYPE query, int fetchSize) {
+        E.illegalArgumentIf(fetchSize < 1, "fetch size shall be positive: %s", fetchSize);
+        return new PagingCursor<>(query, fetchSize);
+    }
+
     @Override
     public Class<? extends Annotation> scope() {
         return ApplicationScoped.class;
     }
 
+    /**
+     * Remove the entity from the {@link CacheEntity entity cache} of the model class.
+     *
+     * Writes through the DAO returned by {@link DbServiceManager#cachingDao(Class)}
+     * maintain the entity cache automatically. Sub class shall call this method
+     * after updating or deleting an entity, so that writes through this DAO
+     * directly, e.g. when it is injected, do not leave stale entities in the cache.
+     *
+     * @param entity the entity that has been updated or deleted
+     */
+    protected void evictCached(MODEL_TYPE entity) {
+        DbServiceManager dbServiceManager = dbServiceManager();
+        if (null != dbServiceManager) {
+            dbServiceManager.invalidateCachedEntity(entity);
+        }
+    }
+
+    /**
+     * Clear the {@link CacheEntity entity cache} of the model class.
+     *
+     * Sub class shall call this method after updating or deleting entities
+     * by query.
+     */
+    protected void evictAllCached() {
+        DbServiceManager dbServiceManager = dbServiceManager();
+        if (null != dbServiceManager) {
+            dbServiceManager.clearEntityCache(modelClass);
+        }
+    }
+
+    private static DbServiceManager dbServiceManager() {
+        App app = App.instance();
+        return null == app ? null : app.dbServiceManager();
+    }
+
     protected final ActContext appContext() {
         return appCtx;
     }
@@ -113,6 +252,66 @@ public abstract class DaoBase<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<
         return secCtx;
     }
 
+    /**
+     * A {@link Cursor} that loads entities page by page with offset and limit
+     */
+    protected static class PagingCursor<MODEL_TYPE, QUERY_TYPE extends Query<MODEL_TYPE, QUERY_TYPE>> implements Cursor<MODEL_TYPE> {
+
+        private final QUERY_TYPE query;
+        private final int fetchSize;
+        private int offset;
+        private Iterator<MODEL_TYPE> page;
+        private int pageSize;
+        private boolean exhausted;
+        private boolean closed;
+
+        public PagingCursor(QUERY_TYPE query, int fetchSize) {
+            this.query = $.notNull(query);
+            this.fetchSize = fetchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            while (null == page || !page.hasNext()) {
+                if (exhausted || (null != page && pageSize < fetchSize)) {
+                    exhausted = true;
+                    return false;
+                }
+                page = query.offset(offset).limit(fetchSize).fetch().iterator();
+                pageSize = 0;
+                if (!page.hasNext()) {
+                    exhausted = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public MODEL_TYPE next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            offset++;
+            pageSize++;
+            return page.next();
+        }
+
+        @Override
+        public void remove() {
+            throw E.unsupport();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            page = null;
+        }
+    }
+
     private void exploreTypes() {
         List<Type> types = Generics.typeParamImplementations(getClass(), DaoBase.class);
         int sz = types.size();
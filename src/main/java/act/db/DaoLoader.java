@@ -43,7 +43,7 @@ public class DaoLoader implements GenericTypedBeanLoader<Dao> {
         int sz = typeList.size();
         if (sz > 1) {
             Class<?> modelType = BeanSpec.rawTypeOf(typeList.get(1));
-            return dbServiceManager.dao(modelType);
+            return Dao.class == spec.rawType() ? dbServiceManager.cachingDao(modelType) : dbServiceManager.dao(modelType);
         }
         return null;
     }
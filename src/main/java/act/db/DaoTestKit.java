@@ -0,0 +1,182 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verify a {@link Dao} implementation conforms to the contract of the batch
+ * and streaming APIs:
+ *
+ * * {@link Dao#save(Iterable, int)}
+ * * {@link Dao#update(Dao.Query, String, Object...)}
+ * * {@link Dao#delete(Iterable, int)}
+ * * {@link Dao#stream(Dao.Query, int)}
+ *
+ * DB plugins can run the kit in their own test cases, e.g.
+ *
+ * ```java
+ * public void testBatchContract() {
+ *     new DaoTestKit<>(userDao, new $.Transformer<Integer, User>() {
+ *         public User transform(Integer seq) {
+ *             return new User("user" + seq);
+ *         }
+ *     }, "name").run();
+ * }
+ * ```
+ *
+ * **Note** the kit calls {@link Dao#deleteAll()} on the dao before each check
+ *
+ * @param <ID_TYPE> the generic key type
+ * @param <MODEL_TYPE> the generic model type
+ * @param <QUERY_TYPE> the generic query type
+ */
+public class DaoTestKit<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<MODEL_TYPE, QUERY_TYPE>> {
+
+    private static final int ENTITY_COUNT = 25;
+
+    private final Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> dao;
+    private final $.Function<Integer, MODEL_TYPE> factory;
+    private final String field;
+
+    /**
+     * Construct a test kit
+     *
+     * @param dao the dao to be verified
+     * @param factory create an entity from a sequence number. Entities
+     *                created with different sequence numbers shall have
+     *                different IDs once saved and different values of `field`
+     * @param field a `String` typed property of the entity
+     */
+    public DaoTestKit(Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> dao, $.Function<Integer, MODEL_TYPE> factory, String field) {
+        this.dao = $.notNull(dao);
+        this.factory = $.notNull(factory);
+        E.illegalArgumentIf(S.blank(field), "field required");
+        this.field = field;
+    }
+
+    /**
+     * Run all checks
+     * @throws AssertionError if any check failed
+     */
+    public void run() {
+        saveInBatches();
+        rejectInvalidBatchSize();
+        updateByQuery();
+        deleteInBatches();
+        streamAllEntities();
+        streamEmptyResult();
+    }
+
+    public void saveInBatches() {
+        dao.deleteAll();
+        List<MODEL_TYPE> entities = entities();
+        check(ENTITY_COUNT == dao.save(entities, 10), "save(Iterable, int) shall return number of entities saved");
+        check(ENTITY_COUNT == dao.count(), "all entities shall be saved in batches");
+        for (MODEL_TYPE entity : entities) {
+            check(null != dao.findById(dao.getId(entity)), "entity shall be found after batch save: %s", entity);
+        }
+    }
+
+    public void rejectInvalidBatchSize() {
+        dao.deleteAll();
+        try {
+            dao.save(entities(), 0);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("save(Iterable, int) shall reject non-positive batch size");
+    }
+
+    public void updateByQuery() {
+        dao.deleteAll();
+        List<MODEL_TYPE> entities = entities();
+        dao.save(entities, 10);
+        MODEL_TYPE target = entities.get(3);
+        Object value = $.getProperty(target, field);
+        String newValue = S.concat(S.string(value), "-updated");
+        check(1 == dao.update(dao.q(field, value), field, newValue), "update shall return number of entities updated");
+        MODEL_TYPE updated = dao.findOneBy(field, newValue);
+        check(null != updated, "updated entity shall be found by new value");
+        check($.eq(dao.getId(target), dao.getId(updated)), "update shall apply to the entity matches the query only");
+        check(0 == dao.countBy(field, value), "old value shall not be found after update");
+        check(ENTITY_COUNT == dao.count(), "update shall not change number of entities");
+    }
+
+    public void deleteInBatches() {
+        dao.deleteAll();
+        List<MODEL_TYPE> entities = entities();
+        dao.save(entities, 10);
+        check(10 == dao.delete(entities.subList(0, 10), 4), "delete(Iterable, int) shall return number of entities deleted");
+        check(ENTITY_COUNT - 10 == dao.count(), "entities shall be deleted in batches");
+        check(null == dao.findById(dao.getId(entities.get(0))), "deleted entity shall not be found");
+        check(null != dao.findById(dao.getId(entities.get(10))), "entity not in the delete list shall be kept");
+    }
+
+    public void streamAllEntities() {
+        dao.deleteAll();
+        dao.save(entities(), 10);
+        Set<ID_TYPE> ids = new HashSet<>();
+        Dao.Cursor<MODEL_TYPE> cursor = dao.stream(dao.q(), 7);
+        try {
+            while (cursor.hasNext()) {
+                check(ids.add(dao.getId(cursor.next())), "cursor shall not visit an entity twice");
+            }
+        } finally {
+            cursor.close();
+        }
+        // close shall be idempotent
+        cursor.close();
+        check(ENTITY_COUNT == ids.size(), "cursor shall visit all entities matches the query");
+    }
+
+    public void streamEmptyResult() {
+        dao.deleteAll();
+        dao.save(entities(), 10);
+        Dao.Cursor<MODEL_TYPE> cursor = dao.stream(dao.q(field, "-not-exists-"), 7);
+        try {
+            check(!cursor.hasNext(), "cursor shall be empty if no entity matches the query");
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private List<MODEL_TYPE> entities() {
+        List<MODEL_TYPE> list = new ArrayList<>(ENTITY_COUNT);
+        for (int i = 0; i < ENTITY_COUNT; ++i) {
+            list.add(factory.apply(i));
+        }
+        return list;
+    }
+
+    private static void check(boolean condition, String message, Object... args) {
+        if (!condition) {
+            throw new AssertionError(S.fmt(message, args));
+        }
+    }
+}
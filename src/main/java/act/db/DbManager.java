@@ -25,16 +25,17 @@ import org.osgl.$;
 import org.osgl.util.C;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DbManager extends DestroyableBase {
     private Map<String, DbPlugin> plugins = C.newMap();
-    private Map<Class, TimestampGenerator> timestampGeneratorMap = C.newMap();
+    private Map<Class, TimestampGenerator> timestampGeneratorMap = new ConcurrentHashMap<>();
 
     synchronized void register(DbPlugin plugin) {
         plugins.put(plugin.getClass().getCanonicalName(), plugin);
     }
 
-    synchronized void register(TimestampGenerator timestampGenerator) {
+    void register(TimestampGenerator timestampGenerator) {
         timestampGeneratorMap.put(timestampGenerator.timestampType(), timestampGenerator);
     }
 
@@ -46,7 +47,7 @@ public class DbManager extends DestroyableBase {
         return !plugins.isEmpty();
     }
 
-    public synchronized <TIMESTAMP_TYPE> TimestampGenerator<TIMESTAMP_TYPE> timestampGenerator(Class<? extends TIMESTAMP_TYPE> c) {
+    public <TIMESTAMP_TYPE> TimestampGenerator<TIMESTAMP_TYPE> timestampGenerator(Class<? extends TIMESTAMP_TYPE> c) {
         return $.cast(timestampGeneratorMap.get(c));
     }
 
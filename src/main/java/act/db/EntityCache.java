@@ -0,0 +1,428 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.Act;
+import act.metric.Gauge;
+import act.metric.GaugeRegistry;
+import act.metric.Metric;
+import act.metric.MetricInfo;
+import org.osgl.cache.CacheService;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least recently used entity cache with time to live.
+ *
+ * Optionally backed by a {@link CacheService} as the second tier. Entries
+ * in the second tier cache are keyed with a generation token of the cache
+ * and a version token of the entity, both kept in the cache service itself.
+ * {@link #clear()} and {@link #invalidate(Object)} replace the tokens with
+ * random ones, so that the old entries can no longer be found by any node
+ * sharing the cache service, even after a restart.
+ *
+ * Readers that load an entity from the database shall capture its
+ * {@link #version(Object) version} before loading and cache it with
+ * {@link #put(Object, Object, Version)}, so that an entity invalidated
+ * by a concurrent write while it was loading is not cached.
+ *
+ * If the model type is {@link Serializable} entities are stored in serialized
+ * form, both in the local cache and in the second tier: {@link #put(Object, Object)}
+ * takes a snapshot of the entity and every {@link #get(Object)} returns a new
+ * copy, so the caller is free to modify the entities it gets from or puts into
+ * the cache. Entities of other model types are kept as is and MUST be treated as
+ * read only by the application; the second tier is not used for them.
+ *
+ * Hits and misses are counted in metric `act:db:cache:<entity>:hit` and
+ * `act:db:cache:<entity>:miss`, the size of the local cache is published
+ * as gauge `act:db:cache:<entity>:size`
+ *
+ * @param <ID_TYPE> the generic key type
+ * @param <MODEL_TYPE> the generic model type
+ */
+public class EntityCache<ID_TYPE, MODEL_TYPE> {
+
+    private static final Logger LOGGER = LogManager.get(EntityCache.class);
+
+    private static final int STRIPES = 64;
+
+    private final String name;
+    private final Class<MODEL_TYPE> modelType;
+    private final boolean copying;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final int ttlSeconds;
+    private final CacheService secondTier;
+    private final String generationKey;
+
+    // guarded by itself
+    private final LinkedHashMap<ID_TYPE, Entry> local;
+    // guarded by local, bumped on clear
+    private long generation;
+    // guarded by local, the stripe of an entity is bumped when the entity is invalidated
+    private final long[] stripes = new long[STRIPES];
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Metric metric;
+    private final String hitMetric;
+    private final String missMetric;
+    private final String sizeGauge;
+
+    /**
+     * Construct an entity cache
+     *
+     * @param name the name of the cache, normally the entity class name
+     * @param modelType the model type
+     * @param maxSize the max number of entities in the local cache
+     * @param ttlSeconds the time to live of entities in seconds
+     * @param secondTier the second tier cache service, could be `null`
+     */
+    public EntityCache(String name, Class<MODEL_TYPE> modelType, final int maxSize, int ttlSeconds, CacheService secondTier) {
+        E.NPE(modelType);
+        this.name = name;
+        this.modelType = modelType;
+        this.copying = Serializable.class.isAssignableFrom(modelType);
+        this.maxSize = maxSize;
+        this.ttlSeconds = ttlSeconds;
+        this.ttlMillis = ttlSeconds * 1000L;
+        if (!copying) {
+            LOGGER.warn("%s is not Serializable, cached entities are shared and must not be modified", modelType.getName());
+            if (null != secondTier) {
+                LOGGER.warn("second tier entity cache disabled for %s: model type is not Serializable", modelType.getName());
+            }
+        }
+        this.secondTier = copying ? secondTier : null;
+        this.generationKey = S.concat(name, ":gen");
+        this.local = new LinkedHashMap<ID_TYPE, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ID_TYPE, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        String metricName = S.concat(MetricInfo.ENTITY_CACHE, Metric.PATH_SEPARATOR, name);
+        this.metric = Act.metricPlugin().metric(MetricInfo.ENTITY_CACHE);
+        this.hitMetric = S.concat(metricName, ":hit");
+        this.missMetric = S.concat(metricName, ":miss");
+        this.sizeGauge = S.concat(metricName, ":size");
+        GaugeRegistry.register(sizeGauge, new Gauge() {
+            @Override
+            public long value() {
+                return size();
+            }
+        });
+    }
+
+    /**
+     * Returns the cached entity by ID
+     * @param id the entity ID
+     * @return a copy of the entity (see {@link EntityCache}) or `null` if not cached
+     */
+    public MODEL_TYPE get(ID_TYPE id) {
+        if (null == id) {
+            return null;
+        }
+        Object stored = null;
+        synchronized (local) {
+            Entry entry = local.get(id);
+            if (null != entry) {
+                if (entry.expired()) {
+                    local.remove(id);
+                } else {
+                    stored = entry.value;
+                }
+            }
+        }
+        if (null == stored && null != secondTier) {
+            Object o = secondTier.get(secondTierKey(id));
+            if (o instanceof byte[]) {
+                stored = o;
+                putLocal(id, stored);
+            }
+        }
+        MODEL_TYPE entity = null == stored ? null : decode(id, stored);
+        if (null == entity) {
+            misses.incrementAndGet();
+            metric.countOnce(missMetric);
+        } else {
+            hits.incrementAndGet();
+            metric.countOnce(hitMetric);
+        }
+        return entity;
+    }
+
+    /**
+     * Cache an entity
+     *
+     * If the model type is {@link Serializable} a snapshot of the entity is
+     * cached, otherwise the entity itself.
+     *
+     * @param id the entity ID
+     * @param entity the entity
+     */
+    public void put(ID_TYPE id, MODEL_TYPE entity) {
+        if (null == id || null == entity) {
+            return;
+        }
+        Object stored = encode(id, entity);
+        if (null == stored) {
+            return;
+        }
+        putLocal(id, stored);
+        if (null != secondTier) {
+            secondTier.put(secondTierKey(id), stored, ttlSeconds);
+        }
+    }
+
+    /**
+     * Returns the current version of an entity in this cache. The version
+     * shall be captured before the entity is loaded from the database and
+     * passed to {@link #put(Object, Object, Version)} after that.
+     *
+     * @param id the entity ID
+     * @return the version of the entity
+     */
+    public Version version(ID_TYPE id) {
+        long generation, stripe;
+        synchronized (local) {
+            generation = this.generation;
+            stripe = stripes[stripe(id)];
+        }
+        return new Version(generation, stripe, null == secondTier || null == id ? null : secondTierKey(id));
+    }
+
+    /**
+     * Cache an entity loaded from the database unless the entity has been
+     * invalidated, or the cache cleared, since the version was captured.
+     *
+     * @param id the entity ID
+     * @param entity the entity
+     * @param version the version captured before the entity is loaded
+     * @see #version(Object)
+     */
+    public void put(ID_TYPE id, MODEL_TYPE entity, Version version) {
+        if (null == id || null == entity) {
+            return;
+        }
+        Object stored = encode(id, entity);
+        if (null == stored) {
+            return;
+        }
+        Entry entry = new Entry(stored, System.currentTimeMillis() + ttlMillis);
+        synchronized (local) {
+            if (version.generation != generation || version.stripe != stripes[stripe(id)]) {
+                return;
+            }
+            local.put(id, entry);
+        }
+        if (null != secondTier) {
+            // the key carries the tokens read before loading, thus an entity
+            // invalidated by another node since then can no longer be found
+            secondTier.put(version.secondTierKey, stored, ttlSeconds);
+        }
+    }
+
+    /**
+     * Remove an entity from the cache
+     * @param id the entity ID
+     */
+    public void invalidate(ID_TYPE id) {
+        if (null == id) {
+            return;
+        }
+        synchronized (local) {
+            local.remove(id);
+            stripes[stripe(id)]++;
+        }
+        if (null != secondTier) {
+            renewToken(versionKey(id));
+        }
+    }
+
+    /**
+     * Remove all entities from the cache
+     */
+    public void clear() {
+        synchronized (local) {
+            local.clear();
+            generation++;
+        }
+        if (null != secondTier) {
+            renewToken(generationKey);
+        }
+    }
+
+    /**
+     * Returns the number of entities in the local cache
+     * @return the local cache size
+     */
+    public int size() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Unregister the size gauge and clear the cache
+     */
+    public void destroy() {
+        GaugeRegistry.unregister(sizeGauge);
+        clear();
+    }
+
+    private void putLocal(ID_TYPE id, Object stored) {
+        Entry entry = new Entry(stored, System.currentTimeMillis() + ttlMillis);
+        synchronized (local) {
+            local.put(id, entry);
+        }
+    }
+
+    // returns the serialized entity, or the entity itself if model type is not Serializable,
+    // or `null` if the entity cannot be serialized
+    private Object encode(ID_TYPE id, MODEL_TYPE entity) {
+        if (!copying) {
+            return entity;
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(entity);
+        } catch (IOException e) {
+            LOGGER.warn(e, "error serializing %s[%s], entity not cached", name, id);
+            return null;
+        }
+        return baos.toByteArray();
+    }
+
+    // returns a copy of the stored entity, or `null` if it cannot be deserialized
+    private MODEL_TYPE decode(ID_TYPE id, Object stored) {
+        if (!copying) {
+            return modelType.cast(stored);
+        }
+        try (ObjectInputStream ois = new ModelObjectInputStream((byte[]) stored, modelType.getClassLoader())) {
+            return modelType.cast(ois.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            LOGGER.warn(e, "error deserializing %s[%s], entry evicted", name, id);
+            invalidate(id);
+            return null;
+        }
+    }
+
+    private static int stripe(Object id) {
+        return null == id ? 0 : id.hashCode() & (STRIPES - 1);
+    }
+
+    private String versionKey(ID_TYPE id) {
+        return S.concat(name, ":ver:", S.string(id));
+    }
+
+    private String secondTierKey(ID_TYPE id) {
+        return S.concat(name, ":", token(generationKey), ":", token(versionKey(id)), ":", S.string(id));
+    }
+
+    // returns the token kept in the second tier under the key, creates one if absent
+    private String token(String key) {
+        Object token = secondTier.get(key);
+        if (null != token) {
+            return S.string(token);
+        }
+        return renewToken(key);
+    }
+
+    private String renewToken(String key) {
+        String token = S.random(8);
+        secondTier.put(key, token, ttlSeconds);
+        return token;
+    }
+
+    /**
+     * The version of an entity in the cache captured before the entity
+     * is loaded from the database
+     */
+    public static final class Version {
+        private final long generation;
+        private final long stripe;
+        private final String secondTierKey;
+
+        private Version(long generation, long stripe, String secondTierKey) {
+            this.generation = generation;
+            this.stripe = stripe;
+            this.secondTierKey = secondTierKey;
+        }
+    }
+
+    private static class Entry {
+        final Object value;
+        final long expireAt;
+
+        Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        boolean expired() {
+            return System.currentTimeMillis() > expireAt;
+        }
+    }
+
+    /**
+     * Resolves classes with the class loader of the model type, so that
+     * app classes can be found in dev mode
+     */
+    private static class ModelObjectInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+
+        ModelObjectInputStream(byte[] bytes, ClassLoader classLoader) throws IOException {
+            super(new ByteArrayInputStream(bytes));
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (null != classLoader) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // fall back to default resolution, e.g. for primitive types
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
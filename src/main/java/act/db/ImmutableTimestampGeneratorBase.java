@@ -0,0 +1,62 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Base class for generators of immutable timestamp types. The timestamp object
+ * is reused until the clock ticks, so that saving entities in a tight loop does
+ * not allocate a timestamp per entity
+ *
+ * @param <TIMESTAMP_TYPE> the timestamp type
+ */
+public abstract class ImmutableTimestampGeneratorBase<TIMESTAMP_TYPE> extends TimestampGeneratorBase<TIMESTAMP_TYPE> {
+
+    private volatile Tick<TIMESTAMP_TYPE> last;
+
+    @Override
+    public TIMESTAMP_TYPE now() {
+        long ms = currentTimeMillis();
+        Tick<TIMESTAMP_TYPE> tick = last;
+        if (null != tick && tick.ms == ms) {
+            return tick.timestamp;
+        }
+        TIMESTAMP_TYPE timestamp = create(ms);
+        last = new Tick<>(ms, timestamp);
+        return timestamp;
+    }
+
+    /**
+     * Create timestamp of the time specified
+     * @param ms the time in milliseconds
+     * @return the timestamp
+     */
+    protected abstract TIMESTAMP_TYPE create(long ms);
+
+    private static class Tick<TIMESTAMP_TYPE> {
+        final long ms;
+        final TIMESTAMP_TYPE timestamp;
+
+        Tick(long ms, TIMESTAMP_TYPE timestamp) {
+            this.ms = ms;
+            this.timestamp = timestamp;
+        }
+    }
+}
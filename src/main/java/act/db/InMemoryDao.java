@@ -0,0 +1,440 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * A reference {@link Dao} implementation that keeps entities in memory.
+ *
+ * It can be used in unit tests, and serves as the reference of the
+ * semantic of the batch and streaming APIs, which is verified by
+ * {@link DaoTestKit}.
+ *
+ * Entities are stored by reference, the ID of an entity is read from the
+ * property specified by `idField`
+ *
+ * @param <ID_TYPE> the generic key type
+ * @param <MODEL_TYPE> the generic model type
+ */
+public class InMemoryDao<ID_TYPE, MODEL_TYPE> extends DaoBase<ID_TYPE, MODEL_TYPE, InMemoryDao.Query<MODEL_TYPE>> {
+
+    private final String idField;
+    // guarded by this
+    private final LinkedHashMap<ID_TYPE, MODEL_TYPE> store = new LinkedHashMap<>();
+    private ID_TYPE lastModified;
+
+    public InMemoryDao(Class<ID_TYPE> idType, Class<MODEL_TYPE> modelType, String idField) {
+        super(idType, modelType);
+        E.illegalArgumentIf(S.blank(idField), "id field required");
+        this.idField = idField;
+        this.queryClass = $.cast(Query.class);
+    }
+
+    @Override
+    public synchronized MODEL_TYPE findById(ID_TYPE id) {
+        return store.get(id);
+    }
+
+    @Override
+    public synchronized MODEL_TYPE findLatest() {
+        MODEL_TYPE latest = null;
+        for (MODEL_TYPE entity : store.values()) {
+            latest = entity;
+        }
+        return latest;
+    }
+
+    @Override
+    public synchronized MODEL_TYPE findLastModified() {
+        return null == lastModified ? null : store.get(lastModified);
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findBy(String fields, Object... values) throws IllegalArgumentException {
+        return q(fields, values).fetch();
+    }
+
+    @Override
+    public MODEL_TYPE findOneBy(String fields, Object... values) throws IllegalArgumentException {
+        return q(fields, values).first();
+    }
+
+    @Override
+    public synchronized Iterable<MODEL_TYPE> findByIdList(Collection<ID_TYPE> idList) {
+        List<MODEL_TYPE> list = new ArrayList<>();
+        for (ID_TYPE id : idList) {
+            MODEL_TYPE entity = store.get(id);
+            if (null != entity) {
+                list.add(entity);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findAll() {
+        return findAllAsList();
+    }
+
+    @Override
+    public synchronized List<MODEL_TYPE> findAllAsList() {
+        return new ArrayList<>(store.values());
+    }
+
+    @Override
+    public MODEL_TYPE reload(MODEL_TYPE entity) {
+        return findById(getId(entity));
+    }
+
+    @Override
+    public ID_TYPE getId(MODEL_TYPE entity) {
+        return $.cast($.getProperty(entity, idField));
+    }
+
+    @Override
+    public synchronized long count() {
+        return store.size();
+    }
+
+    @Override
+    public long countBy(String fields, Object... values) throws IllegalArgumentException {
+        return q(fields, values).count();
+    }
+
+    @Override
+    public synchronized MODEL_TYPE save(MODEL_TYPE entity) {
+        ID_TYPE id = getId(entity);
+        E.illegalArgumentIf(null == id, "entity ID required");
+        store.put(id, entity);
+        lastModified = id;
+        evictCached(entity);
+        return entity;
+    }
+
+    @Override
+    public synchronized void save(MODEL_TYPE entity, String fields, Object... values) {
+        ID_TYPE id = getId(entity);
+        MODEL_TYPE stored = store.get(id);
+        if (null == stored) {
+            return;
+        }
+        String[] fieldList = fieldList(fields, values);
+        for (int i = 0; i < fieldList.length; ++i) {
+            setProperty(stored, fieldList[i], values[i]);
+        }
+        lastModified = id;
+        evictCached(stored);
+    }
+
+    @Override
+    public synchronized List<MODEL_TYPE> save(Iterable<MODEL_TYPE> entities) {
+        List<MODEL_TYPE> list = new ArrayList<>();
+        for (MODEL_TYPE entity : entities) {
+            list.add(save(entity));
+        }
+        return list;
+    }
+
+    @Override
+    public long update(Query<MODEL_TYPE> query, String fields, Object... values) {
+        String[] fieldList = fieldList(fields, values);
+        long updated = 0;
+        synchronized (this) {
+            for (MODEL_TYPE entity : select(query)) {
+                for (int i = 0; i < fieldList.length; ++i) {
+                    setProperty(entity, fieldList[i], values[i]);
+                }
+                lastModified = getId(entity);
+                updated++;
+            }
+        }
+        evictAllCached();
+        return updated;
+    }
+
+    @Override
+    public synchronized void delete(MODEL_TYPE entity) {
+        store.remove(getId(entity));
+        evictCached(entity);
+    }
+
+    @Override
+    public synchronized void delete(Query<MODEL_TYPE> query) {
+        for (MODEL_TYPE entity : select(query)) {
+            store.remove(getId(entity));
+        }
+        evictAllCached();
+    }
+
+    @Override
+    public long delete(Iterable<MODEL_TYPE> entities, int batchSize) {
+        E.illegalArgumentIf(batchSize < 1, "batch size shall be positive: %s", batchSize);
+        long deleted = 0;
+        synchronized (this) {
+            for (MODEL_TYPE entity : entities) {
+                if (null != store.remove(getId(entity))) {
+                    deleted++;
+                }
+                evictCached(entity);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized void deleteById(ID_TYPE id) {
+        MODEL_TYPE removed = store.remove(id);
+        if (null != removed) {
+            evictCached(removed);
+        }
+    }
+
+    @Override
+    public void deleteBy(String fields, Object... values) throws IllegalArgumentException {
+        delete(q(fields, values));
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        store.clear();
+        lastModified = null;
+        evictAllCached();
+    }
+
+    @Override
+    public void drop() {
+        deleteAll();
+    }
+
+    @Override
+    public Query<MODEL_TYPE> q() {
+        return new Query<>(this, new String[0], new Object[0]);
+    }
+
+    @Override
+    public Query<MODEL_TYPE> createQuery() {
+        return q();
+    }
+
+    @Override
+    public Query<MODEL_TYPE> q(String fields, Object... values) {
+        return new Query<>(this, fieldList(fields, values), values);
+    }
+
+    @Override
+    public Query<MODEL_TYPE> createQuery(String fields, Object... values) {
+        return q(fields, values);
+    }
+
+    /**
+     * Returns a cursor on a snapshot of entities matches the query. Entities
+     * added or removed after this call are not reflected by the cursor
+     */
+    @Override
+    public Cursor<MODEL_TYPE> stream(Query<MODEL_TYPE> query, int fetchSize) {
+        E.illegalArgumentIf(fetchSize < 1, "fetch size shall be positive: %s", fetchSize);
+        final Iterator<MODEL_TYPE> itr;
+        synchronized (this) {
+            itr = select(query).iterator();
+        }
+        return new Cursor<MODEL_TYPE>() {
+            private boolean closed;
+
+            @Override
+            public void close() {
+                closed = true;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !closed && itr.hasNext();
+            }
+
+            @Override
+            public MODEL_TYPE next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return itr.next();
+            }
+
+            @Override
+            public void remove() {
+                throw E.unsupport();
+            }
+        };
+    }
+
+    // must be called with lock held
+    private List<MODEL_TYPE> select(Query<MODEL_TYPE> query) {
+        List<MODEL_TYPE> list = new ArrayList<>();
+        for (MODEL_TYPE entity : store.values()) {
+            if (query.matches(entity)) {
+                list.add(entity);
+            }
+        }
+        if (!query.orderBy.isEmpty()) {
+            Collections.sort(list, query.comparator());
+        }
+        int from = Math.min(query.offset, list.size());
+        int to = query.limit < 0 ? list.size() : Math.min(list.size(), from + query.limit);
+        return new ArrayList<>(list.subList(from, to));
+    }
+
+    private static String[] fieldList(String fields, Object[] values) {
+        String[] sa = S.blank(fields) ? new String[0] : fields.trim().split("[\\s,;:]+");
+        E.illegalArgumentIf(sa.length != values.length, "The number of values does not match the number of fields");
+        return sa;
+    }
+
+    private static void setProperty(Object entity, String property, Object value) {
+        Class<?> type = entity.getClass();
+        String setter = S.concat("set", S.capFirst(property));
+        for (Method method : type.getMethods()) {
+            if (setter.equals(method.getName()) && 1 == method.getParameterTypes().length) {
+                try {
+                    method.invoke(entity, value);
+                    return;
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw E.unexpected(e);
+                }
+            }
+        }
+        while (null != type && Object.class != type) {
+            try {
+                Field field = type.getDeclaredField(property);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    field.setAccessible(true);
+                    field.set(entity, value);
+                    return;
+                }
+            } catch (NoSuchFieldException e) {
+                // try super class
+            } catch (IllegalAccessException e) {
+                throw E.unexpected(e);
+            }
+            type = type.getSuperclass();
+        }
+        throw E.unexpected("property not found: %s.%s", entity.getClass().getName(), property);
+    }
+
+    /**
+     * The {@link Dao.Query} implementation of {@link InMemoryDao}. Entities
+     * match the query if all field values equal to the values specified
+     */
+    public static class Query<MODEL_TYPE> implements Dao.Query<MODEL_TYPE, Query<MODEL_TYPE>> {
+
+        private final InMemoryDao<?, MODEL_TYPE> dao;
+        private final String[] fields;
+        private final Object[] values;
+        private int offset;
+        private int limit = -1;
+        private List<String> orderBy = C.list();
+
+        Query(InMemoryDao<?, MODEL_TYPE> dao, String[] fields, Object[] values) {
+            this.dao = dao;
+            this.fields = fields;
+            this.values = values;
+        }
+
+        @Override
+        public Query<MODEL_TYPE> offset(int pos) {
+            this.offset = pos;
+            return this;
+        }
+
+        @Override
+        public Query<MODEL_TYPE> limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        @Override
+        public Query<MODEL_TYPE> orderBy(String... fieldList) {
+            this.orderBy = C.listOf(fieldList);
+            return this;
+        }
+
+        @Override
+        public MODEL_TYPE first() {
+            int limit = this.limit;
+            this.limit = 1;
+            try {
+                Iterator<MODEL_TYPE> itr = fetch().iterator();
+                return itr.hasNext() ? itr.next() : null;
+            } finally {
+                this.limit = limit;
+            }
+        }
+
+        @Override
+        public Iterable<MODEL_TYPE> fetch() {
+            synchronized (dao) {
+                return dao.select(this);
+            }
+        }
+
+        @Override
+        public long count() {
+            synchronized (dao) {
+                return dao.select(this).size();
+            }
+        }
+
+        boolean matches(MODEL_TYPE entity) {
+            for (int i = 0; i < fields.length; ++i) {
+                if (!$.eq($.getProperty(entity, fields[i]), values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Comparator<MODEL_TYPE> comparator() {
+            return new Comparator<MODEL_TYPE>() {
+                @Override
+                public int compare(MODEL_TYPE o1, MODEL_TYPE o2) {
+                    for (String field : orderBy) {
+                        boolean desc = field.startsWith("-");
+                        String property = desc ? field.substring(1) : field;
+                        Comparable v1 = $.cast($.getProperty(o1, property));
+                        Comparable v2 = $.cast($.getProperty(o2, property));
+                        int n = null == v1 ? (null == v2 ? 0 : -1) : (null == v2 ? 1 : v1.compareTo(v2));
+                        if (0 != n) {
+                            return desc ? -n : n;
+                        }
+                    }
+                    return 0;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.E;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A compact `Map<String, Object>` to be used as {@link AdaptiveRecord#internalMap()}.
+ *
+ * Keys are kept in a {@link Shape} shared by all maps that have been populated
+ * with the same keys in the same order, and values are stored in an `Object[]`
+ * indexed by the slot of the key in the shape. Adding a new key transits the map
+ * to the child shape, which is interned in the transition table of the parent
+ * shape, thus records with the same schema share one key layout.
+ *
+ * Removing a key leaves the slot empty and keeps the shape, so that the key
+ * can be put back without a transition. When more than half of the slots are
+ * empty the map is compacted into the shape of the remaining keys.
+ *
+ * The transition tables are bounded: when a shape has too many keys or too many
+ * transitions, or too many shapes have been interned, the map switches to a
+ * dictionary shape which is owned by the map and grows in place.
+ *
+ * This class is not thread safe.
+ */
+public class ShapedMap extends AbstractMap<String, Object> {
+
+    private static final Object ABSENT = new Object();
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    /**
+     * Compaction is not triggered before the number of empty slots reaches
+     * this threshold
+     */
+    private static final int COMPACT_THRESHOLD = 8;
+
+    private Shape shape;
+    private Object[] values;
+    private int size;
+
+    public ShapedMap() {
+        this.shape = Shape.ROOT;
+        this.values = EMPTY_VALUES;
+    }
+
+    public ShapedMap(Map<String, ?> map) {
+        this();
+        putAll(map);
+    }
+
+    /**
+     * Returns the shape of this map
+     * @return the shape
+     */
+    public Shape shape() {
+        return shape;
+    }
+
+    /**
+     * Returns the number of slots, including empty slots
+     * @return the number of slots
+     */
+    public int slots() {
+        return shape.size();
+    }
+
+    /**
+     * Check if the slot specified has a value
+     * @param slot the slot index
+     * @return `true` if the slot has a value
+     */
+    public boolean isPresent(int slot) {
+        return values[slot] != ABSENT;
+    }
+
+    /**
+     * Returns the key of the slot specified
+     * @param slot the slot index
+     * @return the key
+     */
+    public String keyAt(int slot) {
+        return shape.keys[slot];
+    }
+
+    /**
+     * Returns the value in the slot specified, or `null` if the slot is empty
+     * @param slot the slot index
+     * @return the value
+     */
+    public Object valueAt(int slot) {
+        Object v = values[slot];
+        return v == ABSENT ? null : v;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int slot = slotOf(key);
+        return slot > -1 && values[slot] != ABSENT;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        Object v = values[slot];
+        return v == ABSENT ? null : v;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        E.NPE(key);
+        int slot = shape.slotOf(key);
+        if (slot > -1) {
+            Object v = values[slot];
+            values[slot] = value;
+            if (v == ABSENT) {
+                size++;
+                return null;
+            }
+            return v;
+        }
+        shape = shape.with(key);
+        slot = shape.size() - 1;
+        if (slot >= values.length) {
+            int cap = Math.max(4, values.length + (values.length >> 1) + 1);
+            values = Arrays.copyOf(values, cap);
+        }
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        Object v = removeSlot(slot);
+        int empty = shape.size() - size;
+        if (empty >= COMPACT_THRESHOLD && empty > size) {
+            compact();
+        }
+        return v;
+    }
+
+    @Override
+    public void clear() {
+        shape = Shape.ROOT;
+        values = EMPTY_VALUES;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new SlotIterator<Entry<String, Object>>() {
+                    @Override
+                    Entry<String, Object> element(final int slot) {
+                        return new SlotEntry(slot);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new SlotIterator<String>() {
+                    @Override
+                    String element(int slot) {
+                        return shape.keys[slot];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+        };
+    }
+
+    /**
+     * Move the present values into the shape of the present keys
+     */
+    private void compact() {
+        Shape oldShape = shape;
+        Object[] oldValues = values;
+        int n = oldShape.size();
+        clear();
+        for (int i = 0; i < n; ++i) {
+            Object v = oldValues[i];
+            if (v != ABSENT) {
+                put(oldShape.keys[i], v);
+            }
+        }
+    }
+
+    private int slotOf(Object key) {
+        return key instanceof String ? shape.slotOf((String) key) : -1;
+    }
+
+    private Object removeSlot(int slot) {
+        Object v = values[slot];
+        if (v == ABSENT) {
+            return null;
+        }
+        values[slot] = ABSENT;
+        size--;
+        return v;
+    }
+
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int next = advance(0);
+        private int last = -1;
+
+        private int advance(int from) {
+            int n = shape.size();
+            while (from < n && values[from] == ABSENT) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < shape.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = advance(next + 1);
+            return element(last);
+        }
+
+        @Override
+        public void remove() {
+            E.illegalStateIf(last < 0);
+            removeSlot(last);
+            last = -1;
+        }
+
+        abstract T element(int slot);
+    }
+
+    private class SlotEntry implements Entry<String, Object> {
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return shape.keys[slot];
+        }
+
+        @Override
+        public Object getValue() {
+            return valueAt(slot);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object v = valueAt(slot);
+            values[slot] = value;
+            return v;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry that = (Entry) o;
+            return getKey().equals(that.getKey()) && $.eq(getValue(), that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            Object v = getValue();
+            return getKey().hashCode() ^ (null == v ? 0 : v.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * A key to slot layout shared by {@link ShapedMap} instances.
+     *
+     * Interned shapes are immutable and reachable from {@link #ROOT} through
+     * the transition tables. A dictionary shape is not interned, it is owned by
+     * one map and new keys are appended to it in place.
+     */
+    public static final class Shape {
+
+        /**
+         * The max number of keys of an interned shape. Maps with more keys
+         * switch to a dictionary shape
+         */
+        static final int MAX_INTERNED_SIZE = 128;
+
+        /**
+         * The max number of transitions of a shape
+         */
+        static final int MAX_TRANSITIONS = 64;
+
+        /**
+         * The max number of shapes interned
+         */
+        static final int MAX_INTERNED_SHAPES = 4096;
+
+        private static final int LINEAR_SCAN_THRESHOLD = 8;
+
+        private static final AtomicInteger INTERNED = new AtomicInteger();
+
+        static final Shape ROOT = new Shape(new String[0], false);
+
+        private String[] keys;
+        private int size;
+        private Map<String, Integer> index;
+        // `null` for dictionary shape
+        private final ConcurrentMap<String, Shape> transitions;
+
+        private Shape(String[] keys, boolean dictionary) {
+            this.keys = keys;
+            this.size = keys.length;
+            this.transitions = dictionary ? null : new ConcurrentHashMap<String, Shape>();
+            if (size > LINEAR_SCAN_THRESHOLD) {
+                Map<String, Integer> map = new HashMap<>(size * 2);
+                for (int i = 0; i < size; ++i) {
+                    map.put(keys[i], i);
+                }
+                index = map;
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Check if this shape is a dictionary shape owned by a single map
+         * @return `true` if this is a dictionary shape
+         */
+        public boolean isDictionary() {
+            return null == transitions;
+        }
+
+        /**
+         * Returns the slot of the key, or `-1` if key not found in this shape
+         * @param key the key
+         * @return the slot index
+         */
+        public int slotOf(String key) {
+            if (null != index) {
+                Integer slot = index.get(key);
+                return null == slot ? -1 : slot;
+            }
+            String[] keys = this.keys;
+            int n = size;
+            for (int i = 0; i < n; ++i) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            for (int i = 0; i < n; ++i) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the shape that has all keys of this shape followed by the key specified.
+         *
+         * A dictionary shape appends the key to itself and returns itself.
+         *
+         * @param key the new key
+         * @return the child shape
+         */
+        public Shape with(String key) {
+            if (null == transitions) {
+                append(key);
+                return this;
+            }
+            Shape shape = transitions.get(key);
+            if (null != shape) {
+                return shape;
+            }
+            String[] newKeys = Arrays.copyOf(keys, size + 1);
+            newKeys[size] = key;
+            if (size >= MAX_INTERNED_SIZE || transitions.size() >= MAX_TRANSITIONS || !reserveInterned()) {
+                return new Shape(newKeys, true);
+            }
+            shape = new Shape(newKeys, false);
+            Shape existing = transitions.putIfAbsent(key, shape);
+            if (null != existing) {
+                INTERNED.decrementAndGet();
+                return existing;
+            }
+            return shape;
+        }
+
+        private void append(String key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(4, size + (size >> 1) + 1));
+            }
+            keys[size] = key;
+            if (null != index) {
+                index.put(key, size);
+            } else if (size + 1 > LINEAR_SCAN_THRESHOLD) {
+                Map<String, Integer> map = new HashMap<>(keys.length * 2);
+                for (int i = 0; i <= size; ++i) {
+                    map.put(keys[i], i);
+                }
+                index = map;
+            }
+            size++;
+        }
+
+        private static boolean reserveInterned() {
+            if (INTERNED.incrementAndGet() > MAX_INTERNED_SHAPES) {
+                INTERNED.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(Arrays.copyOf(keys, size));
+        }
+    }
+}
@@ -22,10 +22,22 @@ package act.db;
 
 import act.Act;
 import act.plugin.Plugin;
+import act.util.CachedClock;
 
 public abstract class TimestampGeneratorBase<TIMESTAMP_TYPE> implements TimestampGenerator<TIMESTAMP_TYPE>, Plugin {
     @Override
     public void register() {
         Act.dbManager().register(this);
     }
+
+    /**
+     * Returns the current time from {@link CachedClock}. All timestamps
+     * generated within a {@link CachedClock#startBatch() batch} share the
+     * same time
+     *
+     * @return the current time in milliseconds
+     */
+    protected long currentTimeMillis() {
+        return CachedClock.batchMs();
+    }
 }
@@ -58,7 +58,7 @@ public class FindBy extends ValueLoader.Base {
         rawType = spec.rawType();
         notNull = spec.hasAnnotation(NotNull.class);
         findOne = !(Iterable.class.isAssignableFrom(rawType));
-        dao = app.dbServiceManager().dao(findOne ? rawType : (Class) spec.typeParams().get(0));
+        dao = app.dbServiceManager().cachingDao(findOne ? rawType : (Class) spec.typeParams().get(0));
 
         queryFieldName = S.string(options.get("field"));
         byId = findOne && S.blank(queryFieldName) && (Boolean) options.get("byId");
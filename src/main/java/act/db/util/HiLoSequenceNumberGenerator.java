@@ -0,0 +1,189 @@
+package act.db.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.DbServiceManager;
+import act.conf.AppConfig;
+import org.osgl.util.E;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link _SequenceNumberGenerator} that reserves blocks of sequence numbers
+ * from a backing generator and hands them out from local windows without locking.
+ *
+ * Each call to the backing generator's `next(name)` reserves the block
+ * `[hi * blockSize, hi * blockSize + blockSize)`, so the backing generator is
+ * accessed once per `blockSize` numbers. When half of the current block has been
+ * consumed the next block is reserved asynchronously so that callers seldom wait
+ * for the backing generator.
+ *
+ * Note the backing sequence counts blocks instead of numbers, and numbers left
+ * in reserved blocks are skipped after restart
+ */
+public class HiLoSequenceNumberGenerator implements _SequenceNumberGenerator {
+
+    private final _SequenceNumberGenerator backing;
+    private final int blockSize;
+    private final Executor executor;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Construct a hi/lo generator
+     *
+     * @param backing the backing generator that allocates blocks
+     * @param blockSize the number of sequence numbers in a block
+     * @param executor the executor to prefetch next block
+     */
+    public HiLoSequenceNumberGenerator(_SequenceNumberGenerator backing, int blockSize, Executor executor) {
+        E.NPE(backing, executor);
+        E.illegalArgumentIf(blockSize < 1, "block size shall be positive: %s", blockSize);
+        this.backing = backing;
+        this.blockSize = blockSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the backing generator
+     * @return the backing generator
+     */
+    public _SequenceNumberGenerator backing() {
+        return backing;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    @Override
+    public long next(String name) {
+        Window window = window(name);
+        for (;;) {
+            Block block = window.current;
+            if (null != block) {
+                long n = block.cursor.getAndIncrement();
+                if (n < block.end) {
+                    if (n == block.prefetchAt) {
+                        prefetch(window);
+                    }
+                    return n;
+                }
+            }
+            advance(window, block);
+        }
+    }
+
+    @Override
+    public long get(String name) {
+        Window window = windows.get(name);
+        Block block = null == window ? null : window.current;
+        if (null == block) {
+            return backing.get(name) * blockSize;
+        }
+        return Math.min(block.cursor.get(), block.end);
+    }
+
+    @Override
+    public void configure(AppConfig config, DbServiceManager dbManager) {
+        backing.configure(config, dbManager);
+    }
+
+    private Window window(String name) {
+        Window window = windows.get(name);
+        if (null == window) {
+            Window newWindow = new Window(name);
+            window = windows.putIfAbsent(name, newWindow);
+            if (null == window) {
+                window = newWindow;
+            }
+        }
+        return window;
+    }
+
+    private void advance(Window window, Block exhausted) {
+        synchronized (window) {
+            if (window.current != exhausted) {
+                // another thread has advanced the window
+                return;
+            }
+            Block next = null;
+            FutureTask<Block> task = window.prefetch.getAndSet(null);
+            if (null != task) {
+                // run it in the current thread if executor has not started it yet
+                task.run();
+                try {
+                    next = task.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw E.unexpected(e);
+                } catch (ExecutionException e) {
+                    // fall back to synchronous allocation
+                }
+            }
+            window.current = null == next ? allocate(window.name) : next;
+        }
+    }
+
+    private void prefetch(final Window window) {
+        FutureTask<Block> task = new FutureTask<>(new Callable<Block>() {
+            @Override
+            public Block call() throws Exception {
+                return allocate(window.name);
+            }
+        });
+        if (window.prefetch.compareAndSet(null, task)) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // leave it to be run by `advance`
+            }
+        }
+    }
+
+    private Block allocate(String name) {
+        long hi = backing.next(name);
+        return new Block(hi * blockSize, blockSize);
+    }
+
+    private static class Window {
+        final String name;
+        volatile Block current;
+        final AtomicReference<FutureTask<Block>> prefetch = new AtomicReference<>();
+
+        Window(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class Block {
+        final long end;
+        final long prefetchAt;
+        final AtomicLong cursor;
+
+        Block(long start, int size) {
+            this.end = start + size;
+            this.prefetchAt = start + size / 2;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+}
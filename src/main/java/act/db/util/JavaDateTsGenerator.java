@@ -32,6 +32,6 @@ public class JavaDateTsGenerator extends TimestampGeneratorBase<Date> {
 
     @Override
     public Date now() {
-        return new Date();
+        return new Date(currentTimeMillis());
     }
 }
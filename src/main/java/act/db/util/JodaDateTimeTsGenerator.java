@@ -20,17 +20,17 @@ package act.db.util;
  * #L%
  */
 
-import act.db.TimestampGeneratorBase;
+import act.db.ImmutableTimestampGeneratorBase;
 import org.joda.time.DateTime;
 
-public class JodaDateTimeTsGenerator extends TimestampGeneratorBase<DateTime> {
+public class JodaDateTimeTsGenerator extends ImmutableTimestampGeneratorBase<DateTime> {
     @Override
     public Class<DateTime> timestampType() {
         return DateTime.class;
     }
 
     @Override
-    public DateTime now() {
-        return DateTime.now();
+    protected DateTime create(long ms) {
+        return new DateTime(ms);
     }
 }
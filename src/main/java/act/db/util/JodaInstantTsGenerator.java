@@ -20,17 +20,17 @@ package act.db.util;
  * #L%
  */
 
-import act.db.TimestampGeneratorBase;
+import act.db.ImmutableTimestampGeneratorBase;
 import org.joda.time.Instant;
 
-public class JodaInstantTsGenerator extends TimestampGeneratorBase<Instant> {
+public class JodaInstantTsGenerator extends ImmutableTimestampGeneratorBase<Instant> {
     @Override
     public Class<Instant> timestampType() {
         return Instant.class;
     }
 
     @Override
-    public Instant now() {
-        return Instant.now();
+    protected Instant create(long ms) {
+        return new Instant(ms);
     }
 }
@@ -20,17 +20,17 @@ package act.db.util;
  * #L%
  */
 
-import act.db.TimestampGeneratorBase;
+import act.db.ImmutableTimestampGeneratorBase;
 import org.joda.time.LocalDateTime;
 
-public class JodaLocalDateTimeTsGenerator extends TimestampGeneratorBase<LocalDateTime> {
+public class JodaLocalDateTimeTsGenerator extends ImmutableTimestampGeneratorBase<LocalDateTime> {
     @Override
     public Class<LocalDateTime> timestampType() {
         return LocalDateTime.class;
     }
 
     @Override
-    public LocalDateTime now() {
-        return LocalDateTime.now();
+    protected LocalDateTime create(long ms) {
+        return new LocalDateTime(ms);
     }
 }
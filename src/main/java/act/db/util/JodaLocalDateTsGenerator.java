@@ -20,17 +20,17 @@ package act.db.util;
  * #L%
  */
 
-import act.db.TimestampGeneratorBase;
+import act.db.ImmutableTimestampGeneratorBase;
 import org.joda.time.LocalDate;
 
-public class JodaLocalDateTsGenerator extends TimestampGeneratorBase<LocalDate> {
+public class JodaLocalDateTsGenerator extends ImmutableTimestampGeneratorBase<LocalDate> {
     @Override
     public Class<LocalDate> timestampType() {
         return LocalDate.class;
     }
 
     @Override
-    public LocalDate now() {
-        return LocalDate.now();
+    protected LocalDate create(long ms) {
+        return new LocalDate(ms);
     }
 }
@@ -20,17 +20,17 @@ package act.db.util;
  * #L%
  */
 
-import act.db.TimestampGeneratorBase;
+import act.db.ImmutableTimestampGeneratorBase;
 import org.joda.time.LocalTime;
 
-public class JodaLocalTimeTsGenerator extends TimestampGeneratorBase<LocalTime> {
+public class JodaLocalTimeTsGenerator extends ImmutableTimestampGeneratorBase<LocalTime> {
     @Override
     public Class<LocalTime> timestampType() {
         return LocalTime.class;
     }
 
     @Override
-    public LocalTime now() {
-        return LocalTime.now();
+    protected LocalTime create(long ms) {
+        return new LocalTime(ms);
     }
 }
@@ -20,17 +20,16 @@ package act.db.util;
  * #L%
  */
 
-import act.db.TimestampGeneratorBase;
-import org.osgl.$;
+import act.db.ImmutableTimestampGeneratorBase;
 
-public class LongTsGenerator extends TimestampGeneratorBase<Long> {
+public class LongTsGenerator extends ImmutableTimestampGeneratorBase<Long> {
     @Override
     public Class<Long> timestampType() {
         return Long.class;
     }
 
     @Override
-    public Long now() {
-        return $.ms();
+    protected Long create(long ms) {
+        return ms;
     }
 }
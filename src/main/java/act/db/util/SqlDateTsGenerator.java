@@ -21,7 +21,6 @@ package act.db.util;
  */
 
 import act.db.TimestampGeneratorBase;
-import org.osgl.$;
 
 import java.sql.Date;
 
@@ -22,7 +22,16 @@ package act.db.util;
 
 import act.app.DbServiceManager;
 import act.conf.AppConfig;
+import act.util.SnowflakeIdGenerator;
+import org.osgl.util.E;
+import org.osgl.util.IO;
 
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -50,6 +59,14 @@ public interface _SequenceNumberGenerator {
      */
     void configure(AppConfig config, DbServiceManager dbManager);
 
+    /**
+     * Mark a sequence number generator that shall be
+     * {@link #configure(AppConfig, DbServiceManager) configured} by
+     * {@link DbServiceManager} once the dependency injector is provisioned
+     */
+    interface Configurable extends _SequenceNumberGenerator {
+    }
+
     class InMemorySequenceNumberGenerator implements _SequenceNumberGenerator {
 
         private ConcurrentMap<String, AtomicLong> seqs = new ConcurrentHashMap<String, AtomicLong>();
@@ -81,4 +98,148 @@ public interface _SequenceNumberGenerator {
         }
     }
 
+    /**
+     * A durable sequence number generator that keeps sequences in a local
+     * properties file.
+     *
+     * The file is rewritten and synced to disk on every `next(name)` call,
+     * thus it shall be wrapped with {@link HiLoSequenceNumberGenerator} to
+     * get high throughput. It is meant for single node deployment as the
+     * file cannot be shared among processes.
+     */
+    class FileBasedSequenceNumberGenerator implements _SequenceNumberGenerator.Configurable {
+
+        private File file;
+        // guarded by this
+        private Map<String, Long> seqs;
+
+        public FileBasedSequenceNumberGenerator() {
+            this(".act.seq");
+        }
+
+        public FileBasedSequenceNumberGenerator(String path) {
+            this.file = new File(path);
+        }
+
+        @Override
+        public synchronized long next(String name) {
+            Map<String, Long> seqs = seqs();
+            Long seq = seqs.get(name);
+            long n = null == seq ? 0 : seq;
+            seqs.put(name, n + 1);
+            persist();
+            return n;
+        }
+
+        @Override
+        public synchronized long get(String name) {
+            Long seq = seqs().get(name);
+            return null == seq ? 0 : seq;
+        }
+
+        @Override
+        public synchronized void configure(AppConfig config, DbServiceManager dbManager) {
+            File configured = new File(config.sequenceNumberFile());
+            if (!configured.equals(file)) {
+                file = configured;
+                seqs = null;
+            }
+        }
+
+        private Map<String, Long> seqs() {
+            if (null == seqs) {
+                seqs = load();
+            }
+            return seqs;
+        }
+
+        private Map<String, Long> load() {
+            Map<String, Long> map = new HashMap<>();
+            if (!file.exists()) {
+                return map;
+            }
+            Properties properties = new Properties();
+            InputStream is = null;
+            try {
+                is = new FileInputStream(file);
+                properties.load(is);
+            } catch (IOException e) {
+                throw E.ioException(e);
+            } finally {
+                IO.close(is);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                map.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            }
+            return map;
+        }
+
+        private void persist() {
+            Properties properties = new Properties();
+            for (Map.Entry<String, Long> entry : seqs.entrySet()) {
+                properties.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+            File dir = file.getAbsoluteFile().getParentFile();
+            File tmp = new File(dir, file.getName() + ".tmp");
+            FileOutputStream os = null;
+            try {
+                os = new FileOutputStream(tmp);
+                properties.store(os, null);
+                os.flush();
+                os.getFD().sync();
+                os.close();
+                os = null;
+                try {
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                throw E.ioException(e);
+            } finally {
+                IO.close(os);
+            }
+        }
+    }
+
+    /**
+     * A sequence number generator backed by the app's {@link SnowflakeIdGenerator}.
+     *
+     * Numbers are unique across the cluster and increasing within a node, but not
+     * dense. All sequences share the same generator, thus `get(name)` returns the
+     * last number issued regardless of the name.
+     */
+    class SnowflakeSequenceNumberGenerator implements _SequenceNumberGenerator.Configurable {
+
+        private volatile SnowflakeIdGenerator generator;
+
+        public SnowflakeSequenceNumberGenerator() {
+        }
+
+        public SnowflakeSequenceNumberGenerator(SnowflakeIdGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public long next(String name) {
+            return generator().nextLong();
+        }
+
+        @Override
+        public long get(String name) {
+            return generator().last();
+        }
+
+        @Override
+        public void configure(AppConfig config, DbServiceManager dbManager) {
+            generator = config.snowflakeIdGenerator();
+        }
+
+        private SnowflakeIdGenerator generator() {
+            SnowflakeIdGenerator generator = this.generator;
+            E.illegalStateIf(null == generator, "snowflake sequence number generator not configured");
+            return generator;
+        }
+    }
+
 }
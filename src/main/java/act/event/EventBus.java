@@ -30,6 +30,7 @@ import act.event.bytecode.ReflectedSimpleEventListener;
 import act.inject.DependencyInjectionBinder;
 import act.inject.DependencyInjector;
 import act.job.AppJobManager;
+import act.job.JobGroup;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
 import org.osgl.util.C;
@@ -258,7 +259,7 @@ public class EventBus extends AppServiceBase<EventBus> {
                     toBeRemoved.add(l);
                 }
             } else {
-                jobManager.now(new Runnable() {
+                jobManager.submit(JobGroup.EVENT, new Runnable() {
                     @Override
                     public void run() {
                         callOn(event, l);
@@ -491,7 +492,7 @@ public class EventBus extends AppServiceBase<EventBus> {
             if (!async) {
                 callOn(l, args);
             } else {
-                jobManager.now(new Runnable() {
+                jobManager.submit(JobGroup.EVENT, new Runnable() {
                     @Override
                     public void run() {
                         l.invoke(args);
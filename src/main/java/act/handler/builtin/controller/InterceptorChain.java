@@ -0,0 +1,271 @@
+package act.handler.builtin.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.ActionContext;
+import org.osgl.mvc.result.Result;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A per action interceptor pipeline compiled from global, application
+ * and action level interceptors.
+ *
+ * Each phase is flattened into a single array in invocation order and
+ * specialized by the number of interceptors, so that an empty phase
+ * costs nothing more than a virtual call to a no-op stage.
+ *
+ * A chain records the {@link #version() interceptor registry version}
+ * it was compiled against. Registering or releasing interceptors bumps
+ * the version, and the owner shall recompile the chain once it finds
+ * the chain {@link #isStale() stale}.
+ */
+final class InterceptorChain {
+
+    private static final AtomicInteger VERSION = new AtomicInteger();
+
+    private final int version;
+
+    final BeforeStage before;
+    final AfterStage after;
+    final ExceptionStage exception;
+    final FinallyStage finallyStage;
+
+    private InterceptorChain(int version, BeforeStage before, AfterStage after, ExceptionStage exception, FinallyStage finallyStage) {
+        this.version = version;
+        this.before = before;
+        this.after = after;
+        this.exception = exception;
+        this.finallyStage = finallyStage;
+    }
+
+    boolean isStale() {
+        return version != VERSION.get();
+    }
+
+    /**
+     * Check if there is no interceptor in any phase of this chain
+     * @return `true` if all phases are empty
+     */
+    boolean isEmpty() {
+        return before == BeforeStage.NONE && after == AfterStage.NONE
+                && exception == ExceptionStage.NONE && finallyStage == FinallyStage.NONE;
+    }
+
+    /**
+     * Returns the current interceptor registry version
+     */
+    static int version() {
+        return VERSION.get();
+    }
+
+    /**
+     * Notify all compiled chains that interceptor registry has been changed
+     */
+    static void invalidate() {
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Compile a chain from interceptor lists. Each list shall be provided
+     * in the order the interceptors are to be invoked
+     */
+    static InterceptorChain compile(
+            List<? extends BeforeInterceptor> before,
+            List<? extends AfterInterceptor> after,
+            List<? extends ExceptionInterceptor> exception,
+            List<? extends FinallyInterceptor> finallyList
+    ) {
+        // read version before reading the lists so that a concurrent
+        // registration always ends up with a stale chain
+        int version = VERSION.get();
+        return new InterceptorChain(version,
+                BeforeStage.of(before.toArray(new BeforeInterceptor[before.size()])),
+                AfterStage.of(after.toArray(new AfterInterceptor[after.size()])),
+                ExceptionStage.of(exception.toArray(new ExceptionInterceptor[exception.size()])),
+                FinallyStage.of(finallyList.toArray(new FinallyInterceptor[finallyList.size()])));
+    }
+
+    abstract static class BeforeStage {
+
+        /**
+         * Returns the first non-null result returned or thrown by interceptors
+         */
+        abstract Result apply(ActionContext context) throws Exception;
+
+        static final BeforeStage NONE = new BeforeStage() {
+            @Override
+            Result apply(ActionContext context) {
+                return null;
+            }
+        };
+
+        static BeforeStage of(final BeforeInterceptor[] interceptors) {
+            switch (interceptors.length) {
+                case 0:
+                    return NONE;
+                case 1:
+                    final BeforeInterceptor interceptor = interceptors[0];
+                    return new BeforeStage() {
+                        @Override
+                        Result apply(ActionContext context) throws Exception {
+                            try {
+                                return interceptor.handle(context);
+                            } catch (Result r) {
+                                return r;
+                            }
+                        }
+                    };
+                default:
+                    return new BeforeStage() {
+                        @Override
+                        Result apply(ActionContext context) throws Exception {
+                            try {
+                                for (BeforeInterceptor i : interceptors) {
+                                    Result r = i.handle(context);
+                                    if (null != r) {
+                                        return r;
+                                    }
+                                }
+                                return null;
+                            } catch (Result r) {
+                                return r;
+                            }
+                        }
+                    };
+            }
+        }
+    }
+
+    abstract static class AfterStage {
+
+        /**
+         * Pass the result through all interceptors and returns the final result
+         */
+        abstract Result apply(Result result, ActionContext context) throws Exception;
+
+        static final AfterStage NONE = new AfterStage() {
+            @Override
+            Result apply(Result result, ActionContext context) {
+                return result;
+            }
+        };
+
+        static AfterStage of(final AfterInterceptor[] interceptors) {
+            switch (interceptors.length) {
+                case 0:
+                    return NONE;
+                case 1:
+                    final AfterInterceptor interceptor = interceptors[0];
+                    return new AfterStage() {
+                        @Override
+                        Result apply(Result result, ActionContext context) throws Exception {
+                            return interceptor.handle(result, context);
+                        }
+                    };
+                default:
+                    return new AfterStage() {
+                        @Override
+                        Result apply(Result result, ActionContext context) throws Exception {
+                            for (AfterInterceptor i : interceptors) {
+                                result = i.handle(result, context);
+                            }
+                            return result;
+                        }
+                    };
+            }
+        }
+    }
+
+    abstract static class ExceptionStage {
+
+        /**
+         * Returns the first non-null result returned or thrown by interceptors
+         */
+        abstract Result apply(Exception e, ActionContext context) throws Exception;
+
+        static final ExceptionStage NONE = new ExceptionStage() {
+            @Override
+            Result apply(Exception e, ActionContext context) {
+                return null;
+            }
+        };
+
+        static ExceptionStage of(final ExceptionInterceptor[] interceptors) {
+            if (0 == interceptors.length) {
+                return NONE;
+            }
+            return new ExceptionStage() {
+                @Override
+                Result apply(Exception e, ActionContext context) throws Exception {
+                    try {
+                        for (ExceptionInterceptor i : interceptors) {
+                            Result r = i.handle(e, context);
+                            if (null != r) {
+                                return r;
+                            }
+                        }
+                        return null;
+                    } catch (Result r) {
+                        return r;
+                    }
+                }
+            };
+        }
+    }
+
+    abstract static class FinallyStage {
+
+        abstract void apply(ActionContext context) throws Exception;
+
+        static final FinallyStage NONE = new FinallyStage() {
+            @Override
+            void apply(ActionContext context) {
+            }
+        };
+
+        static FinallyStage of(final FinallyInterceptor[] interceptors) {
+            switch (interceptors.length) {
+                case 0:
+                    return NONE;
+                case 1:
+                    final FinallyInterceptor interceptor = interceptors[0];
+                    return new FinallyStage() {
+                        @Override
+                        void apply(ActionContext context) throws Exception {
+                            interceptor.handle(context);
+                        }
+                    };
+                default:
+                    return new FinallyStage() {
+                        @Override
+                        void apply(ActionContext context) throws Exception {
+                            for (FinallyInterceptor i : interceptors) {
+                                i.handle(context);
+                            }
+                        }
+                    };
+            }
+        }
+    }
+
+}
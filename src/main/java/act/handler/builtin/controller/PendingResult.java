@@ -0,0 +1,113 @@
+package act.handler.builtin.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.ActionContext;
+import org.osgl.http.H;
+import org.osgl.mvc.result.Result;
+import org.osgl.util.E;
+
+/**
+ * A `PendingResult` is returned by an action handler when the action
+ * method returns a value that completes in future, e.g. a
+ * `java.util.concurrent.CompletionStage`.
+ *
+ * On receiving a `PendingResult` the {@link RequestHandlerProxy} suspends
+ * the request handling and releases the worker thread. Once the pending
+ * value is available it is converted into a {@link Result} and rendered
+ * through the normal after interceptor path.
+ */
+public abstract class PendingResult extends Result {
+
+    private static final Class<?> COMPLETION_STAGE = loadCompletionStageClass();
+
+    /**
+     * Receives the outcome of a pending result
+     */
+    public interface Listener {
+        /**
+         * Called when the pending value is available
+         * @param value the value
+         */
+        void completed(Object value);
+
+        /**
+         * Called when the pending value failed to complete
+         * @param cause the failure cause
+         */
+        void failed(Throwable cause);
+    }
+
+    protected PendingResult() {
+        super(H.Status.OK);
+    }
+
+    /**
+     * Register the listener to be notified when the pending value
+     * is available. The listener might be called in the current thread
+     * if the value is available already.
+     *
+     * @param listener the listener
+     */
+    public abstract void subscribe(Listener listener);
+
+    /**
+     * Cancel the pending computation, e.g. on timeout or client disconnect
+     */
+    public abstract void cancel();
+
+    /**
+     * Convert the completed value into a {@link Result}
+     *
+     * @param value the completed value
+     * @param context the action context
+     * @return the result to be rendered
+     */
+    public abstract Result toResult(Object value, ActionContext context);
+
+    @Override
+    public void apply(H.Request req, H.Response resp) {
+        throw E.unsupport("PendingResult cannot be applied to response directly");
+    }
+
+    /**
+     * Check if a type is `java.util.concurrent.CompletionStage` or its
+     * sub types.
+     *
+     * The check is done without referencing the `CompletionStage` class
+     * so that it is safe on Java 7.
+     *
+     * @param type the type to be checked
+     * @return `true` if the type is a `CompletionStage`
+     */
+    public static boolean isCompletionStage(Class<?> type) {
+        return null != COMPLETION_STAGE && COMPLETION_STAGE.isAssignableFrom(type);
+    }
+
+    private static Class<?> loadCompletionStageClass() {
+        try {
+            return Class.forName("java.util.concurrent.CompletionStage");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+}
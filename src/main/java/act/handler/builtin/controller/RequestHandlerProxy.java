@@ -59,6 +59,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 import static org.osgl.http.H.Method.GET;
@@ -92,6 +96,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
     private Method actionMethod;
 
     private volatile ControllerAction actionHandler = null;
+    private volatile InterceptorChain interceptorChain = null;
     private C.List<BeforeInterceptor> beforeInterceptors = C.newList();
     private C.List<AfterInterceptor> afterInterceptors = C.newList();
     private C.List<ExceptionInterceptor> exceptionInterceptors = C.newList();
@@ -106,11 +111,6 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
 
     private WebSocketConnectionHandler webSocketConnectionHandler;
 
-    final GroupInterceptorWithResult BEFORE_INTERCEPTOR = new GroupInterceptorWithResult(beforeInterceptors);
-    final GroupAfterInterceptor AFTER_INTERCEPTOR = new GroupAfterInterceptor(afterInterceptors);
-    final GroupFinallyInterceptor FINALLY_INTERCEPTOR = new GroupFinallyInterceptor(finallyInterceptors);
-    final GroupExceptionInterceptor EXCEPTION_INTERCEPTOR = new GroupExceptionInterceptor(exceptionInterceptors);
-
     @Inject
     public RequestHandlerProxy(String actionMethodName, App app) {
         int pos = actionMethodName.lastIndexOf('.');
@@ -132,6 +132,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         _releaseResourceCollections(beforeInterceptors);
         _releaseResourceCollections(exceptionInterceptors);
         _releaseResourceCollections(finallyInterceptors);
+        interceptorChain = null;
         if (null != actionHandler) {
             actionHandler.destroy();
             actionHandler = null;
@@ -148,6 +149,18 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         // We must recreate this instance to prevent it from
         // been reused after destroyed
         globalFreeStyleInterceptor = new GroupInterceptorMetaInfo();
+        InterceptorChain.invalidate();
+    }
+
+    /**
+     * Force all request handler proxies to recompile their interceptor
+     * chain on next request.
+     *
+     * This method shall be called when interceptors are removed from
+     * a registry out of {@link #insertInterceptor(C.List, Handler)}
+     */
+    public static void invalidateInterceptorChains() {
+        InterceptorChain.invalidate();
     }
 
     private static void _releaseResourceCollections(Collection<? extends Destroyable> col) {
@@ -184,7 +197,8 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
             webSocketConnectionHandler.handle(context);
             return;
         }
-        Result result = null;
+        InterceptorChain chain = interceptorChain();
+        boolean suspended = false;
         try {
             H.Method method = context.req().method();
             boolean supportCache = this.supportCache && method == GET || (cacheSupport.supportPost && method == POST);
@@ -200,51 +214,142 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
             }
             saveActionPath(context);
             context.startIntercepting();
-            result = handleBefore(context);
+            Result result = chain.before.apply(context);
             if (null == result) {
                 context.startHandling();
                 result = _handle(context);
             }
-            if (context.resp().isClosed()) {
+            if (result instanceof PendingResult) {
+                suspended = true;
+                suspend((PendingResult) result, context, chain, cacheKey);
                 return;
             }
-            context.startIntercepting();
-            Result afterResult = handleAfter(result, context);
-            if (null != afterResult) {
-                result = afterResult;
+            if (context.resp().isClosed()) {
+                return;
             }
-            if (null == result) {
-                result = context.nullValueResult();
+            complete(result, context, chain, cacheKey);
+        } catch (Exception e) {
+            fail(e, context, chain);
+        } finally {
+            if (!suspended) {
+                finish(context, chain);
             }
+        }
+    }
+
+    private void complete(Result result, ActionContext context, InterceptorChain chain, String cacheKey) throws Exception {
+        context.startIntercepting();
+        Result afterResult = chain.after.apply(result, context);
+        if (null != afterResult) {
+            result = afterResult;
+        }
+        if (null == result) {
+            result = context.nullValueResult();
+        }
+        onResult(result, context);
+        if (null != cacheKey) {
+            this.cache.put(cacheKey, context.resp(), cacheSupport.ttl);
+        }
+    }
+
+    private void fail(Exception e, ActionContext context, InterceptorChain chain) {
+        H.Request req = context.req();
+        logger.error(e, S.concat("Error handling request: [", req.method().name(), "] ", req.url()));
+        Result result = null;
+        try {
+            result = chain.exception.apply(e, context);
+        } catch (Exception e0) {
+            logger.error(e0, "Error invoking exception handler");
+        }
+        if (null == result) {
+            result = ActErrorResult.of(e);
+        }
+        try {
             onResult(result, context);
-            if (supportCache) {
-                this.cache.put(cacheKey, context.resp(), cacheSupport.ttl);
-            }
+        } catch (Exception e2) {
+            logger.error(e2, "error rendering exception handle  result");
+            onResult(ActErrorResult.of(e2), context);
+        }
+    }
+
+    private void finish(ActionContext context, InterceptorChain chain) {
+        try {
+            chain.finallyStage.apply(context);
         } catch (Exception e) {
-            H.Request req = context.req();
-            logger.error(e, S.concat("Error handling request: [", req.method().name(), "] ", req.url()));
-            try {
-                result = handleException(e, context);
-            } catch (Exception e0) {
-                logger.error(e0, "Error invoking exception handler");
+            logger.error(e, "Error invoking final handler");
+        } finally {
+            context.destroy();
+        }
+    }
+
+    /*
+     * Release the current worker thread and resume the request handling
+     * once the pending result completes, times out or the client disconnects,
+     * whichever happens first
+     */
+    void suspend(final PendingResult pending, final ActionContext context, final InterceptorChain chain, final String cacheKey) {
+        final AtomicBoolean done = new AtomicBoolean();
+        final Future<?> timeout = app.jobManager().delay(new Callable<Void>() {
+            @Override
+            public Void call() {
+                if (done.compareAndSet(false, true)) {
+                    pending.cancel();
+                    resume(pending, null, ActErrorResult.of(504), context, chain, null);
+                }
+                return null;
             }
-            if (null == result) {
-                result = ActErrorResult.of(e);
+        }, app.config().asyncTimeout(), TimeUnit.SECONDS);
+        context.resp().onClientDisconnect(new Runnable() {
+            @Override
+            public void run() {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel(false);
+                    pending.cancel();
+                    finish(context, chain);
+                }
             }
-            try {
-                onResult(result, context);
-            } catch (Exception e2) {
-                logger.error(e2, "error rendering exception handle  result");
-                onResult(ActErrorResult.of(e2), context);
+        });
+        pending.subscribe(new PendingResult.Listener() {
+            @Override
+            public void completed(Object value) {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel(false);
+                    resume(pending, value, null, context, chain, cacheKey);
+                }
             }
-        } finally {
-            try {
-                handleFinally(context);
-            } catch (Exception e) {
-                logger.error(e, "Error invoking final handler");
-            } finally {
-                context.destroy();
+
+            @Override
+            public void failed(Throwable cause) {
+                if (done.compareAndSet(false, true)) {
+                    timeout.cancel(false);
+                    resume(pending, null, cause, context, chain, null);
+                }
             }
+        });
+    }
+
+    private void resume(PendingResult pending, Object value, Throwable cause, ActionContext context, InterceptorChain chain, String cacheKey) {
+        context.saveLocal();
+        try {
+            Result result;
+            if (cause instanceof Result) {
+                result = (Result) cause;
+            } else if (null != cause) {
+                throw cause instanceof Exception ? (Exception) cause : E.unexpected(cause);
+            } else {
+                try {
+                    result = pending.toResult(value, context);
+                } catch (Result r) {
+                    result = r;
+                }
+            }
+            if (!context.resp().isClosed()) {
+                complete(result, context, chain, cacheKey);
+            }
+        } catch (Exception e) {
+            fail(e, context, chain);
+        } finally {
+            finish(context, chain);
         }
     }
 
@@ -318,6 +423,45 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         }
     }
 
+    private InterceptorChain interceptorChain() {
+        InterceptorChain chain = interceptorChain;
+        if (null == chain || chain.isStale()) {
+            chain = compileInterceptorChain();
+            interceptorChain = chain;
+        }
+        return chain;
+    }
+
+    /*
+     * Flatten global, application and action interceptors into a single
+     * chain following the order they used to be applied:
+     * - before: global, app, action
+     * - after, exception and finally: action, app, global
+     */
+    private InterceptorChain compileInterceptorChain() {
+        C.List<BeforeInterceptor> before = C.newList();
+        before.addAll(globalBeforeInterceptors);
+        before.addAll(appInterceptor.beforeInterceptors());
+        before.addAll(beforeInterceptors);
+
+        C.List<AfterInterceptor> after = C.newList();
+        after.addAll(afterInterceptors);
+        after.addAll(appInterceptor.afterInterceptors());
+        after.addAll(globalAfterInterceptors);
+
+        C.List<ExceptionInterceptor> exception = C.newList();
+        exception.addAll(exceptionInterceptors);
+        exception.addAll(appInterceptor.exceptionInterceptors());
+        exception.addAll(globalExceptionInterceptors);
+
+        C.List<FinallyInterceptor> finallyList = C.newList();
+        finallyList.addAll(finallyInterceptors);
+        finallyList.addAll(appInterceptor.finallyInterceptors());
+        finallyList.addAll(globalFinallyInterceptors);
+
+        return InterceptorChain.compile(before, after, exception, finallyList);
+    }
+
     // could be used by View to resolve default path to template
     private void saveActionPath(ActionContext context) {
         context.actionPath(actionPath);
@@ -383,13 +527,13 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
 //            return;
 //        }
         Act.Mode mode = Act.mode();
-        actionHandler = mode.createRequestHandler(actionInfo, app);
-        actionMethod = actionHandler.invoker().invokeMethod();
-        sessionFree = actionHandler.sessionFree();
-        missingAuthenticationHandler = actionHandler.missingAuthenticationHandler();
-        csrfFailureHandler = actionHandler.csrfFailureHandler();
-        express = actionHandler.express();
-        cacheSupport = actionHandler.cacheSupport();
+        ControllerAction handler = mode.createRequestHandler(actionInfo, app);
+        actionMethod = handler.invoker().invokeMethod();
+        boolean sessionFree = handler.sessionFree();
+        missingAuthenticationHandler = handler.missingAuthenticationHandler();
+        csrfFailureHandler = handler.csrfFailureHandler();
+        boolean express = handler.express();
+        cacheSupport = handler.cacheSupport();
         supportCache = cacheSupport.enabled;
 
         App app = this.app;
@@ -403,12 +547,16 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
             interceptorMetaInfo.mergeFrom(freeStyleInterceptor);
         }
 
+        C.List<BeforeInterceptor> beforeList = C.newList();
+        C.List<AfterInterceptor> afterList = C.newList();
+        C.List<ExceptionInterceptor> exceptionList = C.newList();
+        C.List<FinallyInterceptor> finallyList = C.newList();
         for (InterceptorMethodMetaInfo info : interceptorMetaInfo.beforeList()) {
             if (!applied(info)) {
                 continue;
             }
             BeforeInterceptor interceptor = mode.createBeforeInterceptor(info, app);
-            beforeInterceptors.add(interceptor);
+            beforeList.add(interceptor);
             sessionFree = sessionFree && interceptor.sessionFree();
             express = express && interceptor.express();
         }
@@ -417,7 +565,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
                 continue;
             }
             AfterInterceptor interceptor = mode.createAfterInterceptor(info, app);
-            afterInterceptors.add(interceptor);
+            afterList.add(interceptor);
             sessionFree = sessionFree && interceptor.sessionFree();
             express = express && interceptor.express();
         }
@@ -426,22 +574,32 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
                 continue;
             }
             ExceptionInterceptor interceptor = mode.createExceptionInterceptor(info, app);
-            exceptionInterceptors.add(interceptor);
+            exceptionList.add(interceptor);
             sessionFree = sessionFree && interceptor.sessionFree();
             express = express && interceptor.express();
         }
-        Collections.sort(exceptionInterceptors);
 
         for (InterceptorMethodMetaInfo info : interceptorMetaInfo.finallyList()) {
             if (!applied(info)) {
                 continue;
             }
             FinallyInterceptor interceptor = mode.createFinallyInterceptor(info, app);
-            finallyInterceptors.add(interceptor);
+            finallyList.add(interceptor);
             sessionFree = sessionFree && interceptor.sessionFree();
             express = express && interceptor.express();
         }
 
+        beforeInterceptors.addAll(beforeList);
+        afterInterceptors.addAll(afterList);
+        exceptionInterceptors.addAll(exceptionList);
+        Collections.sort(exceptionInterceptors);
+        finallyInterceptors.addAll(finallyList);
+        this.sessionFree = sessionFree;
+        this.express = express;
+        interceptorChain = compileInterceptorChain();
+        // other threads skip the lock in ensureAgentsReady() once
+        // actionHandler is set, thus it must be published last
+        actionHandler = handler;
     }
 
     public void accept(Handler.Visitor visitor) {
@@ -497,17 +655,6 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         return actionHandler.corsSpec();
     }
 
-    private Result handleBefore(ActionContext actionContext) throws Exception {
-        Result r = GLOBAL_BEFORE_INTERCEPTOR.apply(actionContext);
-        if (null == r) {
-            r = appInterceptor.handleBefore(actionContext);
-        }
-        if (null == r) {
-            r = BEFORE_INTERCEPTOR.apply(actionContext);
-        }
-        return r;
-    }
-
     private Result _handle(ActionContext actionContext) throws Exception {
         try {
             return actionHandler.handle(actionContext);
@@ -516,30 +663,6 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         }
     }
 
-    private Result handleAfter(Result result, ActionContext actionContext) throws Exception {
-        result = AFTER_INTERCEPTOR.apply(result, actionContext);
-        result = appInterceptor.handleAfter(result, actionContext);
-        result = GLOBAL_AFTER_INTERCEPTOR.apply(result, actionContext);
-        return result;
-    }
-
-    private void handleFinally(ActionContext actionContext) throws Exception {
-        FINALLY_INTERCEPTOR.apply(actionContext);
-        appInterceptor.handleFinally(actionContext);
-        GLOBAL_FINALLY_INTERCEPTOR.apply(actionContext);
-    }
-
-    private Result handleException(Exception ex, ActionContext actionContext) throws Exception {
-        Result r = EXCEPTION_INTERCEPTOR.apply(ex, actionContext);
-        if (null == r) {
-            r = appInterceptor.handleException(ex, actionContext);
-        }
-        if (null == r) {
-            r = GLOBAL_EXCEPTION_INTERCEPTOR.apply(ex, actionContext);
-        }
-        return r;
-    }
-
     @Override
     public String toString() {
         return actionPath;
@@ -568,6 +691,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
     public static void registerGlobalInterceptor(ExceptionInterceptor interceptor) {
         insertInterceptor(globalExceptionInterceptors, interceptor);
         Collections.sort(globalExceptionInterceptors);
+        InterceptorChain.invalidate();
     }
 
     @AnnotatedClassFinder(value = Global.class, callOn = AppEventId.PRE_START)
@@ -596,6 +720,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
     }
 
     public static <T extends Handler> void insertInterceptor(C.List<T> list, T i) {
+        InterceptorChain.invalidate();
         int sz = list.size();
         if (0 == sz) {
             list.add(i);
@@ -0,0 +1,78 @@
+package act.handler.builtin.controller.impl;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.ActionContext;
+import act.handler.builtin.controller.PendingResult;
+import org.osgl.mvc.result.Result;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+
+/**
+ * Adapt a `CompletionStage` returned by an action method to {@link PendingResult}.
+ *
+ * This class must only be loaded after {@link PendingResult#isCompletionStage(Class)}
+ * returns `true`, which guarantees the running JVM is Java 8 or above
+ */
+class CompletionStageResult extends PendingResult {
+
+    private final CompletionStage<?> stage;
+    private final ReflectedHandlerInvoker<?> invoker;
+
+    CompletionStageResult(Object stage, ReflectedHandlerInvoker<?> invoker) {
+        this.stage = (CompletionStage<?>) stage;
+        this.invoker = invoker;
+    }
+
+    @Override
+    public void subscribe(final Listener listener) {
+        stage.whenComplete(new BiConsumer<Object, Throwable>() {
+            @Override
+            public void accept(Object value, Throwable cause) {
+                if (null == cause) {
+                    listener.completed(value);
+                } else {
+                    if (cause instanceof CompletionException && null != cause.getCause()) {
+                        cause = cause.getCause();
+                    }
+                    listener.failed(cause);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void cancel() {
+        try {
+            stage.toCompletableFuture().cancel(true);
+        } catch (UnsupportedOperationException e) {
+            // the stage implementation does not support cancellation
+        }
+    }
+
+    @Override
+    public Result toResult(Object value, ActionContext context) {
+        return invoker.processPendingValue(value, context);
+    }
+
+}
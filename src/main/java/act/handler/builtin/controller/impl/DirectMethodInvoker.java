@@ -0,0 +1,101 @@
+package act.handler.builtin.controller.impl;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.ActionContext;
+import act.inject.param.ParamValueLoader;
+import org.osgl.util.E;
+
+/**
+ * Base class of the generated invokers that load the parameters of
+ * an action handler method into typed local variables and call the
+ * method directly, without going through an `Object[]` and
+ * `MethodAccess`.
+ *
+ * @see DirectMethodInvokerGenerator
+ */
+public abstract class DirectMethodInvoker {
+
+    /**
+     * Returned by {@link #invoke(Object, ActionContext, boolean)} when
+     * `failOnViolation` is `true` and there are violations found when
+     * loading parameters. In which case the handler method is not invoked.
+     */
+    public static final Object VIOLATION = new Object();
+
+    protected ParamValueLoader[] loaders;
+
+    void loaders(ParamValueLoader[] loaders) {
+        this.loaders = loaders;
+    }
+
+    /**
+     * Load parameters and invoke the handler method.
+     *
+     * @param host the controller instance or `null` if the handler method is static
+     * @param context the action context
+     * @param failOnViolation if `true` then do not invoke the method when there are violations
+     * @return the method return value, `null` if the method is `void` or
+     *         {@link #VIOLATION} if parameter validation failed
+     * @throws Exception any exception raised by the handler method
+     */
+    public abstract Object invoke(Object host, ActionContext context, boolean failOnViolation) throws Exception;
+
+    // --- unboxing helpers. A missing primitive value is rejected the same way `Method.invoke` does
+
+    public static boolean booleanValue(Object o) {
+        return (Boolean) notNull(o);
+    }
+
+    public static char charValue(Object o) {
+        return (Character) notNull(o);
+    }
+
+    public static byte byteValue(Object o) {
+        return ((Number) notNull(o)).byteValue();
+    }
+
+    public static short shortValue(Object o) {
+        return ((Number) notNull(o)).shortValue();
+    }
+
+    public static int intValue(Object o) {
+        return ((Number) notNull(o)).intValue();
+    }
+
+    public static long longValue(Object o) {
+        return ((Number) notNull(o)).longValue();
+    }
+
+    public static float floatValue(Object o) {
+        return ((Number) notNull(o)).floatValue();
+    }
+
+    public static double doubleValue(Object o) {
+        return ((Number) notNull(o)).doubleValue();
+    }
+
+    private static Object notNull(Object o) {
+        E.illegalArgumentIf(null == o, "null value for primitive parameter");
+        return o;
+    }
+
+}
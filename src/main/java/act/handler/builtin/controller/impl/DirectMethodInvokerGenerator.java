@@ -0,0 +1,256 @@
+package act.handler.builtin.controller.impl;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.asm.*;
+import org.osgl.util.S;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a {@link DirectMethodInvoker} class for an action handler method.
+ *
+ * The generated `invoke` method is equivalent to:
+ *
+ * ```java
+ * public Object invoke(Object host, ActionContext context, boolean failOnViolation) {
+ *     int p0 = intValue(loaders[0].load(null, context, false));
+ *     String p1 = (String) loaders[1].load(null, context, false);
+ *     if (failOnViolation && context.hasViolation()) {
+ *         return VIOLATION;
+ *     }
+ *     return Integer.valueOf(((Controller) host).handler(p0, p1));
+ * }
+ * ```
+ *
+ * The generated class is put into the same package of the controller
+ * class so that it can access package private handler methods
+ */
+class DirectMethodInvokerGenerator implements Opcodes {
+
+    private static final String SUPER_CLASS = Type.getInternalName(DirectMethodInvoker.class);
+    private static final String LOADER = "act/inject/param/ParamValueLoader";
+    private static final String LOADER_DESC = "Lact/inject/param/ParamValueLoader;";
+    private static final String LOAD_DESC = "(Ljava/lang/Object;Lact/util/ActContext;Z)Ljava/lang/Object;";
+    private static final String CONTEXT = "act/app/ActionContext";
+    private static final String INVOKE_DESC = "(Ljava/lang/Object;Lact/app/ActionContext;Z)Ljava/lang/Object;";
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    // local variable slots of the invoke method
+    private static final int HOST = 1;
+    private static final int CONTEXT_VAR = 2;
+    private static final int FAIL_ON_VIOLATION = 3;
+    private static final int FIRST_PARAM = 4;
+
+    private final Method method;
+    private final String className;
+    private final ClassWriter cw;
+
+    DirectMethodInvokerGenerator(Method method) {
+        this.method = method;
+        this.className = S.concat(Type.getInternalName(method.getDeclaringClass()), "$$ActInvoker$", method.getName(), "$", S.string(SEQ.incrementAndGet()));
+        this.cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+    }
+
+    /**
+     * @return the name of the class to be generated
+     */
+    String className() {
+        return className.replace('/', '.');
+    }
+
+    byte[] generateByteCode() {
+        cw.visit(V1_6, ACC_PUBLIC + ACC_SUPER + ACC_FINAL + ACC_SYNTHETIC, className, null, SUPER_CLASS, null);
+        generateConstructor();
+        generateInvoke();
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Check if the generated invoker is able to access the method and all
+     * its parameter types.
+     *
+     * @param method the handler method
+     * @param samePackageAccess `true` if the invoker class is defined by the
+     *                          class loader of the class declaring the method
+     * @return `true` if the invoker can be generated for the method
+     */
+    static boolean applicable(Method method, boolean samePackageAccess) {
+        int modifiers = method.getModifiers();
+        if (Modifier.isPrivate(modifiers)) {
+            return false;
+        }
+        if (!accessible(method.getDeclaringClass(), method.getDeclaringClass(), samePackageAccess)) {
+            return false;
+        }
+        if (!Modifier.isPublic(modifiers) && !samePackageAccess) {
+            return false;
+        }
+        for (Class<?> paramType : method.getParameterTypes()) {
+            if (!accessible(paramType, method.getDeclaringClass(), samePackageAccess)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean accessible(Class<?> type, Class<?> host, boolean samePackageAccess) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        int modifiers = type.getModifiers();
+        if (Modifier.isPrivate(modifiers)) {
+            return false;
+        }
+        if (Modifier.isPublic(modifiers)) {
+            return true;
+        }
+        return samePackageAccess && type.getClassLoader() == host.getClassLoader()
+                && S.eq(packageOf(type), packageOf(host));
+    }
+
+    private static String packageOf(Class<?> type) {
+        String name = type.getName();
+        int pos = name.lastIndexOf('.');
+        return pos < 0 ? "" : name.substring(0, pos);
+    }
+
+    private void generateConstructor() {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, SUPER_CLASS, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(1, 1);
+        mv.visitEnd();
+    }
+
+    private void generateInvoke() {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke", INVOKE_DESC, null, new String[]{"java/lang/Exception"});
+        mv.visitCode();
+        Class<?>[] paramTypes = method.getParameterTypes();
+        int[] slots = new int[paramTypes.length];
+        int slot = FIRST_PARAM;
+        for (int i = 0; i < paramTypes.length; ++i) {
+            Class<?> paramType = paramTypes[i];
+            slots[i] = slot;
+            // loaders[i].load(null, context, false)
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, SUPER_CLASS, "loaders", "[" + LOADER_DESC);
+            pushInt(mv, i);
+            mv.visitInsn(AALOAD);
+            mv.visitInsn(ACONST_NULL);
+            mv.visitVarInsn(ALOAD, CONTEXT_VAR);
+            mv.visitInsn(ICONST_0);
+            mv.visitMethodInsn(INVOKEINTERFACE, LOADER, "load", LOAD_DESC, true);
+            Type type = Type.getType(paramType);
+            if (paramType.isPrimitive()) {
+                mv.visitMethodInsn(INVOKESTATIC, SUPER_CLASS, S.concat(paramType.getName(), "Value"), S.concat("(Ljava/lang/Object;)", type.getDescriptor()), false);
+            } else if (Object.class != paramType) {
+                mv.visitTypeInsn(CHECKCAST, type.getInternalName());
+            }
+            mv.visitVarInsn(type.getOpcode(ISTORE), slot);
+            slot += type.getSize();
+        }
+
+        // if (failOnViolation && context.hasViolation()) return VIOLATION;
+        Label proceed = new Label();
+        mv.visitVarInsn(ILOAD, FAIL_ON_VIOLATION);
+        mv.visitJumpInsn(IFEQ, proceed);
+        mv.visitVarInsn(ALOAD, CONTEXT_VAR);
+        mv.visitMethodInsn(INVOKEVIRTUAL, CONTEXT, "hasViolation", "()Z", false);
+        mv.visitJumpInsn(IFEQ, proceed);
+        mv.visitFieldInsn(GETSTATIC, SUPER_CLASS, "VIOLATION", "Ljava/lang/Object;");
+        mv.visitInsn(ARETURN);
+        mv.visitLabel(proceed);
+
+        String owner = Type.getInternalName(method.getDeclaringClass());
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            mv.visitVarInsn(ALOAD, HOST);
+            mv.visitTypeInsn(CHECKCAST, owner);
+        }
+        for (int i = 0; i < paramTypes.length; ++i) {
+            mv.visitVarInsn(Type.getType(paramTypes[i]).getOpcode(ILOAD), slots[i]);
+        }
+        mv.visitMethodInsn(isStatic ? INVOKESTATIC : INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method), false);
+        box(mv, method.getReturnType());
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void pushInt(MethodVisitor mv, int i) {
+        if (i <= 5) {
+            mv.visitInsn(ICONST_0 + i);
+        } else if (i <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, i);
+        } else {
+            mv.visitIntInsn(SIPUSH, i);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Class<?> returnType) {
+        if (void.class == returnType) {
+            mv.visitInsn(ACONST_NULL);
+            return;
+        }
+        if (!returnType.isPrimitive()) {
+            return;
+        }
+        Type type = Type.getType(returnType);
+        String wrapper;
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                wrapper = "java/lang/Boolean";
+                break;
+            case Type.CHAR:
+                wrapper = "java/lang/Character";
+                break;
+            case Type.BYTE:
+                wrapper = "java/lang/Byte";
+                break;
+            case Type.SHORT:
+                wrapper = "java/lang/Short";
+                break;
+            case Type.INT:
+                wrapper = "java/lang/Integer";
+                break;
+            case Type.LONG:
+                wrapper = "java/lang/Long";
+                break;
+            case Type.FLOAT:
+                wrapper = "java/lang/Float";
+                break;
+            default:
+                wrapper = "java/lang/Double";
+        }
+        mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", S.concat("(", type.getDescriptor(), ")L", wrapper, ";"), false);
+    }
+
+}
@@ -39,9 +39,11 @@ import act.handler.builtin.controller.*;
 import act.inject.DependencyInjector;
 import act.inject.param.JsonDTO;
 import act.inject.param.JsonDTOClassManager;
+import act.inject.param.ParamValueLoader;
 import act.inject.param.ParamValueLoaderManager;
 import act.inject.param.ParamValueLoaderService;
 import act.job.AppJobManager;
+import act.job.JobGroup;
 import act.job.TrackableWorker;
 import act.security.CORS;
 import act.security.CSRF;
@@ -78,6 +80,10 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Implement handler using
  * https://github.com/EsotericSoftware/reflectasm
+ *
+ * Once the handler has been invoked for the first time out of dev mode,
+ * a {@link DirectMethodInvoker} is generated to call the handler method
+ * directly when applicable.
  */
 public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends DestroyableBase
         implements ActionHandlerInvoker, AfterInterceptorInvoker, ExceptionInterceptorInvoker {
@@ -129,10 +135,18 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
     private MissingAuthenticationHandler csrfFailureHandler;
     private ThrottleFilter throttleFilter;
     private boolean async;
+    // the action method returns a CompletionStage
+    private boolean completionStage;
+    private String jobGroup;
     private boolean byPassImplicityTemplateVariable;
     private boolean forceDataBinding;
     private Class<? extends SerializeFilter> filters[];
     private SerializerFeature features[];
+    // generated invoker that calls the handler method directly, not used in dev mode
+    private volatile DirectMethodInvoker directInvoker;
+    private volatile boolean directInvokerProbed;
+    // whether the handler method has annotation typed parameter, which needs `ATTR_CUR_METHOD`
+    private boolean hasAnnotationParam;
 
     private ReflectedHandlerInvoker(M handlerMetaInfo, App app) {
         this.app = app;
@@ -153,6 +167,9 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         this.disabled = this.disabled || !Env.matches(method);
         this.forceDataBinding = method.isAnnotationPresent(RequireDataBind.class);
         this.async = null != method.getAnnotation(Async.class);
+        this.completionStage = !this.async && PendingResult.isCompletionStage(method.getReturnType());
+        JobGroup jobGroup = method.getAnnotation(JobGroup.class);
+        this.jobGroup = null == jobGroup ? null : jobGroup.value();
         if (this.async && (handlerMetaInfo.hasReturnOrThrowResult())) {
             logger.warn("handler return result will be ignored for async method: " + method);
         }
@@ -183,6 +200,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         if (null != featureAnno) {
             features = featureAnno.value();
         }
+        handlerMetaInfo.jsonSerializer(JsonEndpointSerializer.of(handlerMetaInfo, method, filters, features));
 
         Pattern pattern = method.getAnnotation(Pattern.class);
         if (null != pattern) {
@@ -190,10 +208,18 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         }
 
         sessionFree = method.isAnnotationPresent(SessionFree.class);
-        express = method.isAnnotationPresent(NonBlock.class);
+        // pending result must be dispatched to worker thread so that
+        // the exchange is kept open after the handler returns
+        express = !completionStage && method.isAnnotationPresent(NonBlock.class);
         noTemplateCache = method.isAnnotationPresent(Template.NoCache.class);
 
         paramCount = handler.paramCount();
+        for (Class<?> paramType : paramTypes) {
+            if (Annotation.class.isAssignableFrom(paramType)) {
+                hasAnnotationParam = true;
+                break;
+            }
+        }
         paramSpecs = jsonDTOClassManager.beanSpecs(controllerClass, method);
         fieldsAndParamsCount = paramSpecs.size();
         if (fieldsAndParamsCount == 1) {
@@ -350,8 +376,13 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
             context.disableTemplateCaching();
         }
 
-        context.attribute("reflected_handler", this);
-        context.attribute(ActContext.ATTR_CUR_METHOD, method);
+        DirectMethodInvoker directInvoker = this.directInvoker;
+        if (null == directInvoker) {
+            context.attribute("reflected_handler", this);
+            context.attribute(ActContext.ATTR_CUR_METHOD, method);
+        } else if (hasAnnotationParam) {
+            context.attribute(ActContext.ATTR_CUR_METHOD, method);
+        }
 
         String urlContext = this.controller.urlContext();
         if (S.notBlank(urlContext)) {
@@ -377,6 +408,10 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
          */
         boolean failOnViolation = context.isAjax() || context.accept() != H.Format.HTML;
 
+        if (null != directInvoker) {
+            return invokeDirectly(directInvoker, context, controller, failOnViolation);
+        }
+
         final Object[] params = params(controller, context);
 
         if (failOnViolation && context.hasViolation()) {
@@ -386,7 +421,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
 
         if (async) {
             AppJobManager jobManager = context.app().jobManager();
-            String jobId = jobManager.prepare(new TrackableWorker() {
+            String jobId = jobManager.prepare(jobGroup, new TrackableWorker() {
                 @Override
                 protected void run(ProgressGauge progressGauge) {
                     try {
@@ -723,6 +758,88 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         } catch (Result r) {
             result = r;
         }
+        if (!directInvokerProbed) {
+            probeDirectInvoker(controller);
+        }
+        return processResult(handlerMetaInfo, context, result);
+    }
+
+    private Result invokeDirectly(DirectMethodInvoker invoker, ActionContext context, Object controller, boolean failOnViolation) throws Exception {
+        Object result;
+        try {
+            result = invoker.invoke(controller, context, failOnViolation);
+        } catch (Result r) {
+            result = r;
+        } finally {
+            ParamValueLoaderService.releaseParamTree();
+        }
+        if (DirectMethodInvoker.VIOLATION == result) {
+            return new BadRequest(context.violationMessage(";"));
+        }
+        return processResult(handler, context, result);
+    }
+
+    /**
+     * Try to generate a {@link DirectMethodInvoker} for the handler method.
+     *
+     * This is called after the first invocation through the reflective
+     * path, when the param value loaders of the method have been resolved.
+     * Direct invoker is not used if:
+     *
+     * * the app is running in dev mode
+     * * the handler is async or has output variables, which require the param array
+     * * the method parameters has validation constraints
+     * * the method or any parameter type is not accessible to the generated class
+     */
+    private synchronized void probeDirectInvoker(Object controller) {
+        if (directInvokerProbed) {
+            return;
+        }
+        try {
+            if (Act.isDev() || async || hasOutputVar || disabled) {
+                return;
+            }
+            // param loaders have been resolved by the first invocation
+            ParamValueLoader[] loaders = 0 == paramCount ? new ParamValueLoader[0] : paramLoaderService.methodParamLoaders(controller, method, null);
+            if (paramLoaderService.hasValidationConstraint(method)) {
+                return;
+            }
+            AppClassLoader appClassLoader = app.classLoader();
+            // the invoker is defined in the package of the declaring class, which could be
+            // a base controller loaded by a parent class loader, i.e. another runtime package
+            boolean samePackageAccess = method.getDeclaringClass().getClassLoader() == appClassLoader;
+            if (!DirectMethodInvokerGenerator.applicable(method, samePackageAccess)) {
+                return;
+            }
+            DirectMethodInvokerGenerator generator = new DirectMethodInvokerGenerator(method);
+            byte[] bytecode = generator.generateByteCode();
+            Class<?> invokerClass = appClassLoader.defineClass(generator.className(), bytecode, 0, bytecode.length, true);
+            DirectMethodInvoker invoker = (DirectMethodInvoker) invokerClass.newInstance();
+            invoker.loaders(loaders);
+            directInvoker = invoker;
+        } catch (Exception | LinkageError e) {
+            logger.warn(e, "Error generating direct invoker for %s, fall back to reflective invoking", method);
+        } finally {
+            directInvokerProbed = true;
+        }
+    }
+
+    private Result processResult(M handlerMetaInfo, ActionContext context, Object result) {
+        if (completionStage && null != result && !(result instanceof Result) && context.state().isHandling()) {
+            return new CompletionStageResult(result, this);
+        }
+        return inferResult(handlerMetaInfo, context, result);
+    }
+
+    /**
+     * Convert the value completed by the `CompletionStage` returned from
+     * the action method into a {@link Result}
+     */
+    Result processPendingValue(Object value, ActionContext context) {
+        return inferResult(handler, context, value);
+    }
+
+    private Result inferResult(M handlerMetaInfo, ActionContext context, Object result) {
         if (context.resp().isClosed()) {
             return null;
         }
@@ -0,0 +1,178 @@
+package act.inject.genie;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.inject.ActProviders;
+import act.util.InheritedStateless;
+import act.util.SingletonBase;
+import act.util.Stateful;
+import act.util.Stateless;
+import com.esotericsoftware.reflectasm.ConstructorAccess;
+import org.osgl.inject.BeanSpec;
+import org.osgl.inject.Genie;
+import org.osgl.util.C;
+import org.osgl.util.S;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiles the injection graph of dependent scoped beans into
+ * {@link CompiledProvider}s.
+ *
+ * A bean type is compiled only when all of the following conditions are met:
+ *
+ * * it is a concrete class with a non private no-arg constructor
+ * * there is no explicit binding or provider registered for the type
+ * * neither the type nor its super types is annotated with scope annotation
+ * * there is no injection constructor, no `@Inject` or `@PostConstruct` method
+ * * all annotated fields are annotated with `@Inject` only and are of non-generic type
+ *
+ * Otherwise the type is left to Genie, which handles qualifiers, scopes and
+ * value loaders.
+ */
+class BeanGraphCompiler {
+
+    private final GenieInjector injector;
+    private final Genie genie;
+    private final Set<Class> compiling = C.newSet();
+
+    BeanGraphCompiler(GenieInjector injector, Genie genie) {
+        this.injector = injector;
+        this.genie = genie;
+    }
+
+    /**
+     * Compile a bean type.
+     *
+     * @param type the bean type
+     * @param errors a list to collect missing bindings found when resolving the
+     *               dependencies of the type
+     * @return a compiled provider or `null` if the type cannot be compiled
+     */
+    <T> CompiledProvider<T> compile(Class<T> type, List<String> errors) {
+        if (!compiling.add(type)) {
+            // circular dependencies are left to Genie
+            return null;
+        }
+        try {
+            return doCompile(type, errors);
+        } finally {
+            compiling.remove(type);
+        }
+    }
+
+    private <T> CompiledProvider<T> doCompile(Class<T> type, List<String> errors) {
+        if (!isConcrete(type) || isBound(type) || SingletonBase.class.isAssignableFrom(type)) {
+            return null;
+        }
+        for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(Inject.class)) {
+                return null;
+            }
+        }
+        List<Field> fields = C.newList();
+        List<Provider<?>> providers = C.newList();
+        for (Class<?> c = type; null != c && Object.class != c; c = c.getSuperclass()) {
+            for (Annotation annotation : c.getDeclaredAnnotations()) {
+                if (isScope(annotation.annotationType())) {
+                    return null;
+                }
+            }
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Inject.class) || method.isAnnotationPresent(PostConstruct.class)) {
+                    return null;
+                }
+            }
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                Annotation[] annotations = field.getDeclaredAnnotations();
+                if (0 == annotations.length) {
+                    continue;
+                }
+                if (annotations.length > 1 || Inject.class != annotations[0].annotationType()) {
+                    return null;
+                }
+                Class<?> fieldType = field.getType();
+                if (!(field.getGenericType() instanceof Class) || fieldType.isPrimitive() || Provider.class.isAssignableFrom(fieldType)) {
+                    return null;
+                }
+                if (!isConcrete(fieldType) && !isBound(fieldType)) {
+                    errors.add(S.fmt("%s.%s: no binding found for %s", c.getName(), field.getName(), fieldType.getName()));
+                    return null;
+                }
+                field.setAccessible(true);
+                fields.add(field);
+                providers.add(dependencyProvider(fieldType, errors));
+            }
+        }
+        ConstructorAccess<T> constructor;
+        try {
+            constructor = ConstructorAccess.get(type);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        BeanSpec listenedSpec = injector.hasInjectionListener(type) ? BeanSpec.of(type, injector) : null;
+        return new CompiledProvider<>(type, constructor,
+                fields.toArray(new Field[fields.size()]),
+                providers.toArray(new Provider<?>[providers.size()]),
+                listenedSpec, injector);
+    }
+
+    private Provider<?> dependencyProvider(Class<?> type, List<String> errors) {
+        Provider<?> provider = injector.compiledProvider(type, errors);
+        return null != provider ? provider : genie.getProvider(type);
+    }
+
+    private boolean isBound(Class<?> type) {
+        return ActProviders.isProvided(type) || genie.hasProvider(type);
+    }
+
+    private boolean isScope(Class<? extends Annotation> annoType) {
+        return Singleton.class == annoType
+                || Stateless.class == annoType
+                || InheritedStateless.class == annoType
+                || Stateful.class == annoType
+                || genie.isScope(annoType)
+                || null != genie.scopeByAlias(annoType);
+    }
+
+    private static boolean isConcrete(Class<?> type) {
+        int modifiers = type.getModifiers();
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || type.isEnum()
+                || Modifier.isAbstract(modifiers) || Modifier.isPrivate(modifiers)) {
+            return false;
+        }
+        return !type.isMemberClass() || Modifier.isStatic(modifiers);
+    }
+
+}
@@ -0,0 +1,137 @@
+package act.inject.genie;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.esotericsoftware.reflectasm.ConstructorAccess;
+import org.osgl.inject.BeanSpec;
+import org.osgl.inject.InjectException;
+
+import javax.inject.Provider;
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A provider of dependent scoped bean compiled by {@link BeanGraphCompiler}.
+ *
+ * The bean is instantiated through a generated constructor accessor and
+ * the injectable fields are set with values from providers resolved at
+ * compile time. Thus creating a bean does not involve any injector lookup.
+ *
+ * @param <T> the bean type
+ */
+public class CompiledProvider<T> implements Provider<T> {
+
+    private final Class<T> type;
+    private final ConstructorAccess<T> constructor;
+    private final Field[] fields;
+    private final Provider<?>[] providers;
+    // not null only when there are injection listeners on the type
+    private final BeanSpec listenedSpec;
+    private final GenieInjector injector;
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+
+    CompiledProvider(Class<T> type, ConstructorAccess<T> constructor, Field[] fields, Provider<?>[] providers, BeanSpec listenedSpec, GenieInjector injector) {
+        this.type = type;
+        this.constructor = constructor;
+        this.fields = fields;
+        this.providers = providers;
+        this.listenedSpec = listenedSpec;
+        this.injector = injector;
+    }
+
+    @Override
+    public T get() {
+        long start = System.nanoTime();
+        T bean = constructor.newInstance();
+        try {
+            for (int i = 0, n = fields.length; i < n; ++i) {
+                fields[i].set(bean, providers[i].get());
+            }
+        } catch (IllegalAccessException e) {
+            throw new InjectException(e, "Error injecting field of %s", type);
+        }
+        if (null != listenedSpec) {
+            injector.fireInjectedEvent(bean, listenedSpec);
+        }
+        count.incrementAndGet();
+        nanos.addAndGet(System.nanoTime() - start);
+        return bean;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public Cost cost() {
+        return new Cost(type.getName(), fields.length, count.get(), nanos.get());
+    }
+
+    /**
+     * Report construction cost of a compiled bean type
+     */
+    public static class Cost implements Comparable<Cost> {
+        private String type;
+        private int dependencies;
+        private long instances;
+        private long totalNs;
+
+        Cost(String type, int dependencies, long instances, long totalNs) {
+            this.type = type;
+            this.dependencies = dependencies;
+            this.instances = instances;
+            this.totalNs = totalNs;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Returns number of injected fields
+         */
+        public int getDependencies() {
+            return dependencies;
+        }
+
+        public long getInstances() {
+            return instances;
+        }
+
+        public long getTotalMs() {
+            return totalNs / 1000000L;
+        }
+
+        /**
+         * Returns average construction time in nanoseconds, including
+         * the time spent on creating the dependencies
+         */
+        public long getAvgNs() {
+            return 0 == instances ? 0 : totalNs / instances;
+        }
+
+        @Override
+        public int compareTo(Cost o) {
+            return Long.compare(o.totalNs, totalNs);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import act.app.conf.AppConfigurator;
 import act.app.event.AppEventId;
 import act.controller.ActionMethodParamAnnotationHandler;
 import act.inject.*;
+import act.job.AppJobManager;
 import act.sys.Env;
 import act.util.*;
 import org.osgl.$;
@@ -40,14 +41,18 @@ import org.osgl.inject.annotation.StopInheritedScope;
 import org.osgl.mvc.annotation.Bind;
 import org.osgl.mvc.annotation.Param;
 import org.osgl.util.E;
+import org.osgl.util.S;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class GenieInjector extends DependencyInjectorBase<GenieInjector> {
 
@@ -60,27 +65,140 @@ public class GenieInjector extends DependencyInjectorBase<GenieInjector> {
         }
     };
 
+    // marks a type that cannot be compiled
+    private static final Provider NOT_COMPILED = new Provider() {
+        @Override
+        public Object get() {
+            throw E.unsupport();
+        }
+    };
+
     private volatile Genie genie;
     private Set<Object> modules;
     private Set<Class<? extends Annotation>> injectTags = new HashSet<Class<? extends Annotation>>();
+    private ConcurrentMap<Class, Provider> compiledProviders = new ConcurrentHashMap<>();
+    private BeanGraphCompiler compiler;
+    // compiled providers are used only after all bindings are registered
+    private volatile boolean compiledGraphReady;
 
     public GenieInjector(App app) {
         super(app);
         modules = new LinkedHashSet<>();
         modules.add(SCOPE_MODULE);
         modules.addAll(factories());
+        AppJobManager jobManager = app.jobManager();
+        if (null != jobManager) {
+            jobManager.on(AppEventId.PRE_START, "GenieInjector:validateBindings", new Runnable() {
+                @Override
+                public void run() {
+                    if (app().config().compiledDiEnabled()) {
+                        validateBindings();
+                        compiledGraphReady = true;
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void releaseResources() {
+        compiledProviders.clear();
+        super.releaseResources();
     }
 
     @Override
     public <T> T get(Class<T> clazz) {
+        if (useCompiledProviders()) {
+            Provider<T> provider = compiledProvider(clazz, null);
+            if (null != provider) {
+                return provider.get();
+            }
+        }
         return genie().get(clazz);
     }
 
     @Override
     public <T> Provider<T> getProvider(Class<T> aClass) {
+        if (useCompiledProviders()) {
+            Provider<T> provider = compiledProvider(aClass, null);
+            if (null != provider) {
+                return provider;
+            }
+        }
         return genie().getProvider(aClass);
     }
 
+    /**
+     * Returns the {@link CompiledProvider compiled provider} of a type.
+     *
+     * @param type the bean type
+     * @param errors if not `null` then missing bindings found when compiling
+     *               the type are added to the list
+     * @return the compiled provider or `null` if the type cannot be compiled
+     */
+    <T> CompiledProvider<T> compiledProvider(Class<T> type, List<String> errors) {
+        Provider provider = compiledProviders.get(type);
+        if (null == provider) {
+            synchronized (this) {
+                provider = compiledProviders.get(type);
+                if (null == provider) {
+                    if (null == compiler) {
+                        compiler = new BeanGraphCompiler(this, genie());
+                    }
+                    List<String> errorBag = null == errors ? new ArrayList<String>() : errors;
+                    provider = compiler.compile(type, errorBag);
+                    if (null == provider) {
+                        provider = NOT_COMPILED;
+                    }
+                    compiledProviders.put(type, provider);
+                }
+            }
+        }
+        return NOT_COMPILED == provider ? null : (CompiledProvider<T>) provider;
+    }
+
+    /**
+     * Returns construction cost of all compiled beans, sorted by total
+     * construction time in descending order
+     */
+    public List<CompiledProvider.Cost> constructionCosts() {
+        List<CompiledProvider.Cost> list = new ArrayList<>();
+        for (Provider provider : compiledProviders.values()) {
+            if (NOT_COMPILED != provider) {
+                list.add(((CompiledProvider) provider).cost());
+            }
+        }
+        Collections.sort(list);
+        return list;
+    }
+
+    boolean hasInjectionListener(Class<?> type) {
+        return listeners.containsKey(type);
+    }
+
+    private boolean useCompiledProviders() {
+        return compiledGraphReady;
+    }
+
+    /*
+     * Compile injection graph of all controllers and fail fast
+     * if there are missing bindings
+     */
+    private void validateBindings() {
+        AppClassLoader cl = app().classLoader();
+        List<String> errors = new ArrayList<>();
+        for (String className : cl.controllerClassMetaInfoManager().controllerClassNames()) {
+            Class<?> type = $.classForName(className, cl);
+            if (Modifier.isAbstract(type.getModifiers())) {
+                continue;
+            }
+            compiledProvider(type, errors);
+        }
+        if (!errors.isEmpty()) {
+            throw new ConfigurationException("Missing bindings found:\n%s", S.join("\n", errors));
+        }
+    }
+
     public <T> T get(BeanSpec spec) {
         return genie().get(spec);
     }
@@ -0,0 +1,62 @@
+package act.inject.genie;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.App;
+import act.cli.Command;
+import act.cli.Optional;
+import act.cli.TableView;
+import act.util.PropertySpec;
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.S;
+
+import java.util.List;
+
+/**
+ * Provide admin service to {@link GenieInjector}
+ */
+@SuppressWarnings("unused")
+public class InjectorAdmin {
+
+    /**
+     * List construction cost of beans created through compiled providers.
+     *
+     * Note this command lists nothing unless `di.compiled` is enabled
+     */
+    @Command(value = "act.inject.cost", help = "Show construction cost of compiled beans")
+    @PropertySpec("type,dependencies,instances,totalMs,avgNs")
+    @TableView
+    public List<CompiledProvider.Cost> listCosts(@Optional(lead = "-q") final String q, App app) {
+        GenieInjector injector = app.injector();
+        C.List<CompiledProvider.Cost> costs = C.list(injector.constructionCosts());
+        if (S.notBlank(q)) {
+            costs = costs.filter(new $.Predicate<CompiledProvider.Cost>() {
+                @Override
+                public boolean test(CompiledProvider.Cost cost) {
+                    return cost.getType().contains(q);
+                }
+            });
+        }
+        return costs;
+    }
+
+}
@@ -23,6 +23,7 @@ package act.inject.param;
 import act.Act;
 import act.app.ActionContext;
 import act.app.App;
+import act.data.PrimitiveResolvers;
 import act.inject.DependencyInjector;
 import act.util.ActContext;
 import org.osgl.inject.BeanSpec;
@@ -169,21 +170,39 @@ class CollectionLoader implements ParamValueLoader {
             return;
         }
         // support multiple path variables like /foo/id1,id2
-        String[] sa = value.split("[,;]+");
         boolean isChar = this.isChar;
-        for (String s : sa) {
-            if (isChar) {
-                char[] ca = s.toCharArray();
-                for (char c: ca) {
-                    collection.add(c);
-                }
-            } else {
-                if (null != binder) {
-                    collection.add(binder.resolve(null, s, context));
+        int len = value.length();
+        int start = 0;
+        while (start < len && isSeparator(value.charAt(start))) {
+            start++;
+        }
+        if (start == len) {
+            return;
+        }
+        int from = 0;
+        while (from < len) {
+            int to = from;
+            while (to < len && !isSeparator(value.charAt(to))) {
+                to++;
+            }
+            if (to > from || 0 == from) {
+                // a leading separator yields an empty first element, the same as String.split
+                if (isChar) {
+                    for (int i = from; i < to; ++i) {
+                        collection.add(value.charAt(i));
+                    }
+                } else if (null != binder) {
+                    collection.add(binder.resolve(null, value.substring(from, to), context));
                 } else {
-                    collection.add(resolver.resolve(s));
+                    // resolve primitive and enum elements without creating substrings
+                    collection.add(PrimitiveResolvers.resolve(resolver, value, from, to));
                 }
             }
+            from = to + 1;
         }
     }
+
+    private static boolean isSeparator(char c) {
+        return ',' == c || ';' == c;
+    }
 }
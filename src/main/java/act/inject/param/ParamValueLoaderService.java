@@ -207,15 +207,37 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
             }
             return params;
         } finally {
-            PARAM_TREE.remove();
+            releaseParamTree();
         }
     }
 
+    /**
+     * Check if the parameters of a method has validation constraints.
+     *
+     * Note this method shall be called after {@link #methodParamLoaders(Object, Method, ActContext)}
+     * has been called on the method
+     *
+     * @param method the method
+     * @return `true` if any parameter of the method shall be validated
+     */
+    public boolean hasValidationConstraint(Method method) {
+        Boolean b = methodValidationConstraintLookup.get(method);
+        return null != b && b;
+    }
+
+    /**
+     * Release the param tree built when loading parameters of the current
+     * request. This method shall be called if the caller loads method
+     * parameters directly through {@link #methodParamLoaders(Object, Method, ActContext) loaders}
+     */
+    public static void releaseParamTree() {
+        PARAM_TREE.remove();
+    }
+
     protected <T> ParamValueLoader findBeanLoader(Class<T> beanClass) {
         final Provider<T> provider = injector.getProvider(beanClass);
         final Map<Field, ParamValueLoader> loaders = fieldLoaders(beanClass);
         final boolean hasField = !loaders.isEmpty();
-        final $.Var<Boolean> hasValidateConstraint = $.var();
         ParamValueLoader loader = new ParamValueLoader() {
             @Override
             public Object load(Object bean, ActContext<?> context, boolean noDefaultValue) {
@@ -232,11 +254,6 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
                         Object fieldValue = loader.load(null, context, noDefaultValue);
                         if (null != fieldValue) {
                             field.set(bean, fieldValue);
-                        } else {
-                            fieldValue = field.get(bean);
-                        }
-                        if (hasValidationConstraint(BeanSpec.of(field, injector))) {
-                            hasValidateConstraint.set(true);
                         }
                     }
                 } catch (IllegalAccessException e) {
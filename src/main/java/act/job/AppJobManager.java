@@ -26,9 +26,11 @@ import act.app.App;
 import act.app.AppServiceBase;
 import act.app.AppThreadFactory;
 import act.app.event.AppEventId;
+import act.conf.AppConfig;
 import act.event.AppEventListenerBase;
 import act.event.OnceEventListenerBase;
 import act.mail.MailerContext;
+import act.route.RouteSource;
 import act.util.ProgressGauge;
 import act.util.SimpleProgressGauge;
 import org.joda.time.DateTime;
@@ -36,6 +38,7 @@ import org.joda.time.Seconds;
 import org.osgl.$;
 import org.osgl.Osgl;
 import org.osgl.exception.NotAppliedException;
+import org.osgl.http.H;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
 import org.osgl.util.C;
@@ -43,7 +46,9 @@ import org.osgl.util.E;
 import org.osgl.util.S;
 import org.rythmengine.utils.Time;
 
+import java.io.Serializable;
 import java.util.EventObject;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 
@@ -52,8 +57,14 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
     private static final Logger LOGGER = LogManager.get(AppJobManager.class);
 
     private ScheduledThreadPoolExecutor executor;
+    private ScheduledExecutorService scheduler;
     private ConcurrentMap<String, Job> jobs = new ConcurrentHashMap<String, Job>();
     private ConcurrentMap<String, ScheduledFuture> scheduled = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, JobGroupExecutor> groups = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, Boolean> builtInGroupConfigured = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, JobHistory> histories = new ConcurrentHashMap<>();
+    private DurableJobProcessor durableJobs;
+    private LeaderElector leaderElector;
 
     static String appEventJobId(AppEventId eventId) {
         return S.concat("__act_app__", eventId.toString().toLowerCase());
@@ -65,6 +76,8 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         for (AppEventId appEventId : AppEventId.values()) {
             createAppEventListener(appEventId);
         }
+        initClusterSupport(app);
+        initHistoryEndpoint(app);
     }
 
     @Override
@@ -76,6 +89,20 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         jobs.clear();
         executor.getQueue().clear();
         executor.shutdownNow();
+        if (scheduler != executor) {
+            scheduler.shutdownNow();
+        }
+        for (JobGroupExecutor group : groups.values()) {
+            group.shutdownNow();
+        }
+        groups.clear();
+        histories.clear();
+        if (null != durableJobs) {
+            durableJobs.close();
+        }
+        if (null != leaderElector) {
+            leaderElector.release();
+        }
     }
 
     public <T> Future<T> now(Callable<T> callable) {
@@ -83,8 +110,34 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
     }
 
     public <T> Future<T> now(String jobId, final Callable<T> callable) {
+        return submit(executor(), jobId, callable);
+    }
+
+    /**
+     * Run a callable in the specified {@link JobGroup job group}
+     *
+     * @param group the job group name
+     * @param callable the callable
+     * @param <T> the result type
+     * @return the future of the result
+     */
+    public <T> Future<T> submit(String group, Callable<T> callable) {
+        return submit(executorOf(group), randomJobId(), callable);
+    }
+
+    /**
+     * Run a runnable in the specified {@link JobGroup job group}
+     *
+     * @param group the job group name
+     * @param runnable the runnable
+     */
+    public void submit(String group, Runnable runnable) {
+        executorOf(group).submit(wrap(runnable));
+    }
+
+    private <T> Future<T> submit(ExecutorService executor, String jobId, final Callable<T> callable) {
         final Job job = wrap(jobId, callable);
-        return executor().submit(new Callable<T>() {
+        return executor.submit(new Callable<T>() {
             @Override
             public T call() throws Exception {
                 job.run();
@@ -110,7 +163,7 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
 
     public String now(String jobId, $.Function<ProgressGauge, ?> worker) {
         Job job = wrap(jobId, worker);
-        executor().submit(job);
+        dispatch(job);
         return job.id();
     }
 
@@ -134,25 +187,120 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
      */
     public void now(String jobId) {
         Job job = $.notNull(jobById(jobId));
-        executor().submit(job);
+        dispatch(job);
+    }
+
+    /**
+     * Prepare a job from worker to be run in the specified {@link JobGroup job group}.
+     *
+     * @param group the job group name
+     * @param worker the worker
+     * @return the job ID allocated
+     * @see #prepare(Osgl.Function)
+     */
+    public String prepare(String group, $.Function<ProgressGauge, ?> worker) {
+        Job job = wrap(worker);
+        job.group(group);
+        return job.id();
+    }
+
+    /**
+     * Returns the executor of a {@link JobGroup job group}. The executor is
+     * created on demand.
+     *
+     * @param name the job group name
+     * @return the job group executor
+     */
+    public JobGroupExecutor group(String name) {
+        E.illegalArgumentIf(S.blank(name) || JobGroup.DEFAULT.equals(name), "non default job group name expected");
+        JobGroupExecutor group = groups.get(name);
+        if (null == group) {
+            AppConfig config = app().config();
+            Map<String, Object> conf = config.subSet(S.concat("job.group.", name));
+            String prefix = S.concat("job.group.", name, ".");
+            int poolSize = intConf(conf, prefix + "pool.size", config.jobPoolSize());
+            int queueSize = intConf(conf, prefix + "queue.size", 1024);
+            Object policyConf = conf.get(prefix + "rejection_policy");
+            JobGroupExecutor.RejectionPolicy policy = null == policyConf ? JobGroupExecutor.RejectionPolicy.ABORT : JobGroupExecutor.RejectionPolicy.valueOfIgnoreCase(S.string(policyConf));
+            E.invalidConfigurationIf(null == policy, "Unknown rejection policy for job group[%s]: %s", name, policyConf);
+            JobGroupExecutor newGroup = new JobGroupExecutor(name, poolSize, queueSize, policy);
+            group = groups.putIfAbsent(name, newGroup);
+            if (null == group) {
+                group = newGroup;
+                if (LOGGER.isTraceEnabled()) {
+                    LOGGER.trace("job group[%s] created with pool size %s and queue size %s", name, poolSize, queueSize);
+                }
+            } else {
+                newGroup.shutdownNow();
+            }
+        }
+        return group;
+    }
+
+    C.List<JobGroupExecutor> groups() {
+        return C.list(groups.values());
+    }
+
+    private static int intConf(Map<String, Object> conf, String key, int def) {
+        Object o = conf.get(key);
+        return null == o ? def : Integer.parseInt(S.string(o).trim());
     }
 
     public <T> Future<T> delay(Callable<T> callable, long delay, TimeUnit timeUnit) {
-        return executor().schedule(callable, delay, timeUnit);
+        return scheduler().schedule(callable, delay, timeUnit);
     }
 
     public void delay(Runnable runnable, long delay, TimeUnit timeUnit) {
-        executor().schedule(wrap(runnable), delay, timeUnit);
+        delayJob(runnable, delay, timeUnit);
+    }
+
+    /**
+     * Schedule a runnable to be executed after a delay.
+     *
+     * If {@link act.conf.AppConfigKey#JOB_STORE_ENABLED durable jobs} are enabled and the
+     * runnable is {@link Serializable} the job is persisted into the job store.
+     *
+     * @param runnable the runnable
+     * @param delay the delay
+     * @param timeUnit the time unit of the delay
+     * @return the ID of the durable job which could be passed to {@link #cancel(String)},
+     *         or `null` if the job is not persisted
+     */
+    public String delayJob(Runnable runnable, long delay, TimeUnit timeUnit) {
+        String durableJobId = persisted(runnable, $.ms() + timeUnit.toMillis(delay));
+        if (null == durableJobId) {
+            scheduler().schedule(wrap(runnable), delay, timeUnit);
+        }
+        return durableJobId;
     }
 
     public <T> Future<T> delay(Callable<T> callable, String delay) {
         int seconds = parseTime(delay);
-        return executor().schedule(callable, seconds, TimeUnit.SECONDS);
+        return scheduler().schedule(callable, seconds, TimeUnit.SECONDS);
     }
 
     public void delay(Runnable runnable, String delay) {
+        delayJob(runnable, delay);
+    }
+
+    /**
+     * Schedule a runnable to be executed after a delay.
+     *
+     * If {@link act.conf.AppConfigKey#JOB_STORE_ENABLED durable jobs} are enabled and the
+     * runnable is {@link Serializable} the job is persisted into the job store.
+     *
+     * @param runnable the runnable
+     * @param delay the delay in duration expression, e.g. `10mn`
+     * @return the ID of the durable job which could be passed to {@link #cancel(String)},
+     *         or `null` if the job is not persisted
+     */
+    public String delayJob(Runnable runnable, String delay) {
         int seconds = parseTime(delay);
-        executor().schedule(wrap(runnable), seconds, TimeUnit.SECONDS);
+        String durableJobId = persisted(runnable, $.ms() + seconds * 1000L);
+        if (null == durableJobId) {
+            scheduler().schedule(wrap(runnable), seconds, TimeUnit.SECONDS);
+        }
+        return durableJobId;
     }
 
     public void every(String id, Runnable runnable, String interval) {
@@ -195,13 +343,32 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
     }
 
     public void on(DateTime instant, Runnable runnable) {
+        scheduleAt(instant, runnable);
+    }
+
+    /**
+     * Schedule a runnable to be executed at a specific time.
+     *
+     * If {@link act.conf.AppConfigKey#JOB_STORE_ENABLED durable jobs} are enabled and the
+     * runnable is {@link Serializable} the job is persisted into the job store.
+     *
+     * @param instant the time to execute the runnable
+     * @param runnable the runnable
+     * @return the ID of the durable job which could be passed to {@link #cancel(String)},
+     *         or `null` if the job is not persisted
+     */
+    public String scheduleAt(DateTime instant, Runnable runnable) {
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("schedule runnable[%s] on %s", runnable, instant);
         }
         DateTime now = DateTime.now();
         E.illegalArgumentIf(instant.isBefore(now));
-        Seconds seconds = Seconds.secondsBetween(now, instant);
-        executor().schedule(wrap(runnable), seconds.getSeconds(), TimeUnit.SECONDS);
+        String durableJobId = persisted(runnable, instant.getMillis());
+        if (null == durableJobId) {
+            Seconds seconds = Seconds.secondsBetween(now, instant);
+            scheduler().schedule(wrap(runnable), seconds.getSeconds(), TimeUnit.SECONDS);
+        }
+        return durableJobId;
     }
 
     public <T> Future<T> on(DateTime instant, Callable<T> callable) {
@@ -211,7 +378,7 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         DateTime now = DateTime.now();
         E.illegalArgumentIf(instant.isBefore(now));
         Seconds seconds = Seconds.secondsBetween(now, instant);
-        return executor().schedule(callable, seconds.getSeconds(), TimeUnit.SECONDS);
+        return scheduler().schedule(callable, seconds.getSeconds(), TimeUnit.SECONDS);
     }
 
     public void on(AppEventId appEvent, final Runnable runnable) {
@@ -302,6 +469,9 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
      * @param jobId the job Id
      */
     public void cancel(String jobId) {
+        if (null != durableJobs && durableJobs.cancel(jobId)) {
+            return;
+        }
         Job job = jobById(jobId);
         if (null != job) {
             removeJob(job);
@@ -313,6 +483,19 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         }
     }
 
+    /**
+     * Check if the current node is the job leader. Singleton jobs
+     * are executed only on the leader node.
+     *
+     * If leader election is not enabled then this method always returns `true`.
+     *
+     * @return `true` if the current node is the job leader
+     * @see act.conf.AppConfigKey#JOB_LEADER_ELECTION_ENABLED
+     */
+    public boolean isLeader() {
+        return null == leaderElector || leaderElector.isLeader();
+    }
+
     public void beforeAppStart(final Runnable runnable) {
         on(AppEventId.START, runnable);
     }
@@ -352,8 +535,13 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
         });
     }
 
+    List<JobStore.Entry> pendingDurableJobs() {
+        return null == durableJobs ? C.<JobStore.Entry>list() : durableJobs.pending();
+    }
+
     void futureScheduled(String id, ScheduledFuture future) {
-        scheduled.putIfAbsent(id, future);
+        // cron jobs reschedule on each firing, thus we keep the latest future
+        scheduled.put(id, future);
     }
 
     Job jobById(String id) {
@@ -377,23 +565,191 @@ public class AppJobManager extends AppServiceBase<AppJobManager> {
     void removeJob(Job job) {
         String id = job.id();
         jobs.remove(id);
+        histories.remove(id);
         ScheduledFuture future = scheduled.remove(id);
         if (null != future) {
             future.cancel(true);
         }
     }
 
+    /**
+     * Returns the {@link JobHistory history} of a job. The history will be created
+     * if not exists yet
+     *
+     * @param jobId the job id
+     * @param expectedInterval the expected interval in seconds between two executions,
+     *                         `-1` if not applied
+     * @return the job history or `null` if job history is disabled
+     */
+    JobHistory history(String jobId, long expectedInterval) {
+        AppConfig config = app().config();
+        if (!config.jobHistoryEnabled()) {
+            return null;
+        }
+        JobHistory history = histories.get(jobId);
+        if (null == history) {
+            JobHistory newHistory = new JobHistory(jobId, config.jobHistorySize());
+            history = histories.putIfAbsent(jobId, newHistory);
+            if (null == history) {
+                history = newHistory;
+            }
+        }
+        if (expectedInterval > 0) {
+            history.expectedInterval(expectedInterval, TimeUnit.SECONDS);
+        }
+        return history;
+    }
+
+    JobHistory historyOf(String jobId) {
+        return histories.get(jobId);
+    }
+
+    C.List<JobHistory> histories() {
+        return C.list(histories.values());
+    }
+
     ScheduledThreadPoolExecutor executor() {
         return executor;
     }
 
+    /**
+     * Returns executor of the job group specified
+     *
+     * @param group the job group name
+     * @return the default executor if `group` is blank, {@link JobGroup#DEFAULT} or
+     *         a built-in group not configured by the app, or the
+     *         {@link #group(String) job group executor} otherwise
+     */
+    ExecutorService executorOf(String group) {
+        return runOnDefaultExecutor(group) ? executor : group(group);
+    }
+
+    /**
+     * Built-in job groups, i.e. {@link JobGroup#MAILER} and {@link JobGroup#EVENT},
+     * run on the default executor unless the app configures the group
+     */
+    private boolean runOnDefaultExecutor(String group) {
+        if (S.blank(group) || JobGroup.DEFAULT.equals(group)) {
+            return true;
+        }
+        if (JobGroup.MAILER.equals(group) || JobGroup.EVENT.equals(group)) {
+            Boolean configured = builtInGroupConfigured.get(group);
+            if (null == configured) {
+                configured = !app().config().subSet(S.concat("job.group.", group)).isEmpty();
+                builtInGroupConfigured.put(group, configured);
+            }
+            return !configured;
+        }
+        return false;
+    }
+
+    void dispatch(Job job) {
+        executorOf(job.group()).submit(job);
+    }
+
+    /**
+     * Returns the runnable to be scheduled for a job. If the job belongs to
+     * a non default job group, the runnable returned will dispatch the job
+     * to the job group executor when triggered
+     *
+     * @param job the job
+     * @return the runnable to be scheduled
+     */
+    Runnable dispatcher(final Job job) {
+        final String group = job.group();
+        if (runOnDefaultExecutor(group)) {
+            return job;
+        }
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    group(group).execute(job);
+                } catch (RejectedExecutionException e) {
+                    // the next invocation has been scheduled by the job group executor
+                    LOGGER.warn("job[%s] rejected by job group[%s]", job.id(), group);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the scheduler for delayed and periodical jobs. This is either
+     * the {@link #executor() job executor} or a {@link TimingWheelScheduler}
+     * if {@link act.conf.AppConfigKey#JOB_TIMING_WHEEL_ENABLED timing wheel is enabled}
+     */
+    ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
     private void initExecutor(App app) {
-        int poolSize = app.config().jobPoolSize();
+        AppConfig config = app.config();
+        int poolSize = config.jobPoolSize();
         executor = new ScheduledThreadPoolExecutor(poolSize, new AppThreadFactory("jobs"), new ThreadPoolExecutor.AbortPolicy());
         executor.setRemoveOnCancelPolicy(true);
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("init executor with thread pool: %s", poolSize);
         }
+        if (config.jobTimingWheelEnabled()) {
+            int wheelPoolSize = config.jobTimingWheelPoolSize();
+            ThreadPoolExecutor wheelExecutor = new ThreadPoolExecutor(wheelPoolSize, wheelPoolSize, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new AppThreadFactory("jobs-wheel"), new ThreadPoolExecutor.AbortPolicy());
+            scheduler = new TimingWheelScheduler(config.jobTimingWheelTick(), TimeUnit.MILLISECONDS, config.jobTimingWheelSize(), 4, wheelExecutor, new AppThreadFactory("jobs-wheel-ticker", true));
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("init timing wheel scheduler with thread pool: %s", wheelPoolSize);
+            }
+        } else {
+            scheduler = executor;
+        }
+    }
+
+    private void initHistoryEndpoint(final App app) {
+        AppConfig config = app.config();
+        // the endpoint is not authenticated, thus it is only available in dev mode
+        if (!Act.isDev() || !config.jobHistoryEnabled() || !config.builtInReqHandlerEnabled()) {
+            return;
+        }
+        on(AppEventId.ROUTER_INITIALIZED, "__act_job_history_endpoint", new Runnable() {
+            @Override
+            public void run() {
+                app.router().addMapping(H.Method.GET, "/~/job/history", new JobAdmin.JobHistoryHandler(AppJobManager.this), RouteSource.BUILD_IN);
+            }
+        });
+    }
+
+    private void initClusterSupport(App app) {
+        AppConfig config = app.config();
+        String nodeId = S.concat(app.cuid(), S.random(4));
+        if (config.jobStoreEnabled()) {
+            durableJobs = new DurableJobProcessor(this, nodeId);
+            post(AppEventId.START, "__act_job_store_poller", new Runnable() {
+                @Override
+                public void run() {
+                    long interval = durableJobs.pollInterval();
+                    executor().scheduleWithFixedDelay(durableJobs, 0, interval, TimeUnit.MILLISECONDS);
+                }
+            });
+        }
+        if (config.jobLeaderElectionEnabled()) {
+            leaderElector = new LeaderElector(config, nodeId);
+            on(AppEventId.START, "__act_job_leader_elector", new Runnable() {
+                @Override
+                public void run() {
+                    leaderElector.run();
+                    long interval = leaderElector.renewInterval();
+                    executor().scheduleWithFixedDelay(leaderElector, interval, interval, TimeUnit.MILLISECONDS);
+                }
+            });
+        }
+    }
+
+    // returns the durable job ID or `null` if the runnable is not persisted
+    private String persisted(Runnable runnable, long dueAt) {
+        if (null == durableJobs || !(runnable instanceof Serializable)) {
+            return null;
+        }
+        String id = randomJobId();
+        durableJobs.persist(id, runnable, dueAt);
+        return id;
     }
 
     private void createAppEventListener(AppEventId appEventId) {
@@ -0,0 +1,231 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.App;
+import act.conf.AppConfig;
+import act.util.LogSupport;
+import org.osgl.$;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+
+import java.io.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists serializable delayed jobs into {@link JobStore} and polls
+ * the store to dispatch due jobs to the {@link AppJobManager} executor.
+ *
+ * One poll task serves all durable jobs and due jobs are claimed in batch,
+ * thus the scheduling overhead does not grow with the number of jobs pending.
+ *
+ * A job stays in the store until it finishes, while the claim lease might
+ * expire before that, e.g. when the job runs longer than the lease or waits
+ * in the executor queue. Thus the processor tracks the jobs dispatched and
+ * not finished yet, and never dispatches them again when they are handed
+ * out by the store after the lease expires.
+ */
+class DurableJobProcessor extends LogSupport implements Runnable {
+
+    private final App app;
+    private final AppJobManager manager;
+    private final String owner;
+    private final int batchSize;
+    private final long claimLease;
+    private final long misfireThreshold;
+    private final MisfirePolicy misfirePolicy;
+    private JobStore store;
+    private volatile boolean opened;
+    // IDs of jobs dispatched and not finished yet
+    private final Set<String> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    DurableJobProcessor(AppJobManager manager, String owner) {
+        this.manager = manager;
+        this.app = manager.app();
+        this.owner = owner;
+        AppConfig config = app.config();
+        this.batchSize = config.jobStoreBatchSize();
+        this.claimLease = config.jobLeaseTtl() * 1000L;
+        this.misfireThreshold = config.jobMisfireThreshold() * 1000L;
+        this.misfirePolicy = config.jobMisfirePolicy();
+    }
+
+    long pollInterval() {
+        return app.config().jobStorePollInterval();
+    }
+
+    void persist(String id, Runnable runnable, long dueAt) {
+        ensureOpened();
+        if (isTraceEnabled()) {
+            trace("persist durable job[%s] due at %s", id, dueAt);
+        }
+        store.persist(new JobStore.Entry(id, dueAt, serialize(runnable)));
+    }
+
+    boolean cancel(String id) {
+        return opened && store.remove(id);
+    }
+
+    List<JobStore.Entry> pending() {
+        ensureOpened();
+        return store.entries();
+    }
+
+    void close() {
+        if (opened) {
+            opened = false;
+            store.close();
+        }
+    }
+
+    @Override
+    public void run() {
+        long now = $.ms();
+        List<JobStore.Entry> due;
+        try {
+            ensureOpened();
+            due = store.claimDue(now, batchSize, owner, claimLease);
+        } catch (Exception e) {
+            warn(e, "error claiming due jobs from job store");
+            return;
+        }
+        for (JobStore.Entry entry : due) {
+            try {
+                dispatch(entry, now);
+            } catch (Exception e) {
+                warn(e, "error dispatching durable job[%s]", entry.id());
+            }
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private void dispatch(final JobStore.Entry entry, long now) {
+        final String id = entry.id();
+        if (!inFlight.add(id)) {
+            // claim lease expired while the job is still queued or running
+            return;
+        }
+        boolean dispatched = false;
+        try {
+            dispatched = doDispatch(entry, now);
+        } finally {
+            if (!dispatched) {
+                inFlight.remove(id);
+            }
+        }
+    }
+
+    // returns `true` if the job is handed to the executor
+    private boolean doDispatch(final JobStore.Entry entry, long now) {
+        final String id = entry.id();
+        long lateness = now - entry.dueAt();
+        if (lateness > misfireThreshold && !misfirePolicy.shallFire(lateness, misfireThreshold)) {
+            warn("durable job[%s] misfired by %sms, skipped by misfire policy: %s", id, lateness, misfirePolicy);
+            store.remove(id);
+            return false;
+        }
+        final Runnable worker;
+        try {
+            worker = deserialize(entry.payload());
+        } catch (Exception e) {
+            error(e, "error loading durable job[%s], job discarded", id);
+            store.remove(id);
+            return false;
+        }
+        manager.now(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    worker.run();
+                } finally {
+                    try {
+                        store.remove(id);
+                    } finally {
+                        inFlight.remove(id);
+                    }
+                }
+            }
+        });
+        return true;
+    }
+
+    private void ensureOpened() {
+        if (!opened) {
+            synchronized (this) {
+                if (!opened) {
+                    store = app.config().jobStore();
+                    store.open(app);
+                    opened = true;
+                }
+            }
+        }
+    }
+
+    private static byte[] serialize(Runnable runnable) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = null;
+        try {
+            oos = new ObjectOutputStream(baos);
+            oos.writeObject(runnable);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(oos);
+        }
+        return baos.toByteArray();
+    }
+
+    private Runnable deserialize(byte[] payload) throws IOException, ClassNotFoundException {
+        ObjectInputStream ois = new AppObjectInputStream(new ByteArrayInputStream(payload), app.classLoader());
+        try {
+            return (Runnable) ois.readObject();
+        } finally {
+            IO.close(ois);
+        }
+    }
+
+    private static class AppObjectInputStream extends ObjectInputStream {
+        private ClassLoader classLoader;
+
+        AppObjectInputStream(InputStream is, ClassLoader classLoader) throws IOException {
+            super(is);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (null != classLoader) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    // fall back to default class resolution
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.App;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A {@link JobStore} implementation that keeps job entries in memory and
+ * records every change into an append only log file. The log is replayed
+ * when the store is opened and compacted once the number of records in the
+ * log grows well beyond the number of live entries.
+ *
+ * This store is designed for single node deployment. The file to be used
+ * can be configured via {@link act.conf.AppConfigKey#JOB_STORE_FILE}.
+ */
+public class FileJobStore extends JobStore.InMemoryJobStore {
+
+    private static final Logger LOGGER = LogManager.get(FileJobStore.class);
+
+    private static final byte OP_PERSIST = 'P';
+    private static final byte OP_REMOVE = 'R';
+
+    private static final int COMPACT_THRESHOLD = 1024;
+
+    private File file;
+    private DataOutputStream log;
+    private int logRecords;
+
+    public FileJobStore() {
+    }
+
+    public FileJobStore(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void open(App app) {
+        if (null == file) {
+            file = new File(app.config().jobStoreFile());
+        }
+        replay();
+        compact();
+    }
+
+    @Override
+    public synchronized void close() {
+        IO.close(log);
+        log = null;
+        super.close();
+    }
+
+    @Override
+    public synchronized void persist(Entry entry) {
+        super.persist(entry);
+        try {
+            writePersist(log, entry);
+            log.flush();
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+        logged();
+    }
+
+    @Override
+    public synchronized boolean remove(String id) {
+        if (!super.remove(id)) {
+            return false;
+        }
+        try {
+            log.writeByte(OP_REMOVE);
+            log.writeUTF(id);
+            log.flush();
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+        logged();
+        return true;
+    }
+
+    private void logged() {
+        if (++logRecords > COMPACT_THRESHOLD && logRecords > (entries.size() << 1)) {
+            compact();
+        }
+    }
+
+    private void replay() {
+        if (!file.exists()) {
+            return;
+        }
+        DataInputStream dis = null;
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            while (true) {
+                byte op;
+                try {
+                    op = dis.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (OP_PERSIST == op) {
+                    String id = dis.readUTF();
+                    long dueAt = dis.readLong();
+                    byte[] payload = new byte[dis.readInt()];
+                    dis.readFully(payload);
+                    super.persist(new Entry(id, dueAt, payload));
+                } else if (OP_REMOVE == op) {
+                    super.remove(dis.readUTF());
+                } else {
+                    LOGGER.warn("unknown operation found in job store file: %s", file.getAbsolutePath());
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            // the last record is not completely written
+            LOGGER.warn("job store file truncated: %s", file.getAbsolutePath());
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(dis);
+        }
+    }
+
+    private void compact() {
+        IO.close(log);
+        File tmp = new File(file.getAbsolutePath() + ".tmp");
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(tmp);
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos));
+            for (Entry entry : queue) {
+                writePersist(dos, entry);
+            }
+            dos.flush();
+            fos.getChannel().force(true);
+            fos.close();
+            fos = null;
+            // replace the file in one step so a crash leaves either the old or the new file
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(fos);
+        }
+        logRecords = entries.size();
+        try {
+            log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    private static void writePersist(DataOutputStream os, Entry entry) throws IOException {
+        os.writeByte(OP_PERSIST);
+        os.writeUTF(entry.id());
+        os.writeLong(entry.dueAt());
+        byte[] payload = entry.payload();
+        os.writeInt(payload.length);
+        os.write(payload);
+    }
+}
@@ -108,7 +108,7 @@ public class Job extends DestroyableBase implements Runnable {
     }
 
     static final String BRIEF_VIEW = "id,oneTime,executed,trigger";
-    static final String DETAIL_VIEW = "id,oneTime,executed,trigger,worker";
+    static final String DETAIL_VIEW = "id,oneTime,executed,trigger,group,worker";
 
     private static final C.Set<Class<? extends UnexpectedException>> FATAL_EXCEPTIONS = C.set(
             DuplicateRouteMappingException.class,
@@ -119,9 +119,12 @@ public class Job extends DestroyableBase implements Runnable {
     private final String jobProgressTag;
     private App app;
     private boolean oneTime;
+    private boolean singleton;
+    private String group;
     private boolean executed;
     private AppJobManager manager;
     private JobTrigger trigger;
+    private volatile JobHistory history;
     private $.Func0<?> worker;
     Object callableResult;
     Exception callableException;
@@ -241,6 +244,18 @@ public class Job extends DestroyableBase implements Runnable {
         return this;
     }
 
+    /**
+     * Mark this job as singleton job, i.e. it will be executed only on the
+     * job leader node when leader election is enabled
+     *
+     * @return this job
+     * @see AppJobManager#isLeader()
+     */
+    Job setSingleton() {
+        singleton = true;
+        return this;
+    }
+
     boolean done() {
         return executed && oneTime;
     }
@@ -249,9 +264,25 @@ public class Job extends DestroyableBase implements Runnable {
         return id;
     }
 
+    /**
+     * Set the {@link JobGroup job group} of this job
+     *
+     * @param group the job group name
+     * @return this job
+     */
+    Job group(String group) {
+        this.group = group;
+        return this;
+    }
+
+    final String group() {
+        return group;
+    }
+
     final void trigger(JobTrigger trigger) {
         E.NPE(trigger);
         this.trigger = trigger;
+        this.history = manager.history(id, trigger.expectedInterval());
     }
 
     final Job addParallelJob(Job thatJob) {
@@ -268,8 +299,12 @@ public class Job extends DestroyableBase implements Runnable {
 
     @Override
     public void run() {
-        invokeParallelJobs();
-        runPrecedenceJobs();
+        // jobs chained to a singleton job run on the leader node only
+        boolean skipped = skippedOnThisNode();
+        if (!skipped) {
+            invokeParallelJobs();
+            runPrecedenceJobs();
+        }
         try {
             if (Act.isDev() && app.isStarted()) {
                 app.checkUpdates(false);
@@ -326,7 +361,9 @@ public class Job extends DestroyableBase implements Runnable {
                 progress.destroy();
             }
         }
-        runFollowingJobs();
+        if (!skipped) {
+            runFollowingJobs();
+        }
     }
 
     protected void _before() {
@@ -337,7 +374,29 @@ public class Job extends DestroyableBase implements Runnable {
         try {
             _before();
             if (null != worker) {
-                worker.apply();
+                JobHistory history = this.history;
+                if (skippedOnThisNode()) {
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("singleton job[%s] skipped on non-leader node", id);
+                    }
+                    if (null != history) {
+                        history.skip();
+                    }
+                } else if (null == history) {
+                    worker.apply();
+                } else {
+                    long begin = history.begin();
+                    Throwable failure = null;
+                    try {
+                        worker.apply();
+                        failure = callableException;
+                    } catch (RuntimeException | Error e) {
+                        failure = e;
+                        throw e;
+                    } finally {
+                        history.end(begin, failure);
+                    }
+                }
             }
         } finally {
             scheduleNextInvocation();
@@ -347,6 +406,10 @@ public class Job extends DestroyableBase implements Runnable {
 
     protected void _finally() {}
 
+    private boolean skippedOnThisNode() {
+        return singleton && !manager.isLeader();
+    }
+
     protected void cancel() {
         manager.cancel(id());
     }
@@ -418,6 +481,24 @@ public class Job extends DestroyableBase implements Runnable {
         return oneTime;
     }
 
+    public boolean isSingleton() {
+        return singleton;
+    }
+
+    public String getGroup() {
+        return null == group ? JobGroup.DEFAULT : group;
+    }
+
+    /**
+     * Returns the execution history of this job.
+     *
+     * @return the job history or `null` if the job is not scheduled by
+     *         a trigger or job history is disabled
+     */
+    public JobHistory history() {
+        return history;
+    }
+
     public JobTrigger trigger() {
         return trigger;
     }
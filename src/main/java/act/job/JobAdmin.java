@@ -20,8 +20,10 @@ package act.job;
  * #L%
  */
 
+import act.app.ActionContext;
 import act.cli.*;
 import act.event.OnEvent;
+import act.handler.RequestHandlerBase;
 import act.util.PropertySpec;
 import act.util.SimpleProgressGauge;
 import act.ws.WebSocketConnectEvent;
@@ -30,13 +32,17 @@ import act.ws.WebSocketContext;
 import act.ws.WsEndpoint;
 import com.alibaba.fastjson.JSONObject;
 import org.osgl.$;
+import org.osgl.mvc.result.NotFound;
 import org.osgl.util.C;
 import org.osgl.util.S;
 
 import javax.inject.Inject;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 
+import static act.controller.Controller.Util.renderJson;
+
 /**
  * Provide admin service to act {@link AppJobManager}
  */
@@ -63,6 +69,48 @@ public class JobAdmin {
         return jobs;
     }
 
+    @Command(value = "act.job.store", help = "List durable jobs pending in the job store")
+    public List<String> listDurableJobs(AppJobManager jobManager) {
+        return C.list(jobManager.pendingDurableJobs()).map($.F.<JobStore.Entry>asString());
+    }
+
+    @Command(value = "act.job.group.list", help = "Show job group saturation")
+    @PropertySpec("name,poolSize,activeCount,queueSize,queueCapacity,saturation,completed,rejected,avgLatencyMs")
+    @TableView
+    public List<JobGroupExecutor.Status> listGroups(AppJobManager jobManager) {
+        return jobManager.groups().map(new $.Transformer<JobGroupExecutor, JobGroupExecutor.Status>() {
+            @Override
+            public JobGroupExecutor.Status transform(JobGroupExecutor group) {
+                return group.status();
+            }
+        });
+    }
+
+    @Command(value = "act.job.history.list", help = "Show job execution statistics")
+    @PropertySpec("id,executions,failures,overlaps,skipped,running,avgMs,p50Ms,p99Ms,maxMs,lastDriftMs,maxDriftMs,drifted")
+    @TableView
+    public List<JobHistory.Summary> listHistories(@Optional(lead = "-q") final String q, AppJobManager jobManager) {
+        C.List<JobHistory> histories = jobManager.histories();
+        if (S.notBlank(q)) {
+            histories = histories.filter(new $.Predicate<JobHistory>() {
+                @Override
+                public boolean test(JobHistory history) {
+                    return history.id().contains(q);
+                }
+            });
+        }
+        return histories.map(SUMMARY);
+    }
+
+    @Command(value = "act.job.history", help = "Show recent executions of a job")
+    public List<String> getHistory(@Required("specify job id") final String id, AppJobManager jobManager) {
+        JobHistory history = jobManager.historyOf(id);
+        if (null == history) {
+            return C.list();
+        }
+        return C.list(history.recent()).map($.F.<JobHistory.Execution>asString());
+    }
+
     @Command(value = "act.job.show", help = "Show job details")
     @JsonView
     @PropertySpec(Job.DETAIL_VIEW)
@@ -93,9 +141,57 @@ public class JobAdmin {
         json.put("# of completed tasks", executor.getActiveCount());
         json.put("core pool size", executor.getCorePoolSize());
         json.put("pool size", executor.getPoolSize());
+        json.put("is leader", jobManager.isLeader());
+        ScheduledExecutorService scheduler = jobManager.scheduler();
+        if (scheduler instanceof TimingWheelScheduler) {
+            TimingWheelScheduler wheel = (TimingWheelScheduler) scheduler;
+            json.put("timing wheel tick (ms)", wheel.tickMillis());
+            json.put("# of tasks in timing wheel", wheel.size());
+        }
         return json.toJSONString();
     }
 
+    private static final $.Transformer<JobHistory, JobHistory.Summary> SUMMARY = new $.Transformer<JobHistory, JobHistory.Summary>() {
+        @Override
+        public JobHistory.Summary transform(JobHistory history) {
+            return history.summary();
+        }
+    };
+
+    /**
+     * Serves `GET /~/job/history` in dev mode, which responds with the summary of all
+     * job histories, or the summary and recent executions of the job
+     * specified by the `id` parameter
+     */
+    static class JobHistoryHandler extends RequestHandlerBase {
+
+        private AppJobManager jobManager;
+
+        JobHistoryHandler(AppJobManager jobManager) {
+            this.jobManager = jobManager;
+        }
+
+        @Override
+        public void handle(ActionContext context) {
+            String id = context.paramVal("id");
+            Object payload;
+            if (S.blank(id)) {
+                payload = jobManager.histories().map(SUMMARY);
+            } else {
+                JobHistory history = jobManager.historyOf(id);
+                if (null == history) {
+                    throw NotFound.get();
+                }
+                payload = C.map("summary", history.summary(), "recent", history.recent());
+            }
+            renderJson(payload).apply(context.req(), context.prepareRespForWrite());
+        }
+
+        @Override
+        public void prepareAuthentication(ActionContext context) {
+        }
+    }
+
     public static class WebsocketEndpoints {
 
         @WsEndpoint("/~/job/{id}/progress")
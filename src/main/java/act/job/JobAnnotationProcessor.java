@@ -115,7 +115,7 @@ public class JobAnnotationProcessor extends AppHolderBase<JobAnnotationProcessor
     }
 
     private void registerCron(Job job, String expression) {
-        JobTrigger.cron(expression).register(job, manager);
+        JobTrigger.cron(expression).register(job.setSingleton(), manager);
     }
 
     private void registerAlongWith(Job job, String targetJobId) {
@@ -123,11 +123,11 @@ public class JobAnnotationProcessor extends AppHolderBase<JobAnnotationProcessor
     }
 
     private void registerEvery(Job job, String expression) {
-        JobTrigger.every(expression).register(job, manager);
+        JobTrigger.every(expression).register(job.setSingleton(), manager);
     }
 
     private void registerFixedDelay(Job job, String expression) {
-        JobTrigger.fixedDelay(expression).register(job, manager);
+        JobTrigger.fixedDelay(expression).register(job.setSingleton(), manager);
     }
 
     private void registerInvokeAfter(Job job, String targetJobId) {
@@ -157,6 +157,6 @@ public class JobAnnotationProcessor extends AppHolderBase<JobAnnotationProcessor
     
     private Job createMethodJob(JobMethodMetaInfo method) {
         String id = method.id();
-        return new Job(id, app().jobManager(), new ReflectedJobInvoker<>(method, app()), false);
+        return new Job(id, app().jobManager(), new ReflectedJobInvoker<>(method, app()), false).group(method.group());
     }
 }
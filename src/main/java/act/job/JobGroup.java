@@ -0,0 +1,73 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.annotation.*;
+
+/**
+ * Specify the job group a job or an `@Async` action shall be executed in.
+ *
+ * Each job group is backed by an independent bounded thread pool, thus
+ * a slow job in one group will not delay jobs in other groups. The pool
+ * of a group can be configured with:
+ *
+ * * `job.group.<name>.pool.size` - the number of threads, default to `job.pool.size`
+ * * `job.group.<name>.queue.size` - the capacity of the task queue, default: `1024`
+ * * `job.group.<name>.rejection_policy` - one of {@link JobGroupExecutor.RejectionPolicy}, default: `ABORT`
+ *
+ * Sample:
+ *
+ * ```java
+ * {@literal @}Cron("0 0 1 * * ?")
+ * {@literal @}JobGroup("billing")
+ * public void chargeSubscriptions() {...}
+ * ```
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface JobGroup {
+
+    /**
+     * The default job group, which runs on the job manager's shared executor
+     */
+    String DEFAULT = "default";
+
+    /**
+     * The job group used to send emails. Emails are sent on the
+     * default executor unless `job.group.act-mailer.*` is configured
+     */
+    String MAILER = "act-mailer";
+
+    /**
+     * The job group used to invoke async event listeners. Listeners are
+     * invoked on the default executor unless `job.group.act-event.*`
+     * is configured
+     */
+    String EVENT = "act-event";
+
+    /**
+     * Specify the job group name
+     *
+     * @return the job group name
+     */
+    String value();
+}
@@ -0,0 +1,314 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.Act;
+import act.app.AppThreadFactory;
+import act.metric.*;
+import org.osgl.util.S;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded thread pool backing a {@link JobGroup job group}.
+ *
+ * Besides the statistics provided by {@link ThreadPoolExecutor}, a job
+ * group executor keeps track of rejected tasks and the latency, i.e. the time
+ * elapsed from a task is submitted till it finishes. Queue depth and active
+ * count are exported as {@link Gauge gauges} and latency is exported as
+ * timer `act:job:group:<name>`.
+ */
+public class JobGroupExecutor extends ThreadPoolExecutor {
+
+    /**
+     * Defines what to do when a task cannot be accepted by a job group
+     * because the queue is full
+     */
+    public enum RejectionPolicy {
+        /**
+         * Throw out {@link RejectedExecutionException}
+         */
+        ABORT() {
+            @Override
+            void reject(Runnable r, JobGroupExecutor executor) {
+                executor.drop(r);
+                throw new RejectedExecutionException(S.concat("task rejected by job group: ", executor.name));
+            }
+        },
+
+        /**
+         * Run the task in the thread that submitted it
+         */
+        CALLER_RUNS() {
+            @Override
+            void reject(Runnable r, JobGroupExecutor executor) {
+                if (executor.isShutdown()) {
+                    executor.drop(r);
+                } else {
+                    r.run();
+                }
+            }
+        },
+
+        /**
+         * Discard the task silently
+         */
+        DISCARD() {
+            @Override
+            void reject(Runnable r, JobGroupExecutor executor) {
+                executor.drop(r);
+            }
+        },
+
+        /**
+         * Discard the oldest task in the queue and retry
+         */
+        DISCARD_OLDEST() {
+            @Override
+            void reject(Runnable r, JobGroupExecutor executor) {
+                if (executor.isShutdown()) {
+                    executor.drop(r);
+                    return;
+                }
+                Runnable oldest = executor.getQueue().poll();
+                if (null != oldest) {
+                    executor.rejected.incrementAndGet();
+                    executor.drop(oldest);
+                }
+                // the task has been wrapped already, thus it won't be wrapped again
+                executor.execute(r);
+            }
+        };
+
+        /**
+         * Handle a task that cannot be accepted by the executor. Tasks dropped
+         * shall be passed to {@link JobGroupExecutor#drop(Runnable)}
+         */
+        abstract void reject(Runnable r, JobGroupExecutor executor);
+
+        public static RejectionPolicy valueOfIgnoreCase(String s) {
+            s = S.string(s).trim().replace('-', '_');
+            for (RejectionPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(s)) {
+                    return policy;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Snapshot of a job group status
+     */
+    public static class Status {
+        private String name;
+        private int poolSize;
+        private int activeCount;
+        private int queueSize;
+        private int queueCapacity;
+        private long completed;
+        private long rejected;
+        private long avgLatencyMs;
+
+        Status(JobGroupExecutor executor) {
+            this.name = executor.name;
+            this.poolSize = executor.getMaximumPoolSize();
+            this.activeCount = executor.getActiveCount();
+            this.queueSize = executor.getQueue().size();
+            this.queueCapacity = executor.queueCapacity;
+            this.completed = executor.finished.get();
+            this.rejected = executor.rejected.get();
+            this.avgLatencyMs = 0 == completed ? 0 : TimeUnit.NANOSECONDS.toMillis(executor.latency.get() / completed);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public int getActiveCount() {
+            return activeCount;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Returns the saturation in percentage, which is calculated as
+         * the number of active and queued tasks divided by the number of
+         * threads plus the queue capacity
+         *
+         * @return the saturation percentage
+         */
+        public int getSaturation() {
+            return (int) ((activeCount + queueSize) * 100L / (poolSize + queueCapacity));
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getAvgLatencyMs() {
+            return avgLatencyMs;
+        }
+    }
+
+    private final String name;
+    private final String metricName;
+    private final int queueCapacity;
+    private final Metric metric;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong latency = new AtomicLong();
+
+    JobGroupExecutor(String name, int poolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        super(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity), new AppThreadFactory(S.concat("jobs-", name)));
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.metricName = S.concat(MetricInfo.JOB_HANDLER, Metric.PATH_SEPARATOR, "group", Metric.PATH_SEPARATOR, name);
+        this.metric = Act.metricPlugin().metric("act.job");
+        final RejectionPolicy policy = rejectionPolicy;
+        setRejectedExecutionHandler(new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                if (RejectionPolicy.DISCARD_OLDEST != policy) {
+                    rejected.incrementAndGet();
+                }
+                policy.reject(r, (JobGroupExecutor) executor);
+            }
+        });
+        allowCoreThreadTimeOut(true);
+        registerGauges();
+    }
+
+    /**
+     * Returns the name of the job group
+     * @return the name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns a snapshot of the job group status
+     * @return the status
+     */
+    public Status status() {
+        return new Status(this);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(command instanceof TimedTask ? command : new TimedTask(command, metric.startTimer(metricName)));
+    }
+
+    /**
+     * Called when a task is dropped by the rejection policy. It stops the
+     * timer of the task, and if the task is a {@link Job}, schedules the next
+     * invocation of the job, which would otherwise be scheduled at the end of
+     * the job execution. Thus a dropped cron job keeps firing at its next
+     * fire time.
+     *
+     * @param r the task dropped
+     */
+    void drop(Runnable r) {
+        if (!(r instanceof TimedTask)) {
+            return;
+        }
+        TimedTask timedTask = (TimedTask) r;
+        timedTask.timer.stop();
+        Runnable task = timedTask.task;
+        if (task instanceof Job) {
+            Job job = (Job) task;
+            if (!job.isDestroyed()) {
+                job.scheduleNextInvocation();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        unregisterGauges();
+        super.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        unregisterGauges();
+        return super.shutdownNow();
+    }
+
+    private void registerGauges() {
+        GaugeRegistry.register(S.concat(metricName, ":queue"), new Gauge() {
+            @Override
+            public long value() {
+                return getQueue().size();
+            }
+        });
+        GaugeRegistry.register(S.concat(metricName, ":active"), new Gauge() {
+            @Override
+            public long value() {
+                return getActiveCount();
+            }
+        });
+    }
+
+    private void unregisterGauges() {
+        GaugeRegistry.unregister(S.concat(metricName, ":queue"));
+        GaugeRegistry.unregister(S.concat(metricName, ":active"));
+    }
+
+    private class TimedTask implements Runnable {
+        private final Runnable task;
+        private final Timer timer;
+        private final long submittedAt = System.nanoTime();
+
+        TimedTask(Runnable task, Timer timer) {
+            this.task = task;
+            this.timer = timer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                timer.stop();
+                latency.addAndGet(System.nanoTime() - submittedAt);
+                finished.incrementAndGet();
+            }
+        }
+    }
+}
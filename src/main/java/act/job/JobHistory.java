@@ -0,0 +1,372 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.S;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps track of the execution history of a {@link Job}.
+ *
+ * The most recent executions are kept in a bounded ring buffer while
+ * durations of all executions are aggregated into a log2 based histogram.
+ * Recording an execution is lock free and allocates one {@link Execution}
+ * object, which makes it cheap enough to be turned on for jobs that
+ * run every second.
+ *
+ * Besides, job history detects
+ *
+ * * overlapping executions, i.e. a job starts while the previous execution
+ *   has not finished yet
+ * * schedule drift of {@link act.job.Every periodical} jobs, i.e. the difference
+ *   between the actual interval of two consecutive executions and the
+ *   expected interval
+ */
+public class JobHistory {
+
+    public enum Outcome {
+        SUCCESS, FAILURE
+    }
+
+    /**
+     * Record of a single job execution
+     */
+    public static class Execution {
+        private final long start;
+        private final long durationNanos;
+        private final Outcome outcome;
+        private final String exception;
+
+        Execution(long start, long durationNanos, Throwable failure) {
+            this.start = start;
+            this.durationNanos = durationNanos;
+            this.outcome = null == failure ? Outcome.SUCCESS : Outcome.FAILURE;
+            this.exception = null == failure ? null : failure.getClass().getName();
+        }
+
+        /**
+         * @return the execution start timestamp in milliseconds
+         */
+        public long getStart() {
+            return start;
+        }
+
+        public double getDurationMs() {
+            return toMillis(durationNanos);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public String getException() {
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            return S.fmt("%tFT%<tT.%<tL %s %.3fms%s", start, outcome, getDurationMs(), null == exception ? "" : " " + exception);
+        }
+    }
+
+    /**
+     * Aggregated statistics of a job history
+     */
+    public static class Summary {
+        private final String id;
+        private final long executions;
+        private final long failures;
+        private final long overlaps;
+        private final long skipped;
+        private final int running;
+        private final double avgMs;
+        private final double p50Ms;
+        private final double p99Ms;
+        private final double maxMs;
+        private final long lastDriftMs;
+        private final long maxDriftMs;
+        private final long drifted;
+
+        Summary(JobHistory history) {
+            this.id = history.id;
+            this.executions = history.histogram.count();
+            this.failures = history.failures.get();
+            this.overlaps = history.overlaps.get();
+            this.skipped = history.skipped.get();
+            this.running = history.running.get();
+            this.avgMs = toMillis(history.histogram.mean());
+            this.p50Ms = toMillis(history.histogram.percentile(50));
+            this.p99Ms = toMillis(history.histogram.percentile(99));
+            this.maxMs = toMillis(history.histogram.max());
+            this.lastDriftMs = TimeUnit.NANOSECONDS.toMillis(history.lastDrift.get());
+            this.maxDriftMs = TimeUnit.NANOSECONDS.toMillis(history.maxDrift.get());
+            this.drifted = history.drifted.get();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getOverlaps() {
+            return overlaps;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public int getRunning() {
+            return running;
+        }
+
+        public double getAvgMs() {
+            return avgMs;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public double getMaxMs() {
+            return maxMs;
+        }
+
+        public long getLastDriftMs() {
+            return lastDriftMs;
+        }
+
+        public long getMaxDriftMs() {
+            return maxDriftMs;
+        }
+
+        public long getDrifted() {
+            return drifted;
+        }
+    }
+
+    /**
+     * A lock free histogram with buckets of power of 2 nanoseconds.
+     *
+     * Bucket `i` counts values in range `[2^i, 2^(i+1))`, thus the
+     * percentile reported is accurate to a factor of 2, which is good
+     * enough to tell the shape of job durations.
+     */
+    static class Histogram {
+        private static final int BUCKETS = 64;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
+            }
+            buckets.incrementAndGet(bucketOf(nanos));
+            count.incrementAndGet();
+            sum.addAndGet(nanos);
+            updateMax(max, nanos);
+        }
+
+        long count() {
+            return count.get();
+        }
+
+        long max() {
+            return max.get();
+        }
+
+        long mean() {
+            long n = count.get();
+            return 0 == n ? 0 : sum.get() / n;
+        }
+
+        /**
+         * Returns the upper bound of the bucket where the percentile
+         * specified falls in
+         *
+         * @param percent the percentile, e.g. `99`
+         * @return the approximate value at the percentile
+         */
+        long percentile(double percent) {
+            long n = count.get();
+            if (0 == n) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(n * percent / 100d);
+            long acc = 0;
+            for (int i = 0; i < BUCKETS; ++i) {
+                acc += buckets.get(i);
+                if (acc >= threshold) {
+                    return Math.min(i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        static int bucketOf(long nanos) {
+            return 0 == nanos ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+        }
+    }
+
+    private final String id;
+    private final AtomicReferenceArray<Execution> ring;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Histogram histogram = new Histogram();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong overlaps = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong lastStart = new AtomicLong();
+    private final AtomicLong lastDrift = new AtomicLong();
+    private final AtomicLong maxDrift = new AtomicLong();
+    private final AtomicLong drifted = new AtomicLong();
+    private volatile long expectedInterval;
+
+    JobHistory(String id, int capacity) {
+        this.id = id;
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        if (1 == capacity) {
+            size = 1;
+        }
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Set the expected interval between two consecutive executions. Used
+     * to detect schedule drift of periodical jobs
+     *
+     * @param interval the interval
+     * @param timeUnit the time unit of the interval
+     */
+    void expectedInterval(long interval, TimeUnit timeUnit) {
+        this.expectedInterval = timeUnit.toNanos(interval);
+    }
+
+    /**
+     * Mark the start of an execution
+     *
+     * @return the start time in nanoseconds that shall be passed to {@link #end(long, Throwable)}
+     */
+    long begin() {
+        long now = System.nanoTime();
+        if (running.incrementAndGet() > 1) {
+            overlaps.incrementAndGet();
+        }
+        long prev = lastStart.getAndSet(now);
+        long interval = expectedInterval;
+        if (interval > 0 && prev != 0) {
+            long drift = (now - prev) - interval;
+            lastDrift.set(drift);
+            long abs = Math.abs(drift);
+            updateMax(maxDrift, abs);
+            // consider it drift when it is more than 10% of the interval
+            if (abs > interval / 10) {
+                drifted.incrementAndGet();
+            }
+        }
+        return now;
+    }
+
+    /**
+     * Mark the end of an execution
+     *
+     * @param begin the value returned by {@link #begin()}
+     * @param failure the exception raised by the execution if any
+     */
+    void end(long begin, Throwable failure) {
+        long duration = System.nanoTime() - begin;
+        running.decrementAndGet();
+        histogram.record(duration);
+        if (null != failure) {
+            failures.incrementAndGet();
+        }
+        long start = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(duration);
+        ring.lazySet((int) (sequence.getAndIncrement() & mask), new Execution(start, duration, failure));
+    }
+
+    /**
+     * Mark an execution has been skipped, e.g. a singleton job on a non-leader node
+     */
+    void skip() {
+        skipped.incrementAndGet();
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Returns the most recent executions, latest first
+     *
+     * @return the recent executions
+     */
+    public List<Execution> recent() {
+        long seq = sequence.get();
+        int capacity = mask + 1;
+        long from = Math.max(0, seq - capacity);
+        List<Execution> list = new ArrayList<>((int) (seq - from));
+        for (long i = seq - 1; i >= from; --i) {
+            Execution execution = ring.get((int) (i & mask));
+            if (null != execution) {
+                list.add(execution);
+            }
+        }
+        return list;
+    }
+
+    public Summary summary() {
+        return new Summary(this);
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long cur = max.get();
+        while (value > cur && !max.compareAndSet(cur, value)) {
+            cur = max.get();
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+}
@@ -0,0 +1,93 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A `JobLockProvider` provides lease based named locks that are used to
+ * elect the leader node which runs singleton jobs.
+ *
+ * Implementations backed by a shared resource, e.g. a database table or
+ * a distributed cache, enable the leader election across a cluster.
+ *
+ * @see act.conf.AppConfigKey#JOB_LOCK_PROVIDER
+ */
+public interface JobLockProvider {
+
+    /**
+     * Try to acquire, or renew if already held by the owner, a lock
+     *
+     * @param lock the lock name
+     * @param owner the owner ID
+     * @param leaseMillis the lease period in milliseconds
+     * @return `true` if the lock is held by the owner after this call
+     */
+    boolean tryAcquire(String lock, String owner, long leaseMillis);
+
+    /**
+     * Release a lock if it is held by the owner
+     *
+     * @param lock the lock name
+     * @param owner the owner ID
+     */
+    void release(String lock, String owner);
+
+    /**
+     * A stand in lock provider that keep leases in the current JVM. It
+     * can be used for single node deployment and testing.
+     */
+    class LocalLockProvider implements JobLockProvider {
+
+        private static class Lease {
+            String owner;
+            long expiresAt;
+            Lease(String owner, long expiresAt) {
+                this.owner = owner;
+                this.expiresAt = expiresAt;
+            }
+        }
+
+        private Map<String, Lease> leases = new HashMap<>();
+
+        @Override
+        public synchronized boolean tryAcquire(String lock, String owner, long leaseMillis) {
+            long now = $.ms();
+            Lease lease = leases.get(lock);
+            if (null == lease || lease.expiresAt <= now || $.eq(owner, lease.owner)) {
+                leases.put(lock, new Lease(owner, now + leaseMillis));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized void release(String lock, String owner) {
+            Lease lease = leases.get(lock);
+            if (null != lease && $.eq(owner, lease.owner)) {
+                leases.remove(lock);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.App;
+import org.joda.time.DateTime;
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A `JobStore` persists durable jobs, i.e. delayed jobs that shall
+ * survive application restart.
+ *
+ * A job store is also responsible to hand out due jobs to the job manager
+ * in batch. Each due job handed out is claimed by the calling node for a
+ * lease period, so that when multiple nodes share the same store a job will
+ * not be executed by two nodes at the same time. A claimed job that is not
+ * {@link #remove(String) removed} before the lease expires will be handed
+ * out again.
+ *
+ * @see act.conf.AppConfigKey#JOB_STORE
+ */
+public interface JobStore {
+
+    /**
+     * A durable job entry
+     */
+    class Entry implements Serializable {
+
+        private static final long serialVersionUID = -4553385612983712497L;
+
+        private final String id;
+        private final long dueAt;
+        private final byte[] payload;
+
+        // claim states are not persisted
+        transient String claimedBy;
+        transient long claimExpiresAt;
+
+        public Entry(String id, long dueAt, byte[] payload) {
+            E.illegalArgumentIf(S.blank(id), "job id expected");
+            this.id = id;
+            this.dueAt = dueAt;
+            this.payload = $.notNull(payload);
+        }
+
+        /**
+         * Returns the job ID
+         * @return the job ID
+         */
+        public String id() {
+            return id;
+        }
+
+        /**
+         * Returns the time in milliseconds this job shall be fired
+         * @return the due time
+         */
+        public long dueAt() {
+            return dueAt;
+        }
+
+        /**
+         * Returns the serialized job worker
+         * @return the payload
+         */
+        public byte[] payload() {
+            return payload;
+        }
+
+        /**
+         * Returns the ID of the owner who claimed this job
+         * @return the claim owner or `null` if the job is not claimed
+         */
+        public String claimedBy() {
+            return claimedBy;
+        }
+
+        boolean claimable(long now) {
+            return null == claimedBy || claimExpiresAt <= now;
+        }
+
+        void claim(String owner, long expiresAt) {
+            this.claimedBy = owner;
+            this.claimExpiresAt = expiresAt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof Entry) {
+                Entry that = (Entry) o;
+                return S.eq(that.id, id);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return S.concat("durable job[", id, "] due at ", S.string(new DateTime(dueAt)));
+        }
+    }
+
+    /**
+     * Order entries by due time and then ID
+     */
+    Comparator<Entry> DUE_ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry o1, Entry o2) {
+            if (o1.dueAt != o2.dueAt) {
+                return o1.dueAt < o2.dueAt ? -1 : 1;
+            }
+            return o1.id.compareTo(o2.id);
+        }
+    };
+
+    /**
+     * Open the store. This method is called by the job manager before
+     * any other method call
+     *
+     * @param app the application
+     */
+    void open(App app);
+
+    /**
+     * Close the store and release resources
+     */
+    void close();
+
+    /**
+     * Add or replace a job entry in the store
+     *
+     * @param entry the job entry
+     */
+    void persist(Entry entry);
+
+    /**
+     * Remove a job entry from the store by ID
+     *
+     * @param id the job ID
+     * @return `true` if the job is found and removed
+     */
+    boolean remove(String id);
+
+    /**
+     * Claim a batch of due jobs.
+     *
+     * @param now the current time in milliseconds
+     * @param limit the maximum number of jobs to be claimed
+     * @param owner the claim owner ID
+     * @param leaseMillis the claim lease in milliseconds
+     * @return a list of jobs claimed ordered by due time
+     */
+    List<Entry> claimDue(long now, int limit, String owner, long leaseMillis);
+
+    /**
+     * Returns all jobs in the store ordered by due time
+     *
+     * @return all pending jobs
+     */
+    List<Entry> entries();
+
+    /**
+     * Returns number of jobs in the store
+     *
+     * @return the number of pending jobs
+     */
+    int size();
+
+    /**
+     * A non durable job store that keeps job entries in memory. This
+     * can be used as a stand in store for testing purpose.
+     */
+    class InMemoryJobStore implements JobStore {
+
+        protected final Map<String, Entry> entries = new HashMap<>();
+        protected final TreeSet<Entry> queue = new TreeSet<>(DUE_ORDER);
+
+        @Override
+        public void open(App app) {
+        }
+
+        @Override
+        public synchronized void close() {
+            entries.clear();
+            queue.clear();
+        }
+
+        @Override
+        public synchronized void persist(Entry entry) {
+            Entry existing = entries.put(entry.id(), entry);
+            if (null != existing) {
+                queue.remove(existing);
+            }
+            queue.add(entry);
+        }
+
+        @Override
+        public synchronized boolean remove(String id) {
+            Entry entry = entries.remove(id);
+            if (null == entry) {
+                return false;
+            }
+            queue.remove(entry);
+            return true;
+        }
+
+        @Override
+        public synchronized List<Entry> claimDue(long now, int limit, String owner, long leaseMillis) {
+            List<Entry> list = new ArrayList<>();
+            for (Entry entry : queue) {
+                if (entry.dueAt() > now || list.size() >= limit) {
+                    break;
+                }
+                if (entry.claimable(now)) {
+                    entry.claim(owner, now + leaseMillis);
+                    list.add(entry);
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public synchronized List<Entry> entries() {
+            return C.list(new ArrayList<>(queue));
+        }
+
+        @Override
+        public synchronized int size() {
+            return entries.size();
+        }
+    }
+
+}
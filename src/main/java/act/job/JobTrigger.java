@@ -26,7 +26,6 @@ import act.conf.AppConfig;
 import act.event.AppEventListenerBase;
 import fc.cron.CronExpression;
 import org.joda.time.DateTime;
-import org.joda.time.Seconds;
 import org.osgl.$;
 import org.osgl.exception.NotAppliedException;
 import org.osgl.logging.LogManager;
@@ -36,8 +35,9 @@ import org.osgl.util.S;
 import org.rythmengine.utils.Time;
 
 import java.util.EventObject;
+import java.util.List;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static act.app.event.AppEventId.START;
@@ -74,6 +74,17 @@ public abstract class JobTrigger {
 
     void scheduleFollowingCalls(AppJobManager manager, Job job) {}
 
+    /**
+     * Returns the expected interval in seconds between two consecutive
+     * executions of a job triggered by this trigger. Used to detect
+     * schedule drift.
+     *
+     * @return the interval or `-1` if this trigger does not fire at fixed rate
+     */
+    long expectedInterval() {
+        return -1;
+    }
+
     void schedule(AppJobManager manager, Job job) {}
 
     void traceSchedule(Job job) {
@@ -227,7 +238,17 @@ public abstract class JobTrigger {
     }
 
     static class _Cron extends JobTrigger {
+        // number of fire times calculated in one batch
+        private static final int PRECOMPUTE_SIZE = 16;
+        // the tolerance of early firing caused by wall clock adjustment
+        private static final long CLOCK_TOLERANCE = 50;
+
         private CronExpression cronExpr;
+        // precomputed fire times in milliseconds
+        private long[] fireTimes = new long[0];
+        private int cursor;
+        private long lastFireTime;
+
         _Cron(String expression) {
             cronExpr = new CronExpression(expression);
         }
@@ -254,14 +275,59 @@ public abstract class JobTrigger {
         }
 
         private void delayedSchedule(AppJobManager manager, Job job) {
-            DateTime now = DateTime.now();
-            // add one seconds to prevent the next time be the current time (now)
-            DateTime next = cronExpr.nextTimeAfter(now.plusSeconds(1));
-            Seconds seconds = Seconds.secondsBetween(now, next);
-            ScheduledFuture future = manager.executor().schedule(job, seconds.getSeconds(), TimeUnit.SECONDS);
+            scheduleAt(manager, job, nextFireTime(System.currentTimeMillis()));
+        }
+
+        private void scheduleAt(final AppJobManager manager, final Job job, final long fireTime) {
+            final Runnable dispatcher = manager.dispatcher(job);
+            long delay = Math.max(0, fireTime - System.currentTimeMillis());
+            ScheduledFuture future = manager.scheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    // the executor measures delay with a monotonic clock, thus
+                    // we need to check again in case wall clock has been set back
+                    if (fireTime - System.currentTimeMillis() > CLOCK_TOLERANCE) {
+                        scheduleAt(manager, job, fireTime);
+                    } else {
+                        dispatcher.run();
+                    }
+                }
+            }, delay, TimeUnit.MILLISECONDS);
             manager.futureScheduled(job.id(), future);
         }
 
+        /**
+         * Returns the next fire time that is after `now`.
+         *
+         * Fire times are calculated in batch and consumed one by one. As fire
+         * times are calculated from the previous fire time instead of
+         * the current time, there is no drift accumulated. Fire times missed,
+         * e.g. because the previous execution takes too long, are skipped.
+         *
+         * @param now the current time in milliseconds
+         * @return the next fire time in milliseconds
+         */
+        synchronized long nextFireTime(long now) {
+            while (cursor < fireTimes.length && fireTimes[cursor] <= now) {
+                cursor++;
+            }
+            if (cursor >= fireTimes.length) {
+                precompute(Math.max(now, lastFireTime));
+            }
+            lastFireTime = fireTimes[cursor++];
+            return lastFireTime;
+        }
+
+        private void precompute(long after) {
+            List<DateTime> times = cronExpr.nextTimesAfter(new DateTime(after), PRECOMPUTE_SIZE);
+            long[] table = new long[times.size()];
+            for (int i = 0; i < table.length; ++i) {
+                table[i] = times.get(i).getMillis();
+            }
+            fireTimes = table;
+            cursor = 0;
+        }
+
         @Override
         void scheduleFollowingCalls(AppJobManager manager, Job job) {
             schedule(manager, job);
@@ -311,10 +377,30 @@ public abstract class JobTrigger {
         }
 
         private void delayedSchedule(AppJobManager manager, Job job) {
-            ScheduledThreadPoolExecutor executor = manager.executor();
-            ScheduledFuture future = executor.scheduleWithFixedDelay(job, seconds, seconds, TimeUnit.SECONDS);
+            Runnable dispatcher = manager.dispatcher(job);
+            if (dispatcher != job) {
+                scheduleNext(manager, dispatcher, job);
+                return;
+            }
+            ScheduledExecutorService executor = manager.scheduler();
+            ScheduledFuture future = executor.scheduleWithFixedDelay(dispatcher, seconds, seconds, TimeUnit.SECONDS);
             manager.futureScheduled(job.id(), future);
         }
+
+        private void scheduleNext(AppJobManager manager, Runnable dispatcher, Job job) {
+            ScheduledFuture future = manager.scheduler().schedule(dispatcher, seconds, TimeUnit.SECONDS);
+            manager.futureScheduled(job.id(), future);
+        }
+
+        @Override
+        void scheduleFollowingCalls(AppJobManager manager, Job job) {
+            // a job run by a job group is handed over to the group executor by the
+            // dispatcher, thus the delay must be counted from the job completion
+            Runnable dispatcher = manager.dispatcher(job);
+            if (dispatcher != job) {
+                scheduleNext(manager, dispatcher, job);
+            }
+        }
     }
 
     private static class _Every extends _Periodical {
@@ -331,6 +417,11 @@ public abstract class JobTrigger {
             return S.concat("every ", S.string(seconds), " seconds");
         }
 
+        @Override
+        long expectedInterval() {
+            return seconds;
+        }
+
         @Override
         void schedule(final AppJobManager manager, final Job job) {
             traceSchedule(job);
@@ -348,8 +439,8 @@ public abstract class JobTrigger {
         }
 
         private void delayedSchedule(AppJobManager manager, Job job) {
-            ScheduledThreadPoolExecutor executor = manager.executor();
-            ScheduledFuture future = executor.scheduleAtFixedRate(job, seconds, seconds, TimeUnit.SECONDS);
+            ScheduledExecutorService executor = manager.scheduler();
+            ScheduledFuture future = executor.scheduleAtFixedRate(manager.dispatcher(job), seconds, seconds, TimeUnit.SECONDS);
             manager.futureScheduled(job.id(), future);
         }
     }
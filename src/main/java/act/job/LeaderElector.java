@@ -0,0 +1,99 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.conf.AppConfig;
+import act.util.LogSupport;
+import org.osgl.$;
+
+/**
+ * Keeps acquiring and renewing the leader lease through
+ * {@link JobLockProvider}.
+ */
+class LeaderElector extends LogSupport implements Runnable {
+
+    static final String LOCK = "act.job.leader";
+
+    private final AppConfig config;
+    private final String owner;
+    private final long leaseMillis;
+    private JobLockProvider lockProvider;
+    private volatile long leaseExpiresAt;
+
+    LeaderElector(AppConfig config, String owner) {
+        this.config = config;
+        this.owner = owner;
+        this.leaseMillis = config.jobLeaseTtl() * 1000L;
+    }
+
+    /**
+     * Returns the interval in milliseconds the lease shall be renewed
+     */
+    long renewInterval() {
+        return Math.max(1L, leaseMillis / 3);
+    }
+
+    boolean isLeader() {
+        return $.ms() < leaseExpiresAt;
+    }
+
+    @Override
+    public void run() {
+        boolean wasLeader = isLeader();
+        long now = $.ms();
+        boolean acquired;
+        try {
+            acquired = lockProvider().tryAcquire(LOCK, owner, leaseMillis);
+        } catch (Exception e) {
+            warn(e, "error acquiring job leader lease");
+            acquired = false;
+        }
+        if (acquired) {
+            leaseExpiresAt = now + leaseMillis;
+            if (!wasLeader) {
+                info("node[%s] become job leader", owner);
+            }
+        } else {
+            leaseExpiresAt = 0;
+            if (wasLeader) {
+                info("node[%s] lost job leadership", owner);
+            }
+        }
+    }
+
+    void release() {
+        if (isLeader()) {
+            leaseExpiresAt = 0;
+            try {
+                lockProvider().release(LOCK, owner);
+            } catch (Exception e) {
+                warn(e, "error releasing job leader lease");
+            }
+        }
+    }
+
+    private synchronized JobLockProvider lockProvider() {
+        if (null == lockProvider) {
+            lockProvider = config.jobLockProvider();
+        }
+        return lockProvider;
+    }
+}
@@ -0,0 +1,70 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.S;
+
+/**
+ * Defines how to handle a durable job that missed its fire time, e.g.
+ * because the application was down when the job was due.
+ *
+ * @see act.conf.AppConfigKey#JOB_MISFIRE_POLICY
+ * @see act.conf.AppConfigKey#JOB_MISFIRE_THRESHOLD
+ */
+public enum MisfirePolicy {
+    /**
+     * Run the misfired job immediately
+     */
+    FIRE_NOW,
+
+    /**
+     * Discard the misfired job
+     */
+    SKIP() {
+        @Override
+        public boolean shallFire(long lateness, long threshold) {
+            return lateness <= threshold;
+        }
+    };
+
+    /**
+     * Check if a job shall be fired given the lateness of the job
+     *
+     * @param lateness
+     *      the time in milliseconds the job is late from its due time
+     * @param threshold
+     *      the misfire threshold in milliseconds
+     * @return `true` if the job shall be fired or `false` otherwise
+     */
+    public boolean shallFire(long lateness, long threshold) {
+        return true;
+    }
+
+    public static MisfirePolicy valueOfIgnoreCase(String s) {
+        s = S.string(s).trim();
+        for (MisfirePolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(s)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+}
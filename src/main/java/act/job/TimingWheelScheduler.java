@@ -0,0 +1,419 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.E;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link ScheduledExecutorService} implementation backed by a hashed
+ * hierarchical timing wheel.
+ *
+ * Compared to {@link ScheduledThreadPoolExecutor}, which keeps tasks in a
+ * binary heap guarded by a single lock, scheduling and cancelling a task in
+ * the timing wheel is `O(1)` and lock free: new and cancelled tasks are put
+ * into concurrent queues and processed by the ticker thread on the next tick.
+ * The price is the timing resolution, which is limited to the tick duration.
+ *
+ * Expired tasks are executed by a separate execution pool so that the ticker
+ * thread is never blocked by task execution.
+ *
+ * @see act.conf.AppConfigKey#JOB_TIMING_WHEEL_ENABLED
+ */
+public class TimingWheelScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private static final int ST_WAITING = 0;
+    private static final int ST_QUEUED = 1;
+    private static final int ST_DONE = 2;
+
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final int levels;
+    private final long maxSpan;
+    private final Bucket[][] wheels;
+    private final Queue<Task<?>> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Task<?>> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ExecutorService executor;
+    private final Thread ticker;
+    private final long startNanos;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean shutdown;
+
+    // accessed by ticker thread only
+    private long tick;
+
+    /**
+     * Construct a timing wheel scheduler.
+     *
+     * @param tick the tick duration
+     * @param unit the time unit of `tick`
+     * @param wheelSize the number of buckets per wheel, rounded up to power of 2
+     * @param levels the number of wheels in the hierarchy
+     * @param executor the execution pool
+     * @param threadFactory the thread factory to create the ticker thread
+     */
+    public TimingWheelScheduler(long tick, TimeUnit unit, int wheelSize, int levels, ExecutorService executor, ThreadFactory threadFactory) {
+        E.illegalArgumentIf(tick < 1, "tick duration shall be positive number");
+        E.illegalArgumentIf(wheelSize < 2 || wheelSize > (1 << 16), "wheel size shall be between 2 and 65536");
+        E.illegalArgumentIf(levels < 1 || levels > 8, "levels shall be between 1 and 8");
+        this.tickNanos = unit.toNanos(tick);
+        this.wheelBits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.levels = Math.min(levels, 62 / wheelBits);
+        this.maxSpan = 1L << (wheelBits * this.levels);
+        this.wheels = new Bucket[this.levels][];
+        for (int i = 0; i < this.levels; ++i) {
+            Bucket[] wheel = new Bucket[wheelMask + 1];
+            for (int j = 0; j < wheel.length; ++j) {
+                wheel[j] = new Bucket();
+            }
+            wheels[i] = wheel;
+        }
+        this.executor = $.notNull(executor);
+        this.startNanos = System.nanoTime();
+        this.ticker = threadFactory.newThread(new Ticker());
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Returns the number of tasks scheduled and not yet expired or cancelled
+     * @return the number of tasks waiting
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Returns the tick duration in milliseconds
+     * @return the tick duration
+     */
+    public long tickMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+
+    /**
+     * Returns the execution pool
+     * @return the executor that runs expired tasks
+     */
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return enqueue(new Task<Void>(command, null, deadline(delay, unit), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return enqueue(new Task<V>(callable, deadline(delay, unit), 0));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        E.illegalArgumentIf(period <= 0, "period shall be positive number");
+        return enqueue(new Task<Void>(command, null, deadline(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        E.illegalArgumentIf(delay <= 0, "delay shall be positive number");
+        return enqueue(new Task<Void>(command, null, deadline(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        E.illegalStateIf(shutdown, "scheduler is shutdown");
+        executor.execute(command);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(ticker);
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        List<Runnable> list = new ArrayList<>();
+        Task<?> task;
+        while (null != (task = pending.poll())) {
+            list.add(task);
+        }
+        list.addAll(executor.shutdownNow());
+        return list;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && terminated.getCount() == 0 && executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!terminated.await(timeout, unit)) {
+            return false;
+        }
+        return executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private long deadline(long delay, TimeUnit unit) {
+        return System.nanoTime() + Math.max(0L, unit.toNanos(delay));
+    }
+
+    private <V> Task<V> enqueue(Task<V> task) {
+        E.illegalStateIf(shutdown, "scheduler is shutdown");
+        size.incrementAndGet();
+        pending.add(task);
+        return task;
+    }
+
+    private long tickOf(long deadlineNanos) {
+        long elapsed = deadlineNanos - startNanos;
+        return (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    // -- ticker thread methods
+
+    private void place(Task<?> task) {
+        long diff = task.deadlineTick - tick;
+        if (diff <= 0) {
+            expire(task);
+            return;
+        }
+        long target = task.deadlineTick;
+        if (diff >= maxSpan) {
+            // out of range, park it in the top level and cascade again later
+            target = tick + maxSpan - 1;
+            diff = maxSpan - 1;
+        }
+        int level = 0;
+        while (diff >= (1L << (wheelBits * (level + 1)))) {
+            level++;
+        }
+        int idx = (int) ((target >>> (wheelBits * level)) & wheelMask);
+        wheels[level][idx].add(task);
+    }
+
+    private void expire(Task<?> task) {
+        if (task.state != ST_QUEUED) {
+            return;
+        }
+        task.state = ST_DONE;
+        size.decrementAndGet();
+        if (task.isCancelled()) {
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.cancel(false);
+        }
+    }
+
+    private void advance() {
+        tick++;
+        Task<?> task;
+        while (null != (task = cancelled.poll())) {
+            if (null != task.bucket) {
+                task.bucket.remove(task);
+                task.state = ST_DONE;
+                size.decrementAndGet();
+            }
+        }
+        while (null != (task = pending.poll())) {
+            if (task.isCancelled()) {
+                size.decrementAndGet();
+                continue;
+            }
+            task.deadlineTick = tickOf(task.deadlineNanos);
+            task.state = ST_QUEUED;
+            place(task);
+        }
+        // cascade tasks from higher level wheels, top down
+        int cascadeLevels = 0;
+        for (int level = 1; level < levels; ++level) {
+            if ((tick & ((1L << (wheelBits * level)) - 1)) != 0) {
+                break;
+            }
+            cascadeLevels = level;
+        }
+        for (int level = cascadeLevels; level > 0; --level) {
+            int idx = (int) ((tick >>> (wheelBits * level)) & wheelMask);
+            Task<?> head = wheels[level][idx].clear();
+            while (null != head) {
+                Task<?> next = head.next;
+                head.next = null;
+                place(head);
+                head = next;
+            }
+        }
+        Task<?> head = wheels[0][(int) (tick & wheelMask)].clear();
+        while (null != head) {
+            Task<?> next = head.next;
+            head.next = null;
+            expire(head);
+            head = next;
+        }
+    }
+
+    private class Ticker implements Runnable {
+        @Override
+        public void run() {
+            try {
+                while (!shutdown) {
+                    long deadline = startNanos + (tick + 1) * tickNanos;
+                    long sleep = deadline - System.nanoTime();
+                    if (sleep > 0) {
+                        LockSupport.parkNanos(TimingWheelScheduler.this, sleep);
+                        continue;
+                    }
+                    advance();
+                }
+            } finally {
+                terminated.countDown();
+            }
+        }
+    }
+
+    /**
+     * A doubly linked task list. Accessed by ticker thread only
+     */
+    private static class Bucket {
+        private Task<?> head;
+
+        void add(Task<?> task) {
+            task.bucket = this;
+            task.prev = null;
+            task.next = head;
+            if (null != head) {
+                head.prev = task;
+            }
+            head = task;
+        }
+
+        void remove(Task<?> task) {
+            if (null != task.prev) {
+                task.prev.next = task.next;
+            } else {
+                head = task.next;
+            }
+            if (null != task.next) {
+                task.next.prev = task.prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+
+        Task<?> clear() {
+            Task<?> list = head;
+            for (Task<?> t = list; null != t; t = t.next) {
+                t.bucket = null;
+                t.prev = null;
+            }
+            head = null;
+            return list;
+        }
+    }
+
+    private class Task<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        // positive: fixed rate, negative: fixed delay, zero: one shot
+        private final long period;
+        private volatile long deadlineNanos;
+
+        // accessed by ticker thread only
+        private long deadlineTick;
+        private int state = ST_WAITING;
+        private Bucket bucket;
+        private Task<?> prev;
+        private Task<?> next;
+
+        Task(Runnable runnable, V result, long deadlineNanos, long period) {
+            super(runnable, result);
+            this.deadlineNanos = deadlineNanos;
+            this.period = period;
+        }
+
+        Task(Callable<V> callable, long deadlineNanos, long period) {
+            super(callable);
+            this.deadlineNanos = deadlineNanos;
+            this.period = period;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return 0 != period;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            if (o == this) {
+                return 0;
+            }
+            long diff = getDelay(TimeUnit.NANOSECONDS) - o.getDelay(TimeUnit.NANOSECONDS);
+            return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = super.cancel(mayInterruptIfRunning);
+            if (result) {
+                cancelled.add(this);
+            }
+            return result;
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset() && !shutdown) {
+                deadlineNanos = period > 0 ? deadlineNanos + period : System.nanoTime() - period;
+                enqueue(this);
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ import act.asm.MethodVisitor;
 import act.asm.Opcodes;
 import act.asm.Type;
 import act.job.JobAnnotationProcessor;
+import act.job.JobGroup;
 import act.job.meta.JobClassMetaInfo;
 import act.job.meta.JobClassMetaInfoManager;
 import act.job.meta.JobMethodMetaInfo;
@@ -119,6 +120,7 @@ public class JobByteCodeScanner extends AppByteCodeScannerBase {
             private ActionAnnotationVisitor aav;
             private EnvAnnotationVisitor eav;
             private List<String> paramTypes;
+            private String group;
 
             JobMethodVisitor(MethodVisitor mv, int access, String methodName, String desc, String signature, String[] exceptions) {
                 super(ASM5, mv);
@@ -155,6 +157,16 @@ public class JobByteCodeScanner extends AppByteCodeScannerBase {
                     } else if (Env.isEnvAnnotation(c)) {
                         this.eav = new EnvAnnotationVisitor(av, c);
                         return this.eav;
+                    } else if (JobGroup.class == c) {
+                        return new AnnotationVisitor(ASM5, av) {
+                            @Override
+                            public void visit(String name, Object value) {
+                                if ("value".equals(name)) {
+                                    group = S.string(value);
+                                }
+                                super.visit(name, value);
+                            }
+                        };
                     }
                 } catch (Exception e) {
                     throw E.unexpected(e);
@@ -171,6 +183,7 @@ public class JobByteCodeScanner extends AppByteCodeScannerBase {
                 }
                 JobMethodMetaInfo info = methodInfo;
                 info.name(methodName);
+                info.group(group);
                 boolean isStatic = AsmTypes.isStatic(access);
                 if (isStatic) {
                     info.invokeStaticMethod();
@@ -42,6 +42,7 @@ import java.util.List;
 public class JobMethodMetaInfo extends DestroyableBase {
     private String id;
     private String name;
+    private String group;
     private InvokeType invokeType;
     private JobClassMetaInfo clsInfo;
     private ReturnTypeInfo returnType = new ReturnTypeInfo();
@@ -65,6 +66,7 @@ public class JobMethodMetaInfo extends DestroyableBase {
     private JobMethodMetaInfo(final JobClassMetaInfo clsInfo, JobMethodMetaInfo parent) {
         this.clsInfo = clsInfo;
         this.paramTypes = parent.paramTypes;
+        this.group = parent.group;
     }
 
     @Override
@@ -99,6 +101,19 @@ public class JobMethodMetaInfo extends DestroyableBase {
         return S.blank(id) ? fullName() : id;
     }
 
+    public JobMethodMetaInfo group(String group) {
+        this.group = group;
+        return this;
+    }
+
+    /**
+     * Returns the {@link act.job.JobGroup job group} name
+     * @return the job group name or `null` if not specified
+     */
+    public String group() {
+        return group;
+    }
+
     public Method method() {
         if (null == method) {
             Class<?> c = $.classForName(classInfo().className(), Act.app().classLoader());
@@ -21,6 +21,7 @@ package act.mail;
  */
 
 import act.app.ActionContext;
+import act.job.JobGroup;
 import org.osgl.$;
 import org.osgl.logging.L;
 import org.osgl.logging.Logger;
@@ -142,7 +143,7 @@ public @interface Mailer {
         }
 
         public static Future<Boolean> doSendWithoutLoadThreadLocal(final MailerContext context) {
-            return context.app().jobManager().now(new Callable<Boolean>() {
+            return context.app().jobManager().submit(JobGroup.MAILER, new Callable<Boolean>() {
                 @Override
                 public Boolean call() throws Exception {
                     return context.send();
@@ -180,7 +181,7 @@ public @interface Mailer {
                 }
                 _ctx.remove();
             }
-            return context.app().jobManager().now(new Callable<Boolean>() {
+            return context.app().jobManager().submit(JobGroup.MAILER, new Callable<Boolean>() {
                 @Override
                 public Boolean call() throws Exception {
                     return context.send();
@@ -0,0 +1,41 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * A `Gauge` reports an instantaneous value, e.g. the size of a queue
+ * or the number of active threads in a pool.
+ *
+ * Unlike counters and timers, gauges are not accumulated in the
+ * {@link MetricStore}. The value is sampled when it is queried.
+ *
+ * @see GaugeRegistry
+ */
+public interface Gauge {
+
+    /**
+     * Returns the current value of the gauge
+     *
+     * @return the value
+     */
+    long value();
+
+}
@@ -0,0 +1,86 @@
+package act.metric;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps track of registered {@link Gauge gauges}
+ */
+public final class GaugeRegistry {
+
+    private static final ConcurrentMap<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+
+    private GaugeRegistry() {}
+
+    /**
+     * Register a gauge by name. If there is a gauge registered with the same
+     * name it will be replaced
+     *
+     * @param name the gauge name, e.g. `act:job:group:mailer:queue`
+     * @param gauge the gauge
+     */
+    public static void register(String name, Gauge gauge) {
+        E.illegalArgumentIf(S.blank(name), "gauge name expected");
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Unregister a gauge by name
+     *
+     * @param name the gauge name
+     */
+    public static void unregister(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Returns the current value of a gauge
+     *
+     * @param name the gauge name
+     * @return the value of the gauge or `null` if gauge not found
+     */
+    public static Long value(String name) {
+        Gauge gauge = gauges.get(name);
+        return null == gauge ? null : gauge.value();
+    }
+
+    /**
+     * Sample all gauges registered
+     *
+     * @return a list of {@link MetricInfo} sorted by gauge name
+     */
+    public static List<MetricInfo> gauges() {
+        List<MetricInfo> list = new ArrayList<>();
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            list.add(new MetricInfo(entry.getKey(), entry.getValue().value()));
+        }
+        return C.list(list);
+    }
+}
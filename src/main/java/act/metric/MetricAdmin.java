@@ -78,6 +78,23 @@ public class MetricAdmin {
         return process(list, limit, q, tree, depth, MetricInfo.Comparator.TIMER, MetricInfoTree.TIMER);
     }
 
+    @Command(name = "act.metric.gauge.list", help = "list all gauges")
+    @PropertySpec("name,count")
+    public List<MetricInfo> getGauges(
+            @Optional("specify search string") final String q
+    ) {
+        List<MetricInfo> list = GaugeRegistry.gauges();
+        if (null == q) {
+            return list;
+        }
+        return C.list(list).filter(new $.Predicate<MetricInfo>() {
+            @Override
+            public boolean test(MetricInfo metricInfo) {
+                return metricInfo.getName().contains(q);
+            }
+        });
+    }
+
     private List<MetricInfo> withoutClassLoading(List<MetricInfo> list) {
         return C.list(list).remove(new $.Predicate<MetricInfo>() {
             @Override
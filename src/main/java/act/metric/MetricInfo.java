@@ -31,6 +31,7 @@ public class MetricInfo {
     public static final String MAILER = "act:mail";
     public static final String EVENT_HANDLER = "act:event";
     public static final String ROUTING = "act:routing";
+    public static final String ENTITY_CACHE = "act:db:cache";
     public static final String PATH_SEPARATOR = Metric.PATH_SEPARATOR;
 
     private String name;
@@ -22,8 +22,8 @@ package act.session;
 
 import act.app.App;
 import act.conf.AppConfig;
+import act.util.CachedClock;
 import act.util.DestroyableBase;
-import org.osgl.$;
 import org.osgl.http.H;
 import org.osgl.util.C;
 import org.osgl.util.Charsets;
@@ -75,7 +75,7 @@ public class DefaultSessionCodec extends DestroyableBase implements SessionCodec
         session.id(); // ensure session ID is generated
         if (sessionWillExpire && !session.contains(KEY_EXPIRATION)) {
             // session get cleared before
-            session.put(KEY_EXPIRATION, $.ms() + ttl);
+            session.put(KEY_EXPIRATION, CachedClock.ms() + ttl);
         }
         return dissolveIntoCookieContent(session, true);
     }
@@ -96,7 +96,7 @@ public class DefaultSessionCodec extends DestroyableBase implements SessionCodec
             resolveFromCookieContent(session, encodedSession, true);
             newSession = false;
         }
-        session = processExpiration(session, $.ms(), newSession, sessionWillExpire, ttl, pingPath, request);
+        session = processExpiration(session, CachedClock.ms(), newSession, sessionWillExpire, ttl, pingPath, request);
         return session;
     }
 
@@ -22,6 +22,7 @@ package act.session;
 
 import act.conf.AppConfig;
 import act.crypto.HMAC;
+import act.util.CachedClock;
 import act.util.SingletonBase;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
@@ -200,7 +201,7 @@ public class JWT extends SingletonBase {
 
     private boolean verifyExpires(JSONObject payloads) {
         Object obj = payloads.get(Payload.EXPIRES_AT.key);
-        return null != obj && obj instanceof Number && ((Number) obj).longValue() > ($.ms() / 1000);
+        return null != obj && obj instanceof Number && ((Number) obj).longValue() > (CachedClock.ms() / 1000);
     }
 
     private boolean verifyArgo(JSONObject headers) {
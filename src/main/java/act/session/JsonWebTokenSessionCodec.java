@@ -21,6 +21,7 @@ package act.session;
          */
 
 import act.conf.AppConfig;
+import act.util.CachedClock;
 import act.util.Lazy;
 import org.osgl.$;
 import org.osgl.http.H;
@@ -64,7 +65,7 @@ public class JsonWebTokenSessionCodec implements SessionCodec {
         session.id(); // ensure session ID is generated
         if (sessionWillExpire && !session.contains(KEY_EXPIRATION)) {
             // session get cleared before
-            session.put(KEY_EXPIRATION, $.ms() + ttl * 1000);
+            session.put(KEY_EXPIRATION, CachedClock.ms() + ttl * 1000);
         }
         return populateToken(jwt.newToken(), session).toString(jwt);
     }
@@ -86,7 +87,7 @@ public class JsonWebTokenSessionCodec implements SessionCodec {
             newSession = false;
         }
         DefaultSessionCodec.processExpiration(
-                session, $.ms(), newSession,
+                session, CachedClock.ms(), newSession,
                 sessionWillExpire, ttl, pingPath,
                 request);
         return session;
@@ -23,6 +23,7 @@ package act.util;
 import act.Act;
 import act.app.event.AppEventId;
 import act.db.AdaptiveRecord;
+import act.db.ShapedMap;
 import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.JSONObject;
 import com.alibaba.fastjson.parser.*;
@@ -70,6 +71,7 @@ public class AdaptiveRecordCodec extends SerializeFilterable implements ObjectDe
         }
 
         ParseContext context = parser.getContext();
+        Map<String, Object> map = ar.asMap();
         try {
             for (int i = 0;;++i) {
                 lexer.skipWhitespace();
@@ -140,7 +142,7 @@ public class AdaptiveRecordCodec extends SerializeFilterable implements ObjectDe
                 }
 
                 ar.putValue(key, value);
-                parser.checkMapResolve(ar.asMap(), key);
+                parser.checkMapResolve(map, key);
 
                 parser.setContext(context, value, key);
                 parser.setContext(context);
@@ -191,9 +193,6 @@ public class AdaptiveRecordCodec extends SerializeFilterable implements ObjectDe
 
             serializer.incrementIndent();
 
-            Class<?> preClazz = null;
-            ObjectSerializer preWriter = null;
-
             boolean first = true;
 
             if (out.isEnabled(SerializerFeature.WriteClassName)) {
@@ -208,119 +207,142 @@ public class AdaptiveRecordCodec extends SerializeFilterable implements ObjectDe
                 }
             }
 
-            for (Map.Entry<String, Object> entry : ar.entrySet(fieldFilter)) {
-                Object value = entry.getValue();
-
-                String entryKey = entry.getKey();
-
-                {
-                    List<PropertyPreFilter> preFilters = serializer.getPropertyPreFilters();
-                    if (preFilters != null && preFilters.size() > 0) {
-                        if (!this.applyName(serializer, object, entryKey)) {
-                            continue;
-                        }
-                    }
-                }
-                {
-                    List<PropertyPreFilter> preFilters = this.propertyPreFilters;
-                    if (preFilters != null && preFilters.size() > 0) {
-                        if (!this.applyName(serializer, object, entryKey)) {
-                            continue;
-                        }
+            WriterCache writerCache = new WriterCache();
+            Map<String, Object> kv = ar.internalMap();
+            if (kv instanceof ShapedMap) {
+                // iterate the slots directly
+                ShapedMap shaped = (ShapedMap) kv;
+                for (int i = 0, n = shaped.slots(); i < n; ++i) {
+                    if (shaped.isPresent(i)) {
+                        first = writeEntry(serializer, object, shaped.keyAt(i), shaped.valueAt(i), first, writerCache);
                     }
                 }
-
-                {
-                    List<PropertyFilter> propertyFilters = serializer.getPropertyFilters();
-                    if (propertyFilters != null && propertyFilters.size() > 0) {
-                        if (!this.apply(serializer, object, entryKey, value)) {
-                            continue;
-                        }
+                AdaptiveRecord.MetaInfo metaInfo = ar.metaInfo();
+                for (Map.Entry<String, $.Function> entry : metaInfo.fieldGetters.entrySet()) {
+                    String fieldName = entry.getKey();
+                    if (AdaptiveRecord.Util.exportField(metaInfo, fieldName, fieldFilter)) {
+                        first = writeEntry(serializer, object, fieldName, entry.getValue().apply(ar), first, writerCache);
                     }
                 }
-                {
-                    List<PropertyFilter> propertyFilters = this.propertyFilters;
-                    if (propertyFilters != null && propertyFilters.size() > 0) {
-                        if (!this.apply(serializer, object, entryKey, value)) {
-                            continue;
-                        }
-                    }
+            } else {
+                for (Map.Entry<String, Object> entry : ar.entrySet(fieldFilter)) {
+                    first = writeEntry(serializer, object, entry.getKey(), entry.getValue(), first, writerCache);
                 }
+            }
+        } finally {
+            serializer.setContext(parent);
+        }
 
-                {
-                    List<NameFilter> nameFilters = serializer.getNameFilters();
-                    if (nameFilters != null && nameFilters.size() > 0) {
-                        entryKey = this.processKey(serializer, object, entryKey, value);
-                    }
-                }
-                {
-                    List<NameFilter> nameFilters = this.nameFilters;
-                    if (nameFilters != null && nameFilters.size() > 0) {
-                        entryKey = this.processKey(serializer, object, entryKey, value);
-                    }
-                }
+        serializer.decrementIdent();
+        if (out.isEnabled(SerializerFeature.PrettyFormat) && ar.size() > 0) {
+            serializer.println();
+        }
+        out.write('}');
+    }
 
-                {
-                    List<ValueFilter> valueFilters = serializer.getValueFilters();
-                    List<ContextValueFilter> contextValueFilters = this.contextValueFilters;
-                    if ((valueFilters != null && valueFilters.size() > 0) //
-                            || (contextValueFilters != null && contextValueFilters.size() > 0)) {
-                        value = this.processValue(serializer, null, object, entryKey, value);
-                    }
+    private boolean writeEntry(JSONSerializer serializer, Object object, String entryKey, Object value, boolean first, WriterCache writerCache) throws IOException {
+        SerializeWriter out = serializer.out;
+        {
+            List<PropertyPreFilter> preFilters = serializer.getPropertyPreFilters();
+            if (preFilters != null && preFilters.size() > 0) {
+                if (!this.applyName(serializer, object, entryKey)) {
+                    return first;
                 }
-                {
-                    List<ValueFilter> valueFilters = this.valueFilters;
-                    List<ContextValueFilter> contextValueFilters = this.contextValueFilters;
-                    if ((valueFilters != null && valueFilters.size() > 0) //
-                            || (contextValueFilters != null && contextValueFilters.size() > 0)) {
-                        value = this.processValue(serializer, null, object, entryKey, value);
-                    }
+            }
+        }
+        {
+            List<PropertyPreFilter> preFilters = this.propertyPreFilters;
+            if (preFilters != null && preFilters.size() > 0) {
+                if (!this.applyName(serializer, object, entryKey)) {
+                    return first;
                 }
+            }
+        }
 
-                if (value == null) {
-                    if (!out.isEnabled(SerializerFeature.WRITE_MAP_NULL_FEATURES)) {
-                        continue;
-                    }
+        {
+            List<PropertyFilter> propertyFilters = serializer.getPropertyFilters();
+            if (propertyFilters != null && propertyFilters.size() > 0) {
+                if (!this.apply(serializer, object, entryKey, value)) {
+                    return first;
+                }
+            }
+        }
+        {
+            List<PropertyFilter> propertyFilters = this.propertyFilters;
+            if (propertyFilters != null && propertyFilters.size() > 0) {
+                if (!this.apply(serializer, object, entryKey, value)) {
+                    return first;
                 }
+            }
+        }
 
-                String key = entryKey;
+        {
+            List<NameFilter> nameFilters = serializer.getNameFilters();
+            if (nameFilters != null && nameFilters.size() > 0) {
+                entryKey = this.processKey(serializer, object, entryKey, value);
+            }
+        }
+        {
+            List<NameFilter> nameFilters = this.nameFilters;
+            if (nameFilters != null && nameFilters.size() > 0) {
+                entryKey = this.processKey(serializer, object, entryKey, value);
+            }
+        }
 
-                if (!first) {
-                    out.write(',');
-                }
+        {
+            List<ValueFilter> valueFilters = serializer.getValueFilters();
+            List<ContextValueFilter> contextValueFilters = this.contextValueFilters;
+            if ((valueFilters != null && valueFilters.size() > 0) //
+                    || (contextValueFilters != null && contextValueFilters.size() > 0)) {
+                value = this.processValue(serializer, null, object, entryKey, value);
+            }
+        }
+        {
+            List<ValueFilter> valueFilters = this.valueFilters;
+            List<ContextValueFilter> contextValueFilters = this.contextValueFilters;
+            if ((valueFilters != null && valueFilters.size() > 0) //
+                    || (contextValueFilters != null && contextValueFilters.size() > 0)) {
+                value = this.processValue(serializer, null, object, entryKey, value);
+            }
+        }
 
-                if (out.isEnabled(SerializerFeature.PrettyFormat)) {
-                    serializer.println();
-                }
-                out.writeFieldName(key, true);
+        if (value == null) {
+            if (!out.isEnabled(SerializerFeature.WRITE_MAP_NULL_FEATURES)) {
+                return first;
+            }
+        }
 
-                first = false;
+        String key = entryKey;
 
-                if (value == null) {
-                    out.writeNull();
-                    continue;
-                }
+        if (!first) {
+            out.write(',');
+        }
 
-                Class<?> clazz = value.getClass();
+        if (out.isEnabled(SerializerFeature.PrettyFormat)) {
+            serializer.println();
+        }
+        out.writeFieldName(key, true);
 
-                if (clazz == preClazz) {
-                    preWriter.write(serializer, value, entryKey, null, 0);
-                } else {
-                    preClazz = clazz;
-                    preWriter = serializer.getObjectWriter(clazz);
+        first = false;
 
-                    preWriter.write(serializer, value, entryKey, null, 0);
-                }
-            }
-        } finally {
-            serializer.setContext(parent);
+        if (value == null) {
+            out.writeNull();
+            return first;
         }
 
-        serializer.decrementIdent();
-        if (out.isEnabled(SerializerFeature.PrettyFormat) && ar.size() > 0) {
-            serializer.println();
+        Class<?> clazz = value.getClass();
+
+        if (clazz != writerCache.clazz) {
+            writerCache.clazz = clazz;
+            writerCache.writer = serializer.getObjectWriter(clazz);
         }
-        out.write('}');
+        writerCache.writer.write(serializer, value, entryKey, null, 0);
+        return false;
+    }
+
+    private static class WriterCache {
+        Class<?> clazz;
+        ObjectSerializer writer;
     }
 
     public int getFastMatchToken() {
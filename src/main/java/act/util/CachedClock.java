@@ -0,0 +1,172 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.app.AppThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A coarse-grained clock that caches current time in milliseconds.
+ *
+ * The cached time is updated by a single ticker thread every `resolution`
+ * milliseconds, so that hot paths like timestamp generation and session expiry
+ * check read a volatile field instead of calling `System.currentTimeMillis()`.
+ *
+ * When resolution is set to `0` the clock reads system time directly.
+ *
+ * A thread can fix the time returned by {@link #batchMs()} during a batch
+ * operation with {@link #startBatch()}, so that all entities saved in the
+ * batch share the same timestamp.
+ */
+public final class CachedClock {
+
+    /**
+     * The default resolution in milliseconds
+     */
+    public static final int DEFAULT_RESOLUTION = 1;
+
+    private static volatile int resolution = DEFAULT_RESOLUTION;
+    private static volatile long now = System.currentTimeMillis();
+    private static volatile Thread ticker;
+
+    private static final ThreadLocal<long[]> BATCH = new ThreadLocal<>();
+
+    private CachedClock() {
+    }
+
+    /**
+     * Returns the cached current time in milliseconds
+     * @return current time in milliseconds
+     */
+    public static long ms() {
+        if (resolution <= 0) {
+            return System.currentTimeMillis();
+        }
+        if (null == ticker) {
+            startTicker();
+        }
+        return now;
+    }
+
+    /**
+     * Returns the time of the current batch if the current thread is in a batch
+     * started by {@link #startBatch()}, or {@link #ms()} otherwise
+     * @return the batch time in milliseconds
+     */
+    public static long batchMs() {
+        long[] batch = BATCH.get();
+        return null == batch ? ms() : batch[0];
+    }
+
+    /**
+     * Fix the time returned by {@link #batchMs()} in the current thread
+     * until the returned batch is closed. Nested batches share the time
+     * of the outermost batch
+     *
+     * @return the batch
+     */
+    public static Batch startBatch() {
+        long[] batch = BATCH.get();
+        if (null != batch) {
+            return Batch.NESTED;
+        }
+        BATCH.set(new long[]{ms()});
+        return Batch.OUTERMOST;
+    }
+
+    /**
+     * Set the resolution of the clock
+     * @param resolution the resolution in milliseconds, `0` means reading system time directly
+     */
+    public static void resolution(int resolution) {
+        CachedClock.resolution = Math.max(0, resolution);
+        now = System.currentTimeMillis();
+    }
+
+    public static int resolution() {
+        return resolution;
+    }
+
+    /**
+     * Stop the ticker thread. The ticker is started again on demand,
+     * this method is called when app shuts down
+     */
+    public static synchronized void stop() {
+        Thread thread = ticker;
+        if (null != thread) {
+            ticker = null;
+            thread.interrupt();
+        }
+    }
+
+    private static synchronized void startTicker() {
+        if (null != ticker) {
+            return;
+        }
+        ThreadFactory factory = new AppThreadFactory("act-clock", true);
+        Thread thread = factory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    now = System.currentTimeMillis();
+                    int sleep = resolution;
+                    try {
+                        Thread.sleep(sleep <= 0 ? 100 : sleep);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                synchronized (CachedClock.class) {
+                    if (Thread.currentThread() == ticker) {
+                        ticker = null;
+                    }
+                }
+            }
+        });
+        // the ticker outlives the app, it shall not pin the app class loader
+        // inherited from the thread that starts it
+        thread.setContextClassLoader(CachedClock.class.getClassLoader());
+        now = System.currentTimeMillis();
+        thread.start();
+        ticker = thread;
+    }
+
+    /**
+     * A batch scope started by {@link #startBatch()}
+     */
+    public enum Batch {
+        OUTERMOST() {
+            @Override
+            public void close() {
+                BATCH.remove();
+            }
+        },
+        NESTED;
+
+        /**
+         * Close the batch scope
+         */
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.data.DataPropertyRepository;
+import act.data.PropertyExtractor;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import org.osgl.util.C;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Write beans into JSON string with only the properties specified in the
+ * output field list of a {@link PropertySpec}.
+ *
+ * Property values are read with {@link PropertyExtractor} instead of
+ * applying {@link FastJsonPropertyPreFilter} to every property of every
+ * bean, while the values are still written with fastjson. Properties are
+ * written in the order of the output field list and `null` values are
+ * skipped.
+ *
+ * The writer only applies to simple output field list (no patterns, no
+ * excluded fields) on a bean or a collection or array of beans that
+ * do not carry fastjson annotations.
+ *
+ * A writer {@link #compile(PropertySpec.MetaInfo, ActContext, DataPropertyRepository) compiled}
+ * from a spec can be reused across requests and threads
+ */
+public class FilteredJsonWriter {
+
+    private final DataPropertyRepository repo;
+    private final Map<String, String> labels;
+    private final List<Node> nodes = C.newList();
+    private final List<String> paths = C.newList();
+
+    private final ConcurrentMap<Class<?>, PropertyExtractor> extractors = new ConcurrentHashMap<>();
+
+    private FilteredJsonWriter(List<String> outputs, Map<String, String> labels, DataPropertyRepository repo) {
+        this.repo = repo;
+        this.labels = labels;
+        for (String output : outputs) {
+            add(output);
+        }
+    }
+
+    /**
+     * Write the result into JSON string with output fields specified.
+     *
+     * @param result the result
+     * @param spec the property spec
+     * @param context the context
+     * @return the JSON string or `null` if the writer does not apply to the result or the spec
+     */
+    public static String write(Object result, PropertySpec.MetaInfo spec, ActContext context) {
+        if (null == result) {
+            return null;
+        }
+        FilteredJsonWriter writer = compile(spec, context, context.app().service(DataPropertyRepository.class));
+        if (null == writer || !writer.applicable(result)) {
+            return null;
+        }
+        SerializeWriter out = new SerializeWriter();
+        try {
+            writer.write(result, out);
+            return out.toString();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Compile the output field list of a spec into a writer.
+     *
+     * @param spec the property spec
+     * @param context the context used to resolve the output fields and labels
+     * @param repo the data property repository
+     * @return the writer or `null` if the writer does not apply to the spec
+     */
+    public static FilteredJsonWriter compile(PropertySpec.MetaInfo spec, ActContext context, DataPropertyRepository repo) {
+        if (!spec.excludedFields(context).isEmpty()) {
+            return null;
+        }
+        List<String> outputs = spec.outputFields(context);
+        if (outputs.isEmpty() || FastJsonPropertyPreFilter.hasPattern(outputs) || outputs.contains("this")) {
+            return null;
+        }
+        return new FilteredJsonWriter(outputs, spec.labelMapping(context), repo);
+    }
+
+    /**
+     * Check if this writer can write the result.
+     *
+     * @param result the result, must not be `null`
+     * @return `true` if the result is a bean or a collection or array of beans this writer applies to
+     */
+    public boolean applicable(Object result) {
+        if (result instanceof Collection) {
+            for (Object element : (Collection) result) {
+                if (null != element && !applicable(element.getClass())) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (result.getClass().isArray()) {
+            if (result.getClass().getComponentType().isPrimitive()) {
+                return false;
+            }
+            for (Object element : (Object[]) result) {
+                if (null != element && !applicable(element.getClass())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return applicable(result.getClass());
+    }
+
+    /**
+     * Check if this writer can write beans of the type. The property
+     * extractor of an applicable type is prepared on the way so the
+     * method can be used to warm up the writer for a known type.
+     *
+     * @param type the bean type
+     * @return `true` if the type is applicable
+     */
+    public boolean applicable(Class<?> type) {
+        if (repo.isPlainJsonBeanType(type)) {
+            extractor(type);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Write the result into the serialize writer. Callers shall check
+     * {@link #applicable(Object)} first.
+     *
+     * @param result the result
+     * @param out the serialize writer
+     */
+    public void write(Object result, SerializeWriter out) {
+        JSONSerializer serializer = new JSONSerializer(out);
+        Object[] values = new Object[paths.size()];
+        if (result instanceof Collection) {
+            writeArray(((Collection<?>) result).toArray(), values, serializer, out);
+        } else if (result.getClass().isArray()) {
+            writeArray(toArray(result), values, serializer, out);
+        } else {
+            writeBean(result, values, serializer, out);
+        }
+    }
+
+    private static Object[] toArray(Object array) {
+        int len = Array.getLength(array);
+        Object[] objects = new Object[len];
+        for (int i = 0; i < len; ++i) {
+            objects[i] = Array.get(array, i);
+        }
+        return objects;
+    }
+
+    private void writeArray(Object[] beans, Object[] values, JSONSerializer serializer, SerializeWriter out) {
+        out.write('[');
+        for (int i = 0; i < beans.length; ++i) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object bean = beans[i];
+            if (null == bean) {
+                out.writeNull();
+            } else {
+                writeBean(bean, values, serializer, out);
+            }
+        }
+        out.write(']');
+    }
+
+    private void writeBean(Object bean, Object[] values, JSONSerializer serializer, SerializeWriter out) {
+        extractor(bean.getClass()).extract(bean, values);
+        writeObject(nodes, values, serializer, out);
+    }
+
+    private void writeObject(List<Node> nodes, Object[] values, JSONSerializer serializer, SerializeWriter out) {
+        out.write('{');
+        boolean first = true;
+        for (Node node : nodes) {
+            Object value = values[node.index];
+            if (null == value) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            String label = labels.get(node.name);
+            out.writeFieldName(null == label ? node.name : label);
+            if (node.whole || node.children.isEmpty()) {
+                serializer.write(value);
+            } else {
+                writeObject(node.children, values, serializer, out);
+            }
+        }
+        out.write('}');
+    }
+
+    private PropertyExtractor extractor(Class<?> type) {
+        PropertyExtractor extractor = extractors.get(type);
+        if (null == extractor) {
+            extractor = repo.extractor(type, paths);
+            extractors.putIfAbsent(type, extractor);
+        }
+        return extractor;
+    }
+
+    private void add(String output) {
+        String[] segments = output.split("\\.");
+        List<Node> level = nodes;
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < segments.length; ++i) {
+            String segment = segments[i];
+            if (i > 0) {
+                path.append('.');
+            }
+            path.append(segment);
+            Node node = find(level, segment);
+            if (null == node) {
+                node = new Node(segment, paths.size());
+                paths.add(path.toString());
+                level.add(node);
+            }
+            if (i == segments.length - 1) {
+                // the whole value of the property is required
+                node.whole = true;
+            }
+            level = node.children;
+        }
+    }
+
+    private static Node find(List<Node> nodes, String name) {
+        for (Node node : nodes) {
+            if (node.name.equals(name)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A property in the output tree. The value of the property is
+     * extracted into the value array at `index`
+     */
+    private static class Node {
+        final String name;
+        final int index;
+        boolean whole;
+        final List<Node> children = C.newList();
+
+        Node(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+    }
+}
@@ -199,18 +199,46 @@ public class IdGenerator {
 
         abstract class LongEncoderBase implements LongEncoder {
 
+            private static final ThreadLocal<char[]> BUF = new ThreadLocal<char[]>() {
+                @Override
+                protected char[] initialValue() {
+                    return new char[65];
+                }
+            };
+
             private final char[] digits;
             private final int MAX_RADIX;
             public LongEncoderBase(char[] digits) {
                 this.digits = digits;
                 this.MAX_RADIX = digits.length;
             }
+
+            public String longToStr(long l) {
+                char[] buf = BUF.get();
+                int charPos = fill(l, buf);
+                return new String(buf, charPos, (65 - charPos));
+            }
+
+            /**
+             * Encode a long value into the buffer supplied
+             * @param l the long value
+             * @param buf the buffer
+             * @param offset the position in the buffer to start writing
+             * @return the number of chars written
+             */
+            public int encode(long l, char[] buf, int offset) {
+                char[] tmp = BUF.get();
+                int charPos = fill(l, tmp);
+                int len = 65 - charPos;
+                System.arraycopy(tmp, charPos, buf, offset, len);
+                return len;
+            }
+
             /**
              * Code copied from JDK Long.toString(long, String)
              */
-            public String longToStr(long l) {
+            private int fill(long l, char[] buf) {
                 int radix = MAX_RADIX;
-                char[] buf = new char[65];
                 int charPos = 64;
                 boolean negative = (l < 0);
 
@@ -228,7 +256,7 @@ public class IdGenerator {
                     buf[--charPos] = '-';
                 }
 
-                return new String(buf, charPos, (65 - charPos));
+                return charPos;
             }
         }
     }
@@ -292,6 +320,7 @@ public class IdGenerator {
     private final NodeIdProvider nodeIdProvider;
     private final StartIdProvider startIdProvider;
     private final SequenceProvider sequenceProvider;
+    private final SnowflakeIdGenerator snowflake;
     private LongEncoder longEncoder;
 
     /**
@@ -334,6 +363,18 @@ public class IdGenerator {
         this.startIdProvider = $.notNull(startIdProvider);
         this.sequenceProvider = $.notNull(sequenceProvider);
         this.longEncoder = $.notNull(longEncoder);
+        this.snowflake = null;
+    }
+
+    /**
+     * Create an IdGenerator that generates IDs with the {@link SnowflakeIdGenerator} specified
+     */
+    public IdGenerator(SnowflakeIdGenerator snowflake, LongEncoder longEncoder) {
+        this.snowflake = $.notNull(snowflake);
+        this.longEncoder = $.notNull(longEncoder);
+        this.nodeIdProvider = null;
+        this.startIdProvider = null;
+        this.sequenceProvider = null;
     }
 
     /**
@@ -349,6 +390,7 @@ public class IdGenerator {
         this.startIdProvider = new StartIdProvider.DefaultStartIdProvider();
         this.sequenceProvider = new SequenceProvider.AtomicLongSeq();
         this.longEncoder = SAFE_ENCODER;
+        this.snowflake = null;
     }
 
     /**
@@ -364,6 +406,7 @@ public class IdGenerator {
         this.startIdProvider = new StartIdProvider.DefaultStartIdProvider(startIdFile);
         this.sequenceProvider = new SequenceProvider.AtomicLongSeq();
         this.longEncoder = SAFE_ENCODER;
+        this.snowflake = null;
     }
 
     /**
@@ -379,6 +422,7 @@ public class IdGenerator {
         this.startIdProvider = new StartIdProvider.DefaultStartIdProvider(startIdFile);
         this.sequenceProvider = new SequenceProvider.AtomicLongSeq();
         this.longEncoder = SAFE_ENCODER;
+        this.snowflake = null;
     }
 
     /**
@@ -386,6 +430,9 @@ public class IdGenerator {
      * @return generated ID
      */
     public String genId() {
+        if (null != snowflake) {
+            return longEncoder.longToStr(snowflake.nextLong());
+        }
         S.Buffer sb = S.newBuffer();
         sb.a(longEncoder.longToStr(nodeIdProvider.nodeId()))
           .a(longEncoder.longToStr(startIdProvider.startId()))
@@ -393,4 +440,30 @@ public class IdGenerator {
         return sb.toString();
     }
 
+    /**
+     * Generate a unique ID across the cluster into the buffer supplied. The buffer shall
+     * have at least 65 chars available from the offset
+     *
+     * @param buf the buffer
+     * @param offset the position in the buffer to start writing
+     * @return the number of chars written
+     */
+    public int genId(char[] buf, int offset) {
+        if (null != snowflake && longEncoder instanceof LongEncoder.LongEncoderBase) {
+            return ((LongEncoder.LongEncoderBase) longEncoder).encode(snowflake.nextLong(), buf, offset);
+        }
+        String id = genId();
+        int len = id.length();
+        id.getChars(0, len, buf, offset);
+        return len;
+    }
+
+    /**
+     * Returns the {@link SnowflakeIdGenerator} of this generator
+     * @return the snowflake ID generator or `null` if this generator is not in snowflake mode
+     */
+    public SnowflakeIdGenerator snowflake() {
+        return snowflake;
+    }
+
 }
@@ -243,6 +243,18 @@ public @interface PropertySpec {
             return C.set(spec(context).excluded());
         }
 
+        /**
+         * Returns the field specification applied to the context. The returned
+         * object compares and hashes on the output, excluded and label
+         * settings, thus can be used as cache key of the calculated results
+         *
+         * @param context the context
+         * @return the cache key
+         */
+        public Object cacheKey(ActContext context) {
+            return spec(context);
+        }
+
         public String label(String field, ActContext context) {
             String lbl = spec(context).labels().get(field);
             return null == lbl ? field : lbl;
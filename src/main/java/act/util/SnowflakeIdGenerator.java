@@ -0,0 +1,277 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generate 64 bit IDs composed of timestamp, node ID and sequence, a.k.a Snowflake IDs.
+ *
+ * The bit layout is configurable, the default layout is `41,10,12`, i.e.
+ *
+ * * 41 bits of milliseconds since {@link #DEFAULT_EPOCH}
+ * * 10 bits of node ID
+ * * 12 bits of sequence within a millisecond
+ *
+ * The last issued timestamp and sequence are packed into one `AtomicLong`, so
+ * IDs are generated without locking and without object allocation. When the
+ * sequence of a millisecond is exhausted, or the system clock moves backwards,
+ * the generator keeps issuing IDs on its logical clock by borrowing the next
+ * milliseconds. If borrowing takes the logical clock more than `maxBackwardMillis`
+ * ahead of the system clock then the generator waits for the system clock to
+ * catch up, while if the system clock steps back by more than `maxBackwardMillis`
+ * the generator fails with `IllegalStateException` instead of blocking until the
+ * clock catches up. Thus IDs are never duplicated within a node.
+ *
+ * IDs are unique across nodes only if each node has a distinct node ID that
+ * fits in the node bits. The node ID is never truncated, an ID out of range
+ * is rejected.
+ */
+public class SnowflakeIdGenerator {
+
+    /**
+     * The default epoch: 2016-05-10T00:00:00Z
+     */
+    public static final long DEFAULT_EPOCH = 1462838400000L;
+
+    /**
+     * The default max milliseconds the logical clock can be ahead of system clock
+     */
+    public static final long DEFAULT_MAX_BACKWARD_MILLIS = 1000L;
+
+    private final int timestampBits;
+    private final int nodeBits;
+    private final int sequenceBits;
+    private final long nodeId;
+    private final long epoch;
+    private final long maxBackwardMillis;
+
+    private final int timestampShift;
+    private final long nodePart;
+    private final long sequenceMask;
+    private final long maxTimestamp;
+
+    // (timestamp << sequenceBits) | sequence of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Construct a generator with default `41,10,12` layout
+     * @param nodeId the node ID, shall be in `[0, 1024)`
+     */
+    public SnowflakeIdGenerator(long nodeId) {
+        this(41, 10, 12, nodeId);
+    }
+
+    public SnowflakeIdGenerator(int timestampBits, int nodeBits, int sequenceBits, long nodeId) {
+        this(timestampBits, nodeBits, sequenceBits, nodeId, DEFAULT_EPOCH, DEFAULT_MAX_BACKWARD_MILLIS);
+    }
+
+    /**
+     * Construct a generator
+     *
+     * @param timestampBits number of bits for the timestamp
+     * @param nodeBits number of bits for the node ID
+     * @param sequenceBits number of bits for the sequence
+     * @param nodeId the node ID
+     * @param epoch the epoch in milliseconds
+     * @param maxBackwardMillis the max milliseconds the logical clock can be ahead of system clock
+     */
+    public SnowflakeIdGenerator(int timestampBits, int nodeBits, int sequenceBits, long nodeId, long epoch, long maxBackwardMillis) {
+        E.illegalArgumentIf(timestampBits + nodeBits + sequenceBits != 63,
+                "sum of timestamp, node and sequence bits shall be 63: %s,%s,%s", timestampBits, nodeBits, sequenceBits);
+        E.illegalArgumentIf(timestampBits < 32, "timestamp bits shall not be less than 32: %s", timestampBits);
+        E.illegalArgumentIf(nodeBits < 0, "node bits shall not be negative: %s", nodeBits);
+        E.illegalArgumentIf(sequenceBits < 1, "sequence bits shall be positive: %s", sequenceBits);
+        E.illegalArgumentIf(nodeId < 0 || nodeId > maxNodeId(nodeBits), "node ID out of range: %s", nodeId);
+        E.illegalArgumentIf(maxBackwardMillis < 0, "max backward millis shall not be negative: %s", maxBackwardMillis);
+        long maxTimestamp = (1L << timestampBits) - 1;
+        long elapsed = System.currentTimeMillis() - epoch;
+        E.illegalArgumentIf(elapsed < 0 || elapsed > maxTimestamp,
+                "%s timestamp bits cannot hold the milliseconds elapsed since epoch %s", timestampBits, epoch);
+        this.timestampBits = timestampBits;
+        this.nodeBits = nodeBits;
+        this.sequenceBits = sequenceBits;
+        this.nodeId = nodeId;
+        this.epoch = epoch;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.timestampShift = nodeBits + sequenceBits;
+        this.nodePart = nodeId << sequenceBits;
+        this.sequenceMask = (1L << sequenceBits) - 1;
+        this.maxTimestamp = maxTimestamp;
+    }
+
+    /**
+     * Generate next ID
+     * @return the next ID
+     * @throws IllegalStateException if the system clock moved backwards by more
+     *         than `maxBackwardMillis` or the timestamp bits are exhausted
+     */
+    public long nextLong() {
+        for (;;) {
+            long last = state.get();
+            long next = next(last);
+            if (next < 0) {
+                Thread.yield();
+            } else if (state.compareAndSet(last, next)) {
+                return compose(next);
+            }
+        }
+    }
+
+    /**
+     * Fill the array with newly generated IDs. IDs in the same millisecond are
+     * reserved with one atomic operation
+     *
+     * @param dst the array to be filled
+     */
+    public void nextBatch(long[] dst) {
+        int filled = 0, len = dst.length;
+        while (filled < len) {
+            long last = state.get();
+            long first = next(last);
+            if (first < 0) {
+                Thread.yield();
+                continue;
+            }
+            long available = sequenceMask - (first & sequenceMask) + 1;
+            int n = (int) Math.min(available, len - filled);
+            if (state.compareAndSet(last, first + n - 1)) {
+                for (int i = 0; i < n; ++i) {
+                    dst[filled++] = compose(first + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the last issued ID
+     * @return the last ID
+     */
+    public long last() {
+        return compose(state.get());
+    }
+
+    public long timestampOf(long id) {
+        return (id >>> timestampShift) + epoch;
+    }
+
+    public long nodeIdOf(long id) {
+        return (id >>> sequenceBits) & maxNodeId(nodeBits);
+    }
+
+    public long sequenceOf(long id) {
+        return id & sequenceMask;
+    }
+
+    public long nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Returns the bit layout in `timestamp,node,sequence` form
+     * @return the layout
+     */
+    public String layout() {
+        return timestampBits + "," + nodeBits + "," + sequenceBits;
+    }
+
+    /**
+     * Returns current time in milliseconds. Sub class can overwrite this method to
+     * provide a different clock
+     * @return current time in milliseconds
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the state of the next ID, or `-1` if the logical clock is too far ahead of
+     * system clock because of borrowing, in which case the caller shall wait
+     */
+    private long next(long last) {
+        long now = currentTimeMillis() - epoch;
+        long lastTs = last >>> sequenceBits;
+        if (now > lastTs) {
+            if (now > maxTimestamp) {
+                throw timestampExhausted();
+            }
+            return now << sequenceBits;
+        }
+        long ahead = lastTs - now;
+        if (ahead > maxBackwardMillis) {
+            // borrowing never takes the logical clock more than
+            // maxBackwardMillis + 1 ahead, thus the system clock stepped back
+            if (ahead > maxBackwardMillis + 1) {
+                throw new IllegalStateException(S.fmt("system clock moved backwards by %sms, more than %sms allowed", ahead, maxBackwardMillis));
+            }
+            return -1;
+        }
+        if ((last & sequenceMask) < sequenceMask) {
+            return last + 1;
+        }
+        // sequence exhausted, borrow next millisecond
+        if (lastTs >= maxTimestamp) {
+            throw timestampExhausted();
+        }
+        return (lastTs + 1) << sequenceBits;
+    }
+
+    private IllegalStateException timestampExhausted() {
+        return new IllegalStateException(S.fmt("snowflake timestamp bits exhausted: %s", layout()));
+    }
+
+    private long compose(long state) {
+        return ((state >>> sequenceBits) << timestampShift) | nodePart | (state & sequenceMask);
+    }
+
+    /**
+     * Returns a generator of the layout specified in `timestamp,node,sequence` form,
+     * e.g. `41,10,12`.
+     *
+     * The node ID must fit in the node bits of the layout, e.g. `[0, 1024)` for
+     * the default layout. Truncating a longer ID, e.g. one derived from the full
+     * IP address, could give two nodes the same ID, thus an explicit node ID shall
+     * be configured in that case.
+     *
+     * @param layout the layout
+     * @param nodeId the node ID
+     * @return the generator
+     * @throws IllegalArgumentException if the layout is invalid or the node ID does not fit
+     */
+    public static SnowflakeIdGenerator of(String layout, long nodeId) {
+        String[] sa = layout.split("[,\\s]+");
+        E.illegalArgumentIf(sa.length != 3, "invalid snowflake layout: %s", layout);
+        int timestampBits = Integer.parseInt(sa[0]);
+        int nodeBits = Integer.parseInt(sa[1]);
+        int sequenceBits = Integer.parseInt(sa[2]);
+        E.illegalArgumentIf(nodeId < 0 || nodeId > maxNodeId(nodeBits),
+                "node ID %s does not fit in %s node bits, please configure a node ID provider " +
+                        "returning a distinct ID in [0, %s] for each node", nodeId, nodeBits, maxNodeId(nodeBits));
+        return new SnowflakeIdGenerator(timestampBits, nodeBits, sequenceBits, nodeId);
+    }
+
+    private static long maxNodeId(int nodeBits) {
+        return (1L << nodeBits) - 1;
+    }
+}
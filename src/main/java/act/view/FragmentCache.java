@@ -0,0 +1,135 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.Act;
+import act.app.App;
+import org.osgl.cache.CacheService;
+import org.osgl.util.E;
+import org.osgl.util.S;
+import org.rythmengine.utils.Time;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Cache rendered template fragments.
+ *
+ * A fragment is identified by a name and a list of key values, e.g.
+ * the name `product-list` and the key values `[category, page]`. Evicting
+ * a fragment name replaces its generation token so that all fragments cached
+ * under that name, no matter of the key values, are invalidated at once.
+ * The generation token is kept in the cache service, thus eviction applies
+ * to all nodes sharing the cache service and survives restart.
+ *
+ * Note fragment cache is bypassed in dev mode.
+ */
+@Singleton
+public class FragmentCache {
+
+    public static final String CACHE_NAME = "act.view.fragment";
+
+    // fragments cached under an expired generation token are simply missed
+    private static final int GENERATION_TTL = 24 * 60 * 60;
+
+    private CacheService cache;
+
+    @Inject
+    public FragmentCache(App app) {
+        this.cache = app.cache(CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached fragment by name and key values
+     *
+     * @param name the fragment name
+     * @param keys the key values
+     * @return the cached fragment or `null` if not found
+     */
+    public String get(String name, Object... keys) {
+        if (Act.isDev()) {
+            return null;
+        }
+        return cache.get(key(name, keys));
+    }
+
+    /**
+     * Cache a fragment
+     *
+     * @param name the fragment name
+     * @param content the fragment content
+     * @param ttl the time to live in duration expression, e.g. `10mn`, `1h`
+     * @param keys the key values
+     */
+    public void put(String name, String content, String ttl, Object... keys) {
+        put(name, content, S.blank(ttl) ? 60 * 60 : Time.parseDuration(ttl), keys);
+    }
+
+    /**
+     * Cache a fragment
+     *
+     * @param name the fragment name
+     * @param content the fragment content
+     * @param ttl the time to live in seconds
+     * @param keys the key values
+     */
+    public void put(String name, String content, int ttl, Object... keys) {
+        if (Act.isDev() || null == content) {
+            return;
+        }
+        cache.put(key(name, keys), content, ttl);
+    }
+
+    /**
+     * Evict all fragments cached under the name
+     *
+     * @param name the fragment name
+     */
+    public void evict(String name) {
+        E.illegalArgumentIf(S.blank(name), "fragment name expected");
+        renewGeneration(name);
+    }
+
+    String key(String name, Object... keys) {
+        E.illegalArgumentIf(S.blank(name), "fragment name expected");
+        S.Buffer buf = S.buffer().append("frag:").append(name).append(':').append(generation(name));
+        for (Object key : keys) {
+            buf.append(':').append(S.string(key));
+        }
+        return buf.toString();
+    }
+
+    private String generation(String name) {
+        Object gen = cache.get(generationKey(name));
+        return null == gen ? renewGeneration(name) : S.string(gen);
+    }
+
+    private String renewGeneration(String name) {
+        String gen = S.random(8);
+        cache.put(generationKey(name), gen, GENERATION_TTL);
+        return gen;
+    }
+
+    private static String generationKey(String name) {
+        return S.concat("frag:gen:", name);
+    }
+
+}
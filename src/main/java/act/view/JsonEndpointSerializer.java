@@ -0,0 +1,183 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.controller.meta.HandlerMethodMetaInfo;
+import act.data.DataPropertyRepository;
+import act.util.ActContext;
+import act.util.FilteredJsonWriter;
+import act.util.PropertySpec;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import org.osgl.util.C;
+import org.osgl.util.S;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Serialize the value returned by an action handler into JSON bytes.
+ *
+ * One serializer is created for each action handler that returns a value.
+ * The fastjson features of the handler are resolved once, and the built-in
+ * {@link PropertySpec} of the handler is compiled into a
+ * {@link FilteredJsonWriter} on first use and primed with the declared
+ * return type. Per request work is thus limited to reading the property
+ * values and writing them out. The JSON is encoded into bytes directly
+ * from fastjson's thread local buffer and rendered with
+ * {@link RenderJsonBytes}, skipping the intermediate String.
+ *
+ * Handlers with {@link act.util.FastJsonFilter} do not have a serializer,
+ * as the filters are instantiated per request
+ */
+public class JsonEndpointSerializer {
+
+    private final PropertySpec.MetaInfo spec;
+    private final Class<?> beanType;
+    private final SerializerFeature[] features;
+
+    private volatile boolean compiled;
+    private volatile FilteredJsonWriter specWriter;
+
+    /**
+     * Construct a serializer.
+     *
+     * @param spec the built-in property spec of the endpoint, could be `null`
+     * @param returnType the declared return type of the endpoint
+     * @param features the fastjson features of the endpoint
+     */
+    public JsonEndpointSerializer(PropertySpec.MetaInfo spec, Type returnType, SerializerFeature... features) {
+        this.spec = spec;
+        this.beanType = beanType(returnType);
+        Set<SerializerFeature> featureSet = C.newSet();
+        featureSet.addAll(C.listOf(features));
+        featureSet.add(SerializerFeature.WriteDateUseDateFormat);
+        this.features = featureSet.toArray(new SerializerFeature[featureSet.size()]);
+    }
+
+    /**
+     * Serialize the value into JSON bytes.
+     *
+     * @param v the value, must not be `null`
+     * @param spec the property spec applied to the current request, could be `null`
+     * @param context the context
+     * @return the JSON bytes, or `null` if the spec cannot be applied by this serializer
+     */
+    public byte[] serialize(Object v, PropertySpec.MetaInfo spec, ActContext context) {
+        FilteredJsonWriter writer = null;
+        if (null != spec) {
+            writer = spec == this.spec ? compiledWriter(context) : FilteredJsonWriter.compile(spec, context, repo(context));
+            if (null == writer || !writer.applicable(v)) {
+                return null;
+            }
+        }
+        // keep the features in line with FilteredRenderJSON and RenderJSON respectively
+        SerializeWriter out = null == writer ? new SerializeWriter(null, JSON.DEFAULT_GENERATE_FEATURE, features) : new SerializeWriter();
+        try {
+            if (null == writer) {
+                new JSONSerializer(out).write(v);
+            } else {
+                writer.write(v, out);
+            }
+            return out.toBytes(encoding(context));
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Create a serializer for an action handler.
+     *
+     * @param handler the handler meta info
+     * @param method the handler method
+     * @param filters the fastjson filters declared on the handler
+     * @param features the fastjson features declared on the handler
+     * @return the serializer or `null` if the handler returns nothing or declares fastjson filters
+     */
+    public static JsonEndpointSerializer of(
+            HandlerMethodMetaInfo handler, Method method,
+            Class<? extends SerializeFilter>[] filters, SerializerFeature[] features
+    ) {
+        if (void.class == method.getReturnType() || (null != filters && filters.length > 0)) {
+            return null;
+        }
+        Set<SerializerFeature> featureSet = C.newSet();
+        if (null != features) {
+            featureSet.addAll(C.listOf(features));
+        }
+        if (handler.disableJsonCircularRefDetect()) {
+            featureSet.add(SerializerFeature.DisableCircularReferenceDetect);
+        }
+        return new JsonEndpointSerializer(handler.propertySpec(), method.getGenericReturnType(),
+                featureSet.toArray(new SerializerFeature[featureSet.size()]));
+    }
+
+    private FilteredJsonWriter compiledWriter(ActContext context) {
+        if (!compiled) {
+            FilteredJsonWriter writer = FilteredJsonWriter.compile(spec, context, repo(context));
+            if (null != writer && null != beanType) {
+                writer.applicable(beanType);
+            }
+            specWriter = writer;
+            compiled = true;
+        }
+        return specWriter;
+    }
+
+    private static DataPropertyRepository repo(ActContext context) {
+        return context.app().service(DataPropertyRepository.class);
+    }
+
+    private static String encoding(ActContext context) {
+        String encoding = context.config().encoding();
+        return S.blank(encoding) ? "UTF-8" : encoding;
+    }
+
+    /**
+     * Find out the concrete bean type from the declared return type,
+     * e.g. `Foo` from `Foo`, `Foo[]` or `List<Foo>`
+     */
+    private static Class<?> beanType(Type type) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            type = args.length == 1 ? args[0] : null;
+        } else if (type instanceof GenericArrayType) {
+            type = ((GenericArrayType) type).getGenericComponentType();
+        } else if (type instanceof Class && ((Class) type).isArray()) {
+            type = ((Class) type).getComponentType();
+        }
+        if (!(type instanceof Class)) {
+            return null;
+        }
+        Class<?> c = (Class) type;
+        if (c.isPrimitive() || c.isInterface() || Modifier.isAbstract(c.getModifiers())) {
+            return null;
+        }
+        return c;
+    }
+}
@@ -0,0 +1,69 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActResponse;
+import org.osgl.http.H;
+import org.osgl.mvc.result.Result;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Render JSON content that has already been encoded into bytes, e.g.
+ * by a {@link JsonEndpointSerializer}.
+ *
+ * The bytes are handed to {@link H.Response#writeContent(ByteBuffer)}
+ * directly instead of being decoded into a String and encoded again
+ * by the response
+ */
+public class RenderJsonBytes extends Result {
+
+    private final ByteBuffer content;
+
+    public RenderJsonBytes(byte[] content) {
+        this(H.Status.OK, content);
+    }
+
+    public RenderJsonBytes(H.Status status, byte[] content) {
+        super(status);
+        this.content = ByteBuffer.wrap(content);
+    }
+
+    /**
+     * Returns a read only view of the encoded content
+     * @return the content
+     */
+    public ByteBuffer content() {
+        return content.asReadOnlyBuffer();
+    }
+
+    @Override
+    protected void applyMessage(H.Request request, H.Response response) {
+        if (response instanceof ActResponse) {
+            ((ActResponse) response).contentType(H.Format.JSON);
+        } else {
+            response.contentType(H.Format.JSON.contentType());
+        }
+        applyBeforeCommitHandler(request, response);
+        response.writeContent(content.duplicate());
+        applyAfterCommitHandler(request, response);
+    }
+}
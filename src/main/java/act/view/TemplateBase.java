@@ -22,10 +22,15 @@ package act.view;
 
 import act.Act;
 import act.app.ActionContext;
+import act.controller.ResponseCache;
 import act.mail.MailerContext;
 import org.osgl.http.H;
 import org.osgl.util.Charsets;
+import org.osgl.util.E;
+import org.osgl.util.IO;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Map;
 
@@ -43,7 +48,17 @@ public abstract class TemplateBase implements Template {
             exposeImplicitVariables(renderArgs, context);
         }
         beforeRender(context);
-        merge(renderArgs, context.resp());
+        H.Response response = context.resp();
+        if (supportStreaming() && !(response instanceof ResponseCache) && context.config().viewStreamingEnabled()) {
+            Writer writer = response.writer();
+            try {
+                render(renderArgs, writer);
+            } finally {
+                IO.close(writer);
+            }
+        } else {
+            merge(renderArgs, response);
+        }
     }
 
     @Override
@@ -85,6 +100,36 @@ public abstract class TemplateBase implements Template {
 
     protected abstract String render(Map<String, Object> renderArgs);
 
+    /**
+     * Sub class shall overwrite this method to return `true` if it
+     * implements {@link #render(Map, Writer)}
+     *
+     * @return `true` if this template can render into a writer directly
+     */
+    protected boolean supportStreaming() {
+        return false;
+    }
+
+    /**
+     * Render the template into the writer directly instead of buffering
+     * the whole result into a string.
+     *
+     * This method is called only when {@link #supportStreaming()} returns `true`
+     * and {@link act.conf.AppConfigKey#VIEW_STREAMING_ENABLED} is turned on. The
+     * default implementation renders the template into a string and writes
+     * it to the writer
+     *
+     * @param renderArgs the render arguments
+     * @param writer the writer to which the content rendered
+     */
+    protected void render(Map<String, Object> renderArgs, Writer writer) {
+        try {
+            writer.write(render(renderArgs));
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
     private void exposeImplicitVariables(Map<String, Object> renderArgs, ActionContext context) {
         for (ActionViewVarDef var : Act.viewManager().implicitActionViewVariables()) {
             Object val = var.eval(context);
@@ -27,12 +27,15 @@ import act.util.ActContext;
 import act.util.DestroyableBase;
 import org.osgl.$;
 import org.osgl.exception.UnexpectedException;
+import org.osgl.http.H;
 import org.osgl.util.C;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
 import javax.enterprise.context.ApplicationScoped;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static act.Destroyable.Util.tryDestroyAll;
 
@@ -45,7 +48,7 @@ public class ViewManager extends DestroyableBase {
     private Map<String, ActionViewVarDef> implicitActionViewVariables = new HashMap<>();
     private Map<String, MailerViewVarDef> implicitMailerViewVariables = new HashMap<>();
     private Map<String, VarDef> appDefined = new HashMap<>();
-    private Map<String, Template> templateCache = new HashMap<>();
+    private ConcurrentMap<TemplateKey, Template> templateCache = new ConcurrentHashMap<>();
     private boolean multiViews = false;
 
     void register(View view) {
@@ -167,9 +170,6 @@ public class ViewManager extends DestroyableBase {
                 }
             }
         }
-        if (null != template) {
-            templateCache.put(path, template);
-        }
         return template;
     }
 
@@ -182,7 +182,8 @@ public class ViewManager extends DestroyableBase {
     }
 
     private Template getTemplate(ActContext context, AppConfig config, String path) {
-        Template template = templateCache.get(path);
+        TemplateKey key = new TemplateKey(path, context.accept(), context.locale());
+        Template template = templateCache.get(key);
         if (null != template) {
             return template;
         }
@@ -206,7 +207,7 @@ public class ViewManager extends DestroyableBase {
         }
         if (null != template) {
             context.cacheTemplate(template);
-            templateCache.put(path, template);
+            templateCache.putIfAbsent(key, template);
         }
         return template;
     }
@@ -304,4 +305,43 @@ public class ViewManager extends DestroyableBase {
         }
         return true;
     }
+
+    /**
+     * Template cache key composed of template path, accept format and locale
+     */
+    static final class TemplateKey {
+        private final String path;
+        private final H.Format format;
+        private final Locale locale;
+        private final int hc;
+
+        TemplateKey(String path, H.Format format, Locale locale) {
+            this.path = path;
+            this.format = format;
+            this.locale = locale;
+            this.hc = $.hc(path, format, locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return hc;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof TemplateKey) {
+                TemplateKey that = (TemplateKey) obj;
+                return hc == that.hc && $.eq(path, that.path) && $.eq(format, that.format) && $.eq(locale, that.locale);
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return S.concat(path, "|", String.valueOf(format), "|", String.valueOf(locale));
+        }
+    }
 }
@@ -31,6 +31,7 @@ import org.rythmengine.internal.dialect.BasicRythm;
 import org.rythmengine.resource.ITemplateResource;
 import org.rythmengine.template.ITemplate;
 
+import java.io.Writer;
 import java.util.Locale;
 import java.util.Map;
 
@@ -69,6 +70,16 @@ public class RythmTemplate extends TemplateBase {
         return t.render();
     }
 
+    @Override
+    protected boolean supportStreaming() {
+        return true;
+    }
+
+    @Override
+    protected void render(Map<String, Object> renderArgs, Writer writer) {
+        template(renderArgs).render(writer);
+    }
+
     private org.rythmengine.template.ITemplate template(Map<String, Object> renderArgs) {
         if (inline) {
             TemplateClassManager tcm = engine.classes();
@@ -26,6 +26,7 @@ import act.conf.AppConfig;
 import act.view.Template;
 import act.view.VarDef;
 import act.view.View;
+import org.osgl.$;
 import org.osgl.util.C;
 import org.rythmengine.Rythm;
 import org.rythmengine.RythmEngine;
@@ -54,6 +55,9 @@ public class RythmView extends View {
     ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
     ConcurrentMap<String, String> missings = new ConcurrentHashMap<>();
 
+    // the engine of the most recently used app, saves the map lookup on the render path
+    private volatile $.T2<App, RythmEngine> current;
+
     private boolean isDev;
 
     public RythmView() {
@@ -91,11 +95,14 @@ public class RythmView extends View {
 
     @Override
     protected Template loadInlineTemplate(String content) {
-        RythmEngine engine = engines.get(Act.app());
-        return new RythmTemplate(engine, content, true);
+        return new RythmTemplate(getEngine(Act.app()), content, true);
     }
 
     public RythmEngine getEngine(App app) {
+        $.T2<App, RythmEngine> cur = current;
+        if (null != cur && cur._1 == app) {
+            return cur._2;
+        }
         RythmEngine engine = engines.get(app);
         if (null == engine) {
             RythmEngine newEngine = createEngine(app);
@@ -106,6 +113,7 @@ public class RythmView extends View {
                 newEngine.shutdown();
             }
         }
+        current = $.T2(app, engine);
         return engine;
     }
 
@@ -187,6 +195,7 @@ public class RythmView extends View {
 
     @Override
     protected void reload(App app) {
+        current = null;
         engines.remove(app);
         super.reload(app);
     }
@@ -28,6 +28,7 @@ import act.i18n.I18n;
 import act.internal.util.ResourceChecksumManager;
 import act.job.OnAppStart;
 import act.route.Router;
+import act.view.FragmentCache;
 import act.util.ActContext;
 import act.util.DestroyableBase;
 import org.osgl.$;
@@ -119,6 +120,65 @@ public class Tags extends DestroyableBase {
         }
     }
 
+    /**
+     * Cache the rendered body fragment.
+     *
+     * Usage: `@cacheFor("product-list", "10mn", category, page) {...}`
+     *
+     * where the first parameter is the fragment name, the second
+     * one is the time to live and the rest are the key values
+     *
+     * @see FragmentCache
+     */
+    public static class CacheFor extends JavaTagBase {
+
+        @Inject
+        private FragmentCache cache;
+
+        @Override
+        public String __getName() {
+            return "cacheFor";
+        }
+
+        @Override
+        protected void call(__ParameterList params, final __Body body) {
+            int paramSize = params.size();
+            E.illegalArgumentIf(paramSize < 2 || null == body);
+            Object[] values = new Object[paramSize];
+            for (int i = 0; i < paramSize; ++i) {
+                values[i] = params.get(i).value;
+            }
+            p(render(cache, values, new $.Func0<String>() {
+                @Override
+                public String apply() throws NotAppliedException, Osgl.Break {
+                    return body.render();
+                }
+            }));
+        }
+
+        /**
+         * Returns the cached fragment or render the body and cache it
+         *
+         * @param cache the fragment cache
+         * @param params the tag parameter values: name, ttl and key values
+         * @param body renders the tag body
+         * @return the fragment content
+         */
+        static String render(FragmentCache cache, Object[] params, $.Func0<String> body) {
+            E.illegalArgumentIf(params.length < 2);
+            String name = S.string(params[0]);
+            String ttl = S.string(params[1]);
+            Object[] keys = new Object[params.length - 2];
+            System.arraycopy(params, 2, keys, 0, keys.length);
+            String content = cache.get(name, keys);
+            if (null == content) {
+                content = body.apply();
+                cache.put(name, content, ttl, keys);
+            }
+            return content;
+        }
+    }
+
     // map path to resource checksum
     private static Map<String, String> checksums = new HashMap<>();
 
@@ -0,0 +1,56 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encode/decode object to/from binary websocket message.
+ *
+ * App can provide implementations to support binding binary message
+ * to `@WsAction` handler parameters and sending objects as binary message,
+ * see {@link WebSocketConnectionManager#sendBinaryToTagged(Object, String...)}
+ *
+ * @param <T> the type of the object
+ */
+public interface BinaryMessageCodec<T> {
+
+    /**
+     * Returns the type this codec encodes/decodes
+     * @return the target type
+     */
+    Class<T> targetType();
+
+    /**
+     * Decode a binary message
+     * @param message the binary message
+     * @return the object decoded
+     */
+    T decode(ByteBuffer message);
+
+    /**
+     * Encode an object into binary message
+     * @param object the object
+     * @return the binary message
+     */
+    ByteBuffer encode(T object);
+
+}
@@ -31,6 +31,11 @@ public class WebSocketAdminConsole {
     @Inject
     private WebSocketConnectionManager manager;
 
+    @Command(name = "act.ws.conn.count", help = "report total websocket connection number")
+    public int connections() {
+        return manager.connectionCount();
+    }
+
     @Command(name = "act.ws.conn.by-user", help = "report websocket connection number by user")
     public int userConnections(@Optional("specify user name") String username) {
         WebSocketConnectionRegistry registry = manager.usernameRegistry();
@@ -0,0 +1,155 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.osgl.$;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A message broadcast to a group of websocket connections.
+ *
+ * The message is encoded by the network layer once, see {@link #payload(org.osgl.Osgl.Func0)},
+ * and the encoded payload is shared by all connections receiving the message.
+ * The payload is reference counted: each pending send retains the broadcast and
+ * releases it once the send is done. When the reference count drops to zero the
+ * release callbacks registered by the network layer are called, e.g. to return
+ * a pooled buffer.
+ */
+public class WebSocketBroadcast {
+
+    private final String message;
+    private final ByteBuffer binary;
+    private final AtomicInteger refCnt = new AtomicInteger(1);
+    private volatile Object payload;
+    private Runnable releaseCallback;
+
+    public WebSocketBroadcast(String message) {
+        this.message = $.notNull(message);
+        this.binary = null;
+    }
+
+    public WebSocketBroadcast(ByteBuffer binary) {
+        this.message = null;
+        this.binary = binary.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the text message
+     * @return the message or `null` if this is a binary message
+     */
+    public String message() {
+        return message;
+    }
+
+    /**
+     * Returns the binary message. Note each call returns a new view
+     * of the shared buffer, thus it is safe to be consumed by caller
+     *
+     * @return the binary message or `null` if this is a text message
+     */
+    public ByteBuffer binary() {
+        return null == binary ? null : binary.duplicate();
+    }
+
+    public boolean isBinary() {
+        return null != binary;
+    }
+
+    /**
+     * Returns the encoded payload of the message. The encoder is called
+     * only once no matter how many connections this message is sent to
+     *
+     * @param encoder the function encodes the message
+     * @param <T> the payload type
+     * @return the encoded payload
+     */
+    public <T> T payload($.Func0<T> encoder) {
+        Object o = payload;
+        if (null == o) {
+            synchronized (this) {
+                o = payload;
+                if (null == o) {
+                    o = encoder.apply();
+                    payload = o;
+                }
+            }
+        }
+        return $.cast(o);
+    }
+
+    /**
+     * Register a callback to be called when the reference count drops to zero
+     * @param callback the callback
+     */
+    public synchronized void onRelease(Runnable callback) {
+        E.illegalStateIf(null != releaseCallback, "release callback already registered");
+        releaseCallback = callback;
+    }
+
+    /**
+     * Increase the reference count
+     * @return this broadcast
+     */
+    public WebSocketBroadcast retain() {
+        int cnt;
+        do {
+            cnt = refCnt.get();
+            E.illegalStateIf(cnt <= 0, "broadcast already released");
+        } while (!refCnt.compareAndSet(cnt, cnt + 1));
+        return this;
+    }
+
+    /**
+     * Decrease the reference count and call release callback if it drops to zero
+     */
+    public void release() {
+        int cnt = refCnt.decrementAndGet();
+        if (0 == cnt) {
+            Runnable callback;
+            synchronized (this) {
+                callback = releaseCallback;
+                releaseCallback = null;
+            }
+            if (null != callback) {
+                callback.run();
+            }
+        } else {
+            E.illegalStateIf(cnt < 0, "broadcast already released");
+        }
+    }
+
+    /**
+     * Returns the current reference count
+     * @return the reference count
+     */
+    public int refCnt() {
+        return refCnt.get();
+    }
+
+    @Override
+    public String toString() {
+        return isBinary() ? S.concat("binary[", String.valueOf(binary.remaining()), "]") : message;
+    }
+}
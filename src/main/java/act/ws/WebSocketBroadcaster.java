@@ -0,0 +1,133 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.xio.WebSocketConnection;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Fan out a {@link WebSocketBroadcast} to websocket connections.
+ *
+ * Connections are grouped by their IO executor and each group is
+ * sent in batches on the executor, so sending to a connection does
+ * not need to hop to the IO thread of the connection.
+ */
+public class WebSocketBroadcaster {
+
+    private static final Logger logger = LogManager.get(WebSocketBroadcaster.class);
+
+    private final int batchSize;
+
+    public WebSocketBroadcaster(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Broadcast a message to connections.
+     *
+     * @param message the message
+     * @param connections the connections, duplicate connections are sent only once
+     */
+    public void broadcast(String message, Collection<WebSocketConnection> connections) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        broadcast(new WebSocketBroadcast(message), connections);
+    }
+
+    /**
+     * Broadcast a message to connections.
+     *
+     * Note the broadcast is released after dispatched to all connections,
+     * thus the caller shall not release it again
+     *
+     * @param broadcast the broadcast message
+     * @param connections the connections, duplicate connections are sent only once
+     */
+    public void broadcast(WebSocketBroadcast broadcast, Collection<WebSocketConnection> connections) {
+        try {
+            Map<Executor, List<WebSocketConnection>> groups = new HashMap<>();
+            Set<WebSocketConnection> visited = connections instanceof Set ? null : new HashSet<WebSocketConnection>();
+            for (WebSocketConnection conn : connections) {
+                if (null != visited && !visited.add(conn)) {
+                    continue;
+                }
+                Executor executor = conn.ioExecutor();
+                if (null == executor) {
+                    send(conn, broadcast);
+                    continue;
+                }
+                List<WebSocketConnection> group = groups.get(executor);
+                if (null == group) {
+                    group = new ArrayList<>();
+                    groups.put(executor, group);
+                }
+                group.add(conn);
+            }
+            for (Map.Entry<Executor, List<WebSocketConnection>> entry : groups.entrySet()) {
+                Executor executor = entry.getKey();
+                List<WebSocketConnection> group = entry.getValue();
+                for (int i = 0, n = group.size(); i < n; i += batchSize) {
+                    dispatch(executor, group.subList(i, Math.min(n, i + batchSize)), broadcast);
+                }
+            }
+        } finally {
+            broadcast.release();
+        }
+    }
+
+    private void dispatch(Executor executor, final List<WebSocketConnection> batch, final WebSocketBroadcast broadcast) {
+        broadcast.retain();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (WebSocketConnection conn : batch) {
+                        send(conn, broadcast);
+                    }
+                } finally {
+                    broadcast.release();
+                }
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private static void send(WebSocketConnection conn, WebSocketBroadcast broadcast) {
+        if (conn.closed()) {
+            return;
+        }
+        try {
+            conn.send(broadcast);
+        } catch (RuntimeException e) {
+            logger.warn(e, "error sending broadcast to websocket connection");
+        }
+    }
+}
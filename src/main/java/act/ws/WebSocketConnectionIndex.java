@@ -0,0 +1,116 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.xio.WebSocketConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keep track of the {@link WebSocketConnectionRegistry registry} keys each
+ * websocket connection has been signed in.
+ *
+ * The index is shared by all registries of a {@link WebSocketConnectionManager},
+ * so that when a connection is closed it can be removed from all registries
+ * by visiting only the keys of that connection
+ */
+public class WebSocketConnectionIndex {
+
+    private final ConcurrentMap<WebSocketConnection, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Remove a connection from all registries it has been signed in
+     *
+     * @param connection the websocket connection
+     */
+    public void remove(WebSocketConnection connection) {
+        Entry entry = entries.get(connection);
+        if (null == entry) {
+            return;
+        }
+        List<WebSocketConnectionRegistry.Slot> slots;
+        synchronized (entry) {
+            if (entry.removed) {
+                return;
+            }
+            entry.removed = true;
+            entries.remove(connection, entry);
+            slots = entry.slots;
+            entry.slots = new ArrayList<>(0);
+        }
+        for (WebSocketConnectionRegistry.Slot slot : slots) {
+            slot.release();
+        }
+    }
+
+    /**
+     * Returns number of connections tracked in this index
+     * @return the connection number
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    Entry ensureEntry(WebSocketConnection connection) {
+        Entry entry = entries.get(connection);
+        if (null == entry) {
+            Entry newEntry = new Entry();
+            entry = entries.putIfAbsent(connection, newEntry);
+            if (null == entry) {
+                entry = newEntry;
+            }
+        }
+        return entry;
+    }
+
+    Entry entry(WebSocketConnection connection) {
+        return entries.get(connection);
+    }
+
+    void removeIfEmpty(WebSocketConnection connection, Entry entry) {
+        // must be called with entry lock held
+        if (entry.slots.isEmpty()) {
+            entry.removed = true;
+            entries.remove(connection, entry);
+        }
+    }
+
+    /**
+     * Records the registry slots a connection occupies. All fields
+     * are guarded by the entry itself
+     */
+    static class Entry {
+        boolean removed;
+        List<WebSocketConnectionRegistry.Slot> slots = new ArrayList<>(4);
+
+        WebSocketConnectionRegistry.Slot find(WebSocketConnectionRegistry registry, String key) {
+            for (WebSocketConnectionRegistry.Slot slot : slots) {
+                if (slot.registry() == registry && slot.key().equals(key)) {
+                    return slot;
+                }
+            }
+            return null;
+        }
+    }
+}
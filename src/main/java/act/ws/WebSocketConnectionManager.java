@@ -20,10 +20,13 @@ package act.ws;
  * #L%
  */
 
+import act.Act;
 import act.app.ActionContext;
 import act.app.App;
 import act.app.AppServiceBase;
+import act.app.event.AppEventId;
 import act.util.Stateless;
+import act.util.SubClassFinder;
 import act.xio.WebSocketConnection;
 import com.alibaba.fastjson.JSON;
 import org.osgl.$;
@@ -31,8 +34,13 @@ import org.osgl.Osgl;
 import org.osgl.http.H;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
+import org.osgl.util.C;
+import org.osgl.util.E;
 
-import java.util.Collection;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Manage {@link WebSocketConnection} through {@link WebSocketConnectionRegistry}
@@ -42,16 +50,56 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
 
     private static final Logger logger = LogManager.get(WebSocketConnectionManager.class);
 
-    private final WebSocketConnectionRegistry bySessionId = new WebSocketConnectionRegistry();
-    private final WebSocketConnectionRegistry byUsername = new WebSocketConnectionRegistry();
-    private final WebSocketConnectionRegistry byUrl = new WebSocketConnectionRegistry();
-    private final WebSocketConnectionRegistry byTag = new WebSocketConnectionRegistry();
+    private final WebSocketConnectionIndex index = new WebSocketConnectionIndex();
+    private final WebSocketConnectionRegistry bySessionId = new WebSocketConnectionRegistry(index);
+    private final WebSocketConnectionRegistry byUsername = new WebSocketConnectionRegistry(index);
+    private final WebSocketConnectionRegistry byUrl = new WebSocketConnectionRegistry(index);
+    private final WebSocketConnectionRegistry byTag = new WebSocketConnectionRegistry(index);
 
     private String wsTicketKey;
+    private final WebSocketBroadcaster broadcaster;
+    private final ConcurrentMap<Class<?>, BinaryMessageCodec<?>> binaryCodecs = new ConcurrentHashMap<>();
 
     public WebSocketConnectionManager(App app) {
         super(app);
         wsTicketKey = app.config().wsTicketKey();
+        broadcaster = new WebSocketBroadcaster(app.config().wsBroadcastBatchSize());
+        registerBinaryCodec(BYTES_CODEC);
+        registerBinaryCodec(BYTE_BUFFER_CODEC);
+    }
+
+    /**
+     * Register a {@link BinaryMessageCodec}
+     * @param codec the codec
+     */
+    public void registerBinaryCodec(BinaryMessageCodec<?> codec) {
+        binaryCodecs.put(codec.targetType(), codec);
+    }
+
+    /**
+     * Returns the {@link BinaryMessageCodec} of the type specified
+     * @param type the type
+     * @param <T> the generic type
+     * @return the codec or `null` if not found
+     */
+    public <T> BinaryMessageCodec<T> binaryCodec(Class<T> type) {
+        BinaryMessageCodec<?> codec = binaryCodecs.get(type);
+        if (null == codec && ByteBuffer.class.isAssignableFrom(type)) {
+            codec = BYTE_BUFFER_CODEC;
+        }
+        return $.cast(codec);
+    }
+
+    /**
+     * Encode an object into binary message
+     * @param data the data object
+     * @return the binary message
+     * @throws IllegalArgumentException if no codec found for the data type
+     */
+    public ByteBuffer encodeBinary(Object data) {
+        BinaryMessageCodec<Object> codec = $.cast(binaryCodec(data.getClass()));
+        E.illegalArgumentIf(null == codec, "binary codec not found for %s", data.getClass());
+        return codec.encode(data);
     }
 
     public WebSocketConnectionRegistry sessionRegistry() {
@@ -119,9 +167,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendToTagged(String message, String ... labels) {
-        for (String label : labels) {
-            sendToTagged(message, label);
-        }
+        sendToTagged(message, Arrays.asList(labels));
     }
 
     /**
@@ -130,9 +176,12 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendToTagged(String message, Collection<String> labels) {
+        // a connection tagged with multiple labels receives the message only once
+        final Set<WebSocketConnection> connections = new LinkedHashSet<>();
         for (String label : labels) {
-            sendToTagged(message, label);
+            tagRegistry().accept(label, C.F.addTo(connections));
         }
+        broadcast(message, connections);
     }
 
     /**
@@ -151,9 +200,7 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendJsonToTagged(Object data, String ... labels) {
-        for (String label : labels) {
-            sendJsonToTagged(data, label);
-        }
+        sendToTagged(JSON.toJSONString(data), labels);
     }
 
     /**
@@ -162,9 +209,44 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
      * @param labels the tag labels
      */
     public void sendJsonToTagged(Object data, Collection<String> labels) {
+        sendToTagged(JSON.toJSONString(data), labels);
+    }
+
+    /**
+     * Send binary representation of given data object to all connections
+     * tagged with any of the given labels
+     *
+     * @param data the data object, e.g. a `byte[]`, a `ByteBuffer` or an
+     *             object of a type with {@link BinaryMessageCodec} registered
+     * @param labels the tag labels
+     */
+    public void sendBinaryToTagged(Object data, String ... labels) {
+        final Set<WebSocketConnection> connections = new LinkedHashSet<>();
         for (String label : labels) {
-            sendJsonToTagged(data, label);
+            tagRegistry().accept(label, C.F.addTo(connections));
         }
+        broadcastBinary(data, connections);
+    }
+
+    /**
+     * Send binary representation of given data object to all connections
+     * connected to given URL
+     *
+     * @param data the data object
+     * @param url the url
+     */
+    public void sendBinaryToUrl(Object data, String url) {
+        broadcastBinary(data, urlRegistry().get(url));
+    }
+
+    /**
+     * Send binary representation of given data object to all connections of a user
+     *
+     * @param data the data object
+     * @param username the username
+     */
+    public void sendBinaryToUser(Object data, String username) {
+        broadcastBinary(data, usernameRegistry().get(username));
     }
 
     /**
@@ -185,6 +267,30 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
         sendToUser(JSON.toJSONString(data), username);
     }
 
+    /**
+     * Broadcast message to connections. The message is encoded once and
+     * shared by all connections
+     *
+     * @param message the message
+     * @param connections the connections
+     */
+    public void broadcast(String message, Collection<WebSocketConnection> connections) {
+        broadcaster.broadcast(message, connections);
+    }
+
+    /**
+     * Broadcast binary representation of given data object to connections.
+     *
+     * @param data the data object
+     * @param connections the connections
+     */
+    public void broadcastBinary(Object data, Collection<WebSocketConnection> connections) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        broadcaster.broadcast(new WebSocketBroadcast(encodeBinary(data)), connections);
+    }
+
     public void registerNewConnection(WebSocketConnection connection, ActionContext context) {
         bySessionId.register(context.session().id(), connection);
         String username = context.username();
@@ -198,6 +304,22 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
         byUrl.register(url, connection);
     }
 
+    /**
+     * Remove a connection from session, username, url and tag registries
+     * @param connection the websocket connection
+     */
+    public void removeConnection(WebSocketConnection connection) {
+        index.remove(connection);
+    }
+
+    /**
+     * Returns number of connections registered in this manager
+     * @return the connection count
+     */
+    public int connectionCount() {
+        return index.size();
+    }
+
     @Override
     protected void releaseResources() {
         bySessionId.destroy();
@@ -207,11 +329,52 @@ public class WebSocketConnectionManager extends AppServiceBase<WebSocketConnecti
     }
 
     private void sendToConnections(String message, WebSocketConnectionRegistry registry, String key) {
-        for (WebSocketConnection conn : registry.get(key)) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("send to websocket connection by key: %s", key);
-            }
-            conn.send(message);
+        List<WebSocketConnection> connections = registry.get(key);
+        if (logger.isTraceEnabled()) {
+            logger.trace("send to %s websocket connections by key: %s", connections.size(), key);
         }
+        broadcast(message, connections);
     }
+
+    @SubClassFinder(callOn = AppEventId.DEPENDENCY_INJECTOR_PROVISIONED)
+    public static void foundBinaryCodec(Class<? extends BinaryMessageCodec> codecClass) {
+        App app = Act.app();
+        app.getInstance(WebSocketConnectionManager.class).registerBinaryCodec(app.getInstance(codecClass));
+    }
+
+    private static final BinaryMessageCodec<byte[]> BYTES_CODEC = new BinaryMessageCodec<byte[]>() {
+        @Override
+        public Class<byte[]> targetType() {
+            return byte[].class;
+        }
+
+        @Override
+        public byte[] decode(ByteBuffer message) {
+            byte[] bytes = new byte[message.remaining()];
+            message.get(bytes);
+            return bytes;
+        }
+
+        @Override
+        public ByteBuffer encode(byte[] object) {
+            return ByteBuffer.wrap(object);
+        }
+    };
+
+    private static final BinaryMessageCodec<ByteBuffer> BYTE_BUFFER_CODEC = new BinaryMessageCodec<ByteBuffer>() {
+        @Override
+        public Class<ByteBuffer> targetType() {
+            return ByteBuffer.class;
+        }
+
+        @Override
+        public ByteBuffer decode(ByteBuffer message) {
+            return message;
+        }
+
+        @Override
+        public ByteBuffer encode(ByteBuffer object) {
+            return object;
+        }
+    };
 }
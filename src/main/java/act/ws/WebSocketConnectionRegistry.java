@@ -20,21 +20,44 @@ package act.ws;
  * #L%
  */
 
+
 import act.util.DestroyableBase;
 import act.xio.WebSocketConnection;
 import org.osgl.$;
 import org.osgl.util.C;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Organize websocket connection by string typed keys. Multiple connections
- * can be attached to the same key
+ * can be attached to the same key.
+ *
+ * Connections attached to a key are kept in an array backed bag. Removed
+ * connections leave tombstones which are compacted when the bag needs to
+ * grow or gets sparse. The keys of each connection are tracked in a
+ * {@link WebSocketConnectionIndex} which can be shared by multiple registries,
+ * so that a connection can be removed from all of them in one shot
  */
 public class WebSocketConnectionRegistry extends DestroyableBase {
-    private ConcurrentMap<String, ConcurrentMap<WebSocketConnection, WebSocketConnection>> registry = new ConcurrentHashMap<>();
+
+    private static final int INIT_BAG_CAPACITY = 4;
+
+    private final ConcurrentMap<String, Bag> registry = new ConcurrentHashMap<>();
+    private final WebSocketConnectionIndex index;
+    private final StripedCounter counter = new StripedCounter();
+
+    public WebSocketConnectionRegistry() {
+        this(new WebSocketConnectionIndex());
+    }
+
+    public WebSocketConnectionRegistry(WebSocketConnectionIndex index) {
+        this.index = $.notNull(index);
+    }
 
     /**
      * Return a list of websocket connection by key
@@ -42,8 +65,12 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
      * @return a list of websocket connection or an empty list if no websocket connection found by key
      */
     public List<WebSocketConnection> get(String key) {
-        final List<WebSocketConnection> retList = new ArrayList<>();
-        accept(key, C.F.addTo(retList));
+        Bag bag = registry.get(key);
+        if (null == bag) {
+            return new ArrayList<>();
+        }
+        final List<WebSocketConnection> retList = new ArrayList<>(bag.live);
+        accept(bag, C.F.addTo(retList));
         return retList;
     }
 
@@ -54,26 +81,9 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
      * @param visitor the visitor
      */
     public void accept(String key, $.Function<WebSocketConnection, ?> visitor) {
-        ConcurrentMap<WebSocketConnection, WebSocketConnection> connections = registry.get(key);
-        if (null == connections) {
-            return;
-        }
-        if (!connections.isEmpty()) {
-            List<WebSocketConnection> toBeCleared = null;
-            for (WebSocketConnection conn : connections.keySet()) {
-                if (conn.closed()) {
-                    if (null == toBeCleared) {
-                        toBeCleared = new ArrayList<>();
-                    }
-                    toBeCleared.add(conn);
-                    continue;
-                }
-                visitor.apply(conn);
-            }
-            if (null != toBeCleared) {
-                ConcurrentMap<WebSocketConnection, WebSocketConnection> originalCopy = registry.get(key);
-                originalCopy.keySet().removeAll(toBeCleared);
-            }
+        Bag bag = registry.get(key);
+        if (null != bag) {
+            accept(bag, visitor);
         }
     }
 
@@ -102,8 +112,22 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
      * @see #register(String, WebSocketConnection)
      */
     public void signIn(String key, WebSocketConnection connection) {
-        ConcurrentMap<WebSocketConnection, WebSocketConnection> bag = ensureConnectionList(key);
-        bag.put(connection, connection);
+        if (connection.closed()) {
+            return;
+        }
+        for (;;) {
+            WebSocketConnectionIndex.Entry entry = index.ensureEntry(connection);
+            synchronized (entry) {
+                if (entry.removed) {
+                    // the entry has just been removed from the index, retry with a new one
+                    continue;
+                }
+                if (null == entry.find(this, key)) {
+                    entry.slots.add(add(key, connection));
+                }
+                return;
+            }
+        }
     }
 
     /**
@@ -121,15 +145,9 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
      * @param connections a collection of websocket connections
      */
     public void signIn(String key, Collection<WebSocketConnection> connections) {
-        if (connections.isEmpty()) {
-            return;
-        }
-        Map<WebSocketConnection, WebSocketConnection> newMap = new HashMap<>();
         for (WebSocketConnection conn : connections) {
-            newMap.put(conn, conn);
+            signIn(key, conn);
         }
-        ConcurrentMap<WebSocketConnection, WebSocketConnection> bag = ensureConnectionList(key);
-        bag.putAll(newMap);
     }
 
     /**
@@ -156,11 +174,19 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
     }
 
     public void signOff(String key, WebSocketConnection connection) {
-        ConcurrentMap<WebSocketConnection, WebSocketConnection> connections = ensureConnectionList(key);
-        if (null == connections) {
+        WebSocketConnectionIndex.Entry entry = index.entry(connection);
+        if (null == entry) {
             return;
         }
-        connections.remove(connection);
+        synchronized (entry) {
+            Slot slot = entry.find(this, key);
+            if (null == slot) {
+                return;
+            }
+            entry.slots.remove(slot);
+            index.removeIfEmpty(connection, entry);
+            slot.release();
+        }
     }
 
     /**
@@ -170,14 +196,11 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
      * @param connections a collection of websocket connections
      */
     public void signOff(String key, Collection<WebSocketConnection> connections) {
-        if (connections.isEmpty()) {
-            return;
+        for (WebSocketConnection conn : connections) {
+            signOff(key, conn);
         }
-        ConcurrentMap<WebSocketConnection, WebSocketConnection> bag = ensureConnectionList(key);
-        bag.keySet().removeAll(connections);
     }
 
-
     /**
      * Returns the connection count in this registry.
      *
@@ -186,11 +209,7 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
      * @return the connection count
      */
     public int count() {
-        int n = 0;
-        for (ConcurrentMap<?, ?> bag : registry.values()) {
-            n += bag.size();
-        }
-        return n;
+        return (int) counter.sum();
     }
 
     /**
@@ -202,35 +221,215 @@ public class WebSocketConnectionRegistry extends DestroyableBase {
      * @return connection count by key
      */
     public int count(String key) {
-        ConcurrentMap<WebSocketConnection, WebSocketConnection> bag = registry.get(key);
-        return null == bag ? 0 : bag.size();
+        Bag bag = registry.get(key);
+        return null == bag ? 0 : bag.live;
+    }
+
+    /**
+     * Returns the number of keys in this registry
+     * @return the key count
+     */
+    public int keyCount() {
+        return registry.size();
     }
 
     @Override
     protected void releaseResources() {
-        for (ConcurrentMap<WebSocketConnection, WebSocketConnection> connections : registry.values()) {
-            for (WebSocketConnection conn : connections.keySet()) {
-                conn.destroy();
-            }
+        for (Bag bag : registry.values()) {
+            accept(bag, new $.Visitor<WebSocketConnection>() {
+                @Override
+                public void visit(WebSocketConnection connection) {
+                    connection.destroy();
+                }
+            });
         }
         registry.clear();
     }
 
-    private ConcurrentMap<WebSocketConnection, WebSocketConnection> ensureConnectionList(String key) {
-        ConcurrentMap<WebSocketConnection, WebSocketConnection> connections = registry.get(key);
-        if (null == connections) {
-            ConcurrentMap<WebSocketConnection, WebSocketConnection> newConnections = newConnectionBag();
-            connections = registry.putIfAbsent(key, newConnections);
-            if (null == connections) {
-                connections = newConnections;
+    private void accept(Bag bag, $.Function<WebSocketConnection, ?> visitor) {
+        // read size before slots, see Bag.add
+        int size = bag.size;
+        Slot[] slots = bag.slots;
+        size = Math.min(size, slots.length);
+        List<WebSocketConnection> toBeCleared = null;
+        for (int i = 0; i < size; ++i) {
+            Slot slot = slots[i];
+            if (null == slot) {
+                continue;
+            }
+            WebSocketConnection conn = slot.connection;
+            if (conn.closed()) {
+                if (null == toBeCleared) {
+                    toBeCleared = new ArrayList<>();
+                }
+                toBeCleared.add(conn);
+                continue;
+            }
+            visitor.apply(conn);
+        }
+        if (null != toBeCleared) {
+            for (WebSocketConnection conn : toBeCleared) {
+                index.remove(conn);
+            }
+        }
+    }
+
+    private Slot add(String key, WebSocketConnection connection) {
+        for (;;) {
+            Bag bag = ensureBag(key);
+            synchronized (bag) {
+                if (bag.retired) {
+                    continue;
+                }
+                return bag.add(connection);
+            }
+        }
+    }
+
+    private Bag ensureBag(String key) {
+        Bag bag = registry.get(key);
+        if (null == bag) {
+            Bag newBag = new Bag(key);
+            bag = registry.putIfAbsent(key, newBag);
+            if (null == bag) {
+                bag = newBag;
+            }
+        }
+        return bag;
+    }
+
+    /**
+     * A connection occupying a position in a {@link Bag}
+     */
+    static final class Slot {
+        private final Bag bag;
+        private final WebSocketConnection connection;
+        // guarded by bag
+        private int index;
+
+        Slot(Bag bag, WebSocketConnection connection, int index) {
+            this.bag = bag;
+            this.connection = connection;
+            this.index = index;
+        }
+
+        WebSocketConnectionRegistry registry() {
+            return bag.registry();
+        }
+
+        String key() {
+            return bag.key;
+        }
+
+        void release() {
+            synchronized (bag) {
+                bag.remove(this);
+            }
+        }
+    }
+
+    /**
+     * Array backed connection set of a key. Mutations are guarded by the
+     * bag itself, while readers iterate the slots array without locking
+     */
+    private final class Bag {
+        private final String key;
+        private volatile Slot[] slots = new Slot[INIT_BAG_CAPACITY];
+        // high water mark of the slots array, including tombstones
+        private volatile int size;
+        private volatile int live;
+        private boolean retired;
+
+        Bag(String key) {
+            this.key = key;
+        }
+
+        WebSocketConnectionRegistry registry() {
+            return WebSocketConnectionRegistry.this;
+        }
+
+        Slot add(WebSocketConnection connection) {
+            int n = size;
+            if (n == slots.length) {
+                // either squeeze out tombstones or grow
+                compact(live < (n >> 1) ? n : n << 1);
+                n = size;
+            }
+            Slot slot = new Slot(this, connection, n);
+            slots[n] = slot;
+            // publish the slot before the new size
+            size = n + 1;
+            live++;
+            counter.add(1);
+            return slot;
+        }
+
+        void remove(Slot slot) {
+            if (slot.index < 0) {
+                return;
+            }
+            slots[slot.index] = null;
+            slot.index = -1;
+            int n = --live;
+            counter.add(-1);
+            if (0 == n) {
+                retired = true;
+                registry.remove(key, this);
+            } else if (size > INIT_BAG_CAPACITY * 4 && n < (size >> 2)) {
+                compact(Math.max(INIT_BAG_CAPACITY, size >> 1));
+            }
+        }
+
+        private void compact(int capacity) {
+            // always copy into a new array so that readers holding the
+            // old one see a consistent view
+            Slot[] oldSlots = slots;
+            Slot[] newSlots = new Slot[capacity];
+            int j = 0;
+            for (int i = 0, n = size; i < n; ++i) {
+                Slot slot = oldSlots[i];
+                if (null != slot) {
+                    slot.index = j;
+                    newSlots[j++] = slot;
+                }
             }
+            slots = newSlots;
+            size = j;
         }
-        return connections;
     }
 
-    private ConcurrentMap<WebSocketConnection, WebSocketConnection> newConnectionBag() {
-        // TODO find a better strategy to keep track of the connections
-        // see http://stackoverflow.com/questions/44040637/best-practice-to-track-websocket-connections-in-java/
-        return new ConcurrentHashMap<>();
+    /**
+     * A counter spreading updates over padded cells to reduce contention
+     */
+    private static final class StripedCounter {
+        // 8 longs per cell to keep cells on different cache lines
+        private static final int PAD = 8;
+
+        private final int mask;
+        private final AtomicLongArray cells;
+
+        StripedCounter() {
+            int n = 1;
+            int cpus = Runtime.getRuntime().availableProcessors();
+            while (n < cpus) {
+                n <<= 1;
+            }
+            mask = n - 1;
+            cells = new AtomicLongArray(n * PAD);
+        }
+
+        void add(long x) {
+            long id = Thread.currentThread().getId();
+            int h = (int) (id ^ (id >>> 16));
+            cells.addAndGet((h & mask) * PAD, x);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (int i = 0, n = cells.length(); i < n; i += PAD) {
+                sum += cells.get(i);
+            }
+            return sum;
+        }
     }
 }
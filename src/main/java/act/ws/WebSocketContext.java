@@ -31,7 +31,9 @@ import org.osgl.http.H;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public class WebSocketContext extends ActContext.Base<WebSocketContext> implements WebSocketConnection {
 
@@ -40,6 +42,7 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
     private ActionContext actionContext;
     private String url;
     private String stringMessage;
+    private ByteBuffer binaryMessage;
     private boolean isJson;
     private Map<String, List<String>> queryParams;
 
@@ -92,12 +95,26 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
      * @return this context
      */
     public WebSocketContext messageReceived(String receivedMessage) {
+        this.binaryMessage = null;
         this.stringMessage = S.string(receivedMessage).trim();
         isJson = stringMessage.startsWith("{") || stringMessage.startsWith("]");
         tryParseQueryParams();
         return this;
     }
 
+    /**
+     * Called when remote end send a binary message to this connection
+     * @param receivedMessage the binary message received
+     * @return this context
+     */
+    public WebSocketContext binaryMessageReceived(ByteBuffer receivedMessage) {
+        this.binaryMessage = receivedMessage.asReadOnlyBuffer();
+        this.stringMessage = "";
+        this.isJson = false;
+        this.queryParams = new HashMap<>();
+        return this;
+    }
+
     /**
      * Tag the websocket connection hold by this context with label specified
      * @param label the label used to tag the websocket connection
@@ -116,6 +133,22 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
         return isJson;
     }
 
+    /**
+     * Check if the current message is a binary message
+     * @return `true` if the current message is binary
+     */
+    public boolean isBinary() {
+        return null != binaryMessage;
+    }
+
+    /**
+     * Returns the binary message received
+     * @return the binary message or `null` if the current message is a text message
+     */
+    public ByteBuffer binaryMessage() {
+        return null == binaryMessage ? null : binaryMessage.duplicate();
+    }
+
     /**
      * Send a message to the connection of this context
      * @param message the message to be sent
@@ -136,6 +169,17 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
         return this;
     }
 
+    /**
+     * Send binary representation of a data object to the connection of this context
+     * @param data the data to be sent, e.g. `byte[]`, `ByteBuffer` or an object
+     *             of a type with {@link BinaryMessageCodec} registered
+     * @return this context
+     */
+    public WebSocketContext sendBinaryToSelf(Object data) {
+        send(manager.encodeBinary(data));
+        return this;
+    }
+
     /**
      * Send message to all connections connected to the same URL of this context with
      * the connection of this context excluded
@@ -254,11 +298,11 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
     }
 
     private WebSocketContext sendToConnections(String message, String key, WebSocketConnectionRegistry registry, boolean excludeSelf) {
-        for (WebSocketConnection conn : registry.get(key)) {
-            if (!excludeSelf || connection != conn) {
-                conn.send(message);
-            }
+        List<WebSocketConnection> connections = registry.get(key);
+        if (excludeSelf) {
+            connections.remove(connection);
         }
+        manager.broadcast(message, connections);
         return this;
     }
 
@@ -267,6 +311,21 @@ public class WebSocketContext extends ActContext.Base<WebSocketContext> implemen
         connection.send(message);
     }
 
+    @Override
+    public void send(ByteBuffer message) {
+        connection.send(message);
+    }
+
+    @Override
+    public void send(WebSocketBroadcast message) {
+        connection.send(message);
+    }
+
+    @Override
+    public Executor ioExecutor() {
+        return connection.ioExecutor();
+    }
+
     @Override
     public void close() {
         connection.close();
@@ -22,6 +22,10 @@ package act.xio;
 
 import act.Destroyable;
 import act.conf.AppConfig;
+import act.ws.WebSocketBroadcast;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 
 /**
  * A WebSocket connection
@@ -49,6 +53,30 @@ public interface WebSocketConnection extends Destroyable {
      */
     void send(String message);
 
+    /**
+     * Send a binary message through websocket
+     * @param message the binary message
+     */
+    void send(ByteBuffer message);
+
+    /**
+     * Send a broadcast message through websocket.
+     *
+     * Implementation shall share the encoded payload of the broadcast
+     * across connections and shall {@link WebSocketBroadcast#retain() retain}
+     * the broadcast until the send is done.
+     *
+     * @param message the broadcast message
+     */
+    void send(WebSocketBroadcast message);
+
+    /**
+     * Returns the executor running the IO of this connection.
+     *
+     * @return the IO executor or `null` if not available
+     */
+    Executor ioExecutor();
+
     /**
      * Close the connection. Note if there are any `IOException`
      * raised by the underline network layer, it will be ignored
@@ -29,6 +29,7 @@ import act.controller.meta.HandlerParamMetaInfo;
 import act.handler.RequestHandlerBase;
 import act.inject.param.*;
 import act.sys.Env;
+import act.ws.BinaryMessageCodec;
 import act.ws.WebSocketConnectionManager;
 import act.ws.WebSocketContext;
 import com.alibaba.fastjson.JSON;
@@ -165,22 +166,50 @@ public abstract class WebSocketConnectionHandler extends RequestHandlerBase {
         } else {
             retVal = methodAccess.invoke(host, methodIndex, params);
         }
+        sendResult(retVal, context, connectionManager);
+    }
+
+    /**
+     * Send handler return value back to the connection: a `String` as text,
+     * an object of a type with {@link BinaryMessageCodec} registered as
+     * binary and everything else as JSON text
+     */
+    static void sendResult(Object retVal, WebSocketContext context, WebSocketConnectionManager manager) {
         if (null == retVal) {
             return;
         }
         if (retVal instanceof String) {
             context.sendToSelf((String) retVal);
+        } else if (null != manager.binaryCodec(retVal.getClass())) {
+            context.sendBinaryToSelf(retVal);
         } else {
             context.sendJsonToSelf(retVal);
         }
     }
 
+    /**
+     * Bind the binary message of the context to params not loaded yet
+     * whose type has a {@link BinaryMessageCodec} registered
+     */
+    static void bindBinaryParams(Object[] params, Class[] paramTypes, WebSocketContext context, WebSocketConnectionManager manager) {
+        for (int i = 0; i < params.length; ++i) {
+            if (null == params[i]) {
+                BinaryMessageCodec<?> codec = manager.binaryCodec(paramTypes[i]);
+                if (null != codec) {
+                    params[i] = codec.decode(context.binaryMessage());
+                }
+            }
+        }
+    }
+
     private Object[] params(WebSocketContext context) {
         if (0 == paramCount) {
             return DUMP_PARAMS;
         }
         Object[] params = paramLoaderService.loadMethodParams(host, method, context);
-        if (isSingleParam) {
+        if (context.isBinary()) {
+            bindBinaryParams(params, paramTypes, context, connectionManager);
+        } else if (isSingleParam) {
             for (int i = 0; i < paramCount; ++i) {
                 if (null == params[i]) {
                     String singleVal = context.stringMessage();
@@ -0,0 +1,254 @@
+package act.xio.undertow;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+import org.osgl.util.C;
+import org.osgl.util.E;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Write response content into buffers taken from the connection's
+ * {@link ByteBufferPool} and send them with one gathering write.
+ *
+ * Strings are encoded into UTF-8 straight into the pooled buffers, which
+ * are direct buffers unless the server is configured otherwise. The
+ * buffers are sent with a non-blocking {@link Sender} and returned to the
+ * pool in the completion callback, thus writing a response with this
+ * writer does not switch the exchange into blocking mode. Response headers
+ * are flushed together with the body buffers.
+ *
+ * A writer is not thread safe and can send only once.
+ */
+public class PooledResponseWriter {
+
+    private final HttpServerExchange exchange;
+    private final ByteBufferPool pool;
+    private final List<PooledByteBuffer> pooled = C.newList();
+    private ByteBuffer current;
+    private long length;
+    private boolean sent;
+
+    public PooledResponseWriter(HttpServerExchange exchange) {
+        this(exchange, exchange.getConnection().getByteBufferPool());
+    }
+
+    PooledResponseWriter(HttpServerExchange exchange, ByteBufferPool pool) {
+        this.exchange = exchange;
+        this.pool = pool;
+    }
+
+    /**
+     * Encode the characters into UTF-8 bytes. Unpaired surrogates are
+     * written as `?`, the same as {@link String#getBytes(java.nio.charset.Charset)}
+     *
+     * @param s the characters
+     * @return this writer
+     */
+    public PooledResponseWriter write(CharSequence s) {
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            ByteBuffer buf = ensure(4);
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                // ASCII run, bounded by the room left in the current buffer
+                int start = i;
+                int end = Math.min(len, i + buf.remaining());
+                do {
+                    buf.put((byte) c);
+                    if (++i == end) {
+                        break;
+                    }
+                    c = s.charAt(i);
+                } while (c < 0x80);
+                length += i - start;
+                continue;
+            }
+            if (c < 0x800) {
+                buf.put((byte) (0xC0 | (c >> 6)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+                length += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    buf.put((byte) (0xF0 | (cp >> 18)));
+                    buf.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buf.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buf.put((byte) (0x80 | (cp & 0x3F)));
+                    length += 4;
+                } else {
+                    buf.put((byte) '?');
+                    length += 1;
+                }
+            } else {
+                buf.put((byte) (0xE0 | (c >> 12)));
+                buf.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+                length += 3;
+            }
+            i++;
+        }
+        return this;
+    }
+
+    /**
+     * Copy the remaining bytes of the source buffer. The position of
+     * the source buffer is not changed
+     *
+     * @param src the source buffer
+     * @return this writer
+     */
+    public PooledResponseWriter write(ByteBuffer src) {
+        ByteBuffer in = src.duplicate();
+        while (in.hasRemaining()) {
+            ByteBuffer buf = ensure(1);
+            int n = Math.min(buf.remaining(), in.remaining());
+            ByteBuffer chunk = in.slice();
+            chunk.limit(n);
+            buf.put(chunk);
+            in.position(in.position() + n);
+            length += n;
+        }
+        return this;
+    }
+
+    public PooledResponseWriter write(byte[] bytes) {
+        return write(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Returns number of bytes written
+     * @return the length of the content
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Send the content in a non-blocking gathering write. The pooled
+     * buffers are released before the callback is invoked.
+     *
+     * The `Content-Length` header is set unless it has been set already
+     *
+     * @param callback the callback to be invoked when sending completes or fails
+     */
+    public void send(final IoCallback callback) {
+        E.illegalStateIf(sent, "content already sent");
+        sent = true;
+        if (!exchange.isResponseStarted() && !exchange.getResponseHeaders().contains(Headers.CONTENT_LENGTH)) {
+            exchange.setResponseContentLength(length);
+        }
+        try {
+            exchange.getResponseSender().send(buffers(), new IoCallback() {
+                @Override
+                public void onComplete(HttpServerExchange exchange, Sender sender) {
+                    release();
+                    callback.onComplete(exchange, sender);
+                }
+
+                @Override
+                public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+                    release();
+                    callback.onException(exchange, sender, exception);
+                }
+            });
+        } catch (RuntimeException e) {
+            // the callback will never be invoked
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns number of bytes of the characters encoded in UTF-8, the
+     * same as {@link #write(CharSequence)} writes
+     *
+     * @param s the characters
+     * @return the UTF-8 length
+     */
+    public static long utf8Length(CharSequence s) {
+        int len = s.length();
+        long n = len;
+        for (int i = 0; i < len; ++i) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                n += 1;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    // 4 bytes for the pair
+                    n += 2;
+                    i++;
+                }
+            } else {
+                n += 2;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Return the pooled buffers to the pool. Content not sent yet is discarded.
+     */
+    public void release() {
+        for (PooledByteBuffer buffer : pooled) {
+            buffer.close();
+        }
+        pooled.clear();
+        current = null;
+    }
+
+    /**
+     * Flip the pooled buffers for reading
+     */
+    ByteBuffer[] buffers() {
+        int size = pooled.size();
+        ByteBuffer[] buffers = new ByteBuffer[size];
+        for (int i = 0; i < size; ++i) {
+            ByteBuffer buffer = pooled.get(i).getBuffer();
+            buffer.flip();
+            buffers[i] = buffer;
+        }
+        current = null;
+        return buffers;
+    }
+
+    private ByteBuffer ensure(int room) {
+        if (null == current || current.remaining() < room) {
+            PooledByteBuffer buffer = pool.allocate();
+            pooled.add(buffer);
+            current = buffer.getBuffer();
+            current.clear();
+        }
+        return current;
+    }
+}
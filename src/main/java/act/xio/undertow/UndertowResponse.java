@@ -24,7 +24,10 @@ import act.ActResponse;
 import act.app.ActionContext;
 import act.conf.AppConfig;
 import io.undertow.io.IoCallback;
+import io.undertow.server.ExchangeCompletionListener;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.HeaderMap;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
@@ -39,7 +42,10 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.Collections;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class UndertowResponse extends ActResponse<UndertowResponse> {
     @Override
@@ -47,15 +53,20 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
         return UndertowResponse.class;
     }
 
+    private static final AttachmentKey<DisconnectListener> DISCONNECT_LISTENER = AttachmentKey.create(DisconnectListener.class);
+
     private HttpServerExchange hse;
 
     private boolean endAsync;
 
+    private int pooledWriteLimit;
+
 
     public UndertowResponse(HttpServerExchange exchange, AppConfig config) {
         super(config);
         E.NPE(exchange);
         hse = exchange;
+        pooledWriteLimit = config.pooledWriteLimit();
         header(H.Header.Names.SERVER, config.serverHeader());
     }
 
@@ -79,7 +90,11 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
     @Override
     public UndertowResponse writeContent(String s) {
         beforeWritingContent();
-        hse.getResponseSender().send(s);
+        if (pooledWritable(s)) {
+            sendPooled(pooledWriter().write(s));
+        } else {
+            hse.getResponseSender().send(s);
+        }
         afterWritingContent();
         return this;
     }
@@ -87,19 +102,50 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
     @Override
     public UndertowResponse writeContent(ByteBuffer byteBuffer) {
         beforeWritingContent();
-        hse.getResponseSender().send(byteBuffer);
+        if (pooledWritable(byteBuffer.remaining())) {
+            sendPooled(pooledWriter().write(byteBuffer));
+        } else {
+            hse.getResponseSender().send(byteBuffer);
+        }
         afterWritingContent();
         return this;
     }
 
+    /**
+     * Returns a {@link PooledResponseWriter} of this response. Results can
+     * write content into the writer and send it with
+     * {@link #sendPooled(PooledResponseWriter)}
+     *
+     * @return a writer backed by the buffer pool of the connection
+     */
+    public PooledResponseWriter pooledWriter() {
+        return new PooledResponseWriter(hse);
+    }
+
+    /**
+     * Send the content of a pooled writer without switching the exchange
+     * into blocking mode. The exchange is ended when sending completes.
+     *
+     * @param writer the writer
+     * @return this response
+     */
+    public UndertowResponse sendPooled(PooledResponseWriter writer) {
+        endAsync = true;
+        writer.send(IoCallback.END_EXCHANGE);
+        return this;
+    }
+
     @Override
     public UndertowResponse writeBinary(ISObject binary) {
         beforeWritingContent();
         File file = tryGetFileFrom(binary);
         if (null == file) {
             byte[] ba = binary.asByteArray();
-            ByteBuffer buffer = ByteBuffer.wrap(ba);
-            hse.getResponseSender().send(buffer);
+            if (pooledWritable(ba.length)) {
+                sendPooled(pooledWriter().write(ba));
+            } else {
+                hse.getResponseSender().send(ByteBuffer.wrap(ba));
+            }
         } else {
             try {
                 hse.getResponseSender().transferFrom(FileChannel.open(file.toPath()), IoCallback.END_EXCHANGE);
@@ -154,6 +200,57 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
         markClosed();
     }
 
+    @Override
+    public void onClientDisconnect(final Runnable callback) {
+        // a keep-alive connection serves many exchanges, thus we register one close
+        // listener per connection and remove the callback once the exchange completes
+        final DisconnectListener listener = disconnectListener(hse.getConnection());
+        final Runnable guarded = new Runnable() {
+            @Override
+            public void run() {
+                if (!isClosed()) {
+                    callback.run();
+                }
+            }
+        };
+        listener.callbacks.add(guarded);
+        hse.addExchangeCompleteListener(new ExchangeCompletionListener() {
+            @Override
+            public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+                listener.callbacks.remove(guarded);
+                nextListener.proceed();
+            }
+        });
+    }
+
+    private static DisconnectListener disconnectListener(ServerConnection connection) {
+        synchronized (connection) {
+            DisconnectListener listener = connection.getAttachment(DISCONNECT_LISTENER);
+            if (null == listener) {
+                listener = new DisconnectListener();
+                connection.putAttachment(DISCONNECT_LISTENER, listener);
+                connection.addCloseListener(listener);
+            }
+            return listener;
+        }
+    }
+
+    /**
+     * Invokes the disconnect callbacks of the exchanges in progress
+     * when the connection is closed
+     */
+    static class DisconnectListener implements ServerConnection.CloseListener {
+        final Set<Runnable> callbacks = Collections.newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>());
+
+        @Override
+        public void closed(ServerConnection connection) {
+            for (Runnable callback : callbacks) {
+                callback.run();
+            }
+            callbacks.clear();
+        }
+    }
+
     @Override
     public UndertowResponse header(String name, String value) {
         hse.getResponseHeaders().put(new HttpString(name), value);
@@ -189,6 +286,19 @@ public class UndertowResponse extends ActResponse<UndertowResponse> {
         }
     }
 
+    private boolean pooledWritable(long size) {
+        return 0 < pooledWriteLimit && size <= pooledWriteLimit && !hse.isBlocking();
+    }
+
+    private boolean pooledWritable(String s) {
+        int len = s.length();
+        // each char takes 1 to 3 bytes in UTF-8, count the bytes only when it matters
+        if (len > pooledWriteLimit || (long) len * 3 <= pooledWriteLimit) {
+            return pooledWritable(len);
+        }
+        return pooledWritable(PooledResponseWriter.utf8Length(s));
+    }
+
     private void ensureBlocking() {
         if (!hse.isBlocking()) {
             hse.startBlocking(new ActBlockingExchange(hse, ActionContext.current()));
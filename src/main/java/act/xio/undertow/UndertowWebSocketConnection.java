@@ -21,25 +21,51 @@ package act.xio.undertow;
  */
 
 import act.Act;
+import act.conf.AppConfig;
 import act.util.DestroyableBase;
+import act.ws.WebSocketBroadcast;
 import act.xio.WebSocketConnection;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.websockets.core.WebSocketCallback;
 import io.undertow.websockets.core.WebSocketChannel;
 import io.undertow.websockets.core.WebSockets;
 import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
 import org.osgl.http.H;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.Charsets;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class UndertowWebSocketConnection extends DestroyableBase implements WebSocketConnection {
 
+    private static final Logger logger = LogManager.get(UndertowWebSocketConnection.class);
+
     private final WebSocketChannel channel;
     private final String sessionId;
     private final String username;
 
+    // number of broadcast messages being sent
+    private final AtomicInteger pending = new AtomicInteger();
+    // the latest broadcast message to slow consumer when coalescing
+    private final AtomicReference<WebSocketBroadcast> coalesced = new AtomicReference<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final int maxPending;
+    private final boolean coalesce;
+
     public UndertowWebSocketConnection(WebSocketChannel channel, H.Session session) {
         this.channel = $.notNull(channel);
         this.sessionId = session.id();
-        this.username = session.get(Act.appConfig().sessionKeyUsername());
+        AppConfig config = Act.appConfig();
+        this.username = session.get(config.sessionKeyUsername());
+        this.maxPending = config.wsSendQueueMax();
+        this.coalesce = config.wsSlowConsumerCoalesce();
     }
 
     @Override
@@ -57,8 +83,117 @@ public class UndertowWebSocketConnection extends DestroyableBase implements WebS
         WebSockets.sendText(message, channel, null);
     }
 
+    @Override
+    public void send(ByteBuffer message) {
+        WebSockets.sendBinary(message, channel, null);
+    }
+
+    @Override
+    public void send(WebSocketBroadcast message) {
+        if (pending.get() >= maxPending) {
+            if (coalesce) {
+                WebSocketBroadcast replaced = coalesced.getAndSet(message.retain());
+                if (null != replaced) {
+                    replaced.release();
+                    dropped.incrementAndGet();
+                }
+            } else {
+                dropped.incrementAndGet();
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("slow websocket consumer, %s messages dropped", dropped.get());
+            }
+            return;
+        }
+        doSend(message.retain());
+    }
+
+    @Override
+    public Executor ioExecutor() {
+        return channel.getIoThread();
+    }
+
+    /**
+     * Returns the number of broadcast messages dropped or coalesced
+     * because this connection is a slow consumer
+     *
+     * @return the number of messages dropped
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    // the message shall be retained by caller
+    private void doSend(final WebSocketBroadcast message) {
+        pending.incrementAndGet();
+        WebSocketCallback<Void> callback = new WebSocketCallback<Void>() {
+            @Override
+            public void complete(WebSocketChannel channel, Void context) {
+                sent(message);
+            }
+
+            @Override
+            public void onError(WebSocketChannel channel, Void context, Throwable throwable) {
+                sent(message);
+            }
+        };
+        if (message.isBinary()) {
+            WebSockets.sendBinary(message.binary(), channel, callback);
+            return;
+        }
+        ByteBuffer payload = message.payload(new $.Func0<ByteBuffer>() {
+            @Override
+            public ByteBuffer apply() throws NotAppliedException, $.Break {
+                return encode(message);
+            }
+        });
+        WebSockets.sendText(payload.duplicate(), channel, callback);
+    }
+
+    private void sent(WebSocketBroadcast message) {
+        message.release();
+        if (pending.decrementAndGet() < maxPending) {
+            WebSocketBroadcast next = coalesced.getAndSet(null);
+            if (null != next) {
+                if (isDestroyed()) {
+                    next.release();
+                } else {
+                    doSend(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encode the broadcast message into a pooled buffer if it fits,
+     * the buffer is returned to pool when the broadcast is released
+     */
+    private ByteBuffer encode(WebSocketBroadcast message) {
+        byte[] bytes = message.message().getBytes(Charsets.UTF_8);
+        final PooledByteBuffer pooled = channel.getBufferPool().allocate();
+        ByteBuffer buf = pooled.getBuffer();
+        if (buf.capacity() < bytes.length) {
+            pooled.close();
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        }
+        buf.clear();
+        buf.put(bytes);
+        buf.flip();
+        message.onRelease(new Runnable() {
+            @Override
+            public void run() {
+                pooled.close();
+            }
+        });
+        return buf.asReadOnlyBuffer();
+    }
+
     @Override
     protected void releaseResources() {
+        WebSocketBroadcast next = coalesced.getAndSet(null);
+        if (null != next) {
+            next.release();
+        }
         try {
             channel.sendClose();
         } catch (IOException e) {
@@ -22,6 +22,7 @@ package act.xio.undertow;
 
 import act.Act;
 import act.app.ActionContext;
+import act.conf.AppConfig;
 import act.controller.meta.ActionMethodMetaInfo;
 import act.view.ActErrorResult;
 import act.ws.WebSocketCloseEvent;
@@ -33,13 +34,14 @@ import act.xio.WebSocketConnectionHandler;
 import io.undertow.Handlers;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.websockets.WebSocketConnectionCallback;
-import io.undertow.websockets.core.AbstractReceiveListener;
-import io.undertow.websockets.core.BufferedTextMessage;
-import io.undertow.websockets.core.StreamSourceFrameChannel;
-import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.WebSocketProtocolHandshakeHandler;
+import io.undertow.websockets.core.*;
+import io.undertow.websockets.extensions.PerMessageDeflateHandshake;
 import io.undertow.websockets.spi.WebSocketHttpExchange;
+import org.xnio.Pooled;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
 
@@ -59,7 +61,7 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
         final UndertowRequest req = (UndertowRequest) context.req();
         HttpServerExchange exchange = req.exchange();
         try {
-            Handlers.websocket(new WebSocketConnectionCallback() {
+            WebSocketProtocolHandshakeHandler handshakeHandler = Handlers.websocket(new WebSocketConnectionCallback() {
                 @Override
                 public void onConnect(WebSocketHttpExchange exchange, WebSocketChannel channel) {
                     final WebSocketConnection connection = new UndertowWebSocketConnection(channel, context.session());
@@ -81,6 +83,23 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
                             invoke(wsCtx);
                         }
 
+                        @Override
+                        protected void onFullBinaryMessage(WebSocketChannel channel, BufferedBinaryMessage message) throws IOException {
+                            WebSocketContext.current(wsCtx);
+                            Pooled<ByteBuffer[]> data = message.getData();
+                            ByteBuffer payload;
+                            try {
+                                payload = WebSockets.mergeBuffers(data.getResource());
+                            } finally {
+                                data.free();
+                            }
+                            if (logger.isTraceEnabled()) {
+                                logger.trace("websocket binary message received: %s bytes", payload.remaining());
+                            }
+                            wsCtx.binaryMessageReceived(payload);
+                            invoke(wsCtx);
+                        }
+
                         @Override
                         protected void onClose(WebSocketChannel webSocketChannel, StreamSourceFrameChannel channel) throws IOException {
                             if (logger.isTraceEnabled()) {
@@ -88,6 +107,7 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
                             }
                             WebSocketContext.current(wsCtx);
                             super.onClose(webSocketChannel, channel);
+                            connectionManager.removeConnection(connection);
                             connection.destroy();
                             context.app().eventBus().trigger(new WebSocketCloseEvent(wsCtx));
                         }
@@ -96,7 +116,12 @@ class UndertowWebSocketConnectionHandler extends WebSocketConnectionHandler {
                     Act.eventBus().trigger(new WebSocketConnectEvent(wsCtx));
                 }
 
-            }).handleRequest(exchange);
+            });
+            AppConfig config = context.config();
+            if (config.wsDeflateEnabled()) {
+                handshakeHandler.addExtension(new PerMessageDeflateHandshake(false, config.wsDeflateLevel()));
+            }
+            handshakeHandler.handleRequest(exchange);
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
@@ -222,6 +222,27 @@ public class CronExpression {
         return nextTimeAfter(afterTime, afterTime.plus(durationInMillis));
     }
 
+    /**
+     * Calculate the next `count` fire times after the time specified.
+     *
+     * This is cheaper than calling {@link #nextTimeAfter(DateTime)} repeatedly from
+     * the caller's side as it allows the caller to keep a table of fire times and
+     * only recalculate when the table is exhausted.
+     *
+     * @param afterTime the time after which the fire times are calculated
+     * @param count the number of fire times to be calculated
+     * @return a list of fire times in ascending order
+     */
+    public List<DateTime> nextTimesAfter(DateTime afterTime, int count) {
+        List<DateTime> times = new ArrayList<DateTime>(count);
+        DateTime time = afterTime;
+        for (int i = 0; i < count; ++i) {
+            time = nextTimeAfter(time);
+            times.add(time);
+        }
+        return times;
+    }
+
     public DateTime nextTimeAfter(DateTime afterTime, DateTime dateTimeBarrier) {
         MutableDateTime nextTime = new MutableDateTime(afterTime);
         nextTime.setMillisOfSecond(0);
@@ -233,15 +254,21 @@ public class CronExpression {
                     while (true) { // hour
                         while (true) { // minute
                             while (true) { // second
-                                if (secondField.matches(nextTime.getSecondOfMinute())) {
+                                int second = nextTime.getSecondOfMinute();
+                                int next = secondField.nextMatch(second);
+                                if (next == second) {
                                     break;
                                 }
-                                nextTime.secondOfDay().add(1);
+                                // jump to the next matching second, or the beginning of next minute
+                                // if there is no matching second in the current minute
+                                nextTime.secondOfDay().add(next < 0 ? 60 - second : next - second);
                             }
-                            if (minuteField.matches(nextTime.getMinuteOfHour())) {
+                            int minute = nextTime.getMinuteOfHour();
+                            int next = minuteField.nextMatch(minute);
+                            if (next == minute) {
                                 break;
                             }
-                            nextTime.minuteOfDay().add(1);
+                            nextTime.minuteOfDay().add(next < 0 ? 60 - minute : next - minute);
                             nextTime.secondOfMinute().set(0);
                         }
                         if (hourField.matches(nextTime.getHourOfDay())) {
@@ -309,9 +336,41 @@ public class CronExpression {
         final CronFieldType fieldType;
         final List<FieldPart> parts = new ArrayList<FieldPart>();
 
+        /**
+         * The compiled field: bit `n` is set if value `n` matches
+         * this field. All field values fit into a `long` as the
+         * maximum value is `59`
+         */
+        long bits;
+
+        /**
+         * `true` if this field contains date dependent parts, i.e. `L`, `W` or `#`,
+         * which cannot be compiled into {@link #bits}
+         */
+        boolean dateDependent;
+
         private BasicField(CronFieldType fieldType, String fieldExpr) {
             this.fieldType = fieldType;
             parse(fieldExpr);
+            compile();
+        }
+
+        private void compile() {
+            for (FieldPart part : parts) {
+                if ("L".equals(part.modifier) || "W".equals(part.modifier) || "#".equals(part.incrementModifier)) {
+                    dateDependent = true;
+                    continue;
+                }
+                for (int val = fieldType.from; val <= fieldType.to; ++val) {
+                    if (matches(val, part)) {
+                        bits |= 1L << val;
+                    }
+                }
+            }
+        }
+
+        final boolean matchesCompiled(int val) {
+            return val >= 0 && val < 64 && (bits & (1L << val)) != 0;
         }
 
         private void parse(String fieldExpr) { // NOSONAR
@@ -406,14 +465,21 @@ public class CronExpression {
         }
 
         public boolean matches(int val) {
-            if (val >= fieldType.from && val <= fieldType.to) {
-                for (FieldPart part : parts) {
-                    if (matches(val, part)) {
-                        return true;
-                    }
-                }
+            return matchesCompiled(val);
+        }
+
+        /**
+         * Returns the smallest matching value that is not less than `val`
+         *
+         * @param val the value to start with
+         * @return the next matching value or `-1` if not found
+         */
+        int nextMatch(int val) {
+            if (val < 0 || val > 63) {
+                return -1;
             }
-            return false;
+            long remaining = bits & (-1L << val);
+            return 0 == remaining ? -1 : Long.numberOfTrailingZeros(remaining);
         }
     }
 
@@ -424,6 +490,9 @@ public class CronExpression {
         }
 
         boolean matches(LocalDate dato) {
+            if (!dateDependent) {
+                return matchesCompiled(dato.getDayOfWeek());
+            }
             for (FieldPart part : parts) {
                 if ("L".equals(part.modifier)) {
                     return dato.getDayOfWeek() == part.from && dato.getDayOfMonth() > (dato.dayOfMonth().getMaximumValue() - DAYS_PER_WEEK);
@@ -467,6 +536,9 @@ public class CronExpression {
         }
 
         boolean matches(LocalDate dato) {
+            if (!dateDependent) {
+                return matchesCompiled(dato.getDayOfMonth());
+            }
             for (FieldPart part : parts) {
                 if ("L".equals(part.modifier)) {
                     return dato.getDayOfMonth() == (dato.dayOfMonth().getMaximumValue() - (part.from == null ? 0 : part.from));
@@ -0,0 +1,244 @@
+package act.app;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.util.C;
+import org.osgl.util.Charsets;
+import org.osgl.util.IO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NioCliSessionTest extends ActTestBase {
+
+    private static final int IAC = 255;
+    private static final int SB = 250;
+    private static final int SE = 240;
+    private static final int DO = 253;
+    private static final int NOP = 241;
+
+    private ServerSocketChannel serverChannel;
+    private SocketChannel client;
+    private NioCliTransport transport;
+    private NioCliSession session;
+    private List<Runnable> tasks = C.newList();
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = SocketChannel.open(serverChannel.socket().getLocalSocketAddress());
+        client.configureBlocking(false);
+        SocketChannel channel = serverChannel.accept();
+        channel.configureBlocking(false);
+        transport = mock(NioCliTransport.class);
+        when(transport.dispatch(any(Runnable.class))).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                tasks.add((Runnable) invocation.getArguments()[0]);
+                return true;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((NioCliSession) invocation.getArguments()[0]).terminate();
+                return null;
+            }
+        }).when(transport).dispatchTerminate(any(NioCliSession.class));
+        CliServer server = mock(CliServer.class);
+        when(server.app()).thenReturn(mockApp);
+        session = new NioCliSession(channel, transport, server);
+    }
+
+    @After
+    public void cleanup() {
+        session.terminate();
+        IO.close(client);
+        IO.close(serverChannel);
+    }
+
+    @Test
+    public void inputShallBeSplitIntoLines() {
+        receive("foo\nbar\r\nba");
+        eq("foo", session.pollLine());
+        eq("bar", session.pollLine());
+        eq(null, session.pollLine());
+        receive("z\n");
+        eq("baz", session.pollLine());
+        // one drain task is scheduled until it runs
+        eq(1, tasks.size());
+    }
+
+    @Test
+    public void telnetCommandsShallBeSkipped() {
+        receive(bytes('a', 'b', IAC, DO, 1, 'c', IAC, NOP, 'd', IAC, SB, 24, 0, 'x', 'y', IAC, SE, 'e', '\r', '\n'));
+        eq("abcde", session.pollLine());
+        receive(bytes('f', IAC, SB, 24, IAC, IAC, 'z', IAC, SE, 'g', '\n'));
+        eq("fg", session.pollLine());
+    }
+
+    @Test
+    public void escapedIacShallBeKeptInLine() {
+        receive(bytes('a', IAC, IAC, '\n'));
+        String line = session.pollLine();
+        eq(2, line.length());
+        eq('a', line.charAt(0));
+    }
+
+    @Test
+    public void tooLongLineShallStopTheSession() throws Exception {
+        byte[] bytes = new byte[NioCliSession.MAX_LINE + 1];
+        Arrays.fill(bytes, (byte) 'x');
+        receive(bytes);
+        yes(session.inputClosed());
+        eq(null, session.pollLine());
+        eq("command line too long\n", readAll());
+        verify(transport).remove(session);
+        no(session.channel().isOpen());
+    }
+
+    @Test
+    public void batchModeShallBeAcknowledgedWithEot() throws Exception {
+        receive(NioCliSession.BATCH + "\n");
+        eq(1, tasks.size());
+        tasks.get(0).run();
+        String output = read();
+        yes(output.endsWith(NioCliSession.EOT + System.getProperty("line.separator")));
+
+        // session is closed once input is closed and pending commands are done
+        session.onEndOfInput();
+        eq(2, tasks.size());
+        tasks.get(1).run();
+        no(session.channel().isOpen());
+        verify(transport, times(1)).remove(session);
+    }
+
+    @Test
+    public void writerShallBeBlockedWhenPendingOutputExceedsLimit() throws Exception {
+        final byte[] message = new byte[NioCliSession.MAX_PENDING * 16];
+        Arrays.fill(message, (byte) 'm');
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                session.stop(new String(message, Charsets.UTF_8));
+            }
+        };
+        writer.start();
+        writer.join(500);
+        // client is not reading, thus the writer is blocked
+        yes(writer.isAlive());
+        yes(session.hasPendingOutput());
+        verify(transport).interestWrite(session);
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (session.channel().isOpen() && System.currentTimeMillis() < deadline) {
+            buf.clear();
+            int n = client.read(buf);
+            if (n > 0) {
+                received.write(buf.array(), 0, n);
+            }
+            session.onWritable();
+        }
+        writer.join(1000);
+        no(writer.isAlive());
+        no(session.channel().isOpen());
+        drain(received, buf);
+        eq(message.length + 1, received.size());
+    }
+
+    private void receive(String s) {
+        receive(s.getBytes(Charsets.UTF_8));
+    }
+
+    private void receive(byte[] bytes) {
+        session.onRead(ByteBuffer.wrap(bytes));
+    }
+
+    private static byte[] bytes(int... ia) {
+        byte[] ba = new byte[ia.length];
+        for (int i = 0; i < ia.length; ++i) {
+            ba[i] = (byte) ia[i];
+        }
+        return ba;
+    }
+
+    // read the bytes available now
+    private String read() throws Exception {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        long deadline = System.currentTimeMillis() + 200;
+        while (System.currentTimeMillis() < deadline) {
+            buf.clear();
+            int n = client.read(buf);
+            if (n > 0) {
+                received.write(buf.array(), 0, n);
+            } else if (n < 0) {
+                break;
+            }
+        }
+        return new String(received.toByteArray(), Charsets.UTF_8);
+    }
+
+    // read until the server side is closed
+    private String readAll() throws Exception {
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        drain(received, ByteBuffer.allocate(4096));
+        return new String(received.toByteArray(), Charsets.UTF_8);
+    }
+
+    private void drain(ByteArrayOutputStream received, ByteBuffer buf) throws IOException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            buf.clear();
+            int n = client.read(buf);
+            if (n < 0) {
+                return;
+            }
+            if (n > 0) {
+                received.write(buf.array(), 0, n);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package act.cli.ascii_table;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.cli.ascii_table.impl.SimpleASCIITableImpl;
+import act.cli.ascii_table.spec.IASCIITable;
+import org.junit.Test;
+
+import java.util.List;
+
+public class SimpleASCIITableImplTest extends ActTestBase {
+
+    private SimpleASCIITableImpl table = new SimpleASCIITableImpl();
+
+    @Test
+    public void rowByRowRenderingShallMatchWholeTable() {
+        ASCIITableHeader[] headers = {
+                new ASCIITableHeader("ID", IASCIITable.ALIGN_RIGHT),
+                new ASCIITableHeader("NAME", IASCIITable.ALIGN_LEFT)
+        };
+        String[][] data = {{"1", "foo"}, {"20", "barbar"}};
+        List<Integer> widths = table.getColumnWidths(headers, data);
+        String line = table.getRowLine(widths);
+        StringBuilder sb = new StringBuilder(line).append(table.getHeaderRow(widths, headers)).append(line);
+        for (String[] row : data) {
+            sb.append(table.getDataRow(widths, row, headers));
+        }
+        sb.append(line);
+        eq(table.getTable(headers, data), sb.toString());
+    }
+
+    @Test
+    public void wideCellShallNotBeTruncated() {
+        ASCIITableHeader[] headers = {new ASCIITableHeader("NAME", IASCIITable.ALIGN_LEFT)};
+        List<Integer> widths = table.getColumnWidths(headers, new String[][]{{"foo"}});
+        yes(table.getDataRow(widths, new String[]{"foobarbaz"}, headers).contains("foobarbaz"));
+    }
+
+}
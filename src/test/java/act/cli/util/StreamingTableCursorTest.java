@@ -0,0 +1,87 @@
+package act.cli.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.cli.CliContext;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.mockito.Mockito.mock;
+
+public class StreamingTableCursorTest extends ActTestBase {
+
+    @Test
+    public void cellWithinWidthShallBeKept() {
+        eq("abc", StreamingTableCursor.truncate("abc", 3));
+        eq("abc", StreamingTableCursor.truncate("abc", 10));
+        eq(null, StreamingTableCursor.truncate(null, 2));
+    }
+
+    @Test
+    public void widerCellShallBeTruncatedWithEllipsis() {
+        String s = StreamingTableCursor.truncate("abcdefghij", 6);
+        eq("abc...", s);
+        eq(6, s.length());
+    }
+
+    @Test
+    public void narrowColumnShallBeCut() {
+        eq("ab", StreamingTableCursor.truncate("abcdef", 2));
+        eq("abc", StreamingTableCursor.truncate("abcdef", 3));
+    }
+
+    @Test
+    public void closeableSourceShallBeClosedAfterOutputAll() {
+        ClosingIterator source = new ClosingIterator();
+        StreamingTableCursor cursor = new StreamingTableCursor(source, 10, null);
+        cursor.outputAll(mock(CliContext.class));
+        yes(source.closed);
+    }
+
+    private static class ClosingIterator implements Iterator<Object>, Closeable {
+        private Iterator<Object> itr = Collections.emptyIterator();
+        boolean closed;
+
+        @Override
+        public boolean hasNext() {
+            return itr.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            return itr.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
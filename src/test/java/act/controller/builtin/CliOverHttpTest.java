@@ -0,0 +1,57 @@
+package act.controller.builtin;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class CliOverHttpTest extends ActTestBase {
+
+    @Test
+    public void caretJShallBeTranslatedToLineFeed() throws IOException {
+        eq("a\nb^c^", translate("a^Jb^c^"));
+        eq("^^\n", translate("^^^J"));
+    }
+
+    @Test
+    public void caretSplitAcrossWritesShallBeTranslated() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = new CliOverHttp.LineFeedOutputStream(baos);
+        os.write("ab^".getBytes());
+        os.write("Jc".getBytes());
+        os.write('^');
+        os.write("x^".getBytes(), 0, 1);
+        os.close();
+        eq("ab\nc^x", baos.toString());
+    }
+
+    private static String translate(String s) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        OutputStream os = new CliOverHttp.LineFeedOutputStream(baos);
+        os.write(s.getBytes());
+        os.close();
+        return baos.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.util.StringValueResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PrimitiveResolversTest extends ActTestBase {
+
+    enum Color {
+        RED, GREEN, BLUE, DARK_GREY
+    }
+
+    @Test
+    public void itShallParseLongFromRange() {
+        eq(123L, PrimitiveResolvers.parseLong("a=123&", 2, 5));
+        eq(Long.MIN_VALUE, PrimitiveResolvers.parseLong(String.valueOf(Long.MIN_VALUE), 0, 20));
+        eq(-42, PrimitiveResolvers.parseInt("-42", 0, 3));
+        yes(PrimitiveResolvers.parseBoolean("x=TRUE", 2, 6));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void itShallRejectIntOverflow() {
+        PrimitiveResolvers.parseInt("2147483648", 0, 10);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void itShallRejectNonDigits() {
+        PrimitiveResolvers.parseLong("12a", 0, 3);
+    }
+
+    @Test
+    public void registeredResolversShallKeepFallbackBehavior() {
+        Map<Class, StringValueResolver> resolvers = new HashMap<Class, StringValueResolver>(StringValueResolver.predefined());
+        PrimitiveResolvers.register(resolvers);
+        StringValueResolver r = resolvers.get(Integer.class);
+        yes(r instanceof PrimitiveResolvers.IntValueResolver);
+        eq(15, r.resolve("15"));
+        eq(StringValueResolver.predefined().get(Integer.class).resolve(""), r.resolve(""));
+        r = resolvers.get(boolean.class);
+        eq(Boolean.FALSE, r.resolve("False"));
+    }
+
+    @Test
+    public void itShallResolveRangeWithSpecializedResolvers() {
+        Map<Class, StringValueResolver> resolvers = new HashMap<Class, StringValueResolver>(StringValueResolver.predefined());
+        PrimitiveResolvers.register(resolvers);
+        String s = "12,true,-7,x";
+        eq(12, PrimitiveResolvers.resolve(resolvers.get(int.class), s, 0, 2));
+        eq(Boolean.TRUE, PrimitiveResolvers.resolve(resolvers.get(Boolean.class), s, 3, 7));
+        eq(-7L, PrimitiveResolvers.resolve(resolvers.get(long.class), s, 8, 10));
+        eq((short) -7, PrimitiveResolvers.resolve(resolvers.get(Short.class), s, 8, 10));
+        eq((byte) 12, PrimitiveResolvers.resolve(resolvers.get(byte.class), s, 0, 2));
+        EnumResolver<Color> enumResolver = new EnumResolver<>(Color.class, false);
+        same(Color.GREEN, PrimitiveResolvers.resolve(enumResolver, "1;green;2", 2, 7));
+    }
+
+    @Test
+    public void rangeOutOfFastPathShallFallback() {
+        Map<Class, StringValueResolver> resolvers = new HashMap<Class, StringValueResolver>();
+        resolvers.put(byte.class, new StringValueResolver<Byte>(Byte.class) {
+            @Override
+            public Byte resolve(String value) {
+                return "300".equals(value) ? Byte.MAX_VALUE : Byte.MIN_VALUE;
+            }
+        });
+        PrimitiveResolvers.register(resolvers);
+        StringValueResolver r = resolvers.get(byte.class);
+        eq((byte) 1, PrimitiveResolvers.resolve(r, "a=1", 2, 3));
+        eq(Byte.MAX_VALUE, PrimitiveResolvers.resolve(r, "a=300", 2, 5));
+        eq(Byte.MIN_VALUE, PrimitiveResolvers.resolve(r, "a= 1", 2, 4));
+    }
+
+    @Test
+    public void enumResolverShallUsePerfectHash() {
+        EnumResolver<Color> resolver = new EnumResolver<>(Color.class, false);
+        yes(resolver.isPerfectHash());
+        same(Color.DARK_GREY, resolver.resolve("dark_grey"));
+        same(Color.RED, resolver.resolve("?c=Red", 3, 6));
+        eq(null, resolver.resolve("purple"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void caseSensitiveEnumResolverShallRejectUnknownName() {
+        EnumResolver<Color> resolver = new EnumResolver<>(Color.class, true);
+        same(Color.BLUE, resolver.resolve("BLUE"));
+        resolver.resolve("blue");
+    }
+}
@@ -0,0 +1,70 @@
+package act.data;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.util.C;
+import testapp.model.Address;
+import testapp.model.Person;
+
+import java.util.List;
+
+public class PropertyExtractorGeneratorTest extends ActTestBase {
+
+    private static class Loader extends ClassLoader {
+        Loader() {
+            super(PropertyExtractorGeneratorTest.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+
+    @Test
+    public void itShallExtractNestedProperties() throws Exception {
+        PropertyExtractor extractor = generate(Person.class, C.list("firstName", "age", "address.city", "this"));
+        Person person = new Person("John", "Smith", new Address("1", "King St", "Sydney"), 30);
+        Object[] values = extractor.extract(person);
+        eq("John", values[0]);
+        eq(30, values[1]);
+        eq("Sydney", values[2]);
+        same(person, values[3]);
+    }
+
+    @Test
+    public void nullIntermediatePropertyShallResultInNull() throws Exception {
+        PropertyExtractor extractor = generate(Person.class, C.list("lastName", "address.city", "address.streetNo"));
+        Object[] values = extractor.extract(new Person("John", "Smith", null, 30));
+        eq("Smith", values[0]);
+        assertNull(values[1]);
+        assertNull(values[2]);
+    }
+
+    private PropertyExtractor generate(Class<?> type, List<String> paths) throws Exception {
+        yes(PropertyExtractorGenerator.applicable(type));
+        PropertyExtractorGenerator generator = new PropertyExtractorGenerator(type, paths);
+        Class<?> c = new Loader().define(generator.className(), generator.generateByteCode());
+        return ((PropertyExtractor) c.newInstance()).init(type, paths);
+    }
+
+}
@@ -0,0 +1,210 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.Osgl;
+import org.osgl.exception.NotAppliedException;
+import org.osgl.exception.UnsupportedException;
+import org.osgl.inject.BeanSpec;
+
+import java.util.*;
+
+import static org.mockito.Mockito.mock;
+
+public class AdaptiveRecordTest extends ActTestBase {
+
+    /**
+     * An adaptive record with an optional `name` field entry
+     */
+    public static class Rec implements AdaptiveRecord<Integer, Rec> {
+        private Integer id;
+        private String name;
+        private final Map<String, Object> kv = Util.newInternalMap();
+        private final MetaInfo metaInfo;
+
+        public Rec(boolean withNameField) {
+            metaInfo = mock(MetaInfo.class);
+            metaInfo.getterFieldSpecs = new HashMap<>();
+            metaInfo.fieldGetters = new HashMap<>();
+            metaInfo.fieldSetters = new HashMap<>();
+            metaInfo.fieldMergers = new HashMap<>();
+            if (withNameField) {
+                metaInfo.getterFieldSpecs.put("name", null);
+                metaInfo.fieldGetters.put("name", new Osgl.F1() {
+                    @Override
+                    public Object apply(Object host) throws NotAppliedException, Osgl.Break {
+                        return ((Rec) host).name;
+                    }
+                });
+            }
+        }
+
+        public Rec name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        @Override
+        public Integer _id() {
+            return id;
+        }
+
+        @Override
+        public Rec _id(Integer id) {
+            this.id = id;
+            return this;
+        }
+
+        @Override
+        public boolean _isNew() {
+            return null == id;
+        }
+
+        @Override
+        public Map<String, Object> internalMap() {
+            return kv;
+        }
+
+        @Override
+        public Rec putValue(String key, Object val) {
+            return Util.putValue(this, key, val);
+        }
+
+        @Override
+        public Rec mergeValue(String key, Object val) {
+            return Util.mergeValue(this, key, val);
+        }
+
+        @Override
+        public Rec putValues(Map<String, Object> kvMap) {
+            return Util.putValues(this, kvMap);
+        }
+
+        @Override
+        public Rec mergeValues(Map<String, Object> kvMap) {
+            return Util.mergeValues(this, kvMap);
+        }
+
+        @Override
+        public <T> T getValue(String key) {
+            return Util.getValue(this, key);
+        }
+
+        @Override
+        public Map<String, Object> toMap() {
+            return Util.toMap(this);
+        }
+
+        @Override
+        public int size() {
+            return Util.size(this);
+        }
+
+        @Override
+        public boolean containsKey(String key) {
+            return Util.containsKey(this, key);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Util.keySet(this);
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return Util.entrySet(this, null);
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet($.Function<BeanSpec, Boolean> fieldFilter) {
+            return Util.entrySet(this, fieldFilter);
+        }
+
+        @Override
+        public Map<String, Object> asMap() {
+            return Util.asMap(this);
+        }
+
+        @Override
+        public MetaInfo metaInfo() {
+            return metaInfo;
+        }
+    }
+
+    @Test
+    public void entrySetViewShallListValuesFollowedByFields() {
+        Rec rec = new Rec(true).name("foo");
+        rec.putValue("a", 1);
+        rec.putValue("b", 2);
+        Set<Map.Entry<String, Object>> entries = rec.entrySet();
+        eq(3, entries.size());
+        Iterator<Map.Entry<String, Object>> itr = entries.iterator();
+        Map.Entry<String, Object> entry = itr.next();
+        eq("a", entry.getKey());
+        eq(1, entry.getValue());
+        eq("b", itr.next().getKey());
+        entry = itr.next();
+        eq("name", entry.getKey());
+        eq("foo", entry.getValue());
+        no(itr.hasNext());
+    }
+
+    @Test
+    public void entrySetViewShallSkipFilteredFields() {
+        Rec rec = new Rec(true).name("foo");
+        rec.putValue("a", 1);
+        Set<Map.Entry<String, Object>> entries = rec.entrySet(new $.Predicate<BeanSpec>() {
+            @Override
+            public boolean test(BeanSpec beanSpec) {
+                return false;
+            }
+        });
+        eq(1, entries.size());
+        Iterator<Map.Entry<String, Object>> itr = entries.iterator();
+        eq("a", itr.next().getKey());
+        no(itr.hasNext());
+    }
+
+    @Test(expected = UnsupportedException.class)
+    public void entrySetViewShallBeReadOnly() {
+        Rec rec = new Rec(true);
+        rec.putValue("a", 1);
+        Iterator<Map.Entry<String, Object>> itr = rec.entrySet().iterator();
+        itr.next();
+        itr.remove();
+    }
+
+    @Test
+    public void toMapShallReadShapedSlots() {
+        Rec rec = new Rec(true).name("foo");
+        rec.putValue("a", 1);
+        rec.putValue("b", 2);
+        rec.internalMap().remove("a");
+        Map<String, Object> map = rec.toMap();
+        eq(2, map.size());
+        eq(2, map.get("b"));
+        eq("foo", map.get("name"));
+        no(map.containsKey("a"));
+    }
+}
@@ -0,0 +1,236 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.db.InMemoryDaoTest.Foo;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.cache.CacheService;
+import org.osgl.util.C;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+public class CachingDaoTest extends ActTestBase {
+
+    private static class CountingDao extends InMemoryDao<Integer, Foo> {
+        int findById;
+        int findByIdList;
+        int lastListSize;
+        // simulates a write committed while an entity is loading
+        Runnable onLoad;
+
+        CountingDao() {
+            super(Integer.class, Foo.class, "id");
+        }
+
+        @Override
+        public synchronized Foo findById(Integer id) {
+            findById++;
+            Foo foo = super.findById(id);
+            loaded();
+            return foo;
+        }
+
+        @Override
+        public synchronized Iterable<Foo> findByIdList(Collection<Integer> idList) {
+            findByIdList++;
+            lastListSize = idList.size();
+            Iterable<Foo> foos = super.findByIdList(idList);
+            loaded();
+            return foos;
+        }
+
+        private void loaded() {
+            Runnable r = onLoad;
+            onLoad = null;
+            if (null != r) {
+                r.run();
+            }
+        }
+    }
+
+    private CountingDao raw;
+    private CachingDao<Integer, Foo, InMemoryDao.Query<Foo>> dao;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        raw = new CountingDao();
+        for (int i = 0; i < 10; ++i) {
+            raw.save(new Foo(i, "foo" + i));
+        }
+        dao = new CachingDao<>(raw, new EntityCache<Integer, Foo>("foo", Foo.class, 5, 60, null));
+    }
+
+    @Test
+    public void findByIdShallHitCacheOnSecondCall() {
+        Foo foo = dao.findById(1);
+        eq(foo.getName(), dao.findById(1).getName());
+        eq(1, raw.findById);
+        eq(1L, dao.cache().hits());
+        eq(1L, dao.cache().misses());
+    }
+
+    @Test
+    public void cachedEntityShallBeIsolatedFromCaller() {
+        Foo foo = dao.findById(1);
+        foo.setName("changed");
+        Foo cached = dao.findById(1);
+        no(foo == cached);
+        eq("foo1", cached.getName());
+        cached.setName("changed");
+        eq("foo1", dao.findById(1).getName());
+    }
+
+    @Test
+    public void nonSerializableEntityShallBeShared() {
+        EntityCache<Integer, Object> cache = new EntityCache<>("obj", Object.class, 5, 60, null);
+        Object o = new Object();
+        cache.put(1, o);
+        same(o, cache.get(1));
+        cache.destroy();
+    }
+
+    @Test
+    public void cacheShallBeBoundedByMaxSize() {
+        for (int i = 0; i < 10; ++i) {
+            dao.findById(i);
+        }
+        eq(5, dao.cache().size());
+        dao.findById(9);
+        eq(10, raw.findById);
+        dao.findById(0);
+        eq(11, raw.findById);
+    }
+
+    @Test
+    public void writeShallInvalidateCache() {
+        dao.findById(1);
+        dao.deleteById(1);
+        eq(null, dao.findById(1));
+        dao.findById(2);
+        dao.update(dao.q("id", 2), "name", "bar");
+        eq(0, dao.cache().size());
+        dao.findById(3);
+        dao.delete(C.list(raw.findById(3)), 10);
+        eq(0, dao.cache().size());
+        eq(null, dao.findById(3));
+    }
+
+    @Test
+    public void writeShallNotLeaveStaleEntity() {
+        dao.findById(1);
+        Foo foo = new Foo(1, "bar");
+        dao.save(foo);
+        eq("bar", dao.findById(1).getName());
+        dao.save(C.list(new Foo(1, "baz")), 10);
+        eq("baz", dao.findById(1).getName());
+    }
+
+    @Test
+    public void expiredEntityShallBeReloaded() throws Exception {
+        dao = new CachingDao<>(raw, new EntityCache<Integer, Foo>("foo", Foo.class, 5, 0, null));
+        dao.findById(1);
+        Thread.sleep(5);
+        dao.findById(1);
+        eq(2, raw.findById);
+    }
+
+    @Test
+    public void findByIdListShallLoadMissesInOneBatch() {
+        dao.findById(1);
+        dao.findById(3);
+        List<Foo> list = C.list(dao.findByIdList(C.list(1, 2, 3, 4)));
+        eq(4, list.size());
+        eq(2, list.get(1).getId());
+        eq(1, raw.findByIdList);
+        eq(2, raw.lastListSize);
+        dao.findByIdList(C.list(1, 2, 3, 4));
+        eq(1, raw.findByIdList);
+    }
+
+    @Test
+    public void entityInvalidatedWhileLoadingShallNotBeCached() {
+        raw.onLoad = new Runnable() {
+            @Override
+            public void run() {
+                dao.invalidate(1);
+            }
+        };
+        dao.findById(1);
+        dao.findById(1);
+        eq(2, raw.findById);
+        raw.onLoad = new Runnable() {
+            @Override
+            public void run() {
+                dao.cache().clear();
+            }
+        };
+        dao.findByIdList(C.list(2, 3));
+        dao.findByIdList(C.list(2, 3));
+        eq(2, raw.findByIdList);
+    }
+
+    @Test
+    public void sharedSecondTierShallHonorClearAndInvalidateOfOtherNodes() {
+        CacheService secondTier = mapBackedCache(new HashMap<String, Object>());
+        EntityCache<Integer, Foo> node1 = new EntityCache<>("foo", Foo.class, 5, 60, secondTier);
+        node1.put(1, new Foo(1, "foo1"));
+        node1.put(2, new Foo(2, "foo2"));
+        eq("foo1", new EntityCache<>("foo", Foo.class, 5, 60, secondTier).get(1).getName());
+
+        node1.invalidate(1);
+        // a new node, or this node after restart
+        EntityCache<Integer, Foo> node2 = new EntityCache<>("foo", Foo.class, 5, 60, secondTier);
+        eq(null, node2.get(1));
+        eq("foo2", node2.get(2).getName());
+
+        node1.clear();
+        eq(null, new EntityCache<>("foo", Foo.class, 5, 60, secondTier).get(2));
+    }
+
+    private static CacheService mapBackedCache(final Map<String, Object> store) {
+        CacheService cacheService = mock(CacheService.class);
+        when(cacheService.get(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return store.get((String) invocation.getArguments()[0]);
+            }
+        });
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                Object[] args = invocation.getArguments();
+                store.put((String) args[0], args[1]);
+                return null;
+            }
+        }).when(cacheService).put(anyString(), any(), anyInt());
+        return cacheService;
+    }
+}
@@ -0,0 +1,97 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.$;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+public class InMemoryDaoTest extends ActTestBase {
+
+    public static class Foo implements Serializable {
+        private Integer id;
+        private String name;
+
+        public Foo(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private InMemoryDao<Integer, Foo> dao;
+
+    @Before
+    public void prepare() {
+        dao = new InMemoryDao<>(Integer.class, Foo.class, "id");
+    }
+
+    @Test
+    public void itShallPassTheDaoTestKit() {
+        new DaoTestKit<>(dao, new $.Transformer<Integer, Foo>() {
+            @Override
+            public Foo transform(Integer seq) {
+                return new Foo(seq, "foo" + seq);
+            }
+        }, "name").run();
+    }
+
+    @Test
+    public void pagingCursorShallVisitAllEntities() {
+        for (int i = 0; i < 20; ++i) {
+            dao.save(new Foo(i, "foo" + i));
+        }
+        Set<Integer> ids = new HashSet<>();
+        DaoBase.PagingCursor<Foo, InMemoryDao.Query<Foo>> cursor = new DaoBase.PagingCursor<>(dao.q().orderBy("id"), 7);
+        while (cursor.hasNext()) {
+            ids.add(cursor.next().getId());
+        }
+        cursor.close();
+        eq(20, ids.size());
+    }
+
+    @Test
+    public void queryShallSupportOrderOffsetAndLimit() {
+        for (int i = 0; i < 10; ++i) {
+            dao.save(new Foo(i, "foo"));
+        }
+        Foo foo = dao.q("name", "foo").orderBy("-id").offset(2).limit(3).first();
+        eq(7, foo.getId());
+        eq(3L, dao.q().offset(2).limit(3).count());
+    }
+
+}
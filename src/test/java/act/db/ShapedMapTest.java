@@ -0,0 +1,169 @@
+package act.db;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.util.Iterator;
+import java.util.Map;
+
+public class ShapedMapTest extends ActTestBase {
+
+    @Test
+    public void mapsWithSameKeysShallShareShape() {
+        ShapedMap m1 = new ShapedMap();
+        m1.put("name", "foo");
+        m1.put("age", 3);
+        ShapedMap m2 = new ShapedMap();
+        m2.put("name", "bar");
+        m2.put("age", 5);
+        same(m1.shape(), m2.shape());
+        eq("foo", m1.get("name"));
+        eq(5, m2.get("age"));
+    }
+
+    @Test
+    public void itShallBehaveLikeAMap() {
+        ShapedMap map = new ShapedMap(C.<String, Object>map("a", 1, "b", 2));
+        yes(map.equals(C.map("a", 1, "b", 2)));
+        eq(2, map.size());
+        eq(1, map.put("a", 10));
+        eq(10, map.remove("a"));
+        no(map.containsKey("a"));
+        eq(1, map.size());
+        map.put("c", null);
+        yes(map.containsKey("c"));
+        eq(null, map.get("c"));
+        eq(2, map.size());
+    }
+
+    @Test
+    public void removedKeyShallKeepShape() {
+        ShapedMap map = new ShapedMap();
+        map.put("a", 1);
+        map.put("b", 2);
+        ShapedMap.Shape shape = map.shape();
+        map.remove("a");
+        map.put("a", 3);
+        same(shape, map.shape());
+        eq(3, map.get("a"));
+    }
+
+    @Test
+    public void entrySetShallBeAView() {
+        ShapedMap map = new ShapedMap();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        Iterator<Map.Entry<String, Object>> itr = map.entrySet().iterator();
+        Map.Entry<String, Object> entry = itr.next();
+        entry.setValue(100);
+        itr.next();
+        itr.remove();
+        yes(map.equals(C.map("a", 100, "c", 3)));
+    }
+
+    @Test
+    public void largeShapeShallLookupBySlot() {
+        ShapedMap map = new ShapedMap();
+        for (int i = 0; i < 20; ++i) {
+            map.put("k" + i, i);
+        }
+        for (int i = 0; i < 20; ++i) {
+            eq(i, map.get("k" + i));
+        }
+        eq(20, map.slots());
+    }
+
+    @Test
+    public void transitionsShallBeBoundedPerShape() {
+        for (int i = 0; i < ShapedMap.Shape.MAX_TRANSITIONS; ++i) {
+            ShapedMap map = new ShapedMap();
+            map.put("transition-test", 0);
+            map.put("t" + i, i);
+            no(map.shape().isDictionary());
+        }
+        ShapedMap map = new ShapedMap();
+        map.put("transition-test", 0);
+        map.put("t-overflow", 1);
+        yes(map.shape().isDictionary());
+        eq(1, map.get("t-overflow"));
+        eq(0, map.get("transition-test"));
+        ShapedMap other = new ShapedMap();
+        other.put("transition-test", 0);
+        other.put("t-overflow", 1);
+        no(map.shape() == other.shape());
+    }
+
+    @Test
+    public void largeMapShallSwitchToDictionaryShape() {
+        ShapedMap map = new ShapedMap();
+        int n = ShapedMap.Shape.MAX_INTERNED_SIZE * 4;
+        for (int i = 0; i < n; ++i) {
+            map.put("big" + i, i);
+        }
+        yes(map.shape().isDictionary());
+        eq(n, map.size());
+        for (int i = 0; i < n; ++i) {
+            eq(i, map.get("big" + i));
+        }
+        ShapedMap.Shape shape = map.shape();
+        map.put("big" + n, n);
+        same(shape, map.shape());
+        eq(n + 1, map.slots());
+    }
+
+    @Test
+    public void emptySlotsShallBeCompacted() {
+        ShapedMap map = new ShapedMap();
+        for (int i = 0; i < 1000; ++i) {
+            map.put("churn" + i, i);
+            if (i > 0) {
+                map.remove("churn" + (i - 1));
+            }
+        }
+        eq(1, map.size());
+        yes(map.slots() <= 20);
+        eq(999, map.get("churn999"));
+        yes(map.equals(C.map("churn999", 999)));
+    }
+
+    @Test
+    public void compactionShallKeepKeyOrder() {
+        ShapedMap map = new ShapedMap();
+        for (int i = 0; i < 20; ++i) {
+            map.put("o" + i, i);
+        }
+        for (int i = 0; i < 20; i += 2) {
+            map.remove("o" + i);
+        }
+        map.remove("o1");
+        eq(9, map.size());
+        eq(9, map.slots());
+        Iterator<String> itr = map.keySet().iterator();
+        for (int i = 3; i < 20; i += 2) {
+            eq("o" + i, itr.next());
+        }
+        no(itr.hasNext());
+    }
+}
@@ -0,0 +1,120 @@
+package act.db.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HiLoSequenceNumberGeneratorTest extends ActTestBase {
+
+    private static class CountingGenerator extends _SequenceNumberGenerator.InMemorySequenceNumberGenerator {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public long next(String name) {
+            calls.incrementAndGet();
+            return super.next(name);
+        }
+    }
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private CountingGenerator backing;
+    private HiLoSequenceNumberGenerator gen;
+
+    @Before
+    public void prepare() {
+        backing = new CountingGenerator();
+        gen = new HiLoSequenceNumberGenerator(backing, 10, DIRECT);
+    }
+
+    @Test
+    public void itShallGenerateSequentialNumbersFromBlocks() {
+        for (int i = 0; i < 25; ++i) {
+            eq((long) i, gen.next("foo"));
+        }
+        eq(25L, gen.get("foo"));
+        // current block plus the prefetched one
+        eq(3, backing.calls.get());
+    }
+
+    @Test
+    public void sequencesShallBeIndependent() {
+        eq(0L, gen.next("foo"));
+        eq(0L, gen.next("bar"));
+        eq(1L, gen.next("foo"));
+    }
+
+    @Test
+    public void itShallNotGenerateDuplicatesUnderContention() throws Exception {
+        ExecutorService prefetcher = Executors.newSingleThreadExecutor();
+        final HiLoSequenceNumberGenerator gen = new HiLoSequenceNumberGenerator(backing, 16, prefetcher);
+        final Set<Long> numbers = new ConcurrentSkipListSet<>();
+        final int threads = 8, perThread = 2000;
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; ++i) {
+            workers.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < perThread; ++j) {
+                        numbers.add(gen.next("foo"));
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        yes(workers.awaitTermination(30, TimeUnit.SECONDS));
+        prefetcher.shutdown();
+        eq(threads * perThread, numbers.size());
+    }
+
+    @Test
+    public void fileBasedGeneratorShallSurviveRestart() throws Exception {
+        File file = File.createTempFile("act-seq", ".properties");
+        file.delete();
+        try {
+            _SequenceNumberGenerator durable = new _SequenceNumberGenerator.FileBasedSequenceNumberGenerator(file.getPath());
+            HiLoSequenceNumberGenerator gen = new HiLoSequenceNumberGenerator(durable, 10, DIRECT);
+            for (int i = 0; i < 3; ++i) {
+                gen.next("order");
+            }
+            durable = new _SequenceNumberGenerator.FileBasedSequenceNumberGenerator(file.getPath());
+            gen = new HiLoSequenceNumberGenerator(durable, 10, DIRECT);
+            // the rest of block 0 is skipped
+            eq(10L, gen.get("order"));
+            eq(10L, gen.next("order"));
+        } finally {
+            file.delete();
+            new File(file.getPath() + ".tmp").delete();
+        }
+    }
+}
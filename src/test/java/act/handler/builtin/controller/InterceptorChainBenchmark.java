@@ -0,0 +1,131 @@
+package act.handler.builtin.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.app.ActionContext;
+import act.security.CORS;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.osgl.mvc.result.Result;
+import org.osgl.util.C;
+
+/**
+ * Compares interceptor dispatch through the grouped global/app/action
+ * interceptors against the compiled {@link InterceptorChain} for
+ * 0, 1 and 5 before interceptors
+ */
+@BenchmarkOptions(warmupRounds = 1, benchmarkRounds = 10)
+@Ignore
+public class InterceptorChainBenchmark extends BenchmarkBase {
+
+    private static final int LOOPS = 10 * 1000 * 1000;
+
+    @Test
+    public void grouped0() throws Exception {
+        runGrouped(0);
+    }
+
+    @Test
+    public void compiled0() throws Exception {
+        runCompiled(0);
+    }
+
+    @Test
+    public void grouped1() throws Exception {
+        runGrouped(1);
+    }
+
+    @Test
+    public void compiled1() throws Exception {
+        runCompiled(1);
+    }
+
+    @Test
+    public void grouped5() throws Exception {
+        runGrouped(5);
+    }
+
+    @Test
+    public void compiled5() throws Exception {
+        runCompiled(5);
+    }
+
+    private void runGrouped(int interceptors) throws Exception {
+        // interceptors are spread into global, app and action groups the
+        // way they used to be walked before the chain is compiled
+        C.List<BeforeInterceptor> global = C.newList(), app = C.newList(), action = C.newList();
+        for (int i = 0; i < interceptors; ++i) {
+            (i % 3 == 0 ? action : i % 3 == 1 ? global : app).add(new Noop());
+        }
+        RequestHandlerProxy.GroupInterceptorWithResult g0 = new RequestHandlerProxy.GroupInterceptorWithResult(global);
+        RequestHandlerProxy.GroupInterceptorWithResult g1 = new RequestHandlerProxy.GroupInterceptorWithResult(app);
+        RequestHandlerProxy.GroupInterceptorWithResult g2 = new RequestHandlerProxy.GroupInterceptorWithResult(action);
+        for (int i = 0; i < LOOPS; ++i) {
+            Result r = g0.apply(null);
+            if (null == r) {
+                r = g1.apply(null);
+            }
+            if (null == r) {
+                g2.apply(null);
+            }
+        }
+    }
+
+    private void runCompiled(int interceptors) throws Exception {
+        C.List<BeforeInterceptor> list = C.newList();
+        for (int i = 0; i < interceptors; ++i) {
+            list.add(new Noop());
+        }
+        InterceptorChain chain = InterceptorChain.compile(list, C.<AfterInterceptor>list(), C.<ExceptionInterceptor>list(), C.<FinallyInterceptor>list());
+        InterceptorChain.BeforeStage before = chain.before;
+        for (int i = 0; i < LOOPS; ++i) {
+            before.apply(null);
+        }
+    }
+
+    private static class Noop extends BeforeInterceptor {
+        Noop() {
+            super(0);
+        }
+
+        @Override
+        public Result handle(ActionContext actionContext) throws Exception {
+            return null;
+        }
+
+        @Override
+        public boolean sessionFree() {
+            return true;
+        }
+
+        @Override
+        public boolean express() {
+            return true;
+        }
+
+        @Override
+        public CORS.Spec corsSpec() {
+            return CORS.Spec.DUMB;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package act.handler.builtin.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.app.ActionContext;
+import act.security.CORS;
+import org.junit.Test;
+import org.osgl.mvc.result.Ok;
+import org.osgl.mvc.result.Result;
+import org.osgl.util.C;
+
+import java.util.List;
+
+public class InterceptorChainTest extends ActTestBase {
+
+    private List<String> trace = C.newList();
+
+    @Test
+    public void emptyPhasesShallBeElided() {
+        InterceptorChain chain = compile(C.<BeforeInterceptor>list(), C.<AfterInterceptor>list());
+        yes(chain.isEmpty());
+        yes(chain.before == InterceptorChain.BeforeStage.NONE);
+        yes(chain.after == InterceptorChain.AfterStage.NONE);
+    }
+
+    @Test
+    public void beforeStageShallStopAtFirstResult() throws Exception {
+        Result ok = Ok.INSTANCE;
+        InterceptorChain chain = compile(C.<BeforeInterceptor>list(new Before("a", null), new Before("b", ok), new Before("c", null)), C.<AfterInterceptor>list());
+        no(chain.isEmpty());
+        same(ok, chain.before.apply(null));
+        eq(C.list("a", "b"), trace);
+    }
+
+    @Test
+    public void resultThrownByInterceptorShallBeReturned() throws Exception {
+        final Result ok = Ok.INSTANCE;
+        BeforeInterceptor thrower = new Before("t", null) {
+            @Override
+            public Result handle(ActionContext actionContext) throws Exception {
+                throw ok;
+            }
+        };
+        InterceptorChain chain = compile(C.list(thrower), C.<AfterInterceptor>list());
+        same(ok, chain.before.apply(null));
+    }
+
+    @Test
+    public void afterStageShallApplyInOrder() throws Exception {
+        InterceptorChain chain = compile(C.<BeforeInterceptor>list(), C.<AfterInterceptor>list(new After("x"), new After("y")));
+        chain.after.apply(null, null);
+        eq(C.list("x", "y"), trace);
+    }
+
+    @Test
+    public void chainShallBeStaleAfterInterceptorRegistered() {
+        InterceptorChain chain = compile(C.<BeforeInterceptor>list(), C.<AfterInterceptor>list());
+        no(chain.isStale());
+        RequestHandlerProxy.insertInterceptor(C.<BeforeInterceptor>newList(), new Before("a", null));
+        yes(chain.isStale());
+    }
+
+    private InterceptorChain compile(List<BeforeInterceptor> before, List<AfterInterceptor> after) {
+        return InterceptorChain.compile(before, after, C.<ExceptionInterceptor>list(), C.<FinallyInterceptor>list());
+    }
+
+    private class Before extends BeforeInterceptor {
+        private String id;
+        private Result result;
+
+        Before(String id, Result result) {
+            super(0);
+            this.id = id;
+            this.result = result;
+        }
+
+        @Override
+        public Result handle(ActionContext actionContext) throws Exception {
+            trace.add(id);
+            return result;
+        }
+
+        @Override
+        public boolean sessionFree() {
+            return true;
+        }
+
+        @Override
+        public boolean express() {
+            return true;
+        }
+
+        @Override
+        public CORS.Spec corsSpec() {
+            return CORS.Spec.DUMB;
+        }
+    }
+
+    private class After extends AfterInterceptor {
+        private String id;
+
+        After(String id) {
+            super(0);
+            this.id = id;
+        }
+
+        @Override
+        public Result handle(Result result, ActionContext actionContext) throws Exception {
+            trace.add(id);
+            return result;
+        }
+
+        @Override
+        public void accept(ActionHandlerInvoker.Visitor visitor) {
+        }
+
+        @Override
+        public boolean sessionFree() {
+            return true;
+        }
+
+        @Override
+        public boolean express() {
+            return true;
+        }
+
+        @Override
+        public CORS.Spec corsSpec() {
+            return CORS.Spec.DUMB;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package act.handler.builtin.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+
+public class PendingResultTest extends ActTestBase {
+
+    @Test
+    public void completionStageTypesShallBeRecognized() {
+        yes(PendingResult.isCompletionStage(CompletionStage.class));
+        yes(PendingResult.isCompletionStage(CompletableFuture.class));
+    }
+
+    @Test
+    public void otherTypesShallNotBeRecognized() {
+        no(PendingResult.isCompletionStage(Future.class));
+        no(PendingResult.isCompletionStage(Object.class));
+        no(PendingResult.isCompletionStage(String.class));
+    }
+
+}
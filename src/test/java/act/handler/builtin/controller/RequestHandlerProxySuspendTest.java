@@ -0,0 +1,208 @@
+package act.handler.builtin.controller;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.app.ActionContext;
+import act.security.CORS;
+import act.util.DestroyableBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.http.H;
+import org.osgl.mvc.result.Result;
+import org.osgl.util.C;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RequestHandlerProxySuspendTest extends ActTestBase {
+
+    private RequestHandlerProxy proxy;
+    private InterceptorChain chain;
+    private TestPending pending;
+    private Future timeoutFuture;
+    private Callable<?> timeoutTask;
+    private Runnable disconnectCallback;
+    private List<Result> applied = C.newList();
+    private int finished;
+
+    private class TestPending extends PendingResult {
+        Listener listener;
+        boolean cancelled;
+        Object value;
+
+        @Override
+        public void subscribe(Listener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public Result toResult(Object value, ActionContext context) {
+            this.value = value;
+            return new Recorded();
+        }
+    }
+
+    private class Recorded extends Result {
+        Recorded() {
+            super(H.Status.OK);
+        }
+
+        @Override
+        public void apply(H.Request req, H.Response resp) {
+            applied.add(this);
+        }
+    }
+
+    private class CountingFinally extends FinallyInterceptor {
+        CountingFinally() {
+            super(0);
+        }
+
+        @Override
+        public void handle(ActionContext actionContext) {
+            finished++;
+        }
+
+        @Override
+        public boolean sessionFree() {
+            return true;
+        }
+
+        @Override
+        public boolean express() {
+            return true;
+        }
+
+        @Override
+        public CORS.Spec corsSpec() {
+            return CORS.Spec.DUMB;
+        }
+    }
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        proxy = new RequestHandlerProxy("foo.Bar.baz", mockApp);
+        chain = InterceptorChain.compile(C.<BeforeInterceptor>list(), C.<AfterInterceptor>list(),
+                C.<ExceptionInterceptor>list(), C.<FinallyInterceptor>list(new CountingFinally()));
+        pending = new TestPending();
+        timeoutFuture = mock(Future.class);
+        when(mockAppConfig.asyncTimeout()).thenReturn(60);
+        when(mockJobManager.delay(any(Callable.class), anyLong(), any(TimeUnit.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                timeoutTask = (Callable<?>) invocation.getArguments()[0];
+                return timeoutFuture;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                disconnectCallback = (Runnable) invocation.getArguments()[0];
+                return null;
+            }
+        }).when(mockResp).onClientDisconnect(any(Runnable.class));
+        doReturn(mockResp).when(mockActionContext).resp();
+        // destroy() is final and runs on the mock, which skips field initialization
+        Field f = DestroyableBase.class.getDeclaredField("subResources");
+        f.setAccessible(true);
+        f.set(mockActionContext, C.newList());
+    }
+
+    @Test
+    public void suspendShallScheduleTimeoutAndWatchDisconnect() {
+        proxy.suspend(pending, mockActionContext, chain, null);
+        verify(mockJobManager).delay(any(Callable.class), Matchers.eq(60L), Matchers.eq(TimeUnit.SECONDS));
+        yes(null != timeoutTask);
+        yes(null != disconnectCallback);
+        yes(null != pending.listener);
+        eq(0, finished);
+    }
+
+    @Test
+    public void completionShallResumeAndRenderResult() {
+        proxy.suspend(pending, mockActionContext, chain, null);
+        pending.listener.completed("foo");
+        eq("foo", pending.value);
+        eq(1, applied.size());
+        eq(1, finished);
+        verify(timeoutFuture).cancel(false);
+        no(pending.cancelled);
+    }
+
+    @Test
+    public void failureWithResultShallRenderTheResult() {
+        proxy.suspend(pending, mockActionContext, chain, null);
+        Recorded result = new Recorded();
+        pending.listener.failed(result);
+        eq(1, applied.size());
+        same(result, applied.get(0));
+        eq(1, finished);
+    }
+
+    @Test
+    public void timeoutShallCancelPendingAndIgnoreLateCompletion() throws Exception {
+        // the response is closed when the error result has been rendered
+        when(mockResp.isClosed()).thenReturn(true);
+        proxy.suspend(pending, mockActionContext, chain, null);
+        timeoutTask.call();
+        yes(pending.cancelled);
+        eq(1, finished);
+        pending.listener.completed("late");
+        disconnectCallback.run();
+        eq(null, pending.value);
+        eq(0, applied.size());
+        eq(1, finished);
+    }
+
+    @Test
+    public void disconnectShallCancelPendingAndFinishOnce() throws Exception {
+        proxy.suspend(pending, mockActionContext, chain, null);
+        disconnectCallback.run();
+        yes(pending.cancelled);
+        verify(timeoutFuture).cancel(false);
+        eq(1, finished);
+        pending.listener.completed("late");
+        timeoutTask.call();
+        eq(0, applied.size());
+        eq(1, finished);
+    }
+}
@@ -0,0 +1,121 @@
+package act.handler.builtin.controller.impl;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.inject.param.ParamValueLoader;
+import act.util.ActContext;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+public class DirectMethodInvokerGeneratorTest extends ActTestBase {
+
+    public static class Foo {
+        public String greet(String name, int times, long l, boolean flag) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < times; ++i) {
+                sb.append(name);
+            }
+            return sb.append(l).append(flag).toString();
+        }
+
+        public int twice(double d) {
+            return (int) (d * 2);
+        }
+
+        public static void noop() {
+        }
+
+        String hidden() {
+            return "hidden";
+        }
+    }
+
+    private static class Loader extends ClassLoader {
+        Loader() {
+            super(DirectMethodInvokerGeneratorTest.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+
+    private static ParamValueLoader constant(final Object value) {
+        return new ParamValueLoader() {
+            @Override
+            public Object load(Object bean, ActContext<?> context, boolean noDefaultValue) {
+                return value;
+            }
+
+            @Override
+            public String bindName() {
+                return null;
+            }
+        };
+    }
+
+    private static DirectMethodInvoker generate(Method method, ParamValueLoader... loaders) throws Exception {
+        DirectMethodInvokerGenerator generator = new DirectMethodInvokerGenerator(method);
+        Class<?> c = new Loader().define(generator.className(), generator.generateByteCode());
+        DirectMethodInvoker invoker = (DirectMethodInvoker) c.newInstance();
+        invoker.loaders(loaders);
+        return invoker;
+    }
+
+    @Test
+    public void itShallInvokeMethodWithTypedParams() throws Exception {
+        Method method = Foo.class.getMethod("greet", String.class, int.class, long.class, boolean.class);
+        yes(DirectMethodInvokerGenerator.applicable(method, false));
+        DirectMethodInvoker invoker = generate(method, constant("a"), constant(3), constant(7L), constant(true));
+        eq("aaa7true", invoker.invoke(new Foo(), null, false));
+    }
+
+    @Test
+    public void itShallBoxPrimitiveReturnValue() throws Exception {
+        Method method = Foo.class.getMethod("twice", double.class);
+        DirectMethodInvoker invoker = generate(method, constant(2.5D));
+        eq(5, invoker.invoke(new Foo(), null, false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingPrimitiveValueShallBeRejected() throws Exception {
+        Method method = Foo.class.getMethod("greet", String.class, int.class, long.class, boolean.class);
+        DirectMethodInvoker invoker = generate(method, constant("a"), constant(null), constant(7L), constant(true));
+        invoker.invoke(new Foo(), null, false);
+    }
+
+    @Test
+    public void nonPublicMethodShallRequireSamePackageAccess() throws Exception {
+        Method method = Foo.class.getDeclaredMethod("hidden");
+        no(DirectMethodInvokerGenerator.applicable(method, false));
+        yes(DirectMethodInvokerGenerator.applicable(method, true));
+    }
+
+    @Test
+    public void itShallInvokeStaticVoidMethod() throws Exception {
+        Method method = Foo.class.getMethod("noop");
+        DirectMethodInvoker invoker = generate(method);
+        assertNull(invoker.invoke(null, null, false));
+    }
+
+}
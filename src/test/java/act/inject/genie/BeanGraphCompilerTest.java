@@ -0,0 +1,234 @@
+package act.inject.genie;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.inject.Genie;
+import org.osgl.util.C;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verify the beans created by {@link CompiledProvider} have the same graph
+ * as the ones created by Genie reflectively
+ */
+public class BeanGraphCompilerTest extends ActTestBase {
+
+    public static class Leaf {
+    }
+
+    public static class Middle {
+        @Inject
+        Leaf leaf;
+    }
+
+    public static class Root {
+        @Inject
+        Middle middle;
+        @Inject
+        Leaf leaf;
+    }
+
+    @Singleton
+    public static class Shared {
+    }
+
+    public static class SharedUser {
+        @Inject
+        Shared shared;
+    }
+
+    public interface Service {
+    }
+
+    public static class DefaultService implements Service {
+    }
+
+    public static class ServiceUser {
+        @Inject
+        Service service;
+    }
+
+    public interface Unbound {
+    }
+
+    public static class UnboundUser {
+        @Inject
+        Unbound unbound;
+    }
+
+    public static class QualifiedUser {
+        @Inject
+        @Named("foo")
+        Leaf leaf;
+    }
+
+    public static class ProviderUser {
+        @Inject
+        Provider<Leaf> leafProvider;
+    }
+
+    public static class GenericUser {
+        @Inject
+        List<String> list;
+    }
+
+    public static class CycleA {
+        @Inject
+        CycleB b;
+    }
+
+    public static class CycleB {
+        @Inject
+        CycleA a;
+    }
+
+    private Genie genie;
+    private BeanGraphCompiler compiler;
+    private List<String> errors;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        genie = Genie.create();
+        genie.registerProvider(Service.class, new Provider<Service>() {
+            @Override
+            public Service get() {
+                return new DefaultService();
+            }
+        });
+        GenieInjector injector = mock(GenieInjector.class);
+        compiler = new BeanGraphCompiler(injector, genie);
+        // dependencies are compiled recursively the same way GenieInjector does
+        when(injector.compiledProvider(any(Class.class), any(List.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                Object[] args = invocation.getArguments();
+                return compiler.compile((Class) args[0], (List<String>) args[1]);
+            }
+        });
+        errors = C.newList();
+    }
+
+    @Test
+    public void dependentScopedGraphShallBeTheSame() {
+        CompiledProvider<Root> provider = compiler.compile(Root.class, errors);
+        yes(null != provider);
+        verifyDependentGraph(provider.get());
+        verifyDependentGraph(genie.get(Root.class));
+        // every bean is a new instance
+        Root r1 = provider.get();
+        Root r2 = provider.get();
+        no(r1 == r2);
+        no(r1.leaf == r2.leaf);
+        yes(errors.isEmpty());
+    }
+
+    @Test
+    public void singletonDependencyShallBeSharedWithGenie() {
+        eq(null, compiler.compile(Shared.class, errors));
+        CompiledProvider<SharedUser> provider = compiler.compile(SharedUser.class, errors);
+        yes(null != provider);
+        Shared shared = genie.get(Shared.class);
+        same(shared, provider.get().shared);
+        same(shared, provider.get().shared);
+        same(shared, genie.get(SharedUser.class).shared);
+    }
+
+    @Test
+    public void boundDependencyShallComeFromTheBinding() {
+        CompiledProvider<ServiceUser> provider = compiler.compile(ServiceUser.class, errors);
+        yes(null != provider);
+        yes(provider.get().service instanceof DefaultService);
+        yes(genie.get(ServiceUser.class).service instanceof DefaultService);
+    }
+
+    @Test
+    public void missingBindingShallBeReported() {
+        eq(null, compiler.compile(UnboundUser.class, errors));
+        eq(1, errors.size());
+        yes(errors.get(0).contains(Unbound.class.getName()));
+        yes(null != failure(new Runnable() {
+            @Override
+            public void run() {
+                genie.get(UnboundUser.class);
+            }
+        }));
+    }
+
+    @Test
+    public void qualifiedProviderAndGenericDependenciesShallBeLeftToGenie() {
+        eq(null, compiler.compile(QualifiedUser.class, errors));
+        eq(null, compiler.compile(ProviderUser.class, errors));
+        eq(null, compiler.compile(GenericUser.class, errors));
+        yes(errors.isEmpty());
+    }
+
+    @Test
+    public void circularDependencyShallFailTheSameWay() {
+        Throwable compiled = failure(new Runnable() {
+            @Override
+            public void run() {
+                CompiledProvider<CycleA> provider = compiler.compile(CycleA.class, errors);
+                if (null != provider) {
+                    provider.get();
+                }
+            }
+        });
+        Throwable reflective = failure(new Runnable() {
+            @Override
+            public void run() {
+                genie.get(CycleA.class);
+            }
+        });
+        yes(null != reflective);
+        yes(null != compiled);
+        eq(reflective.getClass(), compiled.getClass());
+    }
+
+    private static void verifyDependentGraph(Root root) {
+        yes(null != root.middle);
+        yes(null != root.leaf);
+        yes(null != root.middle.leaf);
+        no(root.leaf == root.middle.leaf);
+    }
+
+    private static Throwable failure(Runnable runnable) {
+        try {
+            runnable.run();
+            return null;
+        } catch (Throwable t) {
+            return t;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DurableJobProcessorTest extends ActTestBase {
+
+    static final AtomicInteger COUNTER = new AtomicInteger();
+
+    static class CountingJob implements Runnable, Serializable {
+        @Override
+        public void run() {
+            COUNTER.incrementAndGet();
+        }
+    }
+
+    private JobStore store;
+    private AppJobManager manager;
+    private List<Runnable> dispatched;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        COUNTER.set(0);
+        store = new JobStore.InMemoryJobStore();
+        dispatched = new ArrayList<>();
+        when(mockApp.config()).thenReturn(mockAppConfig);
+        when(mockAppConfig.jobStore()).thenReturn(store);
+        when(mockAppConfig.jobStoreBatchSize()).thenReturn(10);
+        // claim lease expires immediately
+        when(mockAppConfig.jobLeaseTtl()).thenReturn(0);
+        when(mockAppConfig.jobMisfireThreshold()).thenReturn(60);
+        when(mockAppConfig.jobMisfirePolicy()).thenReturn(MisfirePolicy.FIRE_NOW);
+        manager = mock(AppJobManager.class);
+        when(manager.app()).thenReturn(mockApp);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                dispatched.add((Runnable) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(manager).now(any(Runnable.class));
+    }
+
+    @Test
+    public void inFlightJobShallNotBeDispatchedAgainAfterLeaseExpires() {
+        DurableJobProcessor processor = new DurableJobProcessor(manager, "n1");
+        processor.persist("a", new CountingJob(), 0);
+        processor.run();
+        processor.run();
+        eq(1, dispatched.size());
+        eq(1, processor.inFlight());
+
+        dispatched.get(0).run();
+        eq(1, COUNTER.get());
+        eq(0, processor.inFlight());
+        eq(0, store.size());
+        processor.run();
+        eq(1, dispatched.size());
+    }
+
+    @Test
+    public void cancelledJobShallNotBeDispatched() {
+        DurableJobProcessor processor = new DurableJobProcessor(manager, "n1");
+        processor.persist("a", new CountingJob(), 0);
+        yes(processor.cancel("a"));
+        processor.run();
+        eq(0, dispatched.size());
+    }
+
+    @Test
+    public void storeFailureShallNotKillThePoller() {
+        when(mockAppConfig.jobStore()).thenThrow(new IllegalStateException("store unavailable"));
+        DurableJobProcessor processor = new DurableJobProcessor(manager, "n1");
+        processor.run();
+        eq(0, dispatched.size());
+    }
+}
@@ -0,0 +1,170 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JobGroupExecutorTest extends ActTestBase {
+
+    private JobGroupExecutor executor;
+    private CountDownLatch blocker;
+    private CountDownLatch started;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        blocker = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+    }
+
+    @After
+    public void cleanup() {
+        blocker.countDown();
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void abortShallThrowOutWhenQueueIsFull() throws Exception {
+        executor = saturated(JobGroupExecutor.RejectionPolicy.ABORT);
+        try {
+            executor.execute(new Counter(new AtomicInteger()));
+            fail("RejectedExecutionException expected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        eq(1L, executor.status().getRejected());
+    }
+
+    @Test
+    public void discardShallDropTaskSilently() throws Exception {
+        executor = saturated(JobGroupExecutor.RejectionPolicy.DISCARD);
+        AtomicInteger counter = new AtomicInteger();
+        executor.execute(new Counter(counter));
+        blocker.countDown();
+        drain();
+        eq(0, counter.get());
+        eq(1L, executor.status().getRejected());
+    }
+
+    @Test
+    public void callerRunsShallRunTaskInCallerThread() throws Exception {
+        executor = saturated(JobGroupExecutor.RejectionPolicy.CALLER_RUNS);
+        final Thread caller = Thread.currentThread();
+        final AtomicInteger counter = new AtomicInteger();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (Thread.currentThread() == caller) {
+                    counter.incrementAndGet();
+                }
+            }
+        });
+        eq(1, counter.get());
+    }
+
+    @Test
+    public void discardOldestShallRunNewTaskOnceAndCountOnce() throws Exception {
+        executor = saturated(JobGroupExecutor.RejectionPolicy.DISCARD_OLDEST);
+        AtomicInteger newTask = new AtomicInteger();
+        executor.execute(new Counter(newTask));
+        blocker.countDown();
+        drain();
+        eq(1, newTask.get());
+        // the blocker and the new task, the oldest queued task is dropped
+        eq(2L, executor.status().getCompleted());
+        eq(1L, executor.status().getRejected());
+        eq(0, executor.getQueue().size());
+    }
+
+    @Test
+    public void droppedJobShallScheduleNextInvocation() throws Exception {
+        executor = saturated(JobGroupExecutor.RejectionPolicy.DISCARD);
+        final AtomicInteger scheduled = new AtomicInteger();
+        Job job = new Job("test-job", mockJobManager) {
+            @Override
+            protected void scheduleNextInvocation() {
+                scheduled.incrementAndGet();
+            }
+        };
+        executor.execute(job);
+        eq(1, scheduled.get());
+    }
+
+    @Test
+    public void statusShallReflectQueue() throws Exception {
+        executor = saturated(JobGroupExecutor.RejectionPolicy.ABORT);
+        JobGroupExecutor.Status status = executor.status();
+        eq(1, status.getActiveCount());
+        eq(1, status.getQueueSize());
+        eq(1, status.getQueueCapacity());
+        eq(100, status.getSaturation());
+    }
+
+    /**
+     * Create an executor with one thread and a queue of one slot, and
+     * fill both of them
+     */
+    private JobGroupExecutor saturated(JobGroupExecutor.RejectionPolicy policy) throws Exception {
+        JobGroupExecutor executor = new JobGroupExecutor("test-" + policy.name().toLowerCase(), 1, 1, policy);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        yes(started.await(1, TimeUnit.SECONDS));
+        executor.execute(new Counter(new AtomicInteger()));
+        return executor;
+    }
+
+    private void drain() throws Exception {
+        executor.shutdown();
+        yes(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    private static class Counter implements Runnable {
+        private final AtomicInteger counter;
+
+        Counter(AtomicInteger counter) {
+            this.counter = counter;
+        }
+
+        @Override
+        public void run() {
+            counter.incrementAndGet();
+        }
+    }
+}
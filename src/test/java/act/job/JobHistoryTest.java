@@ -0,0 +1,89 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class JobHistoryTest extends ActTestBase {
+
+    @Test
+    public void itShallKeepMostRecentExecutionsOnly() {
+        JobHistory history = new JobHistory("foo", 3);
+        for (int i = 0; i < 10; ++i) {
+            history.end(history.begin(), i == 9 ? new IllegalStateException() : null);
+        }
+        List<JobHistory.Execution> recent = history.recent();
+        // capacity rounded up to 4
+        eq(4, recent.size());
+        eq(JobHistory.Outcome.FAILURE, recent.get(0).getOutcome());
+        eq(IllegalStateException.class.getName(), recent.get(0).getException());
+        eq(JobHistory.Outcome.SUCCESS, recent.get(1).getOutcome());
+        JobHistory.Summary summary = history.summary();
+        eq(10L, summary.getExecutions());
+        eq(1L, summary.getFailures());
+        eq(0, summary.getRunning());
+    }
+
+    @Test
+    public void itShallDetectOverlappingExecutions() {
+        JobHistory history = new JobHistory("foo", 8);
+        long b1 = history.begin();
+        long b2 = history.begin();
+        history.end(b2, null);
+        history.end(b1, null);
+        eq(1L, history.summary().getOverlaps());
+    }
+
+    @Test
+    public void itShallDetectScheduleDrift() throws Exception {
+        JobHistory history = new JobHistory("foo", 8);
+        history.expectedInterval(1, TimeUnit.SECONDS);
+        history.end(history.begin(), null);
+        history.end(history.begin(), null);
+        JobHistory.Summary summary = history.summary();
+        // second execution started almost immediately, i.e. about 1 second earlier than expected
+        yes(summary.getLastDriftMs() < -900);
+        yes(summary.getMaxDriftMs() > 900);
+        eq(1L, summary.getDrifted());
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        eq(0, JobHistory.Histogram.bucketOf(0));
+        eq(0, JobHistory.Histogram.bucketOf(1));
+        eq(1, JobHistory.Histogram.bucketOf(2));
+        eq(1, JobHistory.Histogram.bucketOf(3));
+        eq(10, JobHistory.Histogram.bucketOf(1024));
+        JobHistory.Histogram histogram = new JobHistory.Histogram();
+        for (int i = 0; i < 99; ++i) {
+            histogram.record(100);
+        }
+        histogram.record(100000);
+        eq(127L, histogram.percentile(50));
+        eq(127L, histogram.percentile(99));
+        eq(100000L, histogram.percentile(100));
+    }
+
+}
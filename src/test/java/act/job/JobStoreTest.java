@@ -0,0 +1,112 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+public class JobStoreTest extends ActTestBase {
+
+    private static final byte[] PAYLOAD = {1, 2, 3};
+
+    private File file;
+
+    @Before
+    public void prepare() throws Exception {
+        file = File.createTempFile("act-job-store", ".log");
+        file.delete();
+    }
+
+    @After
+    public void cleanup() {
+        file.delete();
+    }
+
+    @Test
+    public void itShallClaimDueJobsInBatch() {
+        JobStore store = new JobStore.InMemoryJobStore();
+        store.persist(new JobStore.Entry("a", 100, PAYLOAD));
+        store.persist(new JobStore.Entry("b", 200, PAYLOAD));
+        store.persist(new JobStore.Entry("c", 300, PAYLOAD));
+        store.persist(new JobStore.Entry("d", 400, PAYLOAD));
+        List<JobStore.Entry> due = store.claimDue(350, 2, "n1", 1000);
+        eq(2, due.size());
+        eq("a", due.get(0).id());
+        eq("b", due.get(1).id());
+        due = store.claimDue(350, 10, "n1", 1000);
+        eq(1, due.size());
+        eq("c", due.get(0).id());
+    }
+
+    @Test
+    public void claimedJobShallNotBeClaimedAgainBeforeLeaseExpires() {
+        JobStore store = new JobStore.InMemoryJobStore();
+        store.persist(new JobStore.Entry("a", 100, PAYLOAD));
+        eq(1, store.claimDue(100, 10, "n1", 1000).size());
+        eq(0, store.claimDue(500, 10, "n2", 1000).size());
+        List<JobStore.Entry> due = store.claimDue(1100, 10, "n2", 1000);
+        eq(1, due.size());
+        eq("n2", due.get(0).claimedBy());
+    }
+
+    @Test
+    public void fileJobStoreShallSurviveReopen() {
+        FileJobStore store = new FileJobStore(file);
+        store.open(null);
+        store.persist(new JobStore.Entry("a", 100, PAYLOAD));
+        store.persist(new JobStore.Entry("b", 200, PAYLOAD));
+        store.persist(new JobStore.Entry("c", 300, PAYLOAD));
+        yes(store.remove("b"));
+        store.close();
+
+        store = new FileJobStore(file);
+        store.open(null);
+        eq(2, store.size());
+        List<JobStore.Entry> entries = store.entries();
+        eq("a", entries.get(0).id());
+        eq("c", entries.get(1).id());
+        eq(3, entries.get(1).payload().length);
+        store.close();
+    }
+
+    @Test
+    public void localLockProviderShallGrantLeaseToSingleOwner() {
+        JobLockProvider provider = new JobLockProvider.LocalLockProvider();
+        yes(provider.tryAcquire("leader", "n1", 10000));
+        no(provider.tryAcquire("leader", "n2", 10000));
+        yes(provider.tryAcquire("leader", "n1", 10000));
+        provider.release("leader", "n1");
+        yes(provider.tryAcquire("leader", "n2", 10000));
+    }
+
+    @Test
+    public void skipPolicyShallDiscardLateJobs() {
+        yes(MisfirePolicy.FIRE_NOW.shallFire(1000, 10));
+        no(MisfirePolicy.SKIP.shallFire(1000, 10));
+        yes(MisfirePolicy.SKIP.shallFire(5, 10));
+        eq(MisfirePolicy.SKIP, MisfirePolicy.valueOfIgnoreCase("skip"));
+    }
+}
@@ -0,0 +1,70 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+public class JobTriggerTest extends ActTestBase {
+
+    private AppJobManager manager;
+    private ScheduledExecutorService scheduler;
+    private Job job;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        manager = mock(AppJobManager.class);
+        scheduler = mock(ScheduledExecutorService.class);
+        when(manager.app()).thenReturn(mockApp);
+        when(mockApp.isStarted()).thenReturn(true);
+        when(manager.scheduler()).thenReturn(scheduler);
+        job = new Job("foo", manager);
+    }
+
+    @Test
+    public void fixedDelayJobOnDefaultExecutorShallUseFixedDelaySchedule() {
+        when(manager.dispatcher(job)).thenReturn(job);
+        JobTrigger trigger = JobTrigger.fixedDelay(5);
+        trigger.schedule(manager, job);
+        verify(scheduler).scheduleWithFixedDelay(job, 5, 5, TimeUnit.SECONDS);
+        trigger.scheduleFollowingCalls(manager, job);
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void fixedDelayJobInGroupShallBeRescheduledOnCompletion() {
+        Runnable dispatcher = mock(Runnable.class);
+        when(manager.dispatcher(job)).thenReturn(dispatcher);
+        JobTrigger trigger = JobTrigger.fixedDelay(5);
+        trigger.schedule(manager, job);
+        verify(scheduler).schedule(dispatcher, 5, TimeUnit.SECONDS);
+        verify(scheduler, never()).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+        trigger.scheduleFollowingCalls(manager, job);
+        verify(scheduler, times(2)).schedule(dispatcher, 5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,85 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.app.AppThreadFactory;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+
+/**
+ * Compare schedule/cancel throughput of {@link TimingWheelScheduler}
+ * against {@link ScheduledThreadPoolExecutor}
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 10, concurrency = 8)
+@Ignore
+public class SchedulerBenchmark extends BenchmarkBase {
+
+    private static final int TASKS = 100 * 1000;
+
+    private static final Runnable NOOP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private static ScheduledThreadPoolExecutor executor;
+    private static TimingWheelScheduler wheel;
+
+    @BeforeClass
+    public static void prepare() {
+        executor = new ScheduledThreadPoolExecutor(4, new AppThreadFactory("bench-executor"));
+        executor.setRemoveOnCancelPolicy(true);
+        wheel = new TimingWheelScheduler(10, TimeUnit.MILLISECONDS, 512, 4, Executors.newFixedThreadPool(4), new AppThreadFactory("bench-wheel"));
+    }
+
+    @AfterClass
+    public static void shutdown() {
+        executor.shutdownNow();
+        wheel.shutdownNow();
+    }
+
+    @Test
+    public void executorScheduleAndCancel() {
+        scheduleAndCancel(executor);
+    }
+
+    @Test
+    public void timingWheelScheduleAndCancel() {
+        scheduleAndCancel(wheel);
+    }
+
+    private void scheduleAndCancel(ScheduledExecutorService scheduler) {
+        ScheduledFuture[] futures = new ScheduledFuture[TASKS];
+        for (int i = 0; i < TASKS; ++i) {
+            futures[i] = scheduler.schedule(NOOP, 30 + (i & 1023), TimeUnit.SECONDS);
+        }
+        for (ScheduledFuture future : futures) {
+            future.cancel(false);
+        }
+    }
+
+}
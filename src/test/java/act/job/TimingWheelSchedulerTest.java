@@ -0,0 +1,110 @@
+package act.job;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.app.AppThreadFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelSchedulerTest extends ActTestBase {
+
+    private TimingWheelScheduler scheduler;
+
+    @Before
+    public void prepare() {
+        // use small wheel to exercise cascading between levels
+        scheduler = new TimingWheelScheduler(1, TimeUnit.MILLISECONDS, 8, 4, Executors.newFixedThreadPool(2), new AppThreadFactory("test-wheel"));
+    }
+
+    @After
+    public void cleanup() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void itShallRunTaskAfterDelay() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+        final long start = System.nanoTime();
+        final long[] elapsed = new long[3];
+        for (int i = 0; i < 3; ++i) {
+            final int idx = i;
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    elapsed[idx] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    latch.countDown();
+                }
+            }, 5 + i * 100, TimeUnit.MILLISECONDS);
+        }
+        yes(latch.await(2, TimeUnit.SECONDS));
+        yes(elapsed[0] >= 5);
+        yes(elapsed[1] >= 105);
+        yes(elapsed[2] >= 205);
+        eq(0, scheduler.size());
+    }
+
+    @Test
+    public void itShallReturnCallableResult() throws Exception {
+        ScheduledFuture<String> future = scheduler.schedule(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "foo";
+            }
+        }, 10, TimeUnit.MILLISECONDS);
+        eq("foo", future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancelledTaskShallNotRun() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+        };
+        ScheduledFuture<?> f1 = scheduler.schedule(task, 50, TimeUnit.MILLISECONDS);
+        scheduler.schedule(task, 60, TimeUnit.MILLISECONDS);
+        yes(f1.cancel(false));
+        Thread.sleep(200);
+        eq(1, counter.get());
+        yes(f1.isCancelled());
+        eq(0, scheduler.size());
+    }
+
+    @Test
+    public void periodicalTaskShallRunRepeatedly() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(5);
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 0, 10, TimeUnit.MILLISECONDS);
+        yes(latch.await(1, TimeUnit.SECONDS));
+        future.cancel(false);
+    }
+}
@@ -0,0 +1,74 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.db.AdaptiveRecordTest.Rec;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveRecordCodecTest extends ActTestBase {
+
+    private SerializeConfig config;
+
+    @Before
+    public void prepare() {
+        config = new SerializeConfig();
+        config.put(Rec.class, new AdaptiveRecordCodec());
+    }
+
+    @Test
+    public void itShallWriteShapedSlotsInOrder() {
+        Rec rec = new Rec(false);
+        rec.putValue("a", 1);
+        rec.putValue("b", "x");
+        rec.putValue("c", true);
+        eq("{\"a\":1,\"b\":\"x\",\"c\":true}", JSON.toJSONString(rec, config));
+    }
+
+    @Test
+    public void itShallSkipEmptySlots() {
+        Rec rec = new Rec(false);
+        rec.putValue("a", 1);
+        rec.putValue("b", "x");
+        rec.internalMap().remove("a");
+        eq("{\"b\":\"x\"}", JSON.toJSONString(rec, config));
+        rec.putValue("a", 2);
+        eq("{\"a\":2,\"b\":\"x\"}", JSON.toJSONString(rec, config));
+    }
+
+    @Test
+    public void itShallWriteDictionaryShape() {
+        Rec rec = new Rec(false);
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < 200; ++i) {
+            rec.putValue("codec" + i, i);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("\"codec").append(i).append("\":").append(i);
+        }
+        sb.append('}');
+        eq(sb.toString(), JSON.toJSONString(rec, config));
+    }
+}
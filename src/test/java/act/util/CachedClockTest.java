@@ -0,0 +1,131 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.db.ImmutableTimestampGeneratorBase;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+public class CachedClockTest extends ActTestBase {
+
+    private static class ManualTsGenerator extends ImmutableTimestampGeneratorBase<Long> {
+        long now = 1000;
+
+        @Override
+        public Class<Long> timestampType() {
+            return Long.class;
+        }
+
+        @Override
+        protected Long create(long ms) {
+            return new Long(ms);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    @After
+    public void resetResolution() {
+        CachedClock.resolution(CachedClock.DEFAULT_RESOLUTION);
+    }
+
+    @Test
+    public void cachedTimeShallFollowSystemTime() throws Exception {
+        long t0 = CachedClock.ms();
+        Thread.sleep(20);
+        yes(CachedClock.ms() > t0);
+    }
+
+    @Test
+    public void batchShallShareOneTimestamp() throws Exception {
+        CachedClock.Batch batch = CachedClock.startBatch();
+        try {
+            long t0 = CachedClock.batchMs();
+            Thread.sleep(5);
+            CachedClock.Batch nested = CachedClock.startBatch();
+            eq(t0, CachedClock.batchMs());
+            nested.close();
+            eq(t0, CachedClock.batchMs());
+        } finally {
+            batch.close();
+        }
+        // the batch has been cleared
+        same(CachedClock.Batch.OUTERMOST, CachedClock.startBatch());
+        CachedClock.Batch.OUTERMOST.close();
+    }
+
+    @Test
+    public void tickerShallNotPinContextClassLoaderAndStopOnDemand() throws Exception {
+        CachedClock.stop();
+        ClassLoader appClassLoader = new URLClassLoader(new URL[0]);
+        Thread current = Thread.currentThread();
+        ClassLoader cl = current.getContextClassLoader();
+        current.setContextClassLoader(appClassLoader);
+        try {
+            CachedClock.ms();
+        } finally {
+            current.setContextClassLoader(cl);
+        }
+        Thread ticker = ticker();
+        yes(null != ticker);
+        no(appClassLoader == ticker.getContextClassLoader());
+
+        CachedClock.stop();
+        ticker.join(1000);
+        no(ticker.isAlive());
+        eq(null, ticker());
+
+        // the ticker is started again on demand
+        CachedClock.ms();
+        yes(null != ticker());
+    }
+
+    @Test
+    public void zeroResolutionShallReadSystemTime() {
+        CachedClock.resolution(0);
+        long t0 = System.currentTimeMillis();
+        yes(CachedClock.ms() >= t0);
+    }
+
+    private static Thread ticker() throws Exception {
+        Field field = CachedClock.class.getDeclaredField("ticker");
+        field.setAccessible(true);
+        return (Thread) field.get(null);
+    }
+
+    @Test
+    public void immutableTimestampShallBeReusedWithinTick() {
+        ManualTsGenerator generator = new ManualTsGenerator();
+        Long ts = generator.now();
+        same(ts, generator.now());
+        generator.now++;
+        Long ts1 = generator.now();
+        eq(1001L, ts1);
+    }
+}
@@ -0,0 +1,86 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/**
+ * Compare throughput of the legacy string {@link IdGenerator} with
+ * {@link SnowflakeIdGenerator} at high thread count
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 10, concurrency = 32)
+@Ignore
+public class IdGeneratorBenchmark extends BenchmarkBase {
+
+    private static final int TIMES = 100 * 1000;
+
+    private static final IdGenerator LEGACY = new IdGenerator(new IdGenerator.NodeIdProvider() {
+        @Override
+        public long nodeId() {
+            return 7;
+        }
+    }, new IdGenerator.StartIdProvider.Timestamp(), new IdGenerator.SequenceProvider.AtomicLongSeq(), IdGenerator.SAFE_ENCODER);
+
+    private static final SnowflakeIdGenerator SNOWFLAKE = new SnowflakeIdGenerator(7);
+
+    private static final IdGenerator SNOWFLAKE_STR = new IdGenerator(SNOWFLAKE, IdGenerator.SAFE_ENCODER);
+
+    @Test
+    public void legacyGenId() {
+        for (int i = 0; i < TIMES; ++i) {
+            LEGACY.genId();
+        }
+    }
+
+    @Test
+    public void snowflakeGenId() {
+        for (int i = 0; i < TIMES; ++i) {
+            SNOWFLAKE_STR.genId();
+        }
+    }
+
+    @Test
+    public void snowflakeGenIdIntoBuffer() {
+        char[] buf = new char[65];
+        for (int i = 0; i < TIMES; ++i) {
+            SNOWFLAKE_STR.genId(buf, 0);
+        }
+    }
+
+    @Test
+    public void snowflakeNextLong() {
+        for (int i = 0; i < TIMES; ++i) {
+            SNOWFLAKE.nextLong();
+        }
+    }
+
+    @Test
+    public void snowflakeNextBatch() {
+        long[] batch = new long[100];
+        for (int i = 0; i < TIMES / batch.length; ++i) {
+            SNOWFLAKE.nextBatch(batch);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package act.util;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class SnowflakeIdGeneratorTest extends ActTestBase {
+
+    private static class ManualClock extends SnowflakeIdGenerator {
+        long now = SnowflakeIdGenerator.DEFAULT_EPOCH + 1000;
+
+        ManualClock(int sequenceBits) {
+            super(63 - 10 - sequenceBits, 10, sequenceBits, 5);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+    @Test
+    public void idShallBeComposedOfTimestampNodeAndSequence() {
+        ManualClock gen = new ManualClock(12);
+        long id = gen.nextLong();
+        eq(gen.now, gen.timestampOf(id));
+        eq(5L, gen.nodeIdOf(id));
+        eq(0L, gen.sequenceOf(id));
+        eq(1L, gen.sequenceOf(gen.nextLong()));
+    }
+
+    @Test
+    public void idShallIncreaseWhenClockMovesBackwards() {
+        ManualClock gen = new ManualClock(12);
+        long id1 = gen.nextLong();
+        gen.now -= 500;
+        long id2 = gen.nextLong();
+        yes(id2 > id1);
+    }
+
+    @Test
+    public void itShallBorrowNextMillisecondWhenSequenceExhausted() {
+        ManualClock gen = new ManualClock(2);
+        long[] ids = new long[6];
+        gen.nextBatch(ids);
+        Set<Long> set = new HashSet<>();
+        for (int i = 0; i < ids.length; ++i) {
+            set.add(ids[i]);
+            if (i > 0) {
+                yes(ids[i] > ids[i - 1]);
+            }
+        }
+        eq(6, set.size());
+        eq(gen.now + 1, gen.timestampOf(ids[5]));
+    }
+
+    @Test
+    public void layoutShallBeConfigurable() {
+        SnowflakeIdGenerator gen = SnowflakeIdGenerator.of("40, 8, 15", 0xFF);
+        eq("40,8,15", gen.layout());
+        eq(0xFFL, gen.nodeId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itShallRejectNodeIdNotFitInNodeBits() {
+        SnowflakeIdGenerator.of("41, 10, 12", 0x400);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itShallRejectTimestampBitsTooShortForEpoch() {
+        // 2^32 milliseconds is less than 50 days
+        new SnowflakeIdGenerator(32, 10, 21, 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void itShallFailWhenClockStepsBackTooFar() {
+        ManualClock gen = new ManualClock(12);
+        gen.nextLong();
+        gen.now -= 5000;
+        gen.nextLong();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itShallRejectInvalidLayout() {
+        new SnowflakeIdGenerator(41, 10, 10, 1);
+    }
+
+    @Test
+    public void encodeShallMatchLongToStr() {
+        IdGenerator.LongEncoder.LongEncoderBase encoder = (IdGenerator.LongEncoder.LongEncoderBase) IdGenerator.SAFE_ENCODER;
+        char[] buf = new char[70];
+        int len = encoder.encode(123456789L, buf, 3);
+        eq(encoder.longToStr(123456789L), new String(buf, 3, len));
+    }
+}
@@ -0,0 +1,141 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.Act;
+import act.Act.Mode;
+import act.ActTestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.cache.CacheService;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+public class FragmentCacheTest extends ActTestBase {
+
+    private Map<String, Object> store;
+    private Map<String, Integer> ttls;
+    private FragmentCache fragmentCache;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        store = new HashMap<>();
+        ttls = new HashMap<>();
+        CacheService cacheService = mapBackedCache(store, ttls);
+        when(mockApp.cache(FragmentCache.CACHE_NAME)).thenReturn(cacheService);
+        fragmentCache = new FragmentCache(mockApp);
+    }
+
+    @Test
+    public void fragmentShallBeCachedByNameAndKeys() {
+        fragmentCache.put("list", "page-1", 60, "books", 1);
+        fragmentCache.put("list", "page-2", 60, "books", 2);
+        eq("page-1", fragmentCache.get("list", "books", 1));
+        eq("page-2", fragmentCache.get("list", "books", 2));
+        eq(null, fragmentCache.get("list", "books", 3));
+        eq(null, fragmentCache.get("other", "books", 1));
+    }
+
+    @Test
+    public void ttlExpressionShallBeParsed() {
+        fragmentCache.put("list", "content", "10mn");
+        eq(600, ttls.get(fragmentCache.key("list")));
+        fragmentCache.put("list", "content", (String) null, "x");
+        eq(60 * 60, ttls.get(fragmentCache.key("list", "x")));
+    }
+
+    @Test
+    public void evictShallInvalidateAllKeyedVariants() {
+        fragmentCache.put("list", "page-1", 60, 1);
+        fragmentCache.put("list", "page-2", 60, 2);
+        fragmentCache.put("detail", "detail-1", 60, 1);
+        fragmentCache.evict("list");
+        eq(null, fragmentCache.get("list", 1));
+        eq(null, fragmentCache.get("list", 2));
+        eq("detail-1", fragmentCache.get("detail", 1));
+        fragmentCache.put("list", "page-1-new", 60, 1);
+        eq("page-1-new", fragmentCache.get("list", 1));
+    }
+
+    @Test
+    public void evictShallApplyToOtherNodesAndSurviveRestart() {
+        FragmentCache otherNode = new FragmentCache(mockApp);
+        fragmentCache.put("list", "page-1", 60, 1);
+        eq("page-1", otherNode.get("list", 1));
+        otherNode.evict("list");
+        eq(null, fragmentCache.get("list", 1));
+        eq(null, new FragmentCache(mockApp).get("list", 1));
+    }
+
+    @Test
+    public void nullContentShallNotBeCached() {
+        fragmentCache.put("list", null, 60);
+        yes(store.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blankNameShallBeRejected() {
+        fragmentCache.get(" ");
+    }
+
+    @Test
+    public void fragmentCacheShallBeBypassedInDevMode() throws Exception {
+        Field f = Act.class.getDeclaredField("mode");
+        f.setAccessible(true);
+        Object mode = f.get(null);
+        f.set(null, Mode.DEV);
+        try {
+            fragmentCache.put("list", "content", 60);
+            yes(store.isEmpty());
+            store.put(fragmentCache.key("list"), "content");
+            eq(null, fragmentCache.get("list"));
+        } finally {
+            f.set(null, mode);
+        }
+    }
+
+    static CacheService mapBackedCache(final Map<String, Object> store, final Map<String, Integer> ttls) {
+        CacheService cacheService = mock(CacheService.class);
+        when(cacheService.get(anyString())).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return store.get((String) invocation.getArguments()[0]);
+            }
+        });
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                Object[] args = invocation.getArguments();
+                store.put((String) args[0], args[1]);
+                ttls.put((String) args[0], (Integer) args[2]);
+                return null;
+            }
+        }).when(cacheService).put(anyString(), any(), anyInt());
+        return cacheService;
+    }
+}
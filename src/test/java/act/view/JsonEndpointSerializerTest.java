@@ -0,0 +1,139 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.data.DataPropertyRepository;
+import act.util.PropertySpec;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+public class JsonEndpointSerializerTest extends ActTestBase {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private User user;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        DataPropertyRepository repo = new DataPropertyRepository(mockApp);
+        when(mockApp.service(DataPropertyRepository.class)).thenReturn(repo);
+        user = new User("\u5f20\u4e09", 18, new Address("Sydney", "2000"));
+    }
+
+    @Test
+    public void itShallWriteSameContentAsRenderJsonWithoutSpec() {
+        JsonEndpointSerializer serializer = new JsonEndpointSerializer(null, User.class);
+        String expected = JSON.toJSONString(user, SerializerFeature.WriteDateUseDateFormat);
+        eq(expected, str(serializer.serialize(user, null, mockActionContext)));
+    }
+
+    @Test
+    public void itShallApplyBuiltInSpec() {
+        PropertySpec.MetaInfo spec = spec("name,address.city");
+        JsonEndpointSerializer serializer = new JsonEndpointSerializer(spec, User.class);
+        eq("{\"name\":\"\u5f20\u4e09\",\"address\":{\"city\":\"Sydney\"}}", str(serializer.serialize(user, spec, mockActionContext)));
+        // second call goes through the compiled writer
+        eq("{\"name\":\"\u5f20\u4e09\",\"address\":{\"city\":\"Sydney\"}}", str(serializer.serialize(user, spec, mockActionContext)));
+    }
+
+    @Test
+    public void itShallApplySpecToList() {
+        PropertySpec.MetaInfo spec = spec("age as years");
+        JsonEndpointSerializer serializer = new JsonEndpointSerializer(spec, List.class);
+        List<User> users = C.list(user, new User("Tom", 20, null));
+        eq("[{\"years\":18},{\"years\":20}]", str(serializer.serialize(users, spec, mockActionContext)));
+    }
+
+    @Test
+    public void itShallApplySpecOfCurrentRequest() {
+        JsonEndpointSerializer serializer = new JsonEndpointSerializer(spec("name"), User.class);
+        eq("{\"age\":18}", str(serializer.serialize(user, spec("age"), mockActionContext)));
+    }
+
+    @Test
+    public void itShallNotApplyToExcludedFields() {
+        PropertySpec.MetaInfo spec = spec("-age");
+        JsonEndpointSerializer serializer = new JsonEndpointSerializer(spec, User.class);
+        assertNull(serializer.serialize(user, spec, mockActionContext));
+    }
+
+    private static PropertySpec.MetaInfo spec(String s) {
+        PropertySpec.MetaInfo spec = new PropertySpec.MetaInfo();
+        spec.onValue(s);
+        return spec;
+    }
+
+    private static String str(byte[] bytes) {
+        return new String(bytes, UTF8);
+    }
+
+    public static class User {
+        private String name;
+        private int age;
+        private Address address;
+
+        public User(String name, int age, Address address) {
+            this.name = name;
+            this.age = age;
+            this.address = address;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+    }
+
+    public static class Address {
+        private String city;
+        private String postcode;
+
+        public Address(String city, String postcode) {
+            this.city = city;
+            this.postcode = postcode;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public String getPostcode() {
+            return postcode;
+        }
+    }
+}
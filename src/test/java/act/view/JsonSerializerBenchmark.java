@@ -0,0 +1,102 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.BenchmarkBase;
+import act.cli.view.CliView;
+import act.data.DataPropertyRepository;
+import act.util.PropertySpec;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Compare the generic JSON rendering of {@link org.osgl.mvc.result.RenderJSON}
+ * and {@link FilteredRenderJSON}, including the String to bytes encoding done
+ * by the response, with {@link JsonEndpointSerializer}
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 10)
+@Ignore
+public class JsonSerializerBenchmark extends BenchmarkBase {
+
+    private static final int TIMES = 10 * 1000;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private List<JsonEndpointSerializerTest.User> users;
+    private PropertySpec.MetaInfo spec;
+    private JsonEndpointSerializer plain;
+    private JsonEndpointSerializer filtered;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        DataPropertyRepository repo = new DataPropertyRepository(mockApp);
+        when(mockApp.service(DataPropertyRepository.class)).thenReturn(repo);
+        users = C.newList();
+        for (int i = 0; i < 20; ++i) {
+            users.add(new JsonEndpointSerializerTest.User("user" + i, 20 + i,
+                    new JsonEndpointSerializerTest.Address("city" + i, "200" + i)));
+        }
+        spec = new PropertySpec.MetaInfo();
+        spec.onValue("name,age,address.city");
+        plain = new JsonEndpointSerializer(null, List.class);
+        filtered = new JsonEndpointSerializer(spec, List.class);
+    }
+
+    @Test
+    public void renderJson() {
+        for (int i = 0; i < TIMES; ++i) {
+            JSON.toJSONString(users, SerializerFeature.WriteDateUseDateFormat).getBytes(UTF8);
+        }
+    }
+
+    @Test
+    public void endpointSerializer() {
+        for (int i = 0; i < TIMES; ++i) {
+            plain.serialize(users, null, mockActionContext);
+        }
+    }
+
+    @Test
+    public void filteredRenderJson() {
+        for (int i = 0; i < TIMES; ++i) {
+            CliView.JSON.render(users, spec, mockActionContext).getBytes(UTF8);
+        }
+    }
+
+    @Test
+    public void filteredEndpointSerializer() {
+        for (int i = 0; i < TIMES; ++i) {
+            filtered.serialize(users, spec, mockActionContext);
+        }
+    }
+
+}
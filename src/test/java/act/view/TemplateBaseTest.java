@@ -0,0 +1,45 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+public class TemplateBaseTest extends ActTestBase {
+
+    private static class HelloTemplate extends TemplateBase {
+        @Override
+        protected String render(Map<String, Object> renderArgs) {
+            return "Hello " + renderArgs.get("who");
+        }
+    }
+
+    @Test
+    public void renderToWriterShallFallbackToStringRender() {
+        StringWriter writer = new StringWriter();
+        new HelloTemplate().render(C.<String, Object>map("who", "world"), writer);
+        eq("Hello world", writer.toString());
+    }
+}
@@ -0,0 +1,47 @@
+package act.view;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import org.junit.Test;
+import org.osgl.http.H;
+
+import java.util.Locale;
+
+public class TemplateKeyTest extends ActTestBase {
+
+    @Test
+    public void sameComponentsShallBeEqual() {
+        ViewManager.TemplateKey k1 = new ViewManager.TemplateKey("/foo/bar.html", H.Format.HTML, Locale.US);
+        ViewManager.TemplateKey k2 = new ViewManager.TemplateKey("/foo/bar.html", H.Format.HTML, Locale.US);
+        eq(k1, k2);
+        eq(k1.hashCode(), k2.hashCode());
+    }
+
+    @Test
+    public void differentFormatOrLocaleShallNotBeEqual() {
+        ViewManager.TemplateKey k = new ViewManager.TemplateKey("/foo/bar", H.Format.HTML, Locale.US);
+        no(k.equals(new ViewManager.TemplateKey("/foo/bar", H.Format.JSON, Locale.US)));
+        no(k.equals(new ViewManager.TemplateKey("/foo/bar", H.Format.HTML, Locale.CHINA)));
+        no(k.equals(new ViewManager.TemplateKey("/foo/bar", null, null)));
+    }
+
+}
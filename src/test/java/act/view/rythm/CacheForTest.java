@@ -0,0 +1,80 @@
+package act.view.rythm;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.view.FragmentCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.$;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+public class CacheForTest extends ActTestBase {
+
+    private FragmentCache fragmentCache;
+    private AtomicInteger rendered;
+    private $.Func0<String> body;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        fragmentCache = mock(FragmentCache.class);
+        rendered = new AtomicInteger();
+        body = new $.Func0<String>() {
+            @Override
+            public String apply() {
+                return "body-" + rendered.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void bodyShallBeRenderedAndCachedOnMiss() {
+        String content = Tags.CacheFor.render(fragmentCache, new Object[]{"list", "10mn", "books", 2}, body);
+        eq("body-1", content);
+        verify(fragmentCache).get("list", "books", 2);
+        verify(fragmentCache).put("list", "body-1", "10mn", "books", 2);
+    }
+
+    @Test
+    public void cachedFragmentShallBeReturnedWithoutRendering() {
+        when(fragmentCache.get("list", "books", 2)).thenReturn("cached");
+        String content = Tags.CacheFor.render(fragmentCache, new Object[]{"list", "10mn", "books", 2}, body);
+        eq("cached", content);
+        eq(0, rendered.get());
+        verify(fragmentCache, never()).put(anyString(), anyString(), anyString(), anyVararg());
+    }
+
+    @Test
+    public void tagWithoutKeysShallCacheByNameOnly() {
+        Tags.CacheFor.render(fragmentCache, new Object[]{"header", "1h"}, body);
+        verify(fragmentCache).get("header");
+        verify(fragmentCache).put("header", "body-1", "1h");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nameAndTtlShallBeRequired() {
+        Tags.CacheFor.render(fragmentCache, new Object[]{"header"}, body);
+    }
+}
@@ -0,0 +1,232 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import act.BenchmarkBase;
+import act.xio.WebSocketConnection;
+import com.alibaba.fastjson.JSON;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.util.C;
+import org.osgl.util.Charsets;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+
+/**
+ * Compare fan-out of binary messages against JSON text messages through
+ * {@link WebSocketBroadcaster}, with and without permessage-deflate.
+ *
+ * Each connection writes the websocket frame of every message it receives
+ * into its own output buffer, compressing the payload first when deflate
+ * is on, so the round time covers encoding, framing and compression but
+ * not the socket write. Every round sends `MESSAGES * CONNECTIONS` frames.
+ */
+@BenchmarkOptions(warmupRounds = 2, benchmarkRounds = 10)
+@Ignore
+public class WebSocketBinaryBenchmark extends BenchmarkBase {
+
+    private static final int CONNECTIONS = 1000;
+    private static final int MESSAGES = 100;
+
+    private static final int OP_TEXT = 0x1;
+    private static final int OP_BINARY = 0x2;
+
+    private static List<WebSocketConnection> connections;
+    private static List<WebSocketConnection> deflateConnections;
+    private static WebSocketBroadcaster broadcaster;
+    private static Tick tick;
+
+    @BeforeClass
+    public static void prepare() {
+        connections = C.newList();
+        deflateConnections = C.newList();
+        for (int i = 0; i < CONNECTIONS; ++i) {
+            connections.add(new FramingConnection(false));
+            deflateConnections.add(new FramingConnection(true));
+        }
+        broadcaster = new WebSocketBroadcaster(256);
+        tick = new Tick();
+    }
+
+    @Test
+    public void binaryFanOut() {
+        binaryFanOut(connections);
+    }
+
+    @Test
+    public void jsonFanOut() {
+        jsonFanOut(connections);
+    }
+
+    @Test
+    public void binaryDeflateFanOut() {
+        binaryFanOut(deflateConnections);
+    }
+
+    @Test
+    public void jsonDeflateFanOut() {
+        jsonFanOut(deflateConnections);
+    }
+
+    private void binaryFanOut(List<WebSocketConnection> connections) {
+        for (int i = 0; i < MESSAGES; ++i) {
+            broadcaster.broadcast(new WebSocketBroadcast(tick.encode(i)), connections);
+        }
+    }
+
+    private void jsonFanOut(List<WebSocketConnection> connections) {
+        for (int i = 0; i < MESSAGES; ++i) {
+            tick.seq = i;
+            broadcaster.broadcast(JSON.toJSONString(tick), connections);
+        }
+    }
+
+    public static class Tick {
+        public long seq;
+        public double bid = 1.2345;
+        public double ask = 1.2347;
+        public long volume = 1000000;
+
+        ByteBuffer encode(long seq) {
+            ByteBuffer buf = ByteBuffer.allocate(32);
+            buf.putLong(seq).putDouble(bid).putDouble(ask).putLong(volume);
+            buf.flip();
+            return buf;
+        }
+    }
+
+    /**
+     * Writes server frames (RFC 6455 section 5.2) the way a websocket
+     * channel does, compressing the payload with a raw deflate stream
+     * and sync flush as permessage-deflate (RFC 7692) requires
+     */
+    private static class FramingConnection implements WebSocketConnection {
+
+        private final Deflater deflater;
+        private final ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+        private final byte[] in = new byte[16 * 1024];
+        private final byte[] compressed = new byte[16 * 1024];
+
+        FramingConnection(boolean deflate) {
+            this.deflater = deflate ? new Deflater(Deflater.DEFAULT_COMPRESSION, true) : null;
+        }
+
+        @Override
+        public String sessionId() {
+            return null;
+        }
+
+        @Override
+        public String username() {
+            return null;
+        }
+
+        @Override
+        public synchronized void send(String message) {
+            frame(OP_TEXT, ByteBuffer.wrap(message.getBytes(Charsets.UTF_8)));
+        }
+
+        @Override
+        public synchronized void send(ByteBuffer message) {
+            frame(OP_BINARY, message.duplicate());
+        }
+
+        @Override
+        public synchronized void send(final WebSocketBroadcast message) {
+            message.retain();
+            try {
+                if (message.isBinary()) {
+                    frame(OP_BINARY, message.binary());
+                } else {
+                    ByteBuffer payload = message.payload(new $.Func0<ByteBuffer>() {
+                        @Override
+                        public ByteBuffer apply() {
+                            return ByteBuffer.wrap(message.message().getBytes(Charsets.UTF_8)).asReadOnlyBuffer();
+                        }
+                    });
+                    frame(OP_TEXT, payload.duplicate());
+                }
+            } finally {
+                message.release();
+            }
+        }
+
+        private void frame(int opCode, ByteBuffer payload) {
+            out.clear();
+            int rsv1 = 0;
+            if (null != deflater) {
+                int len = payload.remaining();
+                payload.get(in, 0, len);
+                deflater.setInput(in, 0, len);
+                int n = deflater.deflate(compressed, 0, compressed.length, Deflater.SYNC_FLUSH);
+                // the trailing 0x00 0x00 0xff 0xff of the sync flush is not sent
+                payload = ByteBuffer.wrap(compressed, 0, n - 4);
+                rsv1 = 0x40;
+            }
+            int len = payload.remaining();
+            out.put((byte) (0x80 | rsv1 | opCode));
+            if (len < 126) {
+                out.put((byte) len);
+            } else if (len < 65536) {
+                out.put((byte) 126).putShort((short) len);
+            } else {
+                out.put((byte) 127).putLong(len);
+            }
+            out.put(payload);
+            out.flip();
+        }
+
+        @Override
+        public Executor ioExecutor() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean closed() {
+            return false;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return false;
+        }
+
+        @Override
+        public Class<? extends java.lang.annotation.Annotation> scope() {
+            return null;
+        }
+    }
+}
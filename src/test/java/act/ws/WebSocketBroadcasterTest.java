@@ -0,0 +1,187 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.xio.WebSocketConnection;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.util.C;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WebSocketBroadcasterTest extends ActTestBase {
+
+    private AtomicInteger released = new AtomicInteger();
+    private AtomicInteger batches = new AtomicInteger();
+
+    private Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            batches.incrementAndGet();
+            command.run();
+        }
+    };
+
+    @Test
+    public void duplicateConnectionsShallReceiveMessageOnce() {
+        MockConnection c1 = new MockConnection(null);
+        MockConnection c2 = new MockConnection(null);
+        new WebSocketBroadcaster(10).broadcast("hello", C.<WebSocketConnection>list(c1, c2, c1));
+        eq(1, c1.received.size());
+        eq(1, c2.received.size());
+        eq("hello", c1.received.get(0));
+    }
+
+    @Test
+    public void connectionsShallBeSentInBatchesOnTheirExecutor() {
+        List<WebSocketConnection> connections = C.newList();
+        for (int i = 0; i < 5; ++i) {
+            connections.add(new MockConnection(executor));
+        }
+        new WebSocketBroadcaster(2).broadcast("hello", connections);
+        eq(3, batches.get());
+        for (WebSocketConnection conn : connections) {
+            eq(1, ((MockConnection) conn).received.size());
+        }
+    }
+
+    @Test
+    public void payloadShallBeEncodedOnceAndReleasedAfterAllSent() {
+        final AtomicInteger encoded = new AtomicInteger();
+        List<WebSocketConnection> connections = C.newList();
+        for (int i = 0; i < 3; ++i) {
+            connections.add(new MockConnection(executor) {
+                @Override
+                public void send(final WebSocketBroadcast message) {
+                    message.payload(new $.Func0<String>() {
+                        @Override
+                        public String apply() {
+                            encoded.incrementAndGet();
+                            message.onRelease(new Runnable() {
+                                @Override
+                                public void run() {
+                                    released.incrementAndGet();
+                                }
+                            });
+                            return "encoded";
+                        }
+                    });
+                    super.send(message);
+                }
+            });
+        }
+        new WebSocketBroadcaster(10).broadcast("hello", connections);
+        eq(1, encoded.get());
+        eq(1, released.get());
+    }
+
+    @Test
+    public void binaryBroadcastShallShareBufferWithIndependentViews() {
+        MockConnection c1 = new MockConnection(null);
+        MockConnection c2 = new MockConnection(null);
+        ByteBuffer buf = ByteBuffer.wrap(new byte[]{1, 2, 3});
+        new WebSocketBroadcaster(10).broadcast(new WebSocketBroadcast(buf), C.<WebSocketConnection>list(c1, c2));
+        eq(0, c1.received.size());
+        eq(1, c1.receivedBinary.size());
+        eq(1, c2.receivedBinary.size());
+        ByteBuffer b1 = c1.receivedBinary.get(0);
+        ByteBuffer b2 = c2.receivedBinary.get(0);
+        yes(b1.isReadOnly());
+        b1.get();
+        eq(2, b1.remaining());
+        eq(3, b2.remaining());
+        eq(3, buf.remaining());
+    }
+
+    private class MockConnection implements WebSocketConnection {
+
+        List<String> received = C.newList();
+        List<ByteBuffer> receivedBinary = C.newList();
+        private Executor executor;
+
+        MockConnection(Executor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public String sessionId() {
+            return null;
+        }
+
+        @Override
+        public String username() {
+            return null;
+        }
+
+        @Override
+        public void send(String message) {
+            received.add(message);
+        }
+
+        @Override
+        public void send(ByteBuffer message) {
+            receivedBinary.add(message);
+        }
+
+        @Override
+        public void send(WebSocketBroadcast message) {
+            message.retain();
+            if (message.isBinary()) {
+                receivedBinary.add(message.binary());
+            } else {
+                received.add(message.message());
+            }
+            message.release();
+        }
+
+        @Override
+        public Executor ioExecutor() {
+            return executor;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean closed() {
+            return false;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return false;
+        }
+
+        @Override
+        public Class<? extends java.lang.annotation.Annotation> scope() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.xio.WebSocketConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+
+import static org.mockito.Mockito.*;
+
+public class WebSocketConnectionManagerTest extends ActTestBase {
+
+    private WebSocketConnectionManager manager;
+    private WebSocketConnection connection;
+    private WebSocketContext context;
+
+    public static class Point {
+        int x;
+        int y;
+
+        Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static class PointCodec implements BinaryMessageCodec<Point> {
+        @Override
+        public Class<Point> targetType() {
+            return Point.class;
+        }
+
+        @Override
+        public Point decode(ByteBuffer message) {
+            return new Point(message.getInt(), message.getInt());
+        }
+
+        @Override
+        public ByteBuffer encode(Point object) {
+            ByteBuffer buf = ByteBuffer.allocate(8);
+            buf.putInt(object.x).putInt(object.y);
+            buf.flip();
+            return buf;
+        }
+    }
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        manager = new WebSocketConnectionManager(mockApp);
+        connection = mock(WebSocketConnection.class);
+        context = new WebSocketContext("/ws", connection, manager, mockActionContext, mockApp);
+    }
+
+    @Test
+    public void builtInCodecsShallBeFound() {
+        byte[] bytes = {1, 2, 3};
+        BinaryMessageCodec<byte[]> codec = manager.binaryCodec(byte[].class);
+        yes(null != codec);
+        eq(3, codec.decode(ByteBuffer.wrap(bytes)).length);
+        // heap and direct buffers are sub types of ByteBuffer
+        yes(null != manager.binaryCodec(ByteBuffer.allocate(1).getClass()));
+        yes(null != manager.binaryCodec(ByteBuffer.allocateDirect(1).getClass()));
+    }
+
+    @Test
+    public void unknownTypeShallNotHaveCodec() {
+        eq(null, manager.binaryCodec(String.class));
+        eq(null, manager.binaryCodec(Point.class));
+    }
+
+    @Test
+    public void registeredCodecShallBeFound() {
+        PointCodec codec = new PointCodec();
+        manager.registerBinaryCodec(codec);
+        same(codec, manager.binaryCodec(Point.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encodeBinaryShallRejectTypeWithoutCodec() {
+        manager.encodeBinary(new Point(1, 2));
+    }
+
+    @Test
+    public void sendBinaryToSelfShallSendEncodedMessage() {
+        manager.registerBinaryCodec(new PointCodec());
+        context.sendBinaryToSelf(new Point(3, 4));
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(connection).send(captor.capture());
+        verify(connection, never()).send(anyString());
+        ByteBuffer sent = captor.getValue();
+        eq(8, sent.remaining());
+        eq(3, sent.getInt());
+        eq(4, sent.getInt());
+    }
+
+    @Test
+    public void sendBinaryToSelfShallSendBytes() {
+        byte[] bytes = {7, 8};
+        context.sendBinaryToSelf(bytes);
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(connection).send(captor.capture());
+        ByteBuffer sent = captor.getValue();
+        eq(2, sent.remaining());
+        eq((byte) 7, sent.get());
+        eq((byte) 8, sent.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sendBinaryToSelfShallRejectTypeWithoutCodec() {
+        context.sendBinaryToSelf("text");
+    }
+}
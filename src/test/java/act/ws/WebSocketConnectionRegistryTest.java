@@ -0,0 +1,168 @@
+package act.ws;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.xio.WebSocketConnection;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class WebSocketConnectionRegistryTest extends ActTestBase {
+
+    private WebSocketConnectionIndex index;
+    private WebSocketConnectionRegistry byUrl;
+    private WebSocketConnectionRegistry byTag;
+
+    @Before
+    public void prepare() {
+        index = new WebSocketConnectionIndex();
+        byUrl = new WebSocketConnectionRegistry(index);
+        byTag = new WebSocketConnectionRegistry(index);
+    }
+
+    @Test
+    public void countShallBeMaintainedOnSignInAndSignOff() {
+        MockConnection c1 = new MockConnection();
+        MockConnection c2 = new MockConnection();
+        byTag.signIn("a", c1);
+        byTag.signIn("a", c1);
+        byTag.signIn("a", c2);
+        byTag.signIn("b", c1);
+        eq(3, byTag.count());
+        eq(2, byTag.count("a"));
+        byTag.signOff("a", c1);
+        eq(2, byTag.count());
+        eq(1, byTag.count("a"));
+        byTag.signOff("b", c1);
+        eq(0, byTag.count("b"));
+        eq(1, byTag.keyCount());
+    }
+
+    @Test
+    public void removeShallCleanUpAllRegistries() {
+        MockConnection c1 = new MockConnection();
+        MockConnection c2 = new MockConnection();
+        byUrl.signIn("/ws", c1);
+        byUrl.signIn("/ws", c2);
+        byTag.signIn("a", c1);
+        byTag.signIn("b", c1);
+        eq(2, index.size());
+        index.remove(c1);
+        eq(1, index.size());
+        eq(1, byUrl.count());
+        eq(0, byTag.count());
+        same(c2, byUrl.get("/ws").get(0));
+    }
+
+    @Test
+    public void remainingConnectionsShallSurviveCompaction() {
+        MockConnection[] connections = new MockConnection[100];
+        for (int i = 0; i < connections.length; ++i) {
+            connections[i] = new MockConnection();
+            byTag.signIn("a", connections[i]);
+        }
+        for (int i = 0; i < connections.length; ++i) {
+            if (i % 10 != 0) {
+                byTag.signOff("a", connections[i]);
+            }
+        }
+        List<WebSocketConnection> list = byTag.get("a");
+        eq(10, list.size());
+        for (int i = 0; i < 10; ++i) {
+            same(connections[i * 10], list.get(i));
+        }
+        byTag.signOff("a", connections[50]);
+        eq(9, byTag.count("a"));
+    }
+
+    @Test
+    public void closedConnectionsShallBeClearedOnVisit() {
+        MockConnection c1 = new MockConnection();
+        MockConnection c2 = new MockConnection();
+        byUrl.signIn("/ws", c1);
+        byTag.signIn("a", c1);
+        byTag.signIn("a", c2);
+        c1.closed = true;
+        eq(1, byTag.get("a").size());
+        eq(0, byUrl.count());
+        eq(1, byTag.count());
+    }
+
+    private static class MockConnection implements WebSocketConnection {
+
+        boolean closed;
+
+        @Override
+        public String sessionId() {
+            return null;
+        }
+
+        @Override
+        public String username() {
+            return null;
+        }
+
+        @Override
+        public void send(String message) {
+        }
+
+        @Override
+        public void send(ByteBuffer message) {
+        }
+
+        @Override
+        public void send(WebSocketBroadcast message) {
+        }
+
+        @Override
+        public Executor ioExecutor() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public boolean closed() {
+            return closed;
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public boolean isDestroyed() {
+            return false;
+        }
+
+        @Override
+        public Class<? extends java.lang.annotation.Annotation> scope() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package act.xio;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import act.ws.BinaryMessageCodec;
+import act.ws.WebSocketConnectionManager;
+import act.ws.WebSocketContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+
+public class WebSocketConnectionHandlerTest extends ActTestBase {
+
+    private WebSocketConnectionManager manager;
+    private WebSocketConnection connection;
+    private WebSocketContext context;
+
+    public static class Counter {
+        long value;
+    }
+
+    private static class CounterCodec implements BinaryMessageCodec<Counter> {
+        @Override
+        public Class<Counter> targetType() {
+            return Counter.class;
+        }
+
+        @Override
+        public Counter decode(ByteBuffer message) {
+            Counter counter = new Counter();
+            counter.value = message.getLong();
+            return counter;
+        }
+
+        @Override
+        public ByteBuffer encode(Counter object) {
+            ByteBuffer buf = ByteBuffer.allocate(8);
+            buf.putLong(object.value);
+            buf.flip();
+            return buf;
+        }
+    }
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        manager = new WebSocketConnectionManager(mockApp);
+        manager.registerBinaryCodec(new CounterCodec());
+        connection = mock(WebSocketConnection.class);
+        context = new WebSocketContext("/ws", connection, manager, mockActionContext, mockApp);
+    }
+
+    @Test
+    public void binaryMessageShallBeBoundToParamsWithCodec() {
+        ByteBuffer message = ByteBuffer.allocate(8);
+        message.putLong(42L);
+        message.flip();
+        context.binaryMessageReceived(message);
+        yes(context.isBinary());
+
+        Object provided = new Object();
+        Object[] params = {null, null, provided, null, null};
+        Class[] types = {Counter.class, byte[].class, Object.class, String.class, ByteBuffer.class};
+        WebSocketConnectionHandler.bindBinaryParams(params, types, context, manager);
+
+        eq(42L, ((Counter) params[0]).value);
+        eq(8, ((byte[]) params[1]).length);
+        // params already loaded and params without codec are left untouched
+        same(provided, params[2]);
+        eq(null, params[3]);
+        // each param is decoded from its own view of the message
+        eq(8, ((ByteBuffer) params[4]).remaining());
+        eq(8, context.binaryMessage().remaining());
+    }
+
+    @Test
+    public void textMessageShallClearBinaryMessage() {
+        context.binaryMessageReceived(ByteBuffer.allocate(1));
+        context.messageReceived("hello");
+        no(context.isBinary());
+        eq(null, context.binaryMessage());
+    }
+
+    @Test
+    public void resultWithCodecShallBeSentAsBinary() {
+        Counter counter = new Counter();
+        counter.value = 7L;
+        WebSocketConnectionHandler.sendResult(counter, context, manager);
+        ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+        verify(connection).send(captor.capture());
+        eq(7L, captor.getValue().getLong());
+        verify(connection, never()).send(anyString());
+    }
+
+    @Test
+    public void stringResultShallBeSentAsText() {
+        WebSocketConnectionHandler.sendResult("hi", context, manager);
+        verify(connection).send("hi");
+        verify(connection, never()).send(any(ByteBuffer.class));
+    }
+
+    @Test
+    public void otherResultShallBeSentAsJson() {
+        WebSocketConnectionHandler.sendResult(Collections.singletonMap("x", 1), context, manager);
+        verify(connection).send("{\"x\":1}");
+        verify(connection, never()).send(any(ByteBuffer.class));
+    }
+}
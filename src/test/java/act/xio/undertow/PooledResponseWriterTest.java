@@ -0,0 +1,236 @@
+package act.xio.undertow;
+
+/*-
+ * #%L
+ * ACT Framework
+ * %%
+ * Copyright (C) 2014 - 2017 ActFramework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import act.ActTestBase;
+import io.undertow.connector.ByteBufferPool;
+import io.undertow.connector.PooledByteBuffer;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.BlockingHttpExchange;
+import io.undertow.server.DefaultByteBufferPool;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import io.undertow.util.Headers;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class PooledResponseWriterTest extends ActTestBase {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private PooledResponseWriter writer;
+
+    @Before
+    public void prepare() {
+        // small buffers to make multi-byte characters cross buffer boundaries
+        writer = new PooledResponseWriter(null, new DefaultByteBufferPool(true, 7));
+    }
+
+    @Test
+    public void testAscii() {
+        verifyEncoding("{\"name\":\"act\",\"version\":1}");
+    }
+
+    @Test
+    public void testMultiBytes() {
+        verifyEncoding("h\u00e9llo, \u4e16\u754c! \ud83d\ude00 done");
+    }
+
+    @Test
+    public void testUnpairedSurrogate() {
+        writer.write("a\uD83Db");
+        eq("a?b", new String(content(), UTF8));
+    }
+
+    @Test
+    public void testBytes() {
+        byte[] bytes = "0123456789abcdefghij".getBytes(UTF8);
+        ByteBuffer src = ByteBuffer.wrap(bytes);
+        writer.write(src);
+        eq(0, src.position());
+        writer.write("!");
+        eq("0123456789abcdefghij!", new String(content(), UTF8));
+        eq(21L, writer.length());
+    }
+
+    @Test
+    public void testUtf8Length() {
+        String s = "h\u00e9llo, \u4e16\u754c! \ud83d\ude00 done a\uD83Db";
+        writer.write(s);
+        eq(writer.length(), PooledResponseWriter.utf8Length(s));
+        writer.release();
+        eq(3L, PooledResponseWriter.utf8Length("abc"));
+    }
+
+    @Test
+    public void sendShallSetContentLengthAndReleaseOnCompletion() {
+        SendFixture fixture = new SendFixture();
+        fixture.writer.write("hello pooled writer");
+        IoCallback callback = mock(IoCallback.class);
+        fixture.writer.send(callback);
+
+        eq("19", fixture.exchange.getResponseHeaders().getFirst(Headers.CONTENT_LENGTH));
+        ArgumentCaptor<ByteBuffer[]> buffers = ArgumentCaptor.forClass(ByteBuffer[].class);
+        ArgumentCaptor<IoCallback> sendCallback = ArgumentCaptor.forClass(IoCallback.class);
+        verify(fixture.sender).send(buffers.capture(), sendCallback.capture());
+        eq(3, buffers.getValue().length);
+        eq("hello pooled writer", new String(concat(buffers.getValue()), UTF8));
+        // buffers are held until the write completes
+        fixture.verifyReleased(0);
+
+        sendCallback.getValue().onComplete(fixture.exchange, fixture.sender);
+        fixture.verifyReleased(3);
+        verify(callback).onComplete(fixture.exchange, fixture.sender);
+    }
+
+    @Test
+    public void sendShallReleaseOnException() {
+        SendFixture fixture = new SendFixture();
+        fixture.writer.write("hello");
+        IoCallback callback = mock(IoCallback.class);
+        fixture.writer.send(callback);
+        ArgumentCaptor<IoCallback> sendCallback = ArgumentCaptor.forClass(IoCallback.class);
+        verify(fixture.sender).send(any(ByteBuffer[].class), sendCallback.capture());
+        IOException error = new IOException("broken pipe");
+        sendCallback.getValue().onException(fixture.exchange, fixture.sender, error);
+        fixture.verifyReleased(1);
+        verify(callback).onException(fixture.exchange, fixture.sender, error);
+    }
+
+    @Test
+    public void sendShallReleaseWhenSenderThrows() {
+        SendFixture fixture = new SendFixture();
+        fixture.writer.write("hello");
+        IllegalStateException error = new IllegalStateException();
+        doThrow(error).when(fixture.sender).send(any(ByteBuffer[].class), any(IoCallback.class));
+        IoCallback callback = mock(IoCallback.class);
+        try {
+            fixture.writer.send(callback);
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            same(error, e);
+        }
+        fixture.verifyReleased(1);
+        verifyZeroInteractions(callback);
+    }
+
+    @Test
+    public void sendShallKeepContentLengthSetByCaller() {
+        SendFixture fixture = new SendFixture();
+        fixture.exchange.setResponseContentLength(5);
+        fixture.writer.write("hello");
+        fixture.writer.send(mock(IoCallback.class));
+        eq("5", fixture.exchange.getResponseHeaders().getFirst(Headers.CONTENT_LENGTH));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writerShallSendOnlyOnce() {
+        SendFixture fixture = new SendFixture();
+        fixture.writer.write("hello");
+        fixture.writer.send(mock(IoCallback.class));
+        fixture.writer.send(mock(IoCallback.class));
+    }
+
+    /**
+     * A real exchange whose sender is a mock, with a pool that
+     * tracks the buffers allocated
+     */
+    private static class SendFixture {
+        HttpServerExchange exchange;
+        Sender sender;
+        AtomicInteger released = new AtomicInteger();
+        PooledResponseWriter writer;
+
+        SendFixture() {
+            exchange = new HttpServerExchange(mock(ServerConnection.class));
+            sender = mock(Sender.class);
+            BlockingHttpExchange blockingExchange = mock(BlockingHttpExchange.class);
+            when(blockingExchange.getSender()).thenReturn(sender);
+            exchange.startBlocking(blockingExchange);
+            ByteBufferPool pool = mock(ByteBufferPool.class);
+            when(pool.allocate()).thenAnswer(new Answer<PooledByteBuffer>() {
+                @Override
+                public PooledByteBuffer answer(InvocationOnMock invocation) {
+                    PooledByteBuffer buffer = mock(PooledByteBuffer.class);
+                    when(buffer.getBuffer()).thenReturn(ByteBuffer.allocate(8));
+                    doAnswer(new Answer<Void>() {
+                        @Override
+                        public Void answer(InvocationOnMock invocation) {
+                            released.incrementAndGet();
+                            return null;
+                        }
+                    }).when(buffer).close();
+                    return buffer;
+                }
+            });
+            writer = new PooledResponseWriter(exchange, pool);
+        }
+
+        void verifyReleased(int count) {
+            eq(count, released.get());
+        }
+    }
+
+    private static byte[] concat(ByteBuffer[] buffers) {
+        int len = 0;
+        for (ByteBuffer buffer : buffers) {
+            len += buffer.remaining();
+        }
+        ByteBuffer all = ByteBuffer.allocate(len);
+        for (ByteBuffer buffer : buffers) {
+            all.put(buffer.duplicate());
+        }
+        return all.array();
+    }
+
+    private void verifyEncoding(String s) {
+        writer.write(s);
+        byte[] expected = s.getBytes(UTF8);
+        eq((long) expected.length, writer.length());
+        eq(s, new String(content(), UTF8));
+    }
+
+    private byte[] content() {
+        ByteBuffer[] buffers = writer.buffers();
+        int len = 0;
+        for (ByteBuffer buffer : buffers) {
+            len += buffer.remaining();
+        }
+        ByteBuffer all = ByteBuffer.allocate(len);
+        for (ByteBuffer buffer : buffers) {
+            all.put(buffer);
+        }
+        writer.release();
+        return all.array();
+    }
+}
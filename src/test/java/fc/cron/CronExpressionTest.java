@@ -49,6 +49,7 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -509,4 +510,35 @@ public class CronExpressionTest {
     public void test_without_seconds() throws Exception {
         assertThat(CronExpression.createWithoutSeconds("* * 29 2 *").nextTimeAfter(new DateTime(2012, 3, 1, 00, 00))).isEqualTo(new DateTime(2016, 2, 29, 00, 00));
     }
+
+    @Test
+    public void shall_find_next_match_in_compiled_field() throws Exception {
+        SimpleField field = new SimpleField(CronFieldType.SECOND, "5/20");
+        assertThat(field.nextMatch(0)).isEqualTo(5);
+        assertThat(field.nextMatch(5)).isEqualTo(5);
+        assertThat(field.nextMatch(6)).isEqualTo(25);
+        assertThat(field.nextMatch(46)).isEqualTo(-1);
+    }
+
+    @Test
+    public void shall_calculate_next_times_in_batch() throws Exception {
+        CronExpression cron = new CronExpression("*/15 * * * * *");
+        List<DateTime> times = cron.nextTimesAfter(new DateTime(2012, 4, 10, 13, 0, 50), 3);
+        assertThat(times).isEqualTo(Arrays.asList(
+                new DateTime(2012, 4, 10, 13, 1, 0),
+                new DateTime(2012, 4, 10, 13, 1, 15),
+                new DateTime(2012, 4, 10, 13, 1, 30)));
+    }
+
+    @Test
+    public void shall_calculate_next_times_in_batch_across_DST_change() throws Exception {
+        CronExpression cron = new CronExpression("0 30 * * * *");
+        List<DateTime> times = cron.nextTimesAfter(new DateTime(2011, 10, 30, 0, 0, 0, 0), 4);
+        // 02:30 occurs twice when changing to wintertime
+        assertThat(times.get(0)).isEqualTo(new DateTime(2011, 10, 30, 0, 30, 0, 0));
+        assertThat(times.get(1)).isEqualTo(new DateTime(2011, 10, 30, 1, 30, 0, 0));
+        assertThat(times.get(2).getHourOfDay()).isEqualTo(2);
+        assertThat(times.get(3).getHourOfDay()).isEqualTo(2);
+        assertThat(times.get(3).getMillis() - times.get(2).getMillis()).isEqualTo(3600 * 1000L);
+    }
 }